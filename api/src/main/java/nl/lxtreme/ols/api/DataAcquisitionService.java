@@ -67,4 +67,25 @@ public interface DataAcquisitionService
    *           in case the given device was <code>null</code>.
    */
   void acquireData( Device aDevice ) throws IOException;
+
+  /**
+   * Acquires data from the given device repeatedly, until the acquisition is
+   * cancelled.
+   * <p>
+   * The acquired data is passed on to the listeners in the background, while
+   * the next acquisition is already in progress. In case the listeners cannot
+   * keep up with the acquisitions, the oldest acquired data not yet passed on
+   * is dropped. If the device supports it, its connection is kept open in
+   * between acquisitions, see {@link ContinuousAcquisitionTask}.
+   * </p>
+   * 
+   * @param aDevice
+   *          the device from which data should be acquired, cannot be
+   *          <code>null</code>;
+   * @throws IOException
+   *           in case of I/O problems during the acquisition of data;
+   * @throws IllegalArgumentException
+   *           in case the given device was <code>null</code>.
+   */
+  void acquireDataContinuously( Device aDevice ) throws IOException;
 }
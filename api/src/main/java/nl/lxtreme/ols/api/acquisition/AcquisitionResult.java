@@ -21,13 +21,39 @@
 package nl.lxtreme.ols.api.acquisition;
 
 
+import nl.lxtreme.ols.api.data.*;
+
+
 /**
  * Denotes a concrete result of a single acquisition.
+ * <p>
+ * The sample values and their time stamps can be accessed in two ways: either
+ * as complete arrays, through {@link #getValues()} and {@link #getTimestamps()},
+ * or through the windowed accessors, such as {@link #getValue(long)} and
+ * {@link #readValues(long, int[], int, int)}. The latter use <tt>long</tt>
+ * sample indices and do not require all samples to be present on the heap,
+ * hence should be preferred for consumers that need to handle very large
+ * acquisition results.
+ * </p>
  */
 public interface AcquisitionResult
 {
   // METHODS
 
+  /**
+   * Returns the sample index from the given absolute time value.
+   * <p>
+   * In contrast to {@link #getSampleIndex(long)}, this method can be used for
+   * acquisition results with more than {@link Integer#MAX_VALUE} samples.
+   * </p>
+   * 
+   * @param aTimeValue
+   *          the (absolute) time value to convert to a sample index.
+   * @return the sample number <em>before</em> the selected absolute time, &gt;=
+   *         0 &amp;&amp; &lt; {@link #getSampleCount()}.
+   */
+  public abstract long findSampleIndex( final long aTimeValue );
+
   /**
    * Returns the absolute length of the captured data, or, in other words, the
    * largest available timestamp plus some padding to make the last sample
@@ -44,6 +70,17 @@ public interface AcquisitionResult
    */
   public abstract int getChannels();
 
+  /**
+   * Returns the per-channel index of signal edges for the sample data.
+   * <p>
+   * Implementations are expected to create this index only once and lazily,
+   * as it is only needed for searching edges of individual channels.
+   * </p>
+   * 
+   * @return the edge index, never <code>null</code>.
+   */
+  public abstract EdgeIndex getEdgeIndex();
+
   /**
    * Returns a bitmask of enabled channels in the sample data.
    * 
@@ -52,6 +89,14 @@ public interface AcquisitionResult
    */
   public abstract int getEnabledChannels();
 
+  /**
+   * Returns the number of samples, that is, the number of sample values and
+   * time stamps, in this acquisition result.
+   * 
+   * @return the sample count, &gt;= 0.
+   */
+  public abstract long getSampleCount();
+
   /**
    * Returns the sample index from the given absolute time value.
    * 
@@ -68,6 +113,16 @@ public interface AcquisitionResult
    */
   public abstract int getSampleRate();
 
+  /**
+   * Returns the time stamp of a single sample.
+   * 
+   * @param aIndex
+   *          the index of the sample to return the time stamp for, &gt;= 0
+   *          &amp;&amp; &lt; {@link #getSampleCount()}.
+   * @return the time stamp of the sample.
+   */
+  public abstract long getTimestamp( final long aIndex );
+
   /**
    * Returns the time stamps of the individual samples.
    * <p>
@@ -80,6 +135,13 @@ public interface AcquisitionResult
    * array returned by {@link #getValues()}!
    * </p>
    * 
+   * <p>
+   * NOTE: this method may need to copy all time stamps onto the heap, and
+   * throws an {@link UnsupportedOperationException} if they do not fit in a
+   * single array. Use {@link #readTimestamps(long, long[], int, int)} for
+   * large acquisition results instead.
+   * </p>
+   * 
    * @return the time stamps, as array of long values.
    * @see #getValues()
    */
@@ -92,6 +154,16 @@ public interface AcquisitionResult
    */
   public abstract long getTriggerPosition();
 
+  /**
+   * Returns the value of a single sample.
+   * 
+   * @param aIndex
+   *          the index of the sample to return the value for, &gt;= 0
+   *          &amp;&amp; &lt; {@link #getSampleCount()}.
+   * @return the sample value.
+   */
+  public abstract int getValue( final long aIndex );
+
   /**
    * Returns the actual sample values.
    * <p>
@@ -99,6 +171,13 @@ public interface AcquisitionResult
    * array returned by {@link #getTimestamps()}!
    * </p>
    * 
+   * <p>
+   * NOTE: this method may need to copy all sample values onto the heap, and
+   * throws an {@link UnsupportedOperationException} if they do not fit in a
+   * single array. Use {@link #readValues(long, int[], int, int)} for large
+   * acquisition results instead.
+   * </p>
+   * 
    * @return the sample values, as array of integers.
    * @see #getTimestamps()
    */
@@ -118,4 +197,41 @@ public interface AcquisitionResult
    */
   public abstract boolean hasTriggerData();
 
+  /**
+   * Copies a window of time stamps into the given array.
+   * 
+   * @param aIndex
+   *          the index of the first sample to copy, &gt;= 0;
+   * @param aTimestamps
+   *          the array to copy the time stamps to, cannot be <code>null</code>;
+   * @param aOffset
+   *          the offset in the given array to start copying to, &gt;= 0;
+   * @param aLength
+   *          the number of time stamps to copy, &gt;= 0. The window should lie
+   *          completely inside this acquisition result.
+   * @throws IndexOutOfBoundsException
+   *           in case the window does not fit in either this acquisition result
+   *           or the given array.
+   */
+  public abstract void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset,
+      final int aLength );
+
+  /**
+   * Copies a window of sample values into the given array.
+   * 
+   * @param aIndex
+   *          the index of the first sample to copy, &gt;= 0;
+   * @param aValues
+   *          the array to copy the sample values to, cannot be
+   *          <code>null</code>;
+   * @param aOffset
+   *          the offset in the given array to start copying to, &gt;= 0;
+   * @param aLength
+   *          the number of sample values to copy, &gt;= 0. The window should
+   *          lie completely inside this acquisition result.
+   * @throws IndexOutOfBoundsException
+   *           in case the window does not fit in either this acquisition result
+   *           or the given array.
+   */
+  public abstract void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength );
 }
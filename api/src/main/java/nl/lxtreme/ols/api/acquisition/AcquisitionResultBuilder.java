@@ -0,0 +1,115 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.acquisition;
+
+
+import java.io.*;
+
+
+/**
+ * Provides a builder for {@link AcquisitionResult}s, to which devices can add
+ * their samples one by one, regardless of how the resulting acquisition result
+ * stores them.
+ * <p>
+ * Only the actual transitions are kept, that is, a sample whose value equals
+ * the previously added sample value is silently ignored.
+ * </p>
+ */
+public interface AcquisitionResultBuilder
+{
+  // METHODS
+
+  /**
+   * Adds a sample value at the given timestamp.
+   * <p>
+   * Samples should be added in ascending order of their timestamps. In case
+   * the given sample value equals the last added sample value, it is ignored.
+   * </p>
+   * 
+   * @param aValue
+   *          the sample value to add;
+   * @param aTimestamp
+   *          the timestamp of the sample value, in number of samples since the
+   *          sample start, &gt;= 0.
+   * @return this builder, never <code>null</code>.
+   * @throws IOException
+   *           in case the sample could not be stored.
+   */
+  AcquisitionResultBuilder addSample( int aValue, long aTimestamp ) throws IOException;
+
+  /**
+   * Builds the acquisition result from all added samples. Afterwards, this
+   * builder is reset.
+   * 
+   * @return a new {@link AcquisitionResult} instance, never <code>null</code>.
+   * @throws IOException
+   *           in case the acquisition result could not be created.
+   */
+  AcquisitionResult build() throws IOException;
+
+  /**
+   * Sets the absolute length of the acquisition result, in number of samples
+   * since the sample start.
+   * 
+   * @param aAbsoluteLength
+   *          the absolute length to set, or a negative value to use the
+   *          timestamp of the last added sample.
+   * @return this builder, never <code>null</code>.
+   */
+  AcquisitionResultBuilder setAbsoluteLength( long aAbsoluteLength );
+
+  /**
+   * Sets the number of channels of the acquisition result.
+   * 
+   * @param aChannels
+   *          the number of used channels, 1..32.
+   * @return this builder, never <code>null</code>.
+   */
+  AcquisitionResultBuilder setChannels( int aChannels );
+
+  /**
+   * Sets the bit mask identifying the used channels.
+   * 
+   * @param aEnabledChannels
+   *          the bit mask of enabled channels to set.
+   * @return this builder, never <code>null</code>.
+   */
+  AcquisitionResultBuilder setEnabledChannels( int aEnabledChannels );
+
+  /**
+   * Sets the sample rate of the acquisition result.
+   * 
+   * @param aSampleRate
+   *          the sample rate, in Hz, or {@link nl.lxtreme.ols.api.Ols#NOT_AVAILABLE}.
+   * @return this builder, never <code>null</code>.
+   */
+  AcquisitionResultBuilder setSampleRate( int aSampleRate );
+
+  /**
+   * Sets the trigger position of the acquisition result.
+   * 
+   * @param aTriggerPosition
+   *          the position of the trigger as time value, or
+   *          {@link nl.lxtreme.ols.api.Ols#NOT_AVAILABLE}.
+   * @return this builder, never <code>null</code>.
+   */
+  AcquisitionResultBuilder setTriggerPosition( long aTriggerPosition );
+}
@@ -0,0 +1,152 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a view on an acquisition result in which a window of samples is
+ * replaced by the samples of another acquisition result.
+ * <p>
+ * All samples of the base acquisition result whose timestamps lie within the
+ * time span of the window, that is, from its first up to and including its
+ * last timestamp, are replaced by the samples of the window. None of the
+ * samples are copied; the samples before and after the window are read from
+ * the base acquisition result when needed. This allows decoders to produce a
+ * derived acquisition result by only creating the samples they change.
+ * </p>
+ */
+public final class AcquisitionResultOverlay extends CompositeAcquisitionResult
+{
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link AcquisitionResultOverlay} instance.
+   * 
+   * @param aBase
+   *          the acquisition result to replace a window of, cannot be
+   *          <code>null</code>;
+   * @param aWindow
+   *          the samples to replace the window with, cannot be
+   *          <code>null</code>. Its timestamps should be based on the same
+   *          time base as those of the base acquisition result.
+   */
+  public AcquisitionResultOverlay( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    super( aBase, getAbsoluteLength( aBase, aWindow ), getSources( aBase, aWindow ), getStarts( aBase, aWindow ),
+        getLengths( aBase, aWindow ) );
+  }
+
+  /**
+   * Creates a new {@link AcquisitionResultOverlay} instance with a trigger
+   * position other than the one of the base acquisition result.
+   * 
+   * @param aBase
+   *          the acquisition result to replace a window of, cannot be
+   *          <code>null</code>;
+   * @param aWindow
+   *          the samples to replace the window with, cannot be
+   *          <code>null</code>. Its timestamps should be based on the same
+   *          time base as those of the base acquisition result;
+   * @param aTriggerPosition
+   *          the position of the trigger as time value, or
+   *          {@link Ols#NOT_AVAILABLE} if there is no trigger.
+   */
+  public AcquisitionResultOverlay( final AcquisitionResult aBase, final AcquisitionResult aWindow,
+      final long aTriggerPosition )
+  {
+    super( aBase, aTriggerPosition, getAbsoluteLength( aBase, aWindow ), getSources( aBase, aWindow ), getStarts(
+        aBase, aWindow ), getLengths( aBase, aWindow ) );
+  }
+
+  // METHODS
+
+  /**
+   * Returns the absolute length of the overlay.
+   */
+  private static long getAbsoluteLength( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    return Math.max( aBase.getAbsoluteLength(), aWindow.getAbsoluteLength() );
+  }
+
+  /**
+   * Returns the number of samples of each range of the overlay.
+   */
+  private static long[] getLengths( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    return new long[] { getWindowStart( aBase, aWindow ), aWindow.getSampleCount(),
+        aBase.getSampleCount() - getWindowEnd( aBase, aWindow ) };
+  }
+
+  /**
+   * Returns the acquisition result of each range of the overlay.
+   */
+  private static AcquisitionResult[] getSources( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    return new AcquisitionResult[] { aBase, aWindow, aBase };
+  }
+
+  /**
+   * Returns the index of the first sample of each range of the overlay.
+   */
+  private static long[] getStarts( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    return new long[] { 0L, 0L, getWindowEnd( aBase, aWindow ) };
+  }
+
+  /**
+   * Returns the index of the first sample of the base acquisition result that
+   * lies after the window.
+   */
+  private static long getWindowEnd( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    final long baseCount = aBase.getSampleCount();
+    final long windowCount = aWindow.getSampleCount();
+    if ( ( baseCount == 0L ) || ( windowCount == 0L ) )
+    {
+      return baseCount;
+    }
+
+    final long last = aWindow.getTimestamp( windowCount - 1L );
+    final long idx = aBase.findSampleIndex( last );
+    return ( aBase.getTimestamp( idx ) <= last ) ? idx + 1L : idx;
+  }
+
+  /**
+   * Returns the number of samples of the base acquisition result that lie
+   * before the window.
+   */
+  private static long getWindowStart( final AcquisitionResult aBase, final AcquisitionResult aWindow )
+  {
+    final long baseCount = aBase.getSampleCount();
+    if ( ( baseCount == 0L ) || ( aWindow.getSampleCount() == 0L ) )
+    {
+      return baseCount;
+    }
+
+    final long first = aWindow.getTimestamp( 0L );
+    final long idx = aBase.findSampleIndex( first );
+    return ( aBase.getTimestamp( idx ) < first ) ? idx + 1L : idx;
+  }
+}
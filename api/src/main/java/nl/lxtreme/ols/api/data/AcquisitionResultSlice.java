@@ -0,0 +1,75 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a view on a consecutive range of samples of another acquisition
+ * result.
+ * <p>
+ * The samples are not copied, but read from the underlying acquisition result
+ * when needed. The sample indices of a slice start at zero, while its
+ * timestamps are the same as those of the underlying acquisition result, so
+ * that times and annotations remain comparable between both.
+ * </p>
+ */
+public final class AcquisitionResultSlice extends CompositeAcquisitionResult
+{
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link AcquisitionResultSlice} instance.
+   * 
+   * @param aData
+   *          the acquisition result to take a slice of, cannot be
+   *          <code>null</code>;
+   * @param aStartIndex
+   *          the index of the first sample of the slice, inclusive, &gt;= 0;
+   * @param aEndIndex
+   *          the index of the last sample of the slice, exclusive, &gt;=
+   *          <tt>aStartIndex</tt>.
+   * @throws IndexOutOfBoundsException
+   *           in case the given range is invalid.
+   */
+  public AcquisitionResultSlice( final AcquisitionResult aData, final long aStartIndex, final long aEndIndex )
+  {
+    super( aData, getAbsoluteLength( aData, aStartIndex, aEndIndex ), new AcquisitionResult[] { aData },
+        new long[] { aStartIndex }, new long[] { aEndIndex - aStartIndex } );
+  }
+
+  // METHODS
+
+  /**
+   * Determines the absolute length of the slice, which is the timestamp of its
+   * last sample.
+   */
+  private static long getAbsoluteLength( final AcquisitionResult aData, final long aStartIndex, final long aEndIndex )
+  {
+    if ( ( aStartIndex < 0L ) || ( aEndIndex < aStartIndex ) || ( aEndIndex > aData.getSampleCount() ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid slice: " + aStartIndex + " - " + aEndIndex );
+    }
+    return ( aEndIndex > aStartIndex ) ? aData.getTimestamp( aEndIndex - 1L ) : 0L;
+  }
+}
@@ -21,6 +21,7 @@
 package nl.lxtreme.ols.api.data;
 
 
+import java.lang.ref.*;
 import java.util.*;
 
 import nl.lxtreme.ols.api.*;
@@ -32,7 +33,9 @@ import nl.lxtreme.ols.api.acquisition.*;
  * run.
  * <p>
  * In the java code each transition is represented by an integer together with a
- * timestamp represented by a long value.
+ * timestamp represented by a long value. For dense captures, in which the data
+ * changes on (nearly) every sample, the timestamps are not stored one by one,
+ * but implied by their index.
  * 
  * @author Michael "Mr. Sump" Poppitz
  * @author J.W. Janssen
@@ -45,7 +48,7 @@ public class CapturedData implements AcquisitionResult
   private final int[] values;
 
   /** timestamp values in samples count from start */
-  private final long[] timestamps;
+  private final TimestampColumn timestamps;
 
   /** position of trigger as time value */
   private final long triggerPosition;
@@ -62,6 +65,12 @@ public class CapturedData implements AcquisitionResult
   /** absolute sample length */
   private final long absoluteLength;
 
+  /** per-channel edge index, lazily created */
+  private volatile EdgeIndex edgeIndex;
+
+  /** timestamps as array, lazily created if not stored as array */
+  private volatile SoftReference<long[]> timestampArray;
+
   // CONSTRUCTORS
 
   /**
@@ -87,40 +96,20 @@ public class CapturedData implements AcquisitionResult
     this.enabledChannels = enabledChannels;
 
     // calculate transitions
-    int tmp = values[0];
-    int count = 1; // first value is the initial value at time 0
-    for ( final int value : values )
-    {
-      if ( tmp != value )
-      {
-        count++;
-      }
-      tmp = value;
-    }
+    final TransitionCompactor compactor = new TransitionCompactor( values, null );
+    final int count = compactor.countTransitions();
 
-    this.timestamps = new long[count];
+    // store only transitions
+    final long[] timestamps = new long[count];
     this.values = new int[count];
-    this.timestamps[0] = 0;
-    this.values[0] = values[0];
+    compactor.copyTransitions( this.values, timestamps );
 
-    tmp = values[0];
-    count = 1;
-    for ( int i = 1; i < values.length; i++ )
-    {
-      if ( tmp != values[i] )
-      {
-        // store only transitions
-        this.timestamps[count] = i;
-        this.values[count] = values[i];
-        count++;
-      }
-      tmp = values[i];
-    }
+    this.timestamps = TimestampColumn.create( timestamps, count );
 
-    long absLength = this.timestamps[this.timestamps.length - 1];
+    long absLength = timestamps[count - 1];
     if ( values.length > 1 )
     {
-      absLength -= this.timestamps[0];
+      absLength -= timestamps[0];
     }
 
     this.absoluteLength = absLength;
@@ -168,19 +157,10 @@ public class CapturedData implements AcquisitionResult
     if ( aValues.length > 0 )
     {
       // 1: calculate the number of unique transitions...
-      int count = 1;
+      final TransitionCompactor compactor = new TransitionCompactor( aValues, aTimestamps );
+      int count = compactor.countTransitions();
 
-      int oldValue = aValues[0];
-      long lastTimestamp = aTimestamps[0];
-      for ( int i = 1; i < aValues.length; i++ )
-      {
-        if ( aValues[i] != oldValue )
-        {
-          count++;
-          lastTimestamp = aTimestamps[i];
-        }
-        oldValue = aValues[i];
-      }
+      final long lastTimestamp = aTimestamps[compactor.getLastTransitionIndex()];
 
       // Issue #167: make sure the absolute length is *always* present...
       boolean addExtraSample = ( lastTimestamp != absLength ) || count < 2;
@@ -191,34 +171,23 @@ public class CapturedData implements AcquisitionResult
 
       // 2: copy *only* the unique transitions...
       this.values = new int[count];
-      this.timestamps = new long[count];
+      final long[] timestamps = new long[count];
 
-      this.values[0] = aValues[0];
-      this.timestamps[0] = aTimestamps[0];
-
-      oldValue = aValues[0];
-      for ( int i = 1, j = 1; i < aValues.length; i++ )
-      {
-        if ( aValues[i] != oldValue )
-        {
-          this.values[j] = aValues[i];
-          this.timestamps[j] = aTimestamps[i];
-          j++;
-        }
-        oldValue = aValues[i];
-      }
+      compactor.copyTransitions( this.values, timestamps );
 
       // Issue #167: make sure the absolute length is *always* present...
       if ( addExtraSample )
       {
         this.values[count - 1] = aValues[aValues.length - 1];
-        this.timestamps[count - 1] = absLength;
+        timestamps[count - 1] = absLength;
       }
+
+      this.timestamps = TimestampColumn.create( timestamps, count );
     }
     else
     {
       this.values = new int[0];
-      this.timestamps = new long[0];
+      this.timestamps = TimestampColumn.create( new long[0], 0 );
     }
 
     this.triggerPosition = aTriggerPosition;
@@ -228,6 +197,39 @@ public class CapturedData implements AcquisitionResult
     this.absoluteLength = absLength;
   }
 
+  /**
+   * Constructs CapturedData based on the given, already compacted, sampling
+   * data. The given values and timestamps are used as-is.
+   * 
+   * @param aValues
+   *          32bit transition values
+   * @param aTimestamps
+   *          timstamps of the transitions, in number of samples since sample
+   *          start
+   * @param aTriggerPosition
+   *          position of trigger as time value
+   * @param aRate
+   *          sampling rate (may be set to <code>NOT_AVAILABLE</code>)
+   * @param aChannels
+   *          number of used channels
+   * @param aEnabledChannels
+   *          bit mask identifying used channels
+   * @param aAbsLen
+   *          absolute number of samples
+   * @see CapturedDataBuilder
+   */
+  CapturedData( final int[] aValues, final TimestampColumn aTimestamps, final long aTriggerPosition, final int aRate,
+      final int aChannels, final int aEnabledChannels, final long aAbsLen )
+  {
+    this.values = aValues;
+    this.timestamps = aTimestamps;
+    this.triggerPosition = aTriggerPosition;
+    this.rate = aRate;
+    this.channels = aChannels;
+    this.enabledChannels = aEnabledChannels;
+    this.absoluteLength = aAbsLen;
+  }
+
   /**
    * Constructs CapturedData based on the given compressed sampling data.
    * 
@@ -245,7 +247,10 @@ public class CapturedData implements AcquisitionResult
    *          bit mask identifying used channels
    * @param aAbsoluteLength
    *          absolute number of samples
+   * @deprecated use a {@link CapturedDataBuilder} instead, which avoids boxing
+   *             all sample values and timestamps.
    */
+  @Deprecated
   public CapturedData( final List<Integer> aValues, final List<Long> aTimestamps, final long aTriggerPosition,
       final int aRate, final int aChannels, final int aEnabledChannels, final long aAbsoluteLength )
   {
@@ -294,10 +299,10 @@ public class CapturedData implements AcquisitionResult
 
       // 2: copy *only* the unique transitions...
       this.values = new int[count];
-      this.timestamps = new long[count];
+      final long[] timestamps = new long[count];
 
       this.values[0] = aValues.get( 0 ).intValue();
-      this.timestamps[0] = aTimestamps.get( 0 ).longValue();
+      timestamps[0] = aTimestamps.get( 0 ).longValue();
 
       oldValue = aValues.get( 0 );
       for ( int i = 1, j = 1; i < size; i++ )
@@ -307,7 +312,7 @@ public class CapturedData implements AcquisitionResult
         if ( value.compareTo( oldValue ) != 0 )
         {
           this.values[j] = value.intValue();
-          this.timestamps[j] = timestamp.longValue();
+          timestamps[j] = timestamp.longValue();
           j++;
         }
         oldValue = value;
@@ -317,13 +322,15 @@ public class CapturedData implements AcquisitionResult
       if ( addExtraSample )
       {
         this.values[count - 1] = aValues.get( size - 1 ).intValue();
-        this.timestamps[count - 1] = absLength;
+        timestamps[count - 1] = absLength;
       }
+
+      this.timestamps = TimestampColumn.create( timestamps, count );
     }
     else
     {
       this.values = new int[0];
-      this.timestamps = new long[0];
+      this.timestamps = TimestampColumn.create( new long[0], 0 );
     }
 
     this.triggerPosition = aTriggerPosition;
@@ -398,6 +405,15 @@ public class CapturedData implements AcquisitionResult
     return mid;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#findSampleIndex(long)
+   */
+  @Override
+  public final long findSampleIndex( final long aTimeValue )
+  {
+    return getSampleIndex( aTimeValue );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getAbsoluteLength()
    */
@@ -416,6 +432,28 @@ public class CapturedData implements AcquisitionResult
     return this.channels;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.data.CapturedData#getEdgeIndex()
+   */
+  @Override
+  public final EdgeIndex getEdgeIndex()
+  {
+    EdgeIndex result = this.edgeIndex;
+    if ( result == null )
+    {
+      synchronized ( this )
+      {
+        result = this.edgeIndex;
+        if ( result == null )
+        {
+          result = new EdgeIndex( this );
+          this.edgeIndex = result;
+        }
+      }
+    }
+    return result;
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getEnabledChannels()
    */
@@ -425,13 +463,22 @@ public class CapturedData implements AcquisitionResult
     return this.enabledChannels;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleCount()
+   */
+  @Override
+  public final long getSampleCount()
+  {
+    return this.values.length;
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getSampleIndex(long)
    */
   @Override
   public final int getSampleIndex( final long abs )
   {
-    return binarySearch( this.timestamps, 0, this.timestamps.length, Long.valueOf( abs ) );
+    return this.timestamps.search( abs );
   }
 
   /**
@@ -443,13 +490,31 @@ public class CapturedData implements AcquisitionResult
     return this.rate;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamp(long)
+   */
+  @Override
+  public final long getTimestamp( final long aIndex )
+  {
+    return this.timestamps.get( toArrayIndex( aIndex ) );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getTimestamps()
    */
   @Override
   public final long[] getTimestamps()
   {
-    return this.timestamps;
+    // Tools tend to call this method repeatedly; avoid decoding all timestamps
+    // over and over again, while still allowing them to be reclaimed...
+    final SoftReference<long[]> ref = this.timestampArray;
+    long[] result = ( ref != null ) ? ref.get() : null;
+    if ( result == null )
+    {
+      result = this.timestamps.toArray();
+      this.timestampArray = new SoftReference<long[]>( result );
+    }
+    return result;
   }
 
   /**
@@ -461,6 +526,15 @@ public class CapturedData implements AcquisitionResult
     return this.triggerPosition;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValue(long)
+   */
+  @Override
+  public final int getValue( final long aIndex )
+  {
+    return this.values[toArrayIndex( aIndex )];
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getValues()
    */
@@ -488,4 +562,35 @@ public class CapturedData implements AcquisitionResult
     return ( this.triggerPosition != Ols.NOT_AVAILABLE );
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readTimestamps(long,
+   *      long[], int, int)
+   */
+  @Override
+  public final void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    this.timestamps.read( toArrayIndex( aIndex ), aTimestamps, aOffset, aLength );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readValues(long,
+   *      int[], int, int)
+   */
+  @Override
+  public final void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength )
+  {
+    System.arraycopy( this.values, toArrayIndex( aIndex ), aValues, aOffset, aLength );
+  }
+
+  /**
+   * Converts the given sample index to an index in the internal arrays.
+   */
+  private static int toArrayIndex( final long aIndex )
+  {
+    if ( ( aIndex < 0L ) || ( aIndex > Integer.MAX_VALUE ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid sample index: " + aIndex );
+    }
+    return ( int )aIndex;
+  }
 }
@@ -0,0 +1,309 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a builder for {@link CapturedData}, which collects sample values and
+ * their timestamps directly in growable primitive arrays.
+ * <p>
+ * Only the actual transitions are kept, that is, a sample whose value equals
+ * the previously added sample value is silently ignored. This allows devices
+ * and sample processors to simply add all samples they decode, without having
+ * to care about compaction themselves.
+ * </p>
+ * <p>
+ * After {@link #build()} is called, this builder is reset to its initial state
+ * and can be reused. This class is <b>not</b> thread-safe.
+ * </p>
+ */
+public final class CapturedDataBuilder implements AcquisitionResultBuilder
+{
+  // CONSTANTS
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  // VARIABLES
+
+  private int[] values;
+  private long[] timestamps;
+  private int size;
+  /** the timestamp of the last added sample, even if it was not stored. */
+  private long lastTimestamp;
+
+  private long absoluteLength;
+  private long triggerPosition;
+  private int sampleRate;
+  private int channels;
+  private int enabledChannels;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link CapturedDataBuilder} instance with a default initial
+   * capacity.
+   */
+  public CapturedDataBuilder()
+  {
+    this( DEFAULT_CAPACITY );
+  }
+
+  /**
+   * Creates a new {@link CapturedDataBuilder} instance.
+   *
+   * @param aExpectedSize
+   *          the expected number of transitions, used as initial capacity,
+   *          &gt;= 0. If this value is exact, no copy of the collected data is
+   *          needed when building the captured data.
+   */
+  public CapturedDataBuilder( final int aExpectedSize )
+  {
+    if ( aExpectedSize < 0 )
+    {
+      throw new IllegalArgumentException( "Expected size cannot be negative!" );
+    }
+
+    this.values = new int[aExpectedSize];
+    this.timestamps = new long[aExpectedSize];
+
+    reset();
+  }
+
+  // METHODS
+
+  /**
+   * Adds a sample value at the given timestamp.
+   * <p>
+   * Samples should be added in ascending order of their timestamps. In case
+   * the given sample value equals the last added sample value, it is ignored.
+   * </p>
+   *
+   * @param aValue
+   *          the sample value to add;
+   * @param aTimestamp
+   *          the timestamp of the sample value, in number of samples since the
+   *          sample start, &gt;= 0.
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder addSample( final int aValue, final long aTimestamp )
+  {
+    this.lastTimestamp = aTimestamp;
+
+    final int idx = this.size;
+    if ( ( idx > 0 ) && ( this.values[idx - 1] == aValue ) )
+    {
+      // Not a transition; no need to store it...
+      return this;
+    }
+
+    ensureCapacity( idx + 1 );
+
+    this.values[idx] = aValue;
+    this.timestamps[idx] = aTimestamp;
+    this.size = idx + 1;
+
+    return this;
+  }
+
+  /**
+   * Builds the captured data from all added samples.
+   * <p>
+   * The collected arrays are handed over to the resulting captured data as-is
+   * when they are exactly sized, otherwise they are trimmed. Timestamps of
+   * dense captures, that mostly change on every sample, are not kept at all,
+   * but stored implicitly. Afterwards, this builder is reset.
+   * </p>
+   *
+   * @return a new {@link CapturedData} instance, never <code>null</code>.
+   */
+  @Override
+  public CapturedData build()
+  {
+    long absLength = this.absoluteLength;
+
+    if ( this.size > 0 )
+    {
+      if ( absLength < 0L )
+      {
+        absLength = this.lastTimestamp;
+      }
+      else
+      {
+        absLength = Math.max( absLength, this.lastTimestamp );
+      }
+
+      // Issue #167: make sure the absolute length is *always* present...
+      if ( ( this.timestamps[this.size - 1] != absLength ) || ( this.size < 2 ) )
+      {
+        ensureCapacity( this.size + 1 );
+
+        this.values[this.size] = this.values[this.size - 1];
+        this.timestamps[this.size] = absLength;
+        this.size++;
+      }
+    }
+
+    int[] resultValues = this.values;
+    if ( resultValues.length != this.size )
+    {
+      resultValues = Arrays.copyOf( resultValues, this.size );
+    }
+    // Dense timestamps are stored implicitly, others are trimmed if needed...
+    final TimestampColumn resultTimestamps = TimestampColumn.create( this.timestamps, this.size );
+
+    final CapturedData result = new CapturedData( resultValues, resultTimestamps, this.triggerPosition,
+        this.sampleRate, this.channels, this.enabledChannels, absLength );
+
+    // Make sure we're no longer referring to the handed over arrays...
+    this.values = new int[0];
+    this.timestamps = new long[0];
+    reset();
+
+    return result;
+  }
+
+  /**
+   * Returns the number of transitions collected so far.
+   *
+   * @return a transition count, &gt;= 0.
+   */
+  public int getSize()
+  {
+    return this.size;
+  }
+
+  /**
+   * Sets the absolute length of the captured data, in number of samples since
+   * the sample start.
+   * <p>
+   * By default, the timestamp of the last added sample is used, regardless
+   * whether that sample was a transition or not.
+   * </p>
+   *
+   * @param aAbsoluteLength
+   *          the absolute length to set, or a negative value to use the
+   *          timestamp of the last added sample.
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder setAbsoluteLength( final long aAbsoluteLength )
+  {
+    this.absoluteLength = aAbsoluteLength;
+    return this;
+  }
+
+  /**
+   * Sets the number of channels of the captured data.
+   *
+   * @param aChannels
+   *          the number of used channels, 1..32.
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder setChannels( final int aChannels )
+  {
+    this.channels = aChannels;
+    return this;
+  }
+
+  /**
+   * Sets the bit mask identifying the used channels.
+   *
+   * @param aEnabledChannels
+   *          the bit mask of enabled channels to set.
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder setEnabledChannels( final int aEnabledChannels )
+  {
+    this.enabledChannels = aEnabledChannels;
+    return this;
+  }
+
+  /**
+   * Sets the sample rate of the captured data.
+   *
+   * @param aSampleRate
+   *          the sample rate, in Hz, or {@link Ols#NOT_AVAILABLE} (the
+   *          default).
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder setSampleRate( final int aSampleRate )
+  {
+    this.sampleRate = aSampleRate;
+    return this;
+  }
+
+  /**
+   * Sets the trigger position of the captured data.
+   *
+   * @param aTriggerPosition
+   *          the position of the trigger as time value, or
+   *          {@link Ols#NOT_AVAILABLE} (the default).
+   * @return this builder, never <code>null</code>.
+   */
+  @Override
+  public CapturedDataBuilder setTriggerPosition( final long aTriggerPosition )
+  {
+    this.triggerPosition = aTriggerPosition;
+    return this;
+  }
+
+  /**
+   * Ensures the internal arrays can hold at least the given number of items.
+   *
+   * @param aCapacity
+   *          the minimal capacity needed.
+   */
+  private void ensureCapacity( final int aCapacity )
+  {
+    final int oldCapacity = this.values.length;
+    if ( aCapacity > oldCapacity )
+    {
+      final int newCapacity = Math.max( aCapacity, Math.max( DEFAULT_CAPACITY, oldCapacity + ( oldCapacity >> 1 ) ) );
+
+      this.values = Arrays.copyOf( this.values, newCapacity );
+      this.timestamps = Arrays.copyOf( this.timestamps, newCapacity );
+    }
+  }
+
+  /**
+   * Resets all state of this builder, except for the allocated arrays.
+   */
+  private void reset()
+  {
+    this.size = 0;
+    this.lastTimestamp = 0L;
+    this.absoluteLength = -1L;
+    this.triggerPosition = Ols.NOT_AVAILABLE;
+    this.sampleRate = Ols.NOT_AVAILABLE;
+    this.channels = 0;
+    this.enabledChannels = 0;
+  }
+}
@@ -46,6 +46,14 @@ public interface Channel extends Comparable<Channel>
    */
   void clearAnnotations();
 
+  /**
+   * Returns the index of all data annotations of this channel, which allows
+   * annotations to be looked up by their timestamps.
+   * 
+   * @return the annotation index of this channel, never <code>null</code>.
+   */
+  AnnotationIndex getAnnotationIndex();
+
   /**
    * Returns all available annotations for this channel.
    * 
@@ -0,0 +1,449 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.lang.ref.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides an acquisition result that is composed of consecutive ranges of
+ * samples of other acquisition results, without copying them.
+ * <p>
+ * All information other than the samples themselves, such as the sample rate
+ * and (unless given explicitly) the trigger position, is taken from a single
+ * base acquisition result. The
+ * timestamps of the composed ranges are used as-is, and should be strictly
+ * increasing over all ranges. This class is immutable, and thread-safe as long
+ * as the composed acquisition results are.
+ * </p>
+ */
+abstract class CompositeAcquisitionResult implements AcquisitionResult
+{
+  // CONSTANTS
+
+  /** the largest array that can safely be allocated. */
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+  // VARIABLES
+
+  private final AcquisitionResult base;
+  private final long absoluteLength;
+  private final long triggerPosition;
+  private final boolean triggerData;
+
+  /** the acquisition result of each range. */
+  private final AcquisitionResult[] sources;
+  /** the index of the first sample of each range in its acquisition result. */
+  private final long[] sourceStarts;
+  /** the index of the first sample of each range in this acquisition result. */
+  private final long[] offsets;
+  private final long size;
+
+  /** per-channel edge index, lazily created */
+  private volatile EdgeIndex edgeIndex;
+
+  /** values as array, lazily created */
+  private volatile SoftReference<int[]> valueArray;
+  /** timestamps as array, lazily created */
+  private volatile SoftReference<long[]> timestampArray;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link CompositeAcquisitionResult} instance.
+   * 
+   * @param aBase
+   *          the acquisition result to take all information other than the
+   *          samples from, cannot be <code>null</code>;
+   * @param aAbsoluteLength
+   *          the absolute length of the composed samples;
+   * @param aSources
+   *          the acquisition result of each range, cannot be <code>null</code>;
+   * @param aStarts
+   *          the index of the first sample of each range;
+   * @param aLengths
+   *          the number of samples of each range.
+   */
+  protected CompositeAcquisitionResult( final AcquisitionResult aBase, final long aAbsoluteLength,
+      final AcquisitionResult[] aSources, final long[] aStarts, final long[] aLengths )
+  {
+    this( aBase, aBase.getTriggerPosition(), aBase.hasTriggerData(), aAbsoluteLength, aSources, aStarts, aLengths );
+  }
+
+  /**
+   * Creates a new {@link CompositeAcquisitionResult} instance with an explicit
+   * trigger position.
+   * 
+   * @param aBase
+   *          the acquisition result to take all information other than the
+   *          samples and trigger position from, cannot be <code>null</code>;
+   * @param aTriggerPosition
+   *          the position of the trigger as time value, or
+   *          {@link Ols#NOT_AVAILABLE} if there is no trigger;
+   * @param aAbsoluteLength
+   *          the absolute length of the composed samples;
+   * @param aSources
+   *          the acquisition result of each range, cannot be <code>null</code>;
+   * @param aStarts
+   *          the index of the first sample of each range;
+   * @param aLengths
+   *          the number of samples of each range.
+   */
+  protected CompositeAcquisitionResult( final AcquisitionResult aBase, final long aTriggerPosition,
+      final long aAbsoluteLength, final AcquisitionResult[] aSources, final long[] aStarts, final long[] aLengths )
+  {
+    this( aBase, aTriggerPosition, aTriggerPosition != Ols.NOT_AVAILABLE, aAbsoluteLength, aSources, aStarts,
+        aLengths );
+  }
+
+  /**
+   * Creates a new {@link CompositeAcquisitionResult} instance.
+   */
+  private CompositeAcquisitionResult( final AcquisitionResult aBase, final long aTriggerPosition,
+      final boolean aTriggerData, final long aAbsoluteLength, final AcquisitionResult[] aSources,
+      final long[] aStarts, final long[] aLengths )
+  {
+    this.base = aBase;
+    this.triggerPosition = aTriggerPosition;
+    this.triggerData = aTriggerData;
+    this.absoluteLength = aAbsoluteLength;
+    this.sources = aSources;
+    this.sourceStarts = aStarts;
+    this.offsets = new long[aSources.length];
+
+    long offset = 0L;
+    for ( int i = 0; i < aSources.length; i++ )
+    {
+      final long end = aStarts[i] + aLengths[i];
+      if ( ( aStarts[i] < 0L ) || ( aLengths[i] < 0L ) || ( end > aSources[i].getSampleCount() ) )
+      {
+        throw new IndexOutOfBoundsException( "Invalid range: " + aStarts[i] + ", length " + aLengths[i] );
+      }
+      this.offsets[i] = offset;
+      offset += aLengths[i];
+    }
+    this.size = offset;
+  }
+
+  // METHODS
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#findSampleIndex(long)
+   */
+  @Override
+  public final long findSampleIndex( final long aTimeValue )
+  {
+    // The first range whose last timestamp is at or after the given time value
+    // contains the searched sample...
+    for ( int i = 0; i < this.sources.length; i++ )
+    {
+      final long length = getLength( i );
+      if ( length == 0L )
+      {
+        continue;
+      }
+
+      final long start = this.sourceStarts[i];
+      final long last = start + length - 1L;
+      if ( aTimeValue <= this.sources[i].getTimestamp( last ) )
+      {
+        final long idx = this.sources[i].findSampleIndex( aTimeValue );
+        return this.offsets[i] + ( Math.max( start, Math.min( last, idx ) ) - start );
+      }
+    }
+
+    return Math.max( 0L, this.size - 1L );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getAbsoluteLength()
+   */
+  @Override
+  public final long getAbsoluteLength()
+  {
+    return this.absoluteLength;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getChannels()
+   */
+  @Override
+  public final int getChannels()
+  {
+    return this.base.getChannels();
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEdgeIndex()
+   */
+  @Override
+  public final EdgeIndex getEdgeIndex()
+  {
+    EdgeIndex result = this.edgeIndex;
+    if ( result == null )
+    {
+      synchronized ( this )
+      {
+        result = this.edgeIndex;
+        if ( result == null )
+        {
+          result = new EdgeIndex( this );
+          this.edgeIndex = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEnabledChannels()
+   */
+  @Override
+  public final int getEnabledChannels()
+  {
+    return this.base.getEnabledChannels();
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleCount()
+   */
+  @Override
+  public final long getSampleCount()
+  {
+    return this.size;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleIndex(long)
+   * @throws UnsupportedOperationException
+   *           in case the sample index does not fit in an integer, use
+   *           {@link #findSampleIndex(long)} instead.
+   */
+  @Override
+  public final int getSampleIndex( final long aTimeValue )
+  {
+    final long result = findSampleIndex( aTimeValue );
+    if ( result > Integer.MAX_VALUE )
+    {
+      throw new UnsupportedOperationException( "Sample index too large; use findSampleIndex instead!" );
+    }
+    return ( int )result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleRate()
+   */
+  @Override
+  public final int getSampleRate()
+  {
+    return this.base.getSampleRate();
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamp(long)
+   */
+  @Override
+  public final long getTimestamp( final long aIndex )
+  {
+    final int range = findRange( aIndex );
+    return this.sources[range].getTimestamp( this.sourceStarts[range] + ( aIndex - this.offsets[range] ) );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamps()
+   */
+  @Override
+  public final long[] getTimestamps()
+  {
+    // Tools tend to call this method repeatedly; avoid copying all timestamps
+    // over and over again, while still allowing them to be reclaimed...
+    final SoftReference<long[]> ref = this.timestampArray;
+    long[] result = ( ref != null ) ? ref.get() : null;
+    if ( result == null )
+    {
+      result = new long[getArraySize()];
+      readTimestamps( 0L, result, 0, result.length );
+      this.timestampArray = new SoftReference<long[]>( result );
+    }
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTriggerPosition()
+   */
+  @Override
+  public final long getTriggerPosition()
+  {
+    return this.triggerPosition;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValue(long)
+   */
+  @Override
+  public final int getValue( final long aIndex )
+  {
+    final int range = findRange( aIndex );
+    return this.sources[range].getValue( this.sourceStarts[range] + ( aIndex - this.offsets[range] ) );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValues()
+   */
+  @Override
+  public final int[] getValues()
+  {
+    final SoftReference<int[]> ref = this.valueArray;
+    int[] result = ( ref != null ) ? ref.get() : null;
+    if ( result == null )
+    {
+      result = new int[getArraySize()];
+      readValues( 0L, result, 0, result.length );
+      this.valueArray = new SoftReference<int[]>( result );
+    }
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#hasTimingData()
+   */
+  @Override
+  public final boolean hasTimingData()
+  {
+    return this.base.hasTimingData();
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#hasTriggerData()
+   */
+  @Override
+  public final boolean hasTriggerData()
+  {
+    return this.triggerData;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readTimestamps(long,
+   *      long[], int, int)
+   */
+  @Override
+  public final void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    checkRange( aIndex, aLength );
+
+    long idx = aIndex;
+    int offset = aOffset;
+    int remaining = aLength;
+    while ( remaining > 0 )
+    {
+      final int range = findRange( idx );
+      final long rangeIdx = idx - this.offsets[range];
+      final int count = ( int )Math.min( remaining, getLength( range ) - rangeIdx );
+
+      this.sources[range].readTimestamps( this.sourceStarts[range] + rangeIdx, aTimestamps, offset, count );
+
+      idx += count;
+      offset += count;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readValues(long,
+   *      int[], int, int)
+   */
+  @Override
+  public final void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength )
+  {
+    checkRange( aIndex, aLength );
+
+    long idx = aIndex;
+    int offset = aOffset;
+    int remaining = aLength;
+    while ( remaining > 0 )
+    {
+      final int range = findRange( idx );
+      final long rangeIdx = idx - this.offsets[range];
+      final int count = ( int )Math.min( remaining, getLength( range ) - rangeIdx );
+
+      this.sources[range].readValues( this.sourceStarts[range] + rangeIdx, aValues, offset, count );
+
+      idx += count;
+      offset += count;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * Verifies the given range lies within this acquisition result.
+   */
+  private void checkRange( final long aIndex, final int aLength )
+  {
+    if ( ( aIndex < 0L ) || ( aLength < 0 ) || ( aIndex > ( this.size - aLength ) ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid range: " + aIndex + ", length " + aLength );
+    }
+  }
+
+  /**
+   * Returns the (non-empty) range containing the sample with the given index.
+   */
+  private int findRange( final long aIndex )
+  {
+    if ( ( aIndex >= 0L ) && ( aIndex < this.size ) )
+    {
+      // There are only a few ranges, so a linear search suffices...
+      for ( int i = this.offsets.length - 1; i >= 0; i-- )
+      {
+        if ( ( aIndex >= this.offsets[i] ) && ( getLength( i ) > 0L ) )
+        {
+          return i;
+        }
+      }
+    }
+    throw new IndexOutOfBoundsException( "Invalid sample index: " + aIndex );
+  }
+
+  /**
+   * Returns the size of this acquisition result as array size.
+   */
+  private int getArraySize()
+  {
+    if ( this.size > MAX_ARRAY_SIZE )
+    {
+      throw new UnsupportedOperationException( "Too many samples to fit in an array; use a windowed accessor instead!" );
+    }
+    return ( int )this.size;
+  }
+
+  /**
+   * Returns the number of samples in the given range.
+   */
+  private long getLength( final int aRange )
+  {
+    final long end = ( ( aRange + 1 ) < this.offsets.length ) ? this.offsets[aRange + 1] : this.size;
+    return end - this.offsets[aRange];
+  }
+}
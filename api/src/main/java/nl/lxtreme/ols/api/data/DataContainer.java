@@ -133,6 +133,15 @@ public final class DataContainer implements AcquisitionResult
     this.annotations.remove( Integer.valueOf( aChannelIdx ) );
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#findSampleIndex(long)
+   */
+  @Override
+  public long findSampleIndex( final long aTimeValue )
+  {
+    return hasCapturedData() ? getAcquisitionData().findSampleIndex( aTimeValue ) : Ols.NOT_AVAILABLE;
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getAbsoluteLength()
    */
@@ -332,6 +341,15 @@ public final class DataContainer implements AcquisitionResult
         / ( double )getAcquisitionData().getSampleRate() );
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.data.CapturedData#getEdgeIndex()
+   */
+  @Override
+  public EdgeIndex getEdgeIndex()
+  {
+    return hasCapturedData() ? getAcquisitionData().getEdgeIndex() : new EdgeIndex( new int[0], new long[0] );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getEnabledChannels()
    */
@@ -341,6 +359,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() ? getAcquisitionData().getEnabledChannels() : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleCount()
+   */
+  @Override
+  public long getSampleCount()
+  {
+    return hasCapturedData() ? getAcquisitionData().getSampleCount() : 0L;
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getSampleIndex(long)
    */
@@ -359,6 +386,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() ? getAcquisitionData().getSampleRate() : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamp(long)
+   */
+  @Override
+  public long getTimestamp( final long aIndex )
+  {
+    return getCheckedAcquisitionData().getTimestamp( aIndex );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getTimestamps()
    */
@@ -377,6 +413,15 @@ public final class DataContainer implements AcquisitionResult
     return hasCapturedData() && hasTriggerData() ? getAcquisitionData().getTriggerPosition() : Ols.NOT_AVAILABLE;
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValue(long)
+   */
+  @Override
+  public int getValue( final long aIndex )
+  {
+    return getCheckedAcquisitionData().getValue( aIndex );
+  }
+
   /**
    * @see nl.lxtreme.ols.api.data.CapturedData#getValues()
    */
@@ -458,6 +503,26 @@ public final class DataContainer implements AcquisitionResult
     return ( cursorPositions[aCursorIdx] != null ) && ( cursorPositions[aCursorIdx].isDefined() );
   }
 
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readTimestamps(long,
+   *      long[], int, int)
+   */
+  @Override
+  public void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    getCheckedAcquisitionData().readTimestamps( aIndex, aTimestamps, aOffset, aLength );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readValues(long,
+   *      int[], int, int)
+   */
+  @Override
+  public void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength )
+  {
+    getCheckedAcquisitionData().readValues( aIndex, aValues, aOffset, aLength );
+  }
+
   /**
    * Sets the captured data.
    * 
@@ -580,6 +645,22 @@ public final class DataContainer implements AcquisitionResult
     return getCurrentDataSet().getCapturedData();
   }
 
+  /**
+   * Returns the current acquisition results, failing if there are none.
+   * 
+   * @return the captured data, never <code>null</code>.
+   * @throws IndexOutOfBoundsException
+   *           in case no captured data is available.
+   */
+  private AcquisitionResult getCheckedAcquisitionData()
+  {
+    if ( !hasCapturedData() )
+    {
+      throw new IndexOutOfBoundsException( "No captured data available!" );
+    }
+    return getAcquisitionData();
+  }
+
   /**
    * @return
    */
@@ -0,0 +1,327 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+/**
+ * Provides a timestamp column for sparse captures, which stores the distance
+ * between consecutive timestamps as variable-length integers.
+ * <p>
+ * The timestamps are divided in blocks of a fixed size. For each block, its
+ * first timestamp and the position of its encoded deltas are kept, allowing a
+ * timestamp to be found by a binary search on the blocks, followed by decoding
+ * at most one block. Each delta is stored in as few bytes as possible, using
+ * the lower seven bits of each byte for its value, and the upper bit to denote
+ * that more bytes follow. Deltas up to 127 take a single byte, deltas up to
+ * 16383 two, and so on.
+ * </p>
+ */
+final class DeltaTimestampColumn extends TimestampColumn
+{
+  // CONSTANTS
+
+  /** the number of timestamps per block, as power of two. */
+  static final int BLOCK_SHIFT = 6;
+
+  private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  private static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+  /** the number of bytes needed to store the index of a single block. */
+  private static final int BLOCK_INDEX_SIZE = 12;
+
+  // VARIABLES
+
+  private final int size;
+  /** the first timestamp of each block. */
+  private final long[] blockStarts;
+  /** the position of the first encoded delta of each block. */
+  private final int[] blockOffsets;
+  /** the encoded deltas of all timestamps, except the first of each block. */
+  private final byte[] data;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link DeltaTimestampColumn} instance.
+   * 
+   * @param aTimestamps
+   *          the timestamps to store, cannot be <code>null</code> and should be
+   *          strictly increasing;
+   * @param aSize
+   *          the number of timestamps to store, &gt;= 0.
+   */
+  DeltaTimestampColumn( final long[] aTimestamps, final int aSize )
+  {
+    final int blockCount = ( aSize + BLOCK_MASK ) >>> BLOCK_SHIFT;
+
+    this.size = aSize;
+    this.blockStarts = new long[blockCount];
+    this.blockOffsets = new int[blockCount];
+    this.data = new byte[( int )getEncodedLength( aTimestamps, aSize )];
+
+    int pos = 0;
+    for ( int i = 0; i < aSize; i++ )
+    {
+      if ( ( i & BLOCK_MASK ) == 0 )
+      {
+        final int block = i >>> BLOCK_SHIFT;
+        this.blockStarts[block] = aTimestamps[i];
+        this.blockOffsets[block] = pos;
+      }
+      else
+      {
+        long delta = aTimestamps[i] - aTimestamps[i - 1];
+        while ( delta > 0x7FL )
+        {
+          this.data[pos++] = ( byte )( ( delta & 0x7FL ) | 0x80L );
+          delta >>>= 7;
+        }
+        this.data[pos++] = ( byte )delta;
+      }
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns whether the given timestamps are suitable to be stored as deltas.
+   * 
+   * @param aTimestamps
+   *          the timestamps to test, cannot be <code>null</code>;
+   * @param aSize
+   *          the number of timestamps to test, &gt;= 0.
+   * @return <code>true</code> if the given timestamps are strictly increasing
+   *         and take at most half of the space of their explicit
+   *         representation, <code>false</code> otherwise.
+   */
+  static boolean isSuitable( final long[] aTimestamps, final int aSize )
+  {
+    if ( aSize < BLOCK_SIZE )
+    {
+      return false;
+    }
+
+    final long encodedLength = getEncodedLength( aTimestamps, aSize );
+    if ( ( encodedLength < 0L ) || ( encodedLength > ( Integer.MAX_VALUE - 8 ) ) )
+    {
+      return false;
+    }
+
+    final long blockCount = ( aSize + BLOCK_MASK ) >>> BLOCK_SHIFT;
+    return ( encodedLength + ( blockCount * BLOCK_INDEX_SIZE ) ) <= ( aSize * 4L );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long get( final int aIndex )
+  {
+    if ( ( aIndex < 0 ) || ( aIndex >= this.size ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid index: " + aIndex );
+    }
+
+    final int block = aIndex >>> BLOCK_SHIFT;
+
+    long result = this.blockStarts[block];
+    int pos = this.blockOffsets[block];
+    for ( int i = aIndex & BLOCK_MASK; i > 0; i-- )
+    {
+      int shift = 0;
+      byte b;
+      do
+      {
+        b = this.data[pos++];
+        result += ( b & 0x7FL ) << shift;
+        shift += 7;
+      }
+      while ( b < 0 );
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long getMemoryUsage()
+  {
+    return this.data.length + ( ( long )this.blockStarts.length * BLOCK_INDEX_SIZE );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  void read( final int aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    if ( ( aIndex < 0 ) || ( aLength < 0 ) || ( aIndex > ( this.size - aLength ) ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid range: " + aIndex + ", length " + aLength );
+    }
+    if ( aLength == 0 )
+    {
+      return;
+    }
+
+    final int end = aIndex + aLength;
+
+    int idx = aIndex & ~BLOCK_MASK;
+    long ts = this.blockStarts[idx >>> BLOCK_SHIFT];
+    int pos = this.blockOffsets[idx >>> BLOCK_SHIFT];
+    int out = aOffset;
+    for ( ;; )
+    {
+      if ( idx >= aIndex )
+      {
+        aTimestamps[out++] = ts;
+      }
+      if ( ++idx >= end )
+      {
+        break;
+      }
+
+      if ( ( idx & BLOCK_MASK ) == 0 )
+      {
+        ts = this.blockStarts[idx >>> BLOCK_SHIFT];
+        pos = this.blockOffsets[idx >>> BLOCK_SHIFT];
+      }
+      else
+      {
+        int shift = 0;
+        byte b;
+        do
+        {
+          b = this.data[pos++];
+          ts += ( b & 0x7FL ) << shift;
+          shift += 7;
+        }
+        while ( b < 0 );
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int search( final long aTimestamp )
+  {
+    // Find the last block starting at or before the given timestamp...
+    int low = 0;
+    int high = this.blockStarts.length - 1;
+    while ( low <= high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      if ( this.blockStarts[mid] <= aTimestamp )
+      {
+        low = mid + 1;
+      }
+      else
+      {
+        high = mid - 1;
+      }
+    }
+
+    if ( high < 0 )
+    {
+      // Timestamp lies before the first timestamp...
+      return 0;
+    }
+
+    // Decode the block until we've reached the given timestamp...
+    final int blockEnd = Math.min( ( high + 1 ) << BLOCK_SHIFT, this.size );
+
+    int idx = high << BLOCK_SHIFT;
+    long ts = this.blockStarts[high];
+    int pos = this.blockOffsets[high];
+    while ( ( ts < aTimestamp ) && ( ( idx + 1 ) < blockEnd ) )
+    {
+      int shift = 0;
+      byte b;
+      do
+      {
+        b = this.data[pos++];
+        ts += ( b & 0x7FL ) << shift;
+        shift += 7;
+      }
+      while ( b < 0 );
+      idx++;
+    }
+
+    if ( ts < aTimestamp )
+    {
+      // Timestamp lies after this block...
+      idx++;
+    }
+    return Math.min( idx, this.size - 1 );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long[] toArray()
+  {
+    final long[] result = new long[this.size];
+    read( 0, result, 0, this.size );
+    return result;
+  }
+
+  /**
+   * Determines the number of bytes needed to encode the given timestamps.
+   * 
+   * @return a number of bytes, or -1 if the given timestamps are not strictly
+   *         increasing.
+   */
+  private static long getEncodedLength( final long[] aTimestamps, final int aSize )
+  {
+    long result = 0L;
+    for ( int i = 1; i < aSize; i++ )
+    {
+      long delta = aTimestamps[i] - aTimestamps[i - 1];
+      if ( delta <= 0L )
+      {
+        return -1L;
+      }
+      if ( ( i & BLOCK_MASK ) != 0 )
+      {
+        do
+        {
+          result++;
+          delta >>>= 7;
+        }
+        while ( delta != 0L );
+      }
+    }
+    return result;
+  }
+}
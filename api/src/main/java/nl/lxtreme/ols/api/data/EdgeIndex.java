@@ -0,0 +1,313 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a per-channel index of signal edges for captured data.
+ * <p>
+ * The captured data only stores the transitions of <em>all</em> channels
+ * together, meaning that finding the next edge of a single channel requires
+ * all intermediary values to be examined. This index keeps, for each channel,
+ * the timestamps at which that particular channel changes its level, allowing
+ * edges to be looked up with a binary search.
+ * </p>
+ * <p>
+ * The edges of a channel are determined lazily, upon first use, and are kept
+ * for the lifetime of this index. The sample data itself is read in windows,
+ * so it does not need to be present on the heap. This class is thread-safe.
+ * </p>
+ */
+public final class EdgeIndex
+{
+  // CONSTANTS
+
+  /** the number of samples read at once while determining edges. */
+  private static final int WINDOW_SIZE = 8192;
+
+  // VARIABLES
+
+  private final AcquisitionResult data;
+  /** the edge-timestamps per channel, lazily filled. */
+  private final long[][] edges;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link EdgeIndex} instance.
+   *
+   * @param aValues
+   *          the sample values to index, cannot be <code>null</code>;
+   * @param aTimestamps
+   *          the timestamps of the sample values, cannot be <code>null</code>.
+   */
+  public EdgeIndex( final int[] aValues, final long[] aTimestamps )
+  {
+    this( wrap( aValues, aTimestamps ) );
+  }
+
+  /**
+   * Creates a new {@link EdgeIndex} instance.
+   *
+   * @param aData
+   *          the acquisition result to index, cannot be <code>null</code>.
+   */
+  public EdgeIndex( final AcquisitionResult aData )
+  {
+    if ( aData == null )
+    {
+      throw new IllegalArgumentException( "Data cannot be null!" );
+    }
+
+    this.data = aData;
+    this.edges = new long[Ols.MAX_CHANNELS][];
+  }
+
+  // METHODS
+
+  /**
+   * Returns the first edge of the given channel that occurs <em>after</em> the
+   * given timestamp.
+   *
+   * @param aChannelIdx
+   *          the index of the channel to search the edge for, &gt;= 0 &amp;&amp;
+   *          &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS};
+   * @param aTimestamp
+   *          the timestamp to search from.
+   * @return the timestamp of the found edge, or -1L if no such edge exists.
+   */
+  public long findEdgeAfter( final int aChannelIdx, final long aTimestamp )
+  {
+    final long[] channelEdges = getEdges( aChannelIdx );
+
+    final int idx = countEdges( channelEdges, aTimestamp );
+    if ( idx >= channelEdges.length )
+    {
+      return -1L;
+    }
+    return channelEdges[idx];
+  }
+
+  /**
+   * Returns the last edge of the given channel that occurs <em>before</em> the
+   * given timestamp.
+   *
+   * @param aChannelIdx
+   *          the index of the channel to search the edge for, &gt;= 0 &amp;&amp;
+   *          &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS};
+   * @param aTimestamp
+   *          the timestamp to search from.
+   * @return the timestamp of the found edge, or -1L if no such edge exists.
+   */
+  public long findEdgeBefore( final int aChannelIdx, final long aTimestamp )
+  {
+    final long[] channelEdges = getEdges( aChannelIdx );
+
+    final int idx = countEdges( channelEdges, aTimestamp - 1L ) - 1;
+    if ( idx < 0 )
+    {
+      return -1L;
+    }
+    return channelEdges[idx];
+  }
+
+  /**
+   * Returns the number of edges of the given channel that occur at or before
+   * the given timestamp.
+   * <p>
+   * The returned value can directly be used as index in the array returned by
+   * {@link #getEdges(int)} to obtain the first edge after the given timestamp.
+   * </p>
+   *
+   * @param aChannelIdx
+   *          the index of the channel to count the edges for, &gt;= 0 &amp;&amp;
+   *          &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS};
+   * @param aTimestamp
+   *          the timestamp up to which edges should be counted.
+   * @return the number of edges, &gt;= 0.
+   */
+  public int getEdgeCount( final int aChannelIdx, final long aTimestamp )
+  {
+    return countEdges( getEdges( aChannelIdx ), aTimestamp );
+  }
+
+  /**
+   * Returns all edges of the given channel.
+   * <p>
+   * The returned array contains the timestamps at which the given channel
+   * changes its level, in ascending order. The initial level of the channel
+   * (at the first sample) is <em>not</em> considered to be an edge. Note that
+   * the returned array is shared and should <b>not</b> be modified!
+   * </p>
+   *
+   * @param aChannelIdx
+   *          the index of the channel to return the edges for, &gt;= 0
+   *          &amp;&amp; &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS}.
+   * @return the edge timestamps, never <code>null</code>.
+   */
+  public long[] getEdges( final int aChannelIdx )
+  {
+    if ( ( aChannelIdx < 0 ) || ( aChannelIdx >= Ols.MAX_CHANNELS ) )
+    {
+      throw new IllegalArgumentException( "Invalid channel index: " + aChannelIdx + "! Should be between 0 and "
+          + Ols.MAX_CHANNELS );
+    }
+
+    synchronized ( this.edges )
+    {
+      long[] result = this.edges[aChannelIdx];
+      if ( result == null )
+      {
+        result = buildEdges( 1 << aChannelIdx );
+        this.edges[aChannelIdx] = result;
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Returns the level of the given channel at the first sample.
+   *
+   * @param aChannelIdx
+   *          the index of the channel to return the initial level for, &gt;= 0
+   *          &amp;&amp; &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS}.
+   * @return 1 if the channel starts high, 0 if it starts low (or no data is
+   *         present).
+   */
+  public int getInitialLevel( final int aChannelIdx )
+  {
+    if ( this.data.getSampleCount() == 0L )
+    {
+      return 0;
+    }
+    return ( this.data.getValue( 0L ) >>> aChannelIdx ) & 1;
+  }
+
+  /**
+   * Returns the level of the given channel at the given timestamp.
+   *
+   * @param aChannelIdx
+   *          the index of the channel to return the level for, &gt;= 0
+   *          &amp;&amp; &lt; {@value nl.lxtreme.ols.api.Ols#MAX_CHANNELS};
+   * @param aTimestamp
+   *          the timestamp to return the level for.
+   * @return 1 if the channel is high, 0 if it is low at the given timestamp.
+   */
+  public int getLevel( final int aChannelIdx, final long aTimestamp )
+  {
+    return getInitialLevel( aChannelIdx ) ^ ( getEdgeCount( aChannelIdx, aTimestamp ) & 1 );
+  }
+
+  /**
+   * Counts the number of edges in the given array that are less than or equal
+   * to the given timestamp.
+   *
+   * @param aEdges
+   *          the (sorted) edges to search;
+   * @param aTimestamp
+   *          the timestamp to search for.
+   * @return the number of edges at or before the given timestamp.
+   */
+  private int countEdges( final long[] aEdges, final long aTimestamp )
+  {
+    int idx = Arrays.binarySearch( aEdges, aTimestamp );
+    if ( idx < 0 )
+    {
+      // Not found; the insertion point equals the number of smaller edges...
+      return -( idx + 1 );
+    }
+    // Edges are unique, so the found edge is the last one <= timestamp...
+    return idx + 1;
+  }
+
+  /**
+   * Determines the edges for the channel denoted by the given mask.
+   *
+   * @param aMask
+   *          the mask of the channel to determine the edges for.
+   * @return the edges of the channel, never <code>null</code>.
+   */
+  private long[] buildEdges( final int aMask )
+  {
+    final long size = this.data.getSampleCount();
+    if ( size < 2L )
+    {
+      return new long[0];
+    }
+
+    final int[] values = new int[( int )Math.min( WINDOW_SIZE, size )];
+    final long[] timestamps = new long[values.length];
+
+    long[] result = new long[16];
+    int count = 0;
+
+    int oldValue = this.data.getValue( 0L ) & aMask;
+    for ( long windowStart = 0L; windowStart < size; windowStart += values.length )
+    {
+      final int length = ( int )Math.min( values.length, size - windowStart );
+      this.data.readValues( windowStart, values, 0, length );
+
+      boolean timestampsRead = false;
+      for ( int i = 0; i < length; i++ )
+      {
+        final int value = values[i] & aMask;
+        if ( value != oldValue )
+        {
+          // Only read the timestamps of windows that actually contain edges...
+          if ( !timestampsRead )
+          {
+            this.data.readTimestamps( windowStart, timestamps, 0, length );
+            timestampsRead = true;
+          }
+          if ( count == result.length )
+          {
+            result = Arrays.copyOf( result, count + ( count >> 1 ) );
+          }
+          result[count++] = timestamps[i];
+        }
+        oldValue = value;
+      }
+    }
+
+    return ( count == result.length ) ? result : Arrays.copyOf( result, count );
+  }
+
+  /**
+   * Wraps the given arrays as acquisition result.
+   */
+  private static AcquisitionResult wrap( final int[] aValues, final long[] aTimestamps )
+  {
+    if ( aValues.length != aTimestamps.length )
+    {
+      throw new IllegalArgumentException( "Values and timestamps size mismatch!" );
+    }
+
+    final long absLength = ( aTimestamps.length > 0 ) ? aTimestamps[aTimestamps.length - 1] : 0L;
+    return new CapturedData( aValues, new ExplicitTimestampColumn( aTimestamps, aTimestamps.length ),
+        Ols.NOT_AVAILABLE, Ols.NOT_AVAILABLE, Ols.MAX_CHANNELS, 0, absLength );
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+
+/**
+ * Provides a timestamp column that stores each timestamp explicitly in an
+ * array of longs.
+ */
+final class ExplicitTimestampColumn extends TimestampColumn
+{
+  // VARIABLES
+
+  private final long[] timestamps;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link ExplicitTimestampColumn} instance.
+   * 
+   * @param aTimestamps
+   *          the timestamps to store, cannot be <code>null</code>;
+   * @param aSize
+   *          the number of timestamps to store. If less than the length of the
+   *          given array, the timestamps are copied.
+   */
+  ExplicitTimestampColumn( final long[] aTimestamps, final int aSize )
+  {
+    if ( aTimestamps.length != aSize )
+    {
+      this.timestamps = Arrays.copyOf( aTimestamps, aSize );
+    }
+    else
+    {
+      this.timestamps = aTimestamps;
+    }
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long get( final int aIndex )
+  {
+    return this.timestamps[aIndex];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long getMemoryUsage()
+  {
+    return this.timestamps.length * 8L;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  void read( final int aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    System.arraycopy( this.timestamps, aIndex, aTimestamps, aOffset, aLength );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int search( final long aTimestamp )
+  {
+    return CapturedData.binarySearch( this.timestamps, 0, this.timestamps.length, Long.valueOf( aTimestamp ) );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int size()
+  {
+    return this.timestamps.length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long[] toArray()
+  {
+    return this.timestamps;
+  }
+}
@@ -0,0 +1,264 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+
+/**
+ * Provides a timestamp column for dense captures, whose timestamps mostly
+ * directly follow their predecessor.
+ * <p>
+ * The timestamps are divided in runs of consecutive timestamps, that is, each
+ * timestamp in a run is exactly one larger than its predecessor. Only the start
+ * index of each run and its distance between index and timestamp are stored,
+ * all other timestamps are implied. A capture in which the data changes on
+ * every sample consists of a single run.
+ * </p>
+ */
+final class ImplicitTimestampColumn extends TimestampColumn
+{
+  // CONSTANTS
+
+  /**
+   * The minimal average number of timestamps per run; below this number, the
+   * runs take more space than the explicit timestamps would.
+   */
+  private static final int MIN_AVERAGE_RUN_LENGTH = 4;
+
+  // VARIABLES
+
+  private final int size;
+  /** the index of the first timestamp of each run. */
+  private final int[] runStarts;
+  /** the difference between timestamp and index for each run. */
+  private final long[] runOffsets;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link ImplicitTimestampColumn} instance.
+   * 
+   * @param aTimestamps
+   *          the timestamps to store, cannot be <code>null</code> and should be
+   *          strictly increasing;
+   * @param aSize
+   *          the number of timestamps to store, &gt; 0.
+   */
+  ImplicitTimestampColumn( final long[] aTimestamps, final int aSize )
+  {
+    final int runCount = countRuns( aTimestamps, aSize );
+
+    this.size = aSize;
+    this.runStarts = new int[runCount];
+    this.runOffsets = new long[runCount];
+
+    int run = -1;
+    for ( int i = 0; i < aSize; i++ )
+    {
+      if ( ( i == 0 ) || ( aTimestamps[i] != ( aTimestamps[i - 1] + 1L ) ) )
+      {
+        run++;
+        this.runStarts[run] = i;
+        this.runOffsets[run] = aTimestamps[i] - i;
+      }
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns whether the given timestamps are suitable to be stored implicitly.
+   * 
+   * @param aTimestamps
+   *          the timestamps to test, cannot be <code>null</code>;
+   * @param aSize
+   *          the number of timestamps to test, &gt;= 0.
+   * @return <code>true</code> if the given timestamps are strictly increasing
+   *         and consist of sufficiently long runs, <code>false</code>
+   *         otherwise.
+   */
+  static boolean isSuitable( final long[] aTimestamps, final int aSize )
+  {
+    if ( aSize == 0 )
+    {
+      return false;
+    }
+
+    final int maxRunCount = Math.max( 1, aSize / MIN_AVERAGE_RUN_LENGTH );
+
+    int runCount = 1;
+    for ( int i = 1; i < aSize; i++ )
+    {
+      final long delta = aTimestamps[i] - aTimestamps[i - 1];
+      if ( delta <= 0L )
+      {
+        // Not strictly increasing; cannot be searched...
+        return false;
+      }
+      if ( ( delta != 1L ) && ( ++runCount > maxRunCount ) )
+      {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long get( final int aIndex )
+  {
+    if ( ( aIndex < 0 ) || ( aIndex >= this.size ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid index: " + aIndex );
+    }
+    return aIndex + this.runOffsets[findRun( aIndex )];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long getMemoryUsage()
+  {
+    return this.runStarts.length * 12L;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  void read( final int aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    if ( ( aIndex < 0 ) || ( aLength < 0 ) || ( aIndex > ( this.size - aLength ) ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid range: " + aIndex + ", length " + aLength );
+    }
+    if ( aLength == 0 )
+    {
+      return;
+    }
+
+    int run = findRun( aIndex );
+    int nextRunStart = getRunEnd( run );
+    for ( int i = 0, idx = aIndex; i < aLength; i++, idx++ )
+    {
+      if ( idx == nextRunStart )
+      {
+        run++;
+        nextRunStart = getRunEnd( run );
+      }
+      aTimestamps[aOffset + i] = idx + this.runOffsets[run];
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int search( final long aTimestamp )
+  {
+    // Find the last run starting at or before the given timestamp...
+    int low = 0;
+    int high = this.runStarts.length - 1;
+    while ( low <= high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      if ( ( this.runStarts[mid] + this.runOffsets[mid] ) <= aTimestamp )
+      {
+        low = mid + 1;
+      }
+      else
+      {
+        high = mid - 1;
+      }
+    }
+
+    if ( high < 0 )
+    {
+      // Timestamp lies before the first timestamp...
+      return 0;
+    }
+
+    // Either the timestamp lies within the run, or in the gap after it...
+    final long idx = aTimestamp - this.runOffsets[high];
+    final int runEnd = getRunEnd( high );
+    final int result = ( idx < runEnd ) ? ( int )idx : runEnd;
+
+    return Math.min( result, this.size - 1 );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  long[] toArray()
+  {
+    final long[] result = new long[this.size];
+    read( 0, result, 0, this.size );
+    return result;
+  }
+
+  /**
+   * Returns the index of the run containing the timestamp with the given index.
+   */
+  private int findRun( final int aIndex )
+  {
+    final int idx = Arrays.binarySearch( this.runStarts, aIndex );
+    return ( idx >= 0 ) ? idx : ( -idx - 2 );
+  }
+
+  /**
+   * Returns the index directly following the last timestamp of the given run.
+   */
+  private int getRunEnd( final int aRun )
+  {
+    return ( ( aRun + 1 ) < this.runStarts.length ) ? this.runStarts[aRun + 1] : this.size;
+  }
+
+  /**
+   * Counts the number of runs in the given timestamps.
+   */
+  private static int countRuns( final long[] aTimestamps, final int aSize )
+  {
+    int result = 1;
+    for ( int i = 1; i < aSize; i++ )
+    {
+      if ( aTimestamps[i] != ( aTimestamps[i - 1] + 1L ) )
+      {
+        result++;
+      }
+    }
+    return result;
+  }
+}
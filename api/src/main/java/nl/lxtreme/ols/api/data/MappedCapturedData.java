@@ -0,0 +1,505 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.MapMode;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides an acquisition result whose sample values and timestamps are stored
+ * in memory-mapped files, rather than on the heap.
+ * <p>
+ * The sample values are stored as 32-bit integers, and the timestamps as
+ * 64-bit integers, both in native byte order, each in their own file. As a
+ * single mapping cannot exceed 2GB, both files are mapped in segments. Samples
+ * are addressed by <tt>long</tt> indices, allowing acquisition results with
+ * more than {@link Integer#MAX_VALUE} transitions. Only the parts of the files
+ * that are actually accessed are paged in by the operating system, so the
+ * heap usage of this class is independent of the size of the acquisition
+ * result.
+ * </p>
+ * <p>
+ * Consumers should use the windowed accessors, such as
+ * {@link #readValues(long, int[], int, int)}, to access the data. The
+ * {@link #getValues()} and {@link #getTimestamps()} methods copy <em>all</em>
+ * data onto the heap upon each call.
+ * </p>
+ * <p>
+ * Use a {@link MappedCapturedDataBuilder} to create instances of this class.
+ * This class is thread-safe.
+ * </p>
+ */
+public final class MappedCapturedData implements AcquisitionResult, Closeable
+{
+  // CONSTANTS
+
+  /** the default number of samples per segment, as power of two. */
+  static final int DEFAULT_SEGMENT_SHIFT = 27;
+
+  /** the largest array that can safely be allocated. */
+  private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+  // VARIABLES
+
+  private final File valuesFile;
+  private final File timestampsFile;
+  private final boolean deleteOnClose;
+
+  private final int segmentShift;
+  private final long segmentMask;
+  private final long size;
+
+  private volatile IntBuffer[] valueSegments;
+  private volatile LongBuffer[] timestampSegments;
+
+  /** position of trigger as time value */
+  private final long triggerPosition;
+  /** sampling rate in Hz */
+  private final int rate;
+  /** number of channels (1-32) */
+  private final int channels;
+  /** bit map of enabled channels */
+  private final int enabledChannels;
+  /** absolute sample length */
+  private final long absoluteLength;
+
+  /** per-channel edge index, lazily created */
+  private volatile EdgeIndex edgeIndex;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link MappedCapturedData} instance for the given files.
+   * 
+   * @param aValuesFile
+   *          the file containing the 32-bit sample values, cannot be
+   *          <code>null</code>;
+   * @param aTimestampsFile
+   *          the file containing the 64-bit timestamps, cannot be
+   *          <code>null</code>;
+   * @param aTriggerPosition
+   *          position of trigger as time value;
+   * @param aRate
+   *          sampling rate (may be set to <code>NOT_AVAILABLE</code>);
+   * @param aChannels
+   *          number of used channels;
+   * @param aEnabledChannels
+   *          bit mask identifying used channels;
+   * @param aAbsLen
+   *          absolute number of samples;
+   * @param aDeleteOnClose
+   *          <code>true</code> if the given files should be deleted when this
+   *          acquisition result is closed, <code>false</code> otherwise.
+   * @throws IOException
+   *           in case the given files could not be mapped.
+   */
+  public MappedCapturedData( final File aValuesFile, final File aTimestampsFile, final long aTriggerPosition,
+      final int aRate, final int aChannels, final int aEnabledChannels, final long aAbsLen,
+      final boolean aDeleteOnClose ) throws IOException
+  {
+    this( aValuesFile, aTimestampsFile, aTriggerPosition, aRate, aChannels, aEnabledChannels, aAbsLen,
+        aDeleteOnClose, DEFAULT_SEGMENT_SHIFT );
+  }
+
+  /**
+   * Creates a new {@link MappedCapturedData} instance for the given files, using
+   * a given segment size.
+   */
+  MappedCapturedData( final File aValuesFile, final File aTimestampsFile, final long aTriggerPosition,
+      final int aRate, final int aChannels, final int aEnabledChannels, final long aAbsLen,
+      final boolean aDeleteOnClose, final int aSegmentShift ) throws IOException
+  {
+    final long valuesLength = aValuesFile.length();
+    if ( ( valuesLength % 4L ) != 0L )
+    {
+      throw new IOException( "Invalid values file: " + aValuesFile );
+    }
+
+    this.size = valuesLength / 4L;
+    if ( aTimestampsFile.length() != ( this.size * 8L ) )
+    {
+      throw new IOException( "Values and timestamps size mismatch!" );
+    }
+
+    this.valuesFile = aValuesFile;
+    this.timestampsFile = aTimestampsFile;
+    this.deleteOnClose = aDeleteOnClose;
+    this.segmentShift = aSegmentShift;
+    this.segmentMask = ( 1L << aSegmentShift ) - 1L;
+
+    this.triggerPosition = aTriggerPosition;
+    this.rate = aRate;
+    this.channels = aChannels;
+    this.enabledChannels = aEnabledChannels;
+    this.absoluteLength = aAbsLen;
+
+    final int segmentCount = ( int )( ( this.size + this.segmentMask ) >>> aSegmentShift );
+
+    final IntBuffer[] values = new IntBuffer[segmentCount];
+    final LongBuffer[] timestamps = new LongBuffer[segmentCount];
+
+    final RandomAccessFile valuesRaf = new RandomAccessFile( aValuesFile, "r" );
+    final RandomAccessFile timestampsRaf = new RandomAccessFile( aTimestampsFile, "r" );
+    try
+    {
+      final FileChannel valuesChannel = valuesRaf.getChannel();
+      final FileChannel timestampsChannel = timestampsRaf.getChannel();
+
+      for ( int i = 0; i < segmentCount; i++ )
+      {
+        final long start = ( long )i << aSegmentShift;
+        final long count = Math.min( this.segmentMask + 1L, this.size - start );
+
+        values[i] = map( valuesChannel, start * 4L, count * 4L ).asIntBuffer();
+        timestamps[i] = map( timestampsChannel, start * 8L, count * 8L ).asLongBuffer();
+      }
+    }
+    finally
+    {
+      // The mappings remain valid after the files are closed...
+      try
+      {
+        valuesRaf.close();
+      }
+      finally
+      {
+        timestampsRaf.close();
+      }
+    }
+
+    this.valueSegments = values;
+    this.timestampSegments = timestamps;
+  }
+
+  // METHODS
+
+  /**
+   * Releases the mapped files. If this acquisition result owns its files, they
+   * are deleted as well.
+   * <p>
+   * The mappings themselves are released by the garbage collector, which is
+   * why files that cannot be deleted directly are deleted upon exit of the
+   * virtual machine. After this method is called, this acquisition result can
+   * no longer be used.
+   * </p>
+   */
+  @Override
+  public void close()
+  {
+    this.valueSegments = null;
+    this.timestampSegments = null;
+    this.edgeIndex = null;
+
+    if ( this.deleteOnClose )
+    {
+      if ( !this.valuesFile.delete() )
+      {
+        this.valuesFile.deleteOnExit();
+      }
+      if ( !this.timestampsFile.delete() )
+      {
+        this.timestampsFile.deleteOnExit();
+      }
+    }
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#findSampleIndex(long)
+   */
+  @Override
+  public long findSampleIndex( final long aTimeValue )
+  {
+    long low = 0L;
+    long high = this.size - 1L;
+
+    while ( low <= high )
+    {
+      final long mid = ( low + high ) >>> 1;
+      final long midVal = getTimestamp( mid );
+
+      if ( midVal < aTimeValue )
+      {
+        low = mid + 1L;
+      }
+      else if ( midVal > aTimeValue )
+      {
+        high = mid - 1L;
+      }
+      else
+      {
+        return mid; // key found
+      }
+    }
+
+    // Avoid crossing the array boundaries...
+    return Math.min( low, Math.max( 0L, this.size - 1L ) );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getAbsoluteLength()
+   */
+  @Override
+  public long getAbsoluteLength()
+  {
+    return this.absoluteLength;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getChannels()
+   */
+  @Override
+  public int getChannels()
+  {
+    return this.channels;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEdgeIndex()
+   */
+  @Override
+  public EdgeIndex getEdgeIndex()
+  {
+    EdgeIndex result = this.edgeIndex;
+    if ( result == null )
+    {
+      synchronized ( this )
+      {
+        result = this.edgeIndex;
+        if ( result == null )
+        {
+          result = new EdgeIndex( this );
+          this.edgeIndex = result;
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getEnabledChannels()
+   */
+  @Override
+  public int getEnabledChannels()
+  {
+    return this.enabledChannels;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleCount()
+   */
+  @Override
+  public long getSampleCount()
+  {
+    return this.size;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleIndex(long)
+   * @throws UnsupportedOperationException
+   *           in case the sample index does not fit in an integer, use
+   *           {@link #findSampleIndex(long)} instead.
+   */
+  @Override
+  public int getSampleIndex( final long aTimeValue )
+  {
+    final long result = findSampleIndex( aTimeValue );
+    if ( result > Integer.MAX_VALUE )
+    {
+      throw new UnsupportedOperationException( "Sample index too large; use findSampleIndex instead!" );
+    }
+    return ( int )result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getSampleRate()
+   */
+  @Override
+  public int getSampleRate()
+  {
+    return this.rate;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamp(long)
+   */
+  @Override
+  public long getTimestamp( final long aIndex )
+  {
+    checkIndex( aIndex, 1 );
+    return this.timestampSegments[( int )( aIndex >>> this.segmentShift )].get( ( int )( aIndex & this.segmentMask ) );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTimestamps()
+   */
+  @Override
+  public long[] getTimestamps()
+  {
+    final long[] result = new long[getArraySize()];
+    readTimestamps( 0L, result, 0, result.length );
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getTriggerPosition()
+   */
+  @Override
+  public long getTriggerPosition()
+  {
+    return this.triggerPosition;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValue(long)
+   */
+  @Override
+  public int getValue( final long aIndex )
+  {
+    checkIndex( aIndex, 1 );
+    return this.valueSegments[( int )( aIndex >>> this.segmentShift )].get( ( int )( aIndex & this.segmentMask ) );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#getValues()
+   */
+  @Override
+  public int[] getValues()
+  {
+    final int[] result = new int[getArraySize()];
+    readValues( 0L, result, 0, result.length );
+    return result;
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#hasTimingData()
+   */
+  @Override
+  public boolean hasTimingData()
+  {
+    return ( this.rate != Ols.NOT_AVAILABLE );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#hasTriggerData()
+   */
+  @Override
+  public boolean hasTriggerData()
+  {
+    return ( this.triggerPosition != Ols.NOT_AVAILABLE );
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readTimestamps(long,
+   *      long[], int, int)
+   */
+  @Override
+  public void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+  {
+    checkIndex( aIndex, aLength );
+
+    final LongBuffer[] segments = this.timestampSegments;
+
+    long index = aIndex;
+    int offset = aOffset;
+    int remaining = aLength;
+    while ( remaining > 0 )
+    {
+      // Use a duplicate to leave the position of the shared buffer untouched...
+      final LongBuffer segment = segments[( int )( index >>> this.segmentShift )].duplicate();
+      segment.position( ( int )( index & this.segmentMask ) );
+
+      final int count = Math.min( remaining, segment.remaining() );
+      segment.get( aTimestamps, offset, count );
+
+      index += count;
+      offset += count;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * @see nl.lxtreme.ols.api.acquisition.AcquisitionResult#readValues(long,
+   *      int[], int, int)
+   */
+  @Override
+  public void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength )
+  {
+    checkIndex( aIndex, aLength );
+
+    final IntBuffer[] segments = this.valueSegments;
+
+    long index = aIndex;
+    int offset = aOffset;
+    int remaining = aLength;
+    while ( remaining > 0 )
+    {
+      // Use a duplicate to leave the position of the shared buffer untouched...
+      final IntBuffer segment = segments[( int )( index >>> this.segmentShift )].duplicate();
+      segment.position( ( int )( index & this.segmentMask ) );
+
+      final int count = Math.min( remaining, segment.remaining() );
+      segment.get( aValues, offset, count );
+
+      index += count;
+      offset += count;
+      remaining -= count;
+    }
+  }
+
+  /**
+   * Verifies that the given window lies inside this acquisition result.
+   */
+  private void checkIndex( final long aIndex, final int aLength )
+  {
+    if ( ( aIndex < 0L ) || ( aLength < 0 ) || ( ( aIndex + aLength ) > this.size ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid sample window: " + aIndex + ", length " + aLength );
+    }
+  }
+
+  /**
+   * Returns the size of the arrays needed to hold all samples.
+   */
+  private int getArraySize()
+  {
+    if ( this.size > MAX_ARRAY_SIZE )
+    {
+      throw new UnsupportedOperationException( "Too many samples to fit in an array; use a windowed accessor instead!" );
+    }
+    return ( int )this.size;
+  }
+
+  /**
+   * Maps a region of the given file channel in native byte order.
+   */
+  private static ByteBuffer map( final FileChannel aChannel, final long aPosition, final long aSize )
+      throws IOException
+  {
+    return aChannel.map( MapMode.READ_ONLY, aPosition, aSize ).order( ByteOrder.nativeOrder() );
+  }
+}
@@ -0,0 +1,404 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a builder for {@link MappedCapturedData}, which writes the sample
+ * values and their timestamps directly to temporary files.
+ * <p>
+ * In contrast to the {@link CapturedDataBuilder}, the heap usage of this
+ * builder does not depend on the number of collected samples, making it
+ * suitable for (streaming) captures that do not fit in memory. As with the
+ * {@link CapturedDataBuilder}, only the actual transitions are kept.
+ * </p>
+ * <p>
+ * The temporary files are created upon the first added sample, and are owned
+ * by the built {@link MappedCapturedData}, which deletes them when it is
+ * closed. After {@link #build()} is called, this builder is reset to its
+ * initial state and can be reused. This class is <b>not</b> thread-safe.
+ * </p>
+ */
+public final class MappedCapturedDataBuilder implements AcquisitionResultBuilder
+{
+  // CONSTANTS
+
+  /** the number of samples that are buffered before written to file. */
+  private static final int BUFFER_SIZE = 8192;
+
+  // VARIABLES
+
+  private final File directory;
+  private final int segmentShift;
+  private final IntBuffer valueBuffer;
+  private final LongBuffer timestampBuffer;
+  private final ByteBuffer valueBytes;
+  private final ByteBuffer timestampBytes;
+
+  private File valuesFile;
+  private File timestampsFile;
+  private FileChannel valuesChannel;
+  private FileChannel timestampsChannel;
+
+  private long size;
+  private int lastValue;
+  private long lastStoredTimestamp;
+  /** the timestamp of the last added sample, even if it was not stored. */
+  private long lastTimestamp;
+
+  private long absoluteLength;
+  private long triggerPosition;
+  private int sampleRate;
+  private int channels;
+  private int enabledChannels;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link MappedCapturedDataBuilder} instance that creates its
+   * files in the default temporary-file directory.
+   */
+  public MappedCapturedDataBuilder()
+  {
+    this( null );
+  }
+
+  /**
+   * Creates a new {@link MappedCapturedDataBuilder} instance.
+   * 
+   * @param aDirectory
+   *          the directory to create the files in, or <code>null</code> to use
+   *          the default temporary-file directory.
+   */
+  public MappedCapturedDataBuilder( final File aDirectory )
+  {
+    this( aDirectory, MappedCapturedData.DEFAULT_SEGMENT_SHIFT );
+  }
+
+  /**
+   * Creates a new {@link MappedCapturedDataBuilder} instance, whose captured
+   * data uses the given segment size.
+   */
+  MappedCapturedDataBuilder( final File aDirectory, final int aSegmentShift )
+  {
+    this.directory = aDirectory;
+    this.segmentShift = aSegmentShift;
+
+    this.valueBytes = ByteBuffer.allocateDirect( BUFFER_SIZE * 4 ).order( ByteOrder.nativeOrder() );
+    this.timestampBytes = ByteBuffer.allocateDirect( BUFFER_SIZE * 8 ).order( ByteOrder.nativeOrder() );
+    this.valueBuffer = this.valueBytes.asIntBuffer();
+    this.timestampBuffer = this.timestampBytes.asLongBuffer();
+
+    reset();
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder addSample( final int aValue, final long aTimestamp ) throws IOException
+  {
+    this.lastTimestamp = aTimestamp;
+
+    if ( ( this.size > 0L ) && ( this.lastValue == aValue ) )
+    {
+      // Not a transition; no need to store it...
+      return this;
+    }
+
+    store( aValue, aTimestamp );
+
+    return this;
+  }
+
+  /**
+   * Builds the captured data from all added samples. Afterwards, this builder
+   * is reset.
+   * 
+   * @return a new {@link MappedCapturedData} instance, never <code>null</code>.
+   * @throws IOException
+   *           in case the data could not be written to, or mapped from, file.
+   */
+  @Override
+  public MappedCapturedData build() throws IOException
+  {
+    long absLength = this.absoluteLength;
+
+    if ( this.size > 0L )
+    {
+      if ( absLength < 0L )
+      {
+        absLength = this.lastTimestamp;
+      }
+      else
+      {
+        absLength = Math.max( absLength, this.lastTimestamp );
+      }
+
+      // Issue #167: make sure the absolute length is *always* present...
+      if ( ( this.lastStoredTimestamp != absLength ) || ( this.size < 2L ) )
+      {
+        store( this.lastValue, absLength );
+      }
+    }
+    else
+    {
+      // Ensure both (empty) files exist...
+      openFiles();
+    }
+
+    try
+    {
+      flush();
+    }
+    finally
+    {
+      closeFiles();
+    }
+
+    final MappedCapturedData result = new MappedCapturedData( this.valuesFile, this.timestampsFile,
+        this.triggerPosition, this.sampleRate, this.channels, this.enabledChannels, absLength,
+        true /* aDeleteOnClose */, this.segmentShift );
+
+    // The files are owned by the result from now on...
+    this.valuesFile = null;
+    this.timestampsFile = null;
+    reset();
+
+    return result;
+  }
+
+  /**
+   * Discards all added samples, deleting the files written so far. Afterwards,
+   * this builder is reset.
+   * <p>
+   * Use this method in case no captured data is to be built from the added
+   * samples, for example, in case they could not be read completely.
+   * </p>
+   */
+  public void discard()
+  {
+    try
+    {
+      closeFiles();
+    }
+    catch ( IOException exception )
+    {
+      // Ignore; the files are deleted anyway...
+    }
+
+    deleteFile( this.valuesFile );
+    deleteFile( this.timestampsFile );
+
+    this.valuesFile = null;
+    this.timestampsFile = null;
+    reset();
+  }
+
+  /**
+   * Returns the number of transitions collected so far.
+   * 
+   * @return a transition count, &gt;= 0.
+   */
+  public long getSize()
+  {
+    return this.size;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder setAbsoluteLength( final long aAbsoluteLength )
+  {
+    this.absoluteLength = aAbsoluteLength;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder setChannels( final int aChannels )
+  {
+    this.channels = aChannels;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder setEnabledChannels( final int aEnabledChannels )
+  {
+    this.enabledChannels = aEnabledChannels;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder setSampleRate( final int aSampleRate )
+  {
+    this.sampleRate = aSampleRate;
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public MappedCapturedDataBuilder setTriggerPosition( final long aTriggerPosition )
+  {
+    this.triggerPosition = aTriggerPosition;
+    return this;
+  }
+
+  /**
+   * Closes the file channels, if opened.
+   */
+  private void closeFiles() throws IOException
+  {
+    try
+    {
+      if ( this.valuesChannel != null )
+      {
+        this.valuesChannel.close();
+      }
+    }
+    finally
+    {
+      this.valuesChannel = null;
+      try
+      {
+        if ( this.timestampsChannel != null )
+        {
+          this.timestampsChannel.close();
+        }
+      }
+      finally
+      {
+        this.timestampsChannel = null;
+      }
+    }
+  }
+
+  /**
+   * Deletes the given file, if any.
+   */
+  private static void deleteFile( final File aFile )
+  {
+    if ( ( aFile != null ) && !aFile.delete() )
+    {
+      aFile.deleteOnExit();
+    }
+  }
+
+  /**
+   * Writes all buffered samples to file.
+   */
+  private void flush() throws IOException
+  {
+    this.valueBytes.limit( this.valueBuffer.position() * 4 ).position( 0 );
+    while ( this.valueBytes.hasRemaining() )
+    {
+      this.valuesChannel.write( this.valueBytes );
+    }
+    this.valueBytes.clear();
+    this.valueBuffer.clear();
+
+    this.timestampBytes.limit( this.timestampBuffer.position() * 8 ).position( 0 );
+    while ( this.timestampBytes.hasRemaining() )
+    {
+      this.timestampsChannel.write( this.timestampBytes );
+    }
+    this.timestampBytes.clear();
+    this.timestampBuffer.clear();
+  }
+
+  /**
+   * Creates the temporary files, if not already done.
+   */
+  private void openFiles() throws IOException
+  {
+    if ( this.valuesChannel != null )
+    {
+      return;
+    }
+
+    this.valuesFile = File.createTempFile( "ols", ".values", this.directory );
+    this.valuesFile.deleteOnExit();
+    this.timestampsFile = File.createTempFile( "ols", ".timestamps", this.directory );
+    this.timestampsFile.deleteOnExit();
+
+    this.valuesChannel = new FileOutputStream( this.valuesFile ).getChannel();
+    this.timestampsChannel = new FileOutputStream( this.timestampsFile ).getChannel();
+  }
+
+  /**
+   * Resets all state of this builder.
+   */
+  private void reset()
+  {
+    this.size = 0L;
+    this.lastValue = 0;
+    this.lastStoredTimestamp = 0L;
+    this.lastTimestamp = 0L;
+    this.absoluteLength = -1L;
+    this.triggerPosition = Ols.NOT_AVAILABLE;
+    this.sampleRate = Ols.NOT_AVAILABLE;
+    this.channels = 0;
+    this.enabledChannels = 0;
+
+    this.valueBuffer.clear();
+    this.timestampBuffer.clear();
+  }
+
+  /**
+   * Stores a single transition.
+   */
+  private void store( final int aValue, final long aTimestamp ) throws IOException
+  {
+    openFiles();
+
+    this.valueBuffer.put( aValue );
+    this.timestampBuffer.put( aTimestamp );
+    if ( !this.valueBuffer.hasRemaining() )
+    {
+      flush();
+    }
+
+    this.lastValue = aValue;
+    this.lastStoredTimestamp = aTimestamp;
+    this.size++;
+  }
+}
@@ -0,0 +1,369 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides a cursor for walking through the samples of an acquisition result.
+ * <p>
+ * Decoders typically need the sample value at increasing points in time, or
+ * the next edge on one of the channels. Instead of searching the timestamps
+ * over and over again, a sample cursor remembers its position, making moving
+ * forward an amortized O(1) operation, and the total cost of a decoder linear
+ * in the number of samples it visits. Moving backward is supported as well,
+ * but costs a binary search.
+ * </p>
+ * <p>
+ * The samples are read in windows from the acquisition result, so a sample
+ * cursor never needs the complete sample arrays, and does not allocate any
+ * memory after its creation. This class is <b>not</b> thread-safe.
+ * </p>
+ */
+public final class SampleCursor
+{
+  // CONSTANTS
+
+  /** the number of samples read at once from the acquisition result. */
+  private static final int WINDOW_SIZE = 1024;
+
+  // VARIABLES
+
+  private final AcquisitionResult data;
+  private final long sampleCount;
+  private final int[] values;
+  private final long[] timestamps;
+
+  /** the index of the first sample in the current window. */
+  private long windowStart;
+  /** the number of samples in the current window. */
+  private int windowLength;
+  /** the position of this cursor in the current window. */
+  private int pos;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link SampleCursor} instance, positioned at the first
+   * sample.
+   * 
+   * @param aData
+   *          the acquisition result to walk through, cannot be
+   *          <code>null</code>.
+   */
+  public SampleCursor( final AcquisitionResult aData )
+  {
+    this( aData, WINDOW_SIZE );
+  }
+
+  /**
+   * Creates a new {@link SampleCursor} instance, positioned at the first
+   * sample.
+   * 
+   * @param aData
+   *          the acquisition result to walk through, cannot be
+   *          <code>null</code>;
+   * @param aWindowSize
+   *          the number of samples to read at once, &gt; 0.
+   */
+  SampleCursor( final AcquisitionResult aData, final int aWindowSize )
+  {
+    if ( aData == null )
+    {
+      throw new IllegalArgumentException( "Data cannot be null!" );
+    }
+
+    this.data = aData;
+    this.sampleCount = aData.getSampleCount();
+    this.values = new int[aWindowSize];
+    this.timestamps = new long[aWindowSize];
+
+    if ( this.sampleCount > 0L )
+    {
+      load( 0L );
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns the index of the sample this cursor is positioned at.
+   * 
+   * @return a sample index, &gt;= 0.
+   */
+  public long getIndex()
+  {
+    return this.windowStart + this.pos;
+  }
+
+  /**
+   * Returns the timestamp of the sample this cursor is positioned at.
+   * 
+   * @return a timestamp.
+   * @throws NoSuchElementException
+   *           in case there are no samples at all.
+   */
+  public long getTimestamp()
+  {
+    checkNotEmpty();
+    return this.timestamps[this.pos];
+  }
+
+  /**
+   * Returns the value of the sample this cursor is positioned at.
+   * 
+   * @return a sample value.
+   * @throws NoSuchElementException
+   *           in case there are no samples at all.
+   */
+  public int getValue()
+  {
+    checkNotEmpty();
+    return this.values[this.pos];
+  }
+
+  /**
+   * Moves this cursor to the sample with the given index. Samples are only
+   * read in case the index lies outside the current window.
+   * 
+   * @param aIndex
+   *          the index of the sample to move to, &gt;= 0 and &lt; the number of
+   *          samples.
+   * @throws IndexOutOfBoundsException
+   *           in case the given index is invalid.
+   */
+  public void moveTo( final long aIndex )
+  {
+    if ( ( aIndex < 0L ) || ( aIndex >= this.sampleCount ) )
+    {
+      throw new IndexOutOfBoundsException( "Invalid sample index: " + aIndex + "!" );
+    }
+
+    if ( ( aIndex >= this.windowStart ) && ( aIndex < ( this.windowStart + this.windowLength ) ) )
+    {
+      this.pos = ( int )( aIndex - this.windowStart );
+    }
+    else
+    {
+      load( aIndex );
+    }
+  }
+
+  /**
+   * Moves this cursor to the next sample, if any.
+   * 
+   * @return <code>true</code> if this cursor is moved, <code>false</code> if
+   *         it already was positioned at the last sample.
+   */
+  public boolean next()
+  {
+    if ( ( this.pos + 1 ) < this.windowLength )
+    {
+      this.pos++;
+      return true;
+    }
+
+    final long nextIdx = getIndex() + 1L;
+    if ( nextIdx >= this.sampleCount )
+    {
+      return false;
+    }
+
+    load( nextIdx );
+    return true;
+  }
+
+  /**
+   * Moves this cursor forward to the first sample whose value differs from the
+   * value of the current sample in any of the given bits.
+   * 
+   * @param aMask
+   *          the bit mask of the channel(s) to find an edge on.
+   * @return the timestamp of the found edge, or -1L if no such edge exists. In
+   *         the latter case, this cursor is positioned at the last sample.
+   */
+  public long nextEdge( final int aMask )
+  {
+    if ( this.windowLength == 0 )
+    {
+      return -1L;
+    }
+
+    final int level = this.values[this.pos] & aMask;
+    while ( next() )
+    {
+      if ( ( this.values[this.pos] & aMask ) != level )
+      {
+        return this.timestamps[this.pos];
+      }
+    }
+
+    return -1L;
+  }
+
+  /**
+   * Moves this cursor to the sample that is in effect at the given time, that
+   * is, the last sample whose timestamp is less than or equal to the given
+   * timestamp. If the given timestamp lies before the first sample, this
+   * cursor is moved to the first sample.
+   * 
+   * @param aTimestamp
+   *          the timestamp to move to.
+   */
+  public void seekTo( final long aTimestamp )
+  {
+    if ( this.windowLength == 0 )
+    {
+      return;
+    }
+
+    final int last = this.windowLength - 1;
+    final boolean moreSamples = ( this.windowStart + this.windowLength ) < this.sampleCount;
+
+    if ( aTimestamp < this.timestamps[0] )
+    {
+      if ( this.windowStart == 0L )
+      {
+        this.pos = 0;
+      }
+      else
+      {
+        jumpTo( aTimestamp );
+      }
+    }
+    else if ( moreSamples && ( aTimestamp >= this.timestamps[last] ) )
+    {
+      jumpTo( aTimestamp );
+    }
+    else if ( aTimestamp >= this.timestamps[this.pos] )
+    {
+      // Gallop forward from the current position, which is cheap for the
+      // small steps decoders usually take...
+      int low = this.pos;
+      int bound = 1;
+      while ( ( ( low + bound ) < this.windowLength ) && ( this.timestamps[low + bound] <= aTimestamp ) )
+      {
+        low += bound;
+        bound <<= 1;
+      }
+      this.pos = search( low, Math.min( low + bound, this.windowLength ), aTimestamp );
+    }
+    else
+    {
+      this.pos = search( 0, this.pos, aTimestamp );
+    }
+  }
+
+  /**
+   * Returns the sample value that is in effect at the given time.
+   * <p>
+   * This method is a shorthand for calling {@link #seekTo(long)} followed by
+   * {@link #getValue()}.
+   * </p>
+   * 
+   * @param aTimestamp
+   *          the timestamp to return the sample value for.
+   * @return the value of the last sample whose timestamp is less than or equal
+   *         to the given timestamp, or the value of the first sample if the
+   *         given timestamp lies before it.
+   * @throws NoSuchElementException
+   *           in case there are no samples at all.
+   */
+  public int valueAt( final long aTimestamp )
+  {
+    seekTo( aTimestamp );
+    return getValue();
+  }
+
+  /**
+   * Verifies there is a sample to return.
+   */
+  private void checkNotEmpty()
+  {
+    if ( this.windowLength == 0 )
+    {
+      throw new NoSuchElementException( "No samples available!" );
+    }
+  }
+
+  /**
+   * Moves this cursor to an arbitrary position, by searching the acquisition
+   * result directly.
+   */
+  private void jumpTo( final long aTimestamp )
+  {
+    final long idx = this.data.findSampleIndex( aTimestamp );
+    // The found index is either the sample itself, or the one after it...
+    load( Math.max( 0L, idx - 1L ) );
+
+    if ( aTimestamp < this.timestamps[0] )
+    {
+      this.pos = 0;
+    }
+    else
+    {
+      this.pos = search( 0, this.windowLength, aTimestamp );
+    }
+  }
+
+  /**
+   * Reads the window of samples starting at the given sample index.
+   */
+  private void load( final long aIndex )
+  {
+    final int length = ( int )Math.min( this.values.length, this.sampleCount - aIndex );
+
+    this.data.readValues( aIndex, this.values, 0, length );
+    this.data.readTimestamps( aIndex, this.timestamps, 0, length );
+
+    this.windowStart = aIndex;
+    this.windowLength = length;
+    this.pos = 0;
+  }
+
+  /**
+   * Returns the position of the last sample in the given range of the current
+   * window whose timestamp is less than or equal to the given timestamp. The
+   * first sample in the given range should satisfy this condition.
+   */
+  private int search( final int aFrom, final int aTo, final long aTimestamp )
+  {
+    int low = aFrom;
+    int high = aTo - 1;
+    while ( low < high )
+    {
+      final int mid = ( low + high + 1 ) >>> 1;
+      if ( this.timestamps[mid] <= aTimestamp )
+      {
+        low = mid;
+      }
+      else
+      {
+        high = mid - 1;
+      }
+    }
+    return low;
+  }
+}
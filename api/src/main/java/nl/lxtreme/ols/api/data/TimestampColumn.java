@@ -0,0 +1,129 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+/**
+ * Provides the storage of the timestamps of {@link CapturedData}.
+ * <p>
+ * Depending on the captured data, timestamps can be stored far more compact
+ * than as an array of longs. Use {@link #create(long[], int)} to obtain the
+ * most suitable representation for a given set of timestamps.
+ * </p>
+ */
+abstract class TimestampColumn
+{
+  // METHODS
+
+  /**
+   * Creates a timestamp column for the given timestamps.
+   * <p>
+   * If most of the timestamps directly follow their predecessor, as is the
+   * case for captures whose data changes on nearly every sample, the timestamps
+   * are stored implicitly. If the distances between the timestamps are small
+   * enough, as is typically the case for long running captures, only these
+   * distances are stored. Otherwise, the timestamps are stored as-is.
+   * </p>
+   * 
+   * @param aTimestamps
+   *          the timestamps to store, cannot be <code>null</code>. The given
+   *          array should no longer be modified by the caller;
+   * @param aSize
+   *          the number of timestamps to store, &gt;= 0 &amp;&amp; &lt;=
+   *          <tt>aTimestamps.length</tt>.
+   * @return a new timestamp column, never <code>null</code>.
+   */
+  static TimestampColumn create( final long[] aTimestamps, final int aSize )
+  {
+    if ( ImplicitTimestampColumn.isSuitable( aTimestamps, aSize ) )
+    {
+      return new ImplicitTimestampColumn( aTimestamps, aSize );
+    }
+    if ( DeltaTimestampColumn.isSuitable( aTimestamps, aSize ) )
+    {
+      return new DeltaTimestampColumn( aTimestamps, aSize );
+    }
+    return new ExplicitTimestampColumn( aTimestamps, aSize );
+  }
+
+  /**
+   * Returns the timestamp at the given index.
+   * 
+   * @param aIndex
+   *          the index of the timestamp to return, &gt;= 0 &amp;&amp; &lt;
+   *          {@link #size()}.
+   * @return a timestamp.
+   * @throws IndexOutOfBoundsException
+   *           in case the given index is invalid.
+   */
+  abstract long get( int aIndex );
+
+  /**
+   * Returns the (approximate) number of bytes used to store the timestamps.
+   * 
+   * @return a memory usage, in bytes, &gt;= 0.
+   */
+  abstract long getMemoryUsage();
+
+  /**
+   * Reads a consecutive range of timestamps into the given array.
+   * 
+   * @param aIndex
+   *          the index of the first timestamp to read, &gt;= 0;
+   * @param aTimestamps
+   *          the array to read the timestamps into, cannot be
+   *          <code>null</code>;
+   * @param aOffset
+   *          the offset in the given array to start writing at, &gt;= 0;
+   * @param aLength
+   *          the number of timestamps to read, &gt;= 0.
+   * @throws IndexOutOfBoundsException
+   *           in case the given range is invalid.
+   */
+  abstract void read( int aIndex, long[] aTimestamps, int aOffset, int aLength );
+
+  /**
+   * Searches for the given timestamp.
+   * 
+   * @param aTimestamp
+   *          the timestamp to search for.
+   * @return the index of the first timestamp that is greater than or equal to
+   *         the given timestamp, limited to the index of the last timestamp.
+   *         Returns 0 if this column is empty.
+   */
+  abstract int search( long aTimestamp );
+
+  /**
+   * Returns the number of timestamps in this column.
+   * 
+   * @return a size, &gt;= 0.
+   */
+  abstract int size();
+
+  /**
+   * Returns all timestamps as array.
+   * 
+   * @return an array with all timestamps, never <code>null</code>. Depending on
+   *         the representation, this array is either the backing array of this
+   *         column, or a newly created copy.
+   */
+  abstract long[] toArray();
+}
@@ -0,0 +1,271 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import nl.lxtreme.ols.api.util.*;
+
+
+/**
+ * Compacts raw sample data to only those samples at which the sample value
+ * changes, that is, its transitions.
+ * <p>
+ * Large inputs are compacted in parallel: the input is divided in chunks, for
+ * which the number of transitions is counted concurrently. A prefix sum over
+ * these counts yields the position of the first transition of each chunk in
+ * the compacted data, after which all chunks copy their transitions
+ * concurrently to their own, non-overlapping, part of the result. Small inputs
+ * are compacted sequentially, as the costs of starting threads would outweigh
+ * the gains.
+ * </p>
+ * <p>
+ * The first sample is always considered to be a transition.
+ * </p>
+ */
+final class TransitionCompactor
+{
+  // CONSTANTS
+
+  /** the minimal number of samples before compacting in parallel. */
+  static final int PARALLEL_THRESHOLD = 1 << 20;
+
+  /** the minimal number of samples per chunk. */
+  static final int MIN_CHUNK_SIZE = 1 << 16;
+
+  // VARIABLES
+
+  private final int[] values;
+  /** the timestamps of all samples, or null if implied by their index. */
+  private final long[] timestamps;
+  private final int length;
+  /** the first sample index of each chunk, plus the end of the last chunk. */
+  private final int[] chunkStarts;
+  /** the number of transitions in each chunk, and, after counting, their position. */
+  private final int[] chunkOffsets;
+  /** runs the chunks, shared by counting and copying the transitions. */
+  private final ChunkExecutor executor;
+
+  private int count;
+  private int lastTransitionIdx;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link TransitionCompactor} instance, using as many chunks as
+   * there are processors available.
+   * 
+   * @param aValues
+   *          the sample values to compact, cannot be <code>null</code>;
+   * @param aTimestamps
+   *          the timestamps of the samples, or <code>null</code> if the
+   *          timestamp of each sample equals its index.
+   */
+  TransitionCompactor( final int[] aValues, final long[] aTimestamps )
+  {
+    this( aValues, aTimestamps, ( aValues.length < PARALLEL_THRESHOLD ) ? 1 : Runtime.getRuntime()
+        .availableProcessors() );
+  }
+
+  /**
+   * Creates a new {@link TransitionCompactor} instance.
+   * 
+   * @param aValues
+   *          the sample values to compact, cannot be <code>null</code>;
+   * @param aTimestamps
+   *          the timestamps of the samples, or <code>null</code> if the
+   *          timestamp of each sample equals its index;
+   * @param aParallelism
+   *          the maximum number of threads to use, &gt; 0.
+   */
+  TransitionCompactor( final int[] aValues, final long[] aTimestamps, final int aParallelism )
+  {
+    this.values = aValues;
+    this.timestamps = aTimestamps;
+    this.length = aValues.length;
+
+    final int chunkCount = Math.max( 1, Math.min( aParallelism, this.length / MIN_CHUNK_SIZE ) );
+
+    this.chunkStarts = new int[chunkCount + 1];
+    for ( int i = 0; i <= chunkCount; i++ )
+    {
+      this.chunkStarts[i] = ( int )( ( ( long )this.length * i ) / chunkCount );
+    }
+    this.chunkOffsets = new int[chunkCount];
+    this.executor = new ChunkExecutor( chunkCount, "Compaction of sample data" );
+
+    this.lastTransitionIdx = -1;
+  }
+
+  // METHODS
+
+  /**
+   * Copies all transitions to the given arrays.
+   * <p>
+   * This method should be called after {@link #countTransitions()}.
+   * </p>
+   * 
+   * @param aValues
+   *          the array to copy the values of the transitions to, cannot be
+   *          <code>null</code>;
+   * @param aTimestamps
+   *          the array to copy the timestamps of the transitions to, cannot be
+   *          <code>null</code>.
+   */
+  public void copyTransitions( final int[] aValues, final long[] aTimestamps )
+  {
+    final int chunkCount = this.chunkOffsets.length;
+
+    final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>( chunkCount );
+    for ( int i = 0; i < chunkCount; i++ )
+    {
+      final int chunkIdx = i;
+      tasks.add( new Callable<Object>()
+      {
+        @Override
+        public Object call() throws Exception
+        {
+          copyTransitions( chunkIdx, aValues, aTimestamps );
+          return null;
+        }
+      } );
+    }
+
+    try
+    {
+      this.executor.invokeAll( tasks );
+    }
+    finally
+    {
+      // Copying is the last step, so the threads are no longer needed...
+      this.executor.shutdown();
+    }
+  }
+
+  /**
+   * Counts the number of transitions in the sample data.
+   * 
+   * @return the number of transitions, &gt;= 0.
+   */
+  public int countTransitions()
+  {
+    final int chunkCount = this.chunkOffsets.length;
+
+    final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>( chunkCount );
+    for ( int i = 0; i < chunkCount; i++ )
+    {
+      final int chunkIdx = i;
+      tasks.add( new Callable<Object>()
+      {
+        @Override
+        public Object call() throws Exception
+        {
+          chunkOffsets[chunkIdx] = countTransitions( chunkIdx );
+          return null;
+        }
+      } );
+    }
+
+    this.executor.invokeAll( tasks );
+
+    // Turn the counts into the position of the first transition of each
+    // chunk...
+    int offset = 0;
+    for ( int i = 0; i < chunkCount; i++ )
+    {
+      final int chunkSize = this.chunkOffsets[i];
+      this.chunkOffsets[i] = offset;
+      offset += chunkSize;
+    }
+
+    this.count = offset;
+    this.lastTransitionIdx = findLastTransition();
+
+    return this.count;
+  }
+
+  /**
+   * Returns the sample index of the last transition.
+   * <p>
+   * This method should be called after {@link #countTransitions()}.
+   * </p>
+   * 
+   * @return a sample index, or -1 if there are no samples.
+   */
+  public int getLastTransitionIndex()
+  {
+    return this.lastTransitionIdx;
+  }
+
+  /**
+   * Copies the transitions of a single chunk.
+   */
+  final void copyTransitions( final int aChunkIdx, final int[] aValues, final long[] aTimestamps )
+  {
+    final int start = this.chunkStarts[aChunkIdx];
+    final int end = this.chunkStarts[aChunkIdx + 1];
+
+    int j = this.chunkOffsets[aChunkIdx];
+    for ( int i = start; i < end; i++ )
+    {
+      if ( ( i == 0 ) || ( this.values[i] != this.values[i - 1] ) )
+      {
+        aValues[j] = this.values[i];
+        aTimestamps[j] = ( this.timestamps == null ) ? i : this.timestamps[i];
+        j++;
+      }
+    }
+  }
+
+  /**
+   * Counts the transitions of a single chunk.
+   */
+  final int countTransitions( final int aChunkIdx )
+  {
+    final int start = this.chunkStarts[aChunkIdx];
+    final int end = this.chunkStarts[aChunkIdx + 1];
+
+    int result = 0;
+    for ( int i = start; i < end; i++ )
+    {
+      if ( ( i == 0 ) || ( this.values[i] != this.values[i - 1] ) )
+      {
+        result++;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Finds the sample index of the last transition, by scanning backwards.
+   */
+  private int findLastTransition()
+  {
+    int i = this.length - 1;
+    while ( ( i > 0 ) && ( this.values[i] == this.values[i - 1] ) )
+    {
+      i--;
+    }
+    return i;
+  }
+}
@@ -0,0 +1,508 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data.annotation;
+
+
+import java.util.*;
+
+
+/**
+ * Provides an index of data annotations, sorted by their start timestamp.
+ * <p>
+ * The sorted annotations are divided into blocks of a fixed size. For each
+ * block, this index keeps the largest end timestamp of its annotations, and
+ * these maximums are arranged in a binary tree, in which each node holds the
+ * largest end timestamp of all blocks below it. A query for a time range
+ * descends only into the subtrees that can contain an annotation ending in or
+ * after that range, while the start timestamps bound the blocks on the other
+ * side. Unlike a running maximum, a single long annotation only affects the
+ * nodes on the path to its own block. Hence, querying the annotations of a
+ * range costs O(log n + k), with k the number of annotations found.
+ * </p>
+ * <p>
+ * Annotations are normally added in ascending order of their start timestamp,
+ * in which case adding is an append plus an update of O(log n) tree nodes.
+ * Annotations added out of order cause the index to be re-sorted upon the next
+ * query. This class is thread-safe.
+ * </p>
+ */
+public final class AnnotationIndex
+{
+  // INNER TYPES
+
+  /**
+   * Provides a read-only view on the annotations of this index.
+   */
+  private final class AnnotationsView extends AbstractList<Annotation<?>> implements RandomAccess
+  {
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Annotation<?> get( final int aIndex )
+    {
+      synchronized ( AnnotationIndex.this )
+      {
+        if ( ( aIndex < 0 ) || ( aIndex >= AnnotationIndex.this.size ) )
+        {
+          throw new IndexOutOfBoundsException( "Invalid index: " + aIndex );
+        }
+        ensureSorted();
+        return AnnotationIndex.this.annotations[aIndex];
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int size()
+    {
+      return AnnotationIndex.this.size();
+    }
+  }
+
+  // CONSTANTS
+
+  private static final int DEFAULT_CAPACITY = 64;
+  /** The number of annotations per block, should be a power of two. */
+  private static final int BLOCK_SIZE = 16;
+  private static final int BLOCK_SHIFT = Integer.numberOfTrailingZeros( BLOCK_SIZE );
+
+  private static final Comparator<DataAnnotation<?>> START_TIME_COMPARATOR = new Comparator<DataAnnotation<?>>()
+  {
+    @Override
+    public int compare( final DataAnnotation<?> aFirst, final DataAnnotation<?> aSecond )
+    {
+      int result = compareLongs( aFirst.getStartTimestamp(), aSecond.getStartTimestamp() );
+      if ( result == 0 )
+      {
+        result = compareLongs( aFirst.getEndTimestamp(), aSecond.getEndTimestamp() );
+      }
+      return result;
+    }
+  };
+
+  // VARIABLES
+
+  private final List<Annotation<?>> view = new AnnotationsView();
+
+  private DataAnnotation<?>[] annotations;
+  private long[] startTimes;
+  private long[] endTimes;
+  /**
+   * the largest end timestamp per block (leaves) and per subtree (inner nodes),
+   * as binary heap with the root at position 1.
+   */
+  private long[] maxEndTimes;
+  /** the number of leaves of the tree, a power of two. */
+  private int leafCount;
+  private int size;
+  /** whether or not all annotations are in ascending order. */
+  private boolean sorted;
+  /** incremented upon each change of this index. */
+  private int modificationCount;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new, empty, {@link AnnotationIndex} instance.
+   */
+  public AnnotationIndex()
+  {
+    clear();
+  }
+
+  // METHODS
+
+  /**
+   * Adds a given annotation to this index.
+   *
+   * @param aAnnotation
+   *          the annotation to add, cannot be <code>null</code>.
+   */
+  public synchronized void add( final DataAnnotation<?> aAnnotation )
+  {
+    if ( aAnnotation == null )
+    {
+      throw new IllegalArgumentException( "Annotation cannot be null!" );
+    }
+
+    ensureCapacity( this.size + 1 );
+    append( aAnnotation );
+  }
+
+  /**
+   * Adds all given annotations to this index at once.
+   *
+   * @param aAnnotations
+   *          the annotations to add, cannot be <code>null</code>.
+   */
+  public synchronized void addAll( final Collection<? extends DataAnnotation<?>> aAnnotations )
+  {
+    ensureCapacity( this.size + aAnnotations.size() );
+    for ( DataAnnotation<?> annotation : aAnnotations )
+    {
+      if ( annotation == null )
+      {
+        throw new IllegalArgumentException( "Annotation cannot be null!" );
+      }
+      append( annotation );
+    }
+  }
+
+  /**
+   * Removes all annotations from this index.
+   */
+  public synchronized void clear()
+  {
+    this.annotations = new DataAnnotation<?>[DEFAULT_CAPACITY];
+    this.startTimes = new long[DEFAULT_CAPACITY];
+    this.endTimes = new long[DEFAULT_CAPACITY];
+    this.leafCount = getLeafCount( DEFAULT_CAPACITY );
+    this.maxEndTimes = new long[2 * this.leafCount];
+    Arrays.fill( this.maxEndTimes, Long.MIN_VALUE );
+    this.size = 0;
+    this.sorted = true;
+    this.modificationCount++;
+  }
+
+  /**
+   * Finds the first annotation that starts and ends at or after the given
+   * timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to search for annotations.
+   * @return the found annotation, or <code>null</code> if not found.
+   */
+  public synchronized DataAnnotation<?> findAfter( final long aTimestamp )
+  {
+    ensureSorted();
+
+    for ( int i = findFirstStartingAfter( aTimestamp - 1L ); i < this.size; i++ )
+    {
+      if ( this.endTimes[i] >= aTimestamp )
+      {
+        return this.annotations[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds the first annotation that starts at or before the given timestamp,
+   * and ends at or after the given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to search for annotations.
+   * @return the found annotation, or <code>null</code> if not found.
+   */
+  public synchronized DataAnnotation<?> findAt( final long aTimestamp )
+  {
+    ensureSorted();
+
+    final List<DataAnnotation<?>> result = new ArrayList<DataAnnotation<?>>( 1 );
+    collectOverlapping( 1, 0, this.leafCount, aTimestamp, findFirstStartingAfter( aTimestamp ), result, 1 );
+    return result.isEmpty() ? null : result.get( 0 );
+  }
+
+  /**
+   * Finds the last annotation that starts and ends before the given timestamp.
+   *
+   * @param aTimestamp
+   *          the timestamp to search for annotations.
+   * @return the found annotation, or <code>null</code> if not found.
+   */
+  public synchronized DataAnnotation<?> findBefore( final long aTimestamp )
+  {
+    ensureSorted();
+
+    for ( int i = findFirstStartingAfter( aTimestamp - 1L ) - 1; i >= 0; i-- )
+    {
+      if ( this.endTimes[i] < aTimestamp )
+      {
+        return this.annotations[i];
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Finds all annotations that overlap the given time range.
+   *
+   * @param aStartTime
+   *          the start timestamp of the range;
+   * @param aEndTime
+   *          the end timestamp of the range, &gt;= aStartTime.
+   * @return the found annotations, in ascending order of their start
+   *         timestamps, never <code>null</code>.
+   */
+  public synchronized List<DataAnnotation<?>> findOverlapping( final long aStartTime, final long aEndTime )
+  {
+    ensureSorted();
+
+    final List<DataAnnotation<?>> result = new ArrayList<DataAnnotation<?>>();
+    collectOverlapping( 1, 0, this.leafCount, aStartTime, findFirstStartingAfter( aEndTime ), result,
+        Integer.MAX_VALUE );
+    return result;
+  }
+
+  /**
+   * Returns all annotations of this index.
+   *
+   * @return a read-only view on all annotations, in ascending order of their
+   *         start timestamps, never <code>null</code>. This view reflects all
+   *         later changes of this index.
+   */
+  public List<Annotation<?>> getAnnotations()
+  {
+    return this.view;
+  }
+
+  /**
+   * Returns the modification count of this index, which changes each time an
+   * annotation is added or the index is cleared. This allows callers to cheaply
+   * determine whether anything they derived from this index is still current.
+   *
+   * @return a modification count.
+   */
+  public synchronized int getModificationCount()
+  {
+    return this.modificationCount;
+  }
+
+  /**
+   * Returns whether or not this index is empty.
+   *
+   * @return <code>true</code> if this index does not contain any annotations,
+   *         <code>false</code> otherwise.
+   */
+  public synchronized boolean isEmpty()
+  {
+    return this.size == 0;
+  }
+
+  /**
+   * Returns the number of annotations in this index.
+   *
+   * @return an annotation count, &gt;= 0.
+   */
+  public synchronized int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * Compares two long values.
+   */
+  private static int compareLongs( final long aFirst, final long aSecond )
+  {
+    return ( aFirst < aSecond ) ? -1 : ( ( aFirst == aSecond ) ? 0 : 1 );
+  }
+
+  /**
+   * Returns the number of leaves needed for the given number of annotations,
+   * rounded up to a power of two.
+   */
+  private static int getLeafCount( final int aCapacity )
+  {
+    final int blocks = Math.max( 1, ( ( aCapacity + BLOCK_SIZE ) - 1 ) >> BLOCK_SHIFT );
+    return Integer.highestOneBit( ( 2 * blocks ) - 1 );
+  }
+
+  /**
+   * Appends a given annotation, assuming there is enough capacity.
+   */
+  private void append( final DataAnnotation<?> aAnnotation )
+  {
+    final int idx = this.size;
+    final long startTime = aAnnotation.getStartTimestamp();
+    final long endTime = aAnnotation.getEndTimestamp();
+
+    this.annotations[idx] = aAnnotation;
+    this.startTimes[idx] = startTime;
+    this.endTimes[idx] = endTime;
+
+    if ( this.sorted && ( idx > 0 ) && ( startTime < this.startTimes[idx - 1] ) )
+    {
+      // Out of order; the index is rebuilt lazily upon the next query...
+      this.sorted = false;
+    }
+    if ( this.sorted )
+    {
+      // Only the nodes on the path to the block of this annotation change...
+      int node = this.leafCount + ( idx >> BLOCK_SHIFT );
+      while ( ( node > 0 ) && ( this.maxEndTimes[node] < endTime ) )
+      {
+        this.maxEndTimes[node] = endTime;
+        node >>= 1;
+      }
+    }
+
+    this.size = idx + 1;
+    this.modificationCount++;
+  }
+
+  /**
+   * Collects the annotations that end at or after the given start time, and
+   * start before the given end position, from the blocks below the given node
+   * of the tree.
+   *
+   * @param aNode
+   *          the node of the tree to descend into;
+   * @param aFirstBlock
+   *          the first block below the node;
+   * @param aBlockCount
+   *          the number of blocks below the node;
+   * @param aStartTime
+   *          the start time of the range to collect the annotations for;
+   * @param aEndIdx
+   *          the position of the first annotation starting after the range;
+   * @param aResult
+   *          the list to add the found annotations to;
+   * @param aLimit
+   *          the maximum number of annotations to collect.
+   * @return <code>true</code> if the limit is reached, <code>false</code>
+   *         otherwise.
+   */
+  private boolean collectOverlapping( final int aNode, final int aFirstBlock, final int aBlockCount,
+      final long aStartTime, final int aEndIdx, final List<DataAnnotation<?>> aResult, final int aLimit )
+  {
+    final int firstIdx = aFirstBlock << BLOCK_SHIFT;
+    if ( ( firstIdx >= aEndIdx ) || ( this.maxEndTimes[aNode] < aStartTime ) )
+    {
+      // Either all annotations start after the range, or end before it...
+      return false;
+    }
+
+    if ( aBlockCount == 1 )
+    {
+      final int endIdx = Math.min( aEndIdx, firstIdx + BLOCK_SIZE );
+      for ( int i = firstIdx; i < endIdx; i++ )
+      {
+        if ( this.endTimes[i] >= aStartTime )
+        {
+          aResult.add( this.annotations[i] );
+          if ( aResult.size() >= aLimit )
+          {
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    final int half = aBlockCount >> 1;
+    return collectOverlapping( 2 * aNode, aFirstBlock, half, aStartTime, aEndIdx, aResult, aLimit )
+        || collectOverlapping( ( 2 * aNode ) + 1, aFirstBlock + half, half, aStartTime, aEndIdx, aResult, aLimit );
+  }
+
+  /**
+   * Ensures the internal arrays can hold at least the given number of items.
+   */
+  private void ensureCapacity( final int aCapacity )
+  {
+    final int oldCapacity = this.annotations.length;
+    if ( aCapacity > oldCapacity )
+    {
+      final int newCapacity = Math.max( aCapacity, oldCapacity + ( oldCapacity >> 1 ) );
+
+      this.annotations = Arrays.copyOf( this.annotations, newCapacity );
+      this.startTimes = Arrays.copyOf( this.startTimes, newCapacity );
+      this.endTimes = Arrays.copyOf( this.endTimes, newCapacity );
+
+      final int leaves = getLeafCount( newCapacity );
+      if ( leaves > this.leafCount )
+      {
+        this.leafCount = leaves;
+        this.maxEndTimes = new long[2 * leaves];
+        rebuildTree();
+      }
+    }
+  }
+
+  /**
+   * Ensures all annotations are sorted, and the tree of end timestamps is
+   * up-to-date.
+   */
+  private void ensureSorted()
+  {
+    if ( this.sorted )
+    {
+      return;
+    }
+
+    // Merge sort is stable, so annotations with equal time stamps retain
+    // their insertion order...
+    Arrays.sort( this.annotations, 0, this.size, START_TIME_COMPARATOR );
+
+    for ( int i = 0; i < this.size; i++ )
+    {
+      this.startTimes[i] = this.annotations[i].getStartTimestamp();
+      this.endTimes[i] = this.annotations[i].getEndTimestamp();
+    }
+
+    this.sorted = true;
+    rebuildTree();
+  }
+
+  /**
+   * Returns the position of the first annotation that starts after the given
+   * timestamp.
+   */
+  private int findFirstStartingAfter( final long aTimestamp )
+  {
+    int low = 0;
+    int high = this.size;
+    while ( low < high )
+    {
+      final int mid = ( low + high ) >>> 1;
+      if ( this.startTimes[mid] <= aTimestamp )
+      {
+        low = mid + 1;
+      }
+      else
+      {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Rebuilds the tree of end timestamps from the (sorted) annotations.
+   */
+  private void rebuildTree()
+  {
+    Arrays.fill( this.maxEndTimes, Long.MIN_VALUE );
+    for ( int i = 0; i < this.size; i++ )
+    {
+      final int leaf = this.leafCount + ( i >> BLOCK_SHIFT );
+      this.maxEndTimes[leaf] = Math.max( this.maxEndTimes[leaf], this.endTimes[i] );
+    }
+    for ( int node = this.leafCount - 1; node > 0; node-- )
+    {
+      this.maxEndTimes[node] = Math.max( this.maxEndTimes[2 * node], this.maxEndTimes[( 2 * node ) + 1] );
+    }
+  }
+}
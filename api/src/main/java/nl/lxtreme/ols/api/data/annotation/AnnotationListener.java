@@ -21,6 +21,9 @@
 package nl.lxtreme.ols.api.data.annotation;
 
 
+import java.util.*;
+
+
 /**
  * Can be used to create a service that listens for the addition/removal of
  * annotation on channel data.
@@ -56,4 +59,17 @@ public interface AnnotationListener
    */
   void onAnnotation( Annotation<?> aAnnotation );
 
+  /**
+   * Called for a batch of annotations at once.
+   * <p>
+   * Implementations should add all given annotations in bulk, and notify
+   * interested parties only once for the whole batch.
+   * </p>
+   * 
+   * @param aAnnotations
+   *          the (new) annotations, in the order they were created, cannot be
+   *          <code>null</code>.
+   */
+  void onAnnotations( Collection<? extends Annotation<?>> aAnnotations );
+
 }
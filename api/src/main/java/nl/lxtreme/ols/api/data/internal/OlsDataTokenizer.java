@@ -0,0 +1,400 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data.internal;
+
+
+import java.io.*;
+import java.util.*;
+
+
+/**
+ * Provides a single-pass tokenizer for the (text-based) OLS data file format.
+ * <p>
+ * An OLS data file consists of instruction lines, like
+ * <tt>;Rate: 1000000</tt>, and data lines, like <tt>1f@1234</tt>, in which the
+ * sample value is given in hexadecimal notation and its timestamp in decimal
+ * notation. All other lines are ignored.
+ * </p>
+ * <p>
+ * Data lines are parsed directly from the character stream into growable
+ * primitive arrays, without creating intermediary strings for each line. Only
+ * instruction lines, which are few, are returned as strings, one at a time by
+ * {@link #nextInstruction()}. Once that method returns <code>false</code>, all
+ * data lines are read and are available through {@link #getValues()} and
+ * {@link #getTimestamps()}. This class is <b>not</b> thread-safe.
+ * </p>
+ * <p>
+ * This class is <b>not</b> part of the public API; its package is not exported
+ * by the API bundle, but embedded by the bundles that read OLS data files.
+ * </p>
+ */
+public final class OlsDataTokenizer
+{
+  // CONSTANTS
+
+  private static final int BUFFER_SIZE = 8192;
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  // VARIABLES
+
+  private final Reader reader;
+  private final char[] buffer;
+  private int bufferPos;
+  private int bufferLength;
+
+  private final StringBuilder line;
+  private String instructionKey;
+  private String instructionValue;
+
+  private int[] values;
+  private long[] timestamps;
+  private int size;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link OlsDataTokenizer} instance.
+   *
+   * @param aReader
+   *          the reader to read the OLS data from, cannot be <code>null</code>.
+   *          This reader is <em>not</em> closed by this tokenizer.
+   */
+  public OlsDataTokenizer( final Reader aReader )
+  {
+    if ( aReader == null )
+    {
+      throw new IllegalArgumentException( "Reader cannot be null!" );
+    }
+
+    this.reader = aReader;
+    this.buffer = new char[BUFFER_SIZE];
+    this.line = new StringBuilder();
+
+    this.values = new int[DEFAULT_CAPACITY];
+    this.timestamps = new long[DEFAULT_CAPACITY];
+  }
+
+  // METHODS
+
+  /**
+   * Returns the key of the last read instruction, for example, <tt>Rate</tt>.
+   *
+   * @return an instruction key, or <code>null</code> if no instruction is read.
+   */
+  public String getInstructionKey()
+  {
+    return this.instructionKey;
+  }
+
+  /**
+   * Returns the value of the last read instruction.
+   *
+   * @return an instruction value, or <code>null</code> if no instruction is
+   *         read.
+   */
+  public String getInstructionValue()
+  {
+    return this.instructionValue;
+  }
+
+  /**
+   * Returns the number of data lines read so far.
+   *
+   * @return a sample count, &gt;= 0.
+   */
+  public int getSampleCount()
+  {
+    return this.size;
+  }
+
+  /**
+   * Returns the timestamps of all data lines read so far.
+   *
+   * @return the timestamps, in the order they were read, never
+   *         <code>null</code>.
+   */
+  public long[] getTimestamps()
+  {
+    if ( this.timestamps.length != this.size )
+    {
+      this.timestamps = Arrays.copyOf( this.timestamps, this.size );
+    }
+    return this.timestamps;
+  }
+
+  /**
+   * Returns the sample values of all data lines read so far.
+   *
+   * @return the sample values, in the order they were read, never
+   *         <code>null</code>.
+   */
+  public int[] getValues()
+  {
+    if ( this.values.length != this.size )
+    {
+      this.values = Arrays.copyOf( this.values, this.size );
+    }
+    return this.values;
+  }
+
+  /**
+   * Reads up to, and including, the next instruction line. All data lines in
+   * between are collected.
+   *
+   * @return <code>true</code> if an instruction is read, <code>false</code> if
+   *         the end of the stream is reached.
+   * @throws IOException
+   *           in case of I/O problems, or in case a data line contains values
+   *           that are too large.
+   */
+  public boolean nextInstruction() throws IOException
+  {
+    int ch;
+    while ( ( ch = read() ) >= 0 )
+    {
+      if ( ch == ';' )
+      {
+        if ( readInstruction() )
+        {
+          return true;
+        }
+      }
+      else if ( hexDigit( ch ) >= 0 )
+      {
+        readSample( ch );
+      }
+      else if ( !isLineEnd( ch ) )
+      {
+        skipLine();
+      }
+    }
+
+    this.instructionKey = null;
+    this.instructionValue = null;
+    return false;
+  }
+
+  /**
+   * Returns the value of the given character as hexadecimal digit.
+   *
+   * @param aChar
+   *          the character to convert.
+   * @return the digit value, 0..15, or -1 if the given character is not a
+   *         hexadecimal digit.
+   */
+  private static int hexDigit( final int aChar )
+  {
+    if ( ( aChar >= '0' ) && ( aChar <= '9' ) )
+    {
+      return aChar - '0';
+    }
+    if ( ( aChar >= 'a' ) && ( aChar <= 'f' ) )
+    {
+      return aChar - 'a' + 10;
+    }
+    if ( ( aChar >= 'A' ) && ( aChar <= 'F' ) )
+    {
+      return aChar - 'A' + 10;
+    }
+    return -1;
+  }
+
+  /**
+   * @return <code>true</code> if the given character ends a line,
+   *         <code>false</code> otherwise.
+   */
+  private static boolean isLineEnd( final int aChar )
+  {
+    return ( aChar == '\n' ) || ( aChar == '\r' );
+  }
+
+  /**
+   * @return <code>true</code> if the given character is considered whitespace
+   *         in an instruction line, <code>false</code> otherwise.
+   */
+  private static boolean isWhitespace( final char aChar )
+  {
+    return ( aChar == ' ' ) || ( aChar == '\t' ) || ( aChar == '\f' ) || ( aChar == '\u000B' );
+  }
+
+  /**
+   * Adds a sample to the collected data.
+   */
+  private void addSample( final int aValue, final long aTimestamp )
+  {
+    final int idx = this.size;
+    if ( idx >= this.values.length )
+    {
+      final int newCapacity = Math.max( DEFAULT_CAPACITY, idx + ( idx >> 1 ) );
+
+      this.values = Arrays.copyOf( this.values, newCapacity );
+      this.timestamps = Arrays.copyOf( this.timestamps, newCapacity );
+    }
+
+    this.values[idx] = aValue;
+    this.timestamps[idx] = aTimestamp;
+    this.size = idx + 1;
+  }
+
+  /**
+   * Reads the next character from the underlying reader.
+   *
+   * @return the read character, or -1 if the end of stream is reached.
+   */
+  private int read() throws IOException
+  {
+    if ( this.bufferPos >= this.bufferLength )
+    {
+      int count;
+      do
+      {
+        count = this.reader.read( this.buffer, 0, this.buffer.length );
+      }
+      while ( count == 0 );
+
+      if ( count < 0 )
+      {
+        return -1;
+      }
+
+      this.bufferPos = 0;
+      this.bufferLength = count;
+    }
+    return this.buffer[this.bufferPos++];
+  }
+
+  /**
+   * Reads the remainder of an instruction line, which is of the form
+   * <tt>;key: value</tt>.
+   *
+   * @return <code>true</code> if a valid instruction is read,
+   *         <code>false</code> otherwise.
+   */
+  private boolean readInstruction() throws IOException
+  {
+    this.line.setLength( 0 );
+
+    int ch;
+    while ( ( ( ch = read() ) >= 0 ) && !isLineEnd( ch ) )
+    {
+      this.line.append( ( char )ch );
+    }
+
+    final int length = this.line.length();
+    int colonIdx = 0;
+    while ( ( colonIdx < length ) && ( this.line.charAt( colonIdx ) != ':' ) )
+    {
+      colonIdx++;
+    }
+
+    int valueIdx = colonIdx + 1;
+    while ( ( valueIdx < length ) && isWhitespace( this.line.charAt( valueIdx ) ) )
+    {
+      valueIdx++;
+    }
+
+    // Both key and value should be non-empty, and separated by whitespace...
+    if ( ( colonIdx == 0 ) || ( valueIdx == ( colonIdx + 1 ) ) || ( valueIdx >= length ) )
+    {
+      return false;
+    }
+
+    this.instructionKey = this.line.substring( 0, colonIdx );
+    this.instructionValue = this.line.substring( valueIdx );
+    return true;
+  }
+
+  /**
+   * Reads the remainder of a data line, which is of the form
+   * <tt>hex-value@decimal-timestamp</tt>. Lines not strictly matching this form
+   * are ignored.
+   *
+   * @param aFirstChar
+   *          the first (hexadecimal) character of the line.
+   */
+  private void readSample( final int aFirstChar ) throws IOException
+  {
+    boolean overflow = false;
+
+    long value = hexDigit( aFirstChar );
+    int digit;
+    int ch;
+    while ( ( ( ch = read() ) >= 0 ) && ( ( digit = hexDigit( ch ) ) >= 0 ) )
+    {
+      if ( ( value >>> 59 ) != 0L )
+      {
+        overflow = true;
+      }
+      value = ( value << 4 ) | digit;
+    }
+
+    if ( ch != '@' )
+    {
+      if ( ( ch >= 0 ) && !isLineEnd( ch ) )
+      {
+        skipLine();
+      }
+      return;
+    }
+
+    long timestamp = 0L;
+    int digitCount = 0;
+    while ( ( ( ch = read() ) >= '0' ) && ( ch <= '9' ) )
+    {
+      digit = ch - '0';
+      if ( timestamp > ( ( Long.MAX_VALUE - digit ) / 10L ) )
+      {
+        overflow = true;
+      }
+      timestamp = ( timestamp * 10L ) + digit;
+      digitCount++;
+    }
+
+    if ( ( ch >= 0 ) && !isLineEnd( ch ) )
+    {
+      // Not a valid data line; ignore it...
+      skipLine();
+      return;
+    }
+    if ( digitCount == 0 )
+    {
+      return;
+    }
+    if ( overflow )
+    {
+      throw new IOException( "Invalid data encountered." );
+    }
+
+    addSample( ( int )value, timestamp );
+  }
+
+  /**
+   * Skips all characters up to, and including, the next line end.
+   */
+  private void skipLine() throws IOException
+  {
+    int ch;
+    while ( ( ( ch = read() ) >= 0 ) && !isLineEnd( ch ) )
+    {
+      // Skip...
+    }
+  }
+}
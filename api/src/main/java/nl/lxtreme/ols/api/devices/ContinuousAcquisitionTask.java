@@ -0,0 +1,53 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.devices;
+
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Denotes an acquisition task that can acquire data repeatedly, while keeping
+ * its connection to the device open in between acquisitions. This allows the
+ * device to be re-armed right after the data of the previous acquisition is
+ * read, without having to reconnect to, or detect, the device again.
+ */
+public interface ContinuousAcquisitionTask extends AcquisitionTask
+{
+  // METHODS
+
+  /**
+   * Acquires data from the device, leaving the connection to the device open
+   * afterwards. The first call opens the connection, all subsequent calls
+   * reuse it.
+   * 
+   * @return the acquired data, never <code>null</code>.
+   * @throws Exception
+   *           in case the acquisition failed.
+   * @see #close()
+   */
+  AcquisitionResult acquireNext() throws Exception;
+
+  /**
+   * Closes the connection to the device, as left open by {@link #acquireNext()}.
+   */
+  void close();
+}
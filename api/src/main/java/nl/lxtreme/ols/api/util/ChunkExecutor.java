@@ -0,0 +1,171 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.util;
+
+
+import java.util.*;
+import java.util.concurrent.*;
+
+
+/**
+ * Runs chunks of work concurrently and waits until all of them are completed.
+ * <p>
+ * The threads are created on demand, are shared by all calls to
+ * {@link #invokeAll(List)}, and are released by {@link #shutdown()}, or when
+ * left idle for a while. In case only a single chunk is given, or only a
+ * single thread may be used, the chunks are run directly on the calling
+ * thread.
+ * </p>
+ * <p>
+ * Any exception thrown by a chunk is rethrown by {@link #invokeAll(List)}:
+ * runtime exceptions and errors as-is, checked exceptions wrapped in a
+ * {@link RuntimeException}.
+ * </p>
+ */
+public final class ChunkExecutor
+{
+  // VARIABLES
+
+  private final int parallelism;
+  private final String name;
+
+  private ThreadPoolExecutor executor;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link ChunkExecutor} instance.
+   * 
+   * @param aParallelism
+   *          the maximum number of threads to use, &gt; 0;
+   * @param aName
+   *          the name of the work being done, used in error messages, cannot
+   *          be <code>null</code>.
+   */
+  public ChunkExecutor( final int aParallelism, final String aName )
+  {
+    if ( aParallelism < 1 )
+    {
+      throw new IllegalArgumentException( "Parallelism must be at least one!" );
+    }
+    this.parallelism = aParallelism;
+    this.name = aName;
+  }
+
+  // METHODS
+
+  /**
+   * Runs the given tasks and waits until all of them are completed.
+   * 
+   * @param aTasks
+   *          the tasks to run, cannot be <code>null</code>.
+   */
+  public void invokeAll( final List<? extends Callable<?>> aTasks )
+  {
+    if ( ( aTasks.size() <= 1 ) || ( this.parallelism <= 1 ) )
+    {
+      try
+      {
+        for ( Callable<?> task : aTasks )
+        {
+          task.call();
+        }
+        return;
+      }
+      catch ( RuntimeException exception )
+      {
+        throw exception;
+      }
+      catch ( Exception exception )
+      {
+        throw new RuntimeException( exception );
+      }
+    }
+
+    final List<Future<?>> futures = new ArrayList<Future<?>>( aTasks.size() );
+    try
+    {
+      final ExecutorService pool = getExecutor();
+      for ( Callable<?> task : aTasks )
+      {
+        futures.add( pool.submit( task ) );
+      }
+      for ( Future<?> future : futures )
+      {
+        future.get();
+      }
+    }
+    catch ( InterruptedException exception )
+    {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException( this.name + " interrupted!", exception );
+    }
+    catch ( ExecutionException exception )
+    {
+      final Throwable cause = exception.getCause();
+      if ( cause instanceof RuntimeException )
+      {
+        throw ( RuntimeException )cause;
+      }
+      if ( cause instanceof Error )
+      {
+        throw ( Error )cause;
+      }
+      throw new RuntimeException( cause );
+    }
+    finally
+    {
+      // Do not leave any chunks running in case of a failure...
+      for ( Future<?> future : futures )
+      {
+        future.cancel( true );
+      }
+    }
+  }
+
+  /**
+   * Releases all threads of this executor. Calling {@link #invokeAll(List)}
+   * afterwards creates new threads.
+   */
+  public void shutdown()
+  {
+    if ( this.executor != null )
+    {
+      this.executor.shutdown();
+      this.executor = null;
+    }
+  }
+
+  /**
+   * Returns the threads to run the chunks with, creating them if needed.
+   */
+  private ExecutorService getExecutor()
+  {
+    if ( this.executor == null )
+    {
+      final ThreadPoolExecutor pool = new ThreadPoolExecutor( this.parallelism, this.parallelism, 1L,
+          TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>() );
+      pool.allowCoreThreadTimeOut( true );
+      this.executor = pool;
+    }
+    return this.executor;
+  }
+}
@@ -0,0 +1,137 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link AcquisitionResultOverlay}.
+ */
+public class AcquisitionResultOverlayTest
+{
+  // VARIABLES
+
+  private CapturedData base;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < 10; i++ )
+    {
+      builder.addSample( i, i * 10L );
+    }
+    this.base = builder.setAbsoluteLength( 100L ).setTriggerPosition( 5L ).build();
+  }
+
+  /**
+   * Tests that the samples within the window are replaced.
+   */
+  @Test
+  public void testOverlayOk()
+  {
+    final AcquisitionResult window = createWindow( 25L, 30L, 35L, 50L );
+    final AcquisitionResult overlay = new AcquisitionResultOverlay( this.base, window );
+
+    assertArrayEquals( new int[] { 0, 1, 2, 100, 101, 102, 103, 6, 7, 8, 9, 9 }, overlay.getValues() );
+    assertArrayEquals( new long[] { 0L, 10L, 20L, 25L, 30L, 35L, 50L, 60L, 70L, 80L, 90L, 100L },
+        overlay.getTimestamps() );
+    assertEquals( 100L, overlay.getAbsoluteLength() );
+    assertEquals( 5L, overlay.getTriggerPosition() );
+
+    assertEquals( 3L, overlay.findSampleIndex( 21L ) );
+    assertEquals( 6L, overlay.findSampleIndex( 50L ) );
+    assertEquals( 7L, overlay.findSampleIndex( 51L ) );
+    assertEquals( 11L, overlay.findSampleIndex( 1000L ) );
+
+    final int[] values = new int[5];
+    overlay.readValues( 2L, values, 0, 5 );
+    assertArrayEquals( new int[] { 2, 100, 101, 102, 103 }, values );
+  }
+
+  /**
+   * Tests that a window extending beyond the base is appended.
+   */
+  @Test
+  public void testOverlayBeyondEndOk()
+  {
+    final AcquisitionResult window = createWindow( 95L, 200L );
+    final AcquisitionResult overlay = new AcquisitionResultOverlay( this.base, window );
+
+    assertEquals( 12L, overlay.getSampleCount() );
+    assertEquals( 200L, overlay.getTimestamp( 11L ) );
+    assertEquals( 200L, overlay.getAbsoluteLength() );
+  }
+
+  /**
+   * Tests that an explicit trigger position replaces the one of the base.
+   */
+  @Test
+  public void testOverlayWithTriggerPositionOk()
+  {
+    final AcquisitionResult window = createWindow( 25L, 30L );
+
+    AcquisitionResult overlay = new AcquisitionResultOverlay( this.base, window, 25L );
+    assertTrue( overlay.hasTriggerData() );
+    assertEquals( 25L, overlay.getTriggerPosition() );
+    assertArrayEquals( new AcquisitionResultOverlay( this.base, window ).getValues(), overlay.getValues() );
+
+    overlay = new AcquisitionResultOverlay( this.base, window, Ols.NOT_AVAILABLE );
+    assertFalse( overlay.hasTriggerData() );
+  }
+
+  /**
+   * Tests that an empty window leaves the base untouched.
+   */
+  @Test
+  public void testOverlayEmptyWindowOk()
+  {
+    final AcquisitionResult overlay = new AcquisitionResultOverlay( this.base, new CapturedDataBuilder().build() );
+
+    assertArrayEquals( this.base.getValues(), overlay.getValues() );
+    assertArrayEquals( this.base.getTimestamps(), overlay.getTimestamps() );
+  }
+
+  /**
+   * Creates a window with increasing values for the given timestamps.
+   */
+  private static AcquisitionResult createWindow( final long... aTimestamps )
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < aTimestamps.length; i++ )
+    {
+      builder.addSample( 100 + i, aTimestamps[i] );
+    }
+    return builder.build();
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link AcquisitionResultSlice}.
+ */
+public class AcquisitionResultSliceTest
+{
+  // VARIABLES
+
+  private CapturedData data;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < 100; i++ )
+    {
+      builder.addSample( i, i * 10L );
+    }
+    this.data = builder.setAbsoluteLength( 1000L ).setSampleRate( 1000 ).build();
+  }
+
+  /**
+   * Tests that the values and timestamps of a slice are only copied once, as
+   * long as they are not reclaimed.
+   */
+  @Test
+  public void testSliceArraysAreCached()
+  {
+    final AcquisitionResult slice = new AcquisitionResultSlice( this.data, 10L, 20L );
+
+    final int[] values = slice.getValues();
+    final long[] timestamps = slice.getTimestamps();
+
+    assertSame( values, slice.getValues() );
+    assertSame( timestamps, slice.getTimestamps() );
+  }
+
+  /**
+   * Tests that a slice shows the samples of the underlying range.
+   */
+  @Test
+  public void testSliceOk()
+  {
+    final AcquisitionResult slice = new AcquisitionResultSlice( this.data, 10L, 20L );
+
+    assertEquals( 10L, slice.getSampleCount() );
+    assertArrayEquals( Arrays.copyOfRange( this.data.getValues(), 10, 20 ), slice.getValues() );
+    assertArrayEquals( Arrays.copyOfRange( this.data.getTimestamps(), 10, 20 ), slice.getTimestamps() );
+    assertEquals( 190L, slice.getAbsoluteLength() );
+    assertEquals( 1000, slice.getSampleRate() );
+
+    assertEquals( 15, slice.getValue( 5L ) );
+    assertEquals( 150L, slice.getTimestamp( 5L ) );
+
+    assertEquals( 0L, slice.findSampleIndex( 0L ) );
+    assertEquals( 5L, slice.findSampleIndex( 150L ) );
+    assertEquals( 6L, slice.findSampleIndex( 151L ) );
+    assertEquals( 9L, slice.findSampleIndex( 5000L ) );
+  }
+
+  /**
+   * Tests that the edge index of a slice only contains its own edges.
+   */
+  @Test
+  public void testSliceEdgeIndexOk()
+  {
+    final AcquisitionResult slice = new AcquisitionResultSlice( this.data, 10L, 20L );
+
+    // Channel 0 toggles on every sample...
+    assertArrayEquals( new long[] { 110L, 120L, 130L, 140L, 150L, 160L, 170L, 180L, 190L }, slice.getEdgeIndex()
+        .getEdges( 0 ) );
+  }
+
+  /**
+   * Tests that reading outside a slice is refused.
+   */
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testReadOutsideSliceFail()
+  {
+    final AcquisitionResult slice = new AcquisitionResultSlice( this.data, 10L, 20L );
+
+    slice.readValues( 5L, new int[10], 0, 10 );
+  }
+
+  /**
+   * Tests that an invalid slice is refused.
+   */
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testInvalidSliceFail()
+  {
+    new AcquisitionResultSlice( this.data, 90L, 110L );
+  }
+}
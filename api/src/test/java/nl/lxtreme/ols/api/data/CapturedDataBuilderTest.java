@@ -0,0 +1,101 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import nl.lxtreme.ols.api.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link CapturedDataBuilder}.
+ */
+public class CapturedDataBuilderTest
+{
+  // METHODS
+
+  /**
+   * Tests that only transitions are kept, and the absolute length is added as
+   * last sample.
+   */
+  @Test
+  public void testBuildCompactsTransitionsOk()
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder( 2 );
+    builder.addSample( 1, 0L ).addSample( 1, 1L ).addSample( 2, 2L ).addSample( 2, 3L ).addSample( 3, 4L );
+    builder.setAbsoluteLength( 10L ).setSampleRate( 100 ).setChannels( 8 ).setEnabledChannels( 0xFF );
+
+    assertEquals( 3, builder.getSize() );
+
+    final CapturedData data = builder.build();
+    assertArrayEquals( new int[] { 1, 2, 3, 3 }, data.getValues() );
+    assertArrayEquals( new long[] { 0L, 2L, 4L, 10L }, data.getTimestamps() );
+    assertEquals( 10L, data.getAbsoluteLength() );
+    assertEquals( 100, data.getSampleRate() );
+    assertEquals( 8, data.getChannels() );
+    assertEquals( 0xFF, data.getEnabledChannels() );
+    assertFalse( data.hasTriggerData() );
+  }
+
+  /**
+   * Tests that the result is equal to the result of the array-based
+   * constructor of {@link CapturedData}.
+   */
+  @Test
+  public void testBuildEqualsArrayConstructorOk()
+  {
+    final int[] values = { 0, 1, 1, 0, 0, 0, 1, 1 };
+    final long[] timestamps = { 0L, 3L, 4L, 7L, 8L, 9L, 12L, 13L };
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < values.length; i++ )
+    {
+      builder.addSample( values[i], timestamps[i] );
+    }
+    builder.setTriggerPosition( 5L );
+
+    final CapturedData expected = new CapturedData( values, timestamps, 5L, Ols.NOT_AVAILABLE, 0, 0, -1L );
+    final CapturedData tested = builder.build();
+
+    assertArrayEquals( expected.getValues(), tested.getValues() );
+    assertArrayEquals( expected.getTimestamps(), tested.getTimestamps() );
+    assertEquals( expected.getAbsoluteLength(), tested.getAbsoluteLength() );
+    assertEquals( expected.getTriggerPosition(), tested.getTriggerPosition() );
+  }
+
+  /**
+   * Tests that a builder is reset after building.
+   */
+  @Test
+  public void testBuildResetsBuilderOk()
+  {
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    final CapturedData first = builder.addSample( 1, 0L ).addSample( 2, 1L ).build();
+
+    assertEquals( 0, builder.getSize() );
+
+    builder.addSample( 3, 0L ).build();
+    assertArrayEquals( new int[] { 1, 2 }, first.getValues() );
+  }
+}
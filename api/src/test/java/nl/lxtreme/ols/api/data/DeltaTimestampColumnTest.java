@@ -0,0 +1,161 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link DeltaTimestampColumn}.
+ */
+public class DeltaTimestampColumnTest
+{
+  // METHODS
+
+  /**
+   * Tests that timestamps with small distances are stored as deltas.
+   */
+  @Test
+  public void testCreateSparseTimestampsOk()
+  {
+    final long[] timestamps = createTimestamps( 10000, 1000 );
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, timestamps.length );
+    assertTrue( column instanceof DeltaTimestampColumn );
+    assertTrue( column.getMemoryUsage() < ( timestamps.length * 3L ) );
+
+    assertColumnEquals( timestamps, column );
+  }
+
+  /**
+   * Tests that deltas needing the full width of a long are handled correctly.
+   */
+  @Test
+  public void testLargeDeltasOk()
+  {
+    final long[] timestamps = createTimestamps( 1000, 100 );
+    timestamps[500] = timestamps[499] + ( 1L << 40 );
+    for ( int i = 501; i < timestamps.length; i++ )
+    {
+      timestamps[i] = timestamps[i - 1] + 3L;
+    }
+
+    final TimestampColumn column = new DeltaTimestampColumn( timestamps, timestamps.length );
+
+    assertArrayEquals( timestamps, column.toArray() );
+    assertEquals( timestamps[500], column.get( 500 ) );
+    assertEquals( 500, column.search( timestamps[500] - 1L ) );
+    assertEquals( 501, column.search( timestamps[500] + 1L ) );
+  }
+
+  /**
+   * Tests that only a part of the given timestamps is used.
+   */
+  @Test
+  public void testCreatePartialTimestampsOk()
+  {
+    final long[] timestamps = createTimestamps( 1000, 50 );
+
+    final TimestampColumn column = new DeltaTimestampColumn( timestamps, 333 );
+
+    assertColumnEquals( Arrays.copyOf( timestamps, 333 ), column );
+  }
+
+  /**
+   * Tests that timestamps with large distances are stored explicitly.
+   */
+  @Test
+  public void testCreateWideTimestampsOk()
+  {
+    final long[] timestamps = new long[1000];
+    for ( int i = 1; i < timestamps.length; i++ )
+    {
+      timestamps[i] = timestamps[i - 1] + ( 1L << 50 ) + i;
+    }
+
+    assertFalse( DeltaTimestampColumn.isSuitable( timestamps, timestamps.length ) );
+  }
+
+  /**
+   * Tests that an invalid range is refused.
+   */
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testReadInvalidRangeFail()
+  {
+    final long[] timestamps = createTimestamps( 1000, 100 );
+
+    new DeltaTimestampColumn( timestamps, timestamps.length ).read( 990, new long[20], 0, 20 );
+  }
+
+  /**
+   * Asserts that the given column contains exactly the given timestamps, and
+   * searches them in the same way as the explicit representation.
+   */
+  private static void assertColumnEquals( final long[] aExpected, final TimestampColumn aColumn )
+  {
+    final TimestampColumn expected = new ExplicitTimestampColumn( aExpected, aExpected.length );
+
+    assertEquals( aExpected.length, aColumn.size() );
+    assertArrayEquals( aExpected, aColumn.toArray() );
+
+    for ( int i = 0; i < aExpected.length; i++ )
+    {
+      assertEquals( aExpected[i], aColumn.get( i ) );
+    }
+
+    final long[] window = new long[100];
+    for ( int i = 0; i < ( aExpected.length - window.length ); i += 37 )
+    {
+      aColumn.read( i, window, 0, window.length );
+      assertArrayEquals( Arrays.copyOfRange( aExpected, i, i + window.length ), window );
+    }
+
+    for ( int i = 0; i < aExpected.length; i++ )
+    {
+      final long ts = aExpected[i];
+      assertEquals( expected.search( ts - 1L ), aColumn.search( ts - 1L ) );
+      assertEquals( expected.search( ts ), aColumn.search( ts ) );
+      assertEquals( expected.search( ts + 1L ), aColumn.search( ts + 1L ) );
+    }
+    assertEquals( expected.search( Long.MAX_VALUE ), aColumn.search( Long.MAX_VALUE ) );
+  }
+
+  /**
+   * Creates strictly increasing timestamps, with random distances.
+   */
+  private static long[] createTimestamps( final int aCount, final int aMaxDelta )
+  {
+    final Random rnd = new Random( 42L );
+
+    final long[] result = new long[aCount];
+    result[0] = 5L;
+    for ( int i = 1; i < aCount; i++ )
+    {
+      result[i] = result[i - 1] + 1L + rnd.nextInt( aMaxDelta );
+    }
+    return result;
+  }
+}
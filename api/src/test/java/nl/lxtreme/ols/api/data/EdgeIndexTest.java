@@ -0,0 +1,121 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link EdgeIndex}.
+ */
+public class EdgeIndexTest
+{
+  // VARIABLES
+
+  private EdgeIndex index;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    // channel 0 toggles on every sample, channel 1 only twice, channel 2 never
+    final int[] values = { 0x0, 0x1, 0x2, 0x3, 0x2, 0x1, 0x0 };
+    final long[] timestamps = { 0L, 10L, 20L, 30L, 40L, 50L, 60L };
+
+    this.index = new EdgeIndex( values, timestamps );
+  }
+
+  /**
+   * Tests that the edges of each channel are correctly determined.
+   */
+  @Test
+  public void testGetEdgesOk()
+  {
+    assertArrayEquals( new long[] { 10L, 20L, 30L, 40L, 50L, 60L }, this.index.getEdges( 0 ) );
+    assertArrayEquals( new long[] { 20L, 50L }, this.index.getEdges( 1 ) );
+    assertArrayEquals( new long[0], this.index.getEdges( 2 ) );
+  }
+
+  /**
+   * Tests that the edges are only created once.
+   */
+  @Test
+  public void testGetEdgesIsCachedOk()
+  {
+    assertSame( this.index.getEdges( 1 ), this.index.getEdges( 1 ) );
+  }
+
+  /**
+   * Tests that an invalid channel index is refused.
+   */
+  @Test( expected = IllegalArgumentException.class )
+  public void testGetEdgesInvalidChannelFail()
+  {
+    this.index.getEdges( 32 );
+  }
+
+  /**
+   * Tests {@link EdgeIndex#findEdgeAfter(int, long)}.
+   */
+  @Test
+  public void testFindEdgeAfterOk()
+  {
+    assertEquals( 20L, this.index.findEdgeAfter( 1, 0L ) );
+    assertEquals( 50L, this.index.findEdgeAfter( 1, 20L ) );
+    assertEquals( 50L, this.index.findEdgeAfter( 1, 49L ) );
+    assertEquals( -1L, this.index.findEdgeAfter( 1, 50L ) );
+    assertEquals( -1L, this.index.findEdgeAfter( 2, 0L ) );
+  }
+
+  /**
+   * Tests {@link EdgeIndex#findEdgeBefore(int, long)}.
+   */
+  @Test
+  public void testFindEdgeBeforeOk()
+  {
+    assertEquals( 50L, this.index.findEdgeBefore( 1, 60L ) );
+    assertEquals( 20L, this.index.findEdgeBefore( 1, 50L ) );
+    assertEquals( -1L, this.index.findEdgeBefore( 1, 20L ) );
+    assertEquals( 40L, this.index.findEdgeBefore( 0, 45L ) );
+    assertEquals( -1L, this.index.findEdgeBefore( 2, 60L ) );
+  }
+
+  /**
+   * Tests {@link EdgeIndex#getLevel(int, long)}.
+   */
+  @Test
+  public void testGetLevelOk()
+  {
+    assertEquals( 0, this.index.getLevel( 1, 0L ) );
+    assertEquals( 0, this.index.getLevel( 1, 19L ) );
+    assertEquals( 1, this.index.getLevel( 1, 20L ) );
+    assertEquals( 1, this.index.getLevel( 1, 49L ) );
+    assertEquals( 0, this.index.getLevel( 1, 50L ) );
+    assertEquals( 1, this.index.getLevel( 0, 35L ) );
+  }
+}
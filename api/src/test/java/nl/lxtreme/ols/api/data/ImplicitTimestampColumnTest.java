@@ -0,0 +1,193 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ImplicitTimestampColumn}.
+ */
+public class ImplicitTimestampColumnTest
+{
+  // METHODS
+
+  /**
+   * Tests that timestamps without any gaps are stored implicitly.
+   */
+  @Test
+  public void testCreateDenseTimestampsOk()
+  {
+    final long[] timestamps = createTimestamps( 1000, 0 );
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, timestamps.length );
+    assertTrue( column instanceof ImplicitTimestampColumn );
+
+    assertColumnEquals( timestamps, column );
+  }
+
+  /**
+   * Tests that timestamps with a few gaps are stored implicitly.
+   */
+  @Test
+  public void testCreateDenseTimestampsWithGapsOk()
+  {
+    final long[] timestamps = createTimestamps( 1000, 50 );
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, timestamps.length );
+    assertTrue( column instanceof ImplicitTimestampColumn );
+
+    assertColumnEquals( timestamps, column );
+  }
+
+  /**
+   * Tests that only a part of the given timestamps is used.
+   */
+  @Test
+  public void testCreatePartialTimestampsOk()
+  {
+    final long[] timestamps = createTimestamps( 1000, 10 );
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, 500 );
+    assertEquals( 500, column.size() );
+
+    assertColumnEquals( Arrays.copyOf( timestamps, 500 ), column );
+  }
+
+  /**
+   * Tests that sparse timestamps are stored explicitly.
+   */
+  @Test
+  public void testCreateSparseTimestampsOk()
+  {
+    final long[] timestamps = { 0L, 10L, 11L, 12L, 20L, 30L, 31L, 40L };
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, timestamps.length );
+    assertTrue( column instanceof ExplicitTimestampColumn );
+    assertSame( timestamps, column.toArray() );
+  }
+
+  /**
+   * Tests that timestamps that are not strictly increasing are stored
+   * explicitly.
+   */
+  @Test
+  public void testCreateUnorderedTimestampsOk()
+  {
+    final long[] timestamps = { 0L, 1L, 2L, 3L, 4L, 5L, 6L, 3L };
+
+    assertFalse( ImplicitTimestampColumn.isSuitable( timestamps, timestamps.length ) );
+  }
+
+  /**
+   * Tests that an invalid index is refused.
+   */
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testGetInvalidIndexFail()
+  {
+    final long[] timestamps = createTimestamps( 100, 0 );
+
+    TimestampColumn.create( timestamps, timestamps.length ).get( 100 );
+  }
+
+  /**
+   * Tests that captured data built from data that changes on every sample
+   * behaves the same as before.
+   */
+  @Test
+  public void testCapturedDataWithDenseTimestampsOk()
+  {
+    final Random rnd = new Random( 7L );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    for ( int i = 0; i < 10000; i++ )
+    {
+      builder.addSample( ( i % 2 == 0 ) ? rnd.nextInt( 0x100 ) : 0x100 + i, i );
+    }
+    final CapturedData data = builder.setAbsoluteLength( 20000L ).build();
+
+    final long[] timestamps = data.getTimestamps();
+    assertEquals( data.getSampleCount(), timestamps.length );
+    assertEquals( 9999L, timestamps[9999] );
+    assertEquals( 20000L, timestamps[10000] );
+
+    for ( long ts = -1L; ts < 20010L; ts += 7L )
+    {
+      assertEquals( CapturedData.binarySearch( timestamps, 0, timestamps.length, Long.valueOf( ts ) ),
+          data.getSampleIndex( ts ) );
+    }
+  }
+
+  /**
+   * Asserts that the given column contains exactly the given timestamps, and
+   * searches them in the same way as the explicit representation.
+   */
+  private static void assertColumnEquals( final long[] aExpected, final TimestampColumn aColumn )
+  {
+    final TimestampColumn expected = new ExplicitTimestampColumn( aExpected, aExpected.length );
+
+    assertEquals( aExpected.length, aColumn.size() );
+    assertArrayEquals( aExpected, aColumn.toArray() );
+
+    for ( int i = 0; i < aExpected.length; i++ )
+    {
+      assertEquals( aExpected[i], aColumn.get( i ) );
+    }
+
+    final long[] window = new long[37];
+    for ( int i = 0; i < ( aExpected.length - window.length ); i += 13 )
+    {
+      aColumn.read( i, window, 0, window.length );
+      assertArrayEquals( Arrays.copyOfRange( aExpected, i, i + window.length ), window );
+    }
+
+    final long last = aExpected[aExpected.length - 1];
+    for ( long ts = -5L; ts < ( last + 5L ); ts++ )
+    {
+      assertEquals( "Timestamp " + ts, expected.search( ts ), aColumn.search( ts ) );
+    }
+  }
+
+  /**
+   * Creates strictly increasing timestamps, with the given number of gaps.
+   */
+  private static long[] createTimestamps( final int aCount, final int aGapCount )
+  {
+    final Random rnd = new Random( 42L );
+
+    final long[] result = new long[aCount];
+    long ts = 3L;
+    for ( int i = 0; i < aCount; i++ )
+    {
+      if ( ( i > 0 ) && ( rnd.nextInt( aCount ) < aGapCount ) )
+      {
+        ts += 1 + rnd.nextInt( 10 );
+      }
+      result[i] = ts++;
+    }
+    return result;
+  }
+}
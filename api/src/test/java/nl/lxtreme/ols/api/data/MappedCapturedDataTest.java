@@ -0,0 +1,213 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link MappedCapturedData} and
+ * {@link MappedCapturedDataBuilder}.
+ */
+public class MappedCapturedDataTest
+{
+  // CONSTANTS
+
+  /** use tiny segments of 16 samples to cross segment boundaries often. */
+  private static final int SEGMENT_SHIFT = 4;
+
+  // VARIABLES
+
+  private CapturedData expected;
+  private MappedCapturedData tested;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp() throws IOException
+  {
+    final CapturedDataBuilder arrayBuilder = new CapturedDataBuilder();
+    final MappedCapturedDataBuilder mappedBuilder = new MappedCapturedDataBuilder( null, SEGMENT_SHIFT );
+
+    final Random rnd = new Random( 1234L );
+    long timestamp = 0L;
+    for ( int i = 0; i < 1000; i++ )
+    {
+      // Repeat some values, to verify only transitions are kept...
+      final int value = rnd.nextInt( 4 );
+      arrayBuilder.addSample( value, timestamp );
+      mappedBuilder.addSample( value, timestamp );
+      timestamp += 1 + rnd.nextInt( 10 );
+    }
+
+    arrayBuilder.setAbsoluteLength( timestamp + 5L ).setSampleRate( 100 ).setChannels( 8 ).setTriggerPosition( 7L );
+    mappedBuilder.setAbsoluteLength( timestamp + 5L ).setSampleRate( 100 ).setChannels( 8 ).setTriggerPosition( 7L );
+
+    this.expected = arrayBuilder.build();
+    this.tested = mappedBuilder.build();
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.tested.close();
+  }
+
+  /**
+   * Tests that closing the mapped data deletes its files.
+   */
+  @Test
+  public void testCloseDeletesFilesOk() throws IOException
+  {
+    final File dir = createTempDir();
+
+    final MappedCapturedDataBuilder builder = new MappedCapturedDataBuilder( dir );
+    final MappedCapturedData data = builder.addSample( 1, 0L ).addSample( 2, 10L ).build();
+    assertEquals( 2, dir.list().length );
+
+    data.close();
+    assertEquals( 0, dir.list().length );
+    assertTrue( dir.delete() );
+  }
+
+  /**
+   * Tests that an empty builder results in empty captured data.
+   */
+  @Test
+  public void testEmptyDataOk() throws IOException
+  {
+    final MappedCapturedData data = new MappedCapturedDataBuilder().build();
+    try
+    {
+      assertEquals( 0L, data.getSampleCount() );
+      assertEquals( 0, data.getValues().length );
+      assertEquals( 0L, data.findSampleIndex( 10L ) );
+      assertEquals( 0, data.getEdgeIndex().getEdges( 0 ).length );
+    }
+    finally
+    {
+      data.close();
+    }
+  }
+
+  /**
+   * Tests that the edge index of the mapped data equals that of the array-based
+   * data.
+   */
+  @Test
+  public void testEdgeIndexOk()
+  {
+    for ( int i = 0; i < 2; i++ )
+    {
+      assertArrayEquals( this.expected.getEdgeIndex().getEdges( i ), this.tested.getEdgeIndex().getEdges( i ) );
+      assertEquals( this.expected.getEdgeIndex().getInitialLevel( i ), this.tested.getEdgeIndex().getInitialLevel( i ) );
+    }
+  }
+
+  /**
+   * Tests that looking up sample indices yields the same results as the
+   * array-based data.
+   */
+  @Test
+  public void testFindSampleIndexOk()
+  {
+    final long end = this.expected.getAbsoluteLength() + 2L;
+    for ( long t = -1L; t <= end; t++ )
+    {
+      assertEquals( "t = " + t, this.expected.getSampleIndex( t ), this.tested.findSampleIndex( t ) );
+      assertEquals( "t = " + t, this.expected.getSampleIndex( t ), this.tested.getSampleIndex( t ) );
+    }
+  }
+
+  /**
+   * Tests that the mapped data contains the same samples as the array-based
+   * data.
+   */
+  @Test
+  public void testMappedDataEqualsArrayDataOk()
+  {
+    assertEquals( this.expected.getSampleCount(), this.tested.getSampleCount() );
+    assertArrayEquals( this.expected.getValues(), this.tested.getValues() );
+    assertArrayEquals( this.expected.getTimestamps(), this.tested.getTimestamps() );
+    assertEquals( this.expected.getAbsoluteLength(), this.tested.getAbsoluteLength() );
+    assertEquals( this.expected.getTriggerPosition(), this.tested.getTriggerPosition() );
+    assertEquals( this.expected.getSampleRate(), this.tested.getSampleRate() );
+    assertEquals( this.expected.getChannels(), this.tested.getChannels() );
+
+    for ( long i = 0L; i < this.expected.getSampleCount(); i++ )
+    {
+      assertEquals( this.expected.getValue( i ), this.tested.getValue( i ) );
+      assertEquals( this.expected.getTimestamp( i ), this.tested.getTimestamp( i ) );
+    }
+  }
+
+  /**
+   * Tests that windows spanning multiple segments are read correctly.
+   */
+  @Test
+  public void testReadWindowAcrossSegmentsOk()
+  {
+    final int[] values = new int[40];
+    final long[] timestamps = new long[40];
+
+    this.tested.readValues( 10L, values, 2, 38 );
+    this.tested.readTimestamps( 10L, timestamps, 2, 38 );
+
+    for ( int i = 0; i < 38; i++ )
+    {
+      assertEquals( this.expected.getValue( 10L + i ), values[2 + i] );
+      assertEquals( this.expected.getTimestamp( 10L + i ), timestamps[2 + i] );
+    }
+  }
+
+  /**
+   * Tests that reading outside the mapped data fails.
+   */
+  @Test( expected = IndexOutOfBoundsException.class )
+  public void testReadWindowOutOfBoundsFail()
+  {
+    final int[] values = new int[10];
+    this.tested.readValues( this.tested.getSampleCount() - 5L, values, 0, 10 );
+  }
+
+  /**
+   * Creates an empty temporary directory.
+   */
+  private static File createTempDir() throws IOException
+  {
+    final File result = File.createTempFile( "ols", "test" );
+    assertTrue( result.delete() );
+    assertTrue( result.mkdir() );
+    return result;
+  }
+}
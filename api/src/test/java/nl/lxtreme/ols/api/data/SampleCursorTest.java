@@ -0,0 +1,192 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SampleCursor}.
+ */
+public class SampleCursorTest
+{
+  // VARIABLES
+
+  private CapturedData data;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    final Random rnd = new Random( 3L );
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    long time = 10L;
+    for ( int i = 0; i < 1000; i++ )
+    {
+      builder.addSample( rnd.nextInt( 16 ), time );
+      time += 1 + rnd.nextInt( 20 );
+    }
+    this.data = builder.setAbsoluteLength( time ).build();
+  }
+
+  /**
+   * Tests that the cursor can be moved to any sample index, both within and
+   * outside its current window.
+   */
+  @Test
+  public void testMoveToOk()
+  {
+    final Random rnd = new Random( 7L );
+    final int[] values = this.data.getValues();
+    final long[] timestamps = this.data.getTimestamps();
+    final SampleCursor cursor = new SampleCursor( this.data, 16 );
+
+    for ( int i = 0; i < 500; i++ )
+    {
+      final int index = rnd.nextInt( values.length );
+      cursor.moveTo( index );
+
+      assertEquals( index, cursor.getIndex() );
+      assertEquals( values[index], cursor.getValue() );
+      assertEquals( timestamps[index], cursor.getTimestamp() );
+    }
+
+    try
+    {
+      cursor.moveTo( values.length );
+      fail( "Exception expected!" );
+    }
+    catch ( IndexOutOfBoundsException exception )
+    {
+      // Ok; expected...
+    }
+  }
+
+  /**
+   * Tests that the edges of a single channel are found in order.
+   */
+  @Test
+  public void testNextEdgeOk()
+  {
+    final int mask = 0x04;
+    final int[] values = this.data.getValues();
+    final long[] timestamps = this.data.getTimestamps();
+
+    final List<Long> expected = new ArrayList<Long>();
+    for ( int i = 1; i < values.length; i++ )
+    {
+      if ( ( values[i] & mask ) != ( values[i - 1] & mask ) )
+      {
+        expected.add( Long.valueOf( timestamps[i] ) );
+      }
+    }
+
+    final SampleCursor cursor = new SampleCursor( this.data, 16 );
+    final List<Long> actual = new ArrayList<Long>();
+    long edge;
+    while ( ( edge = cursor.nextEdge( mask ) ) >= 0L )
+    {
+      actual.add( Long.valueOf( edge ) );
+      assertEquals( edge, cursor.getTimestamp() );
+    }
+
+    assertEquals( expected, actual );
+    assertEquals( values.length - 1, cursor.getIndex() );
+  }
+
+  /**
+   * Tests that an empty acquisition result is handled gracefully.
+   */
+  @Test( expected = NoSuchElementException.class )
+  public void testEmptyDataFail()
+  {
+    final SampleCursor cursor = new SampleCursor( new CapturedDataBuilder().build() );
+
+    assertEquals( -1L, cursor.nextEdge( 0x01 ) );
+    assertFalse( cursor.next() );
+
+    cursor.valueAt( 0L );
+  }
+
+  /**
+   * Tests that the values are correctly returned while moving forward.
+   */
+  @Test
+  public void testValueAtForwardOk()
+  {
+    final SampleCursor cursor = new SampleCursor( this.data, 16 );
+    final long end = this.data.getAbsoluteLength() + 10L;
+
+    for ( long time = 0L; time < end; time++ )
+    {
+      assertEquals( "Time " + time, getExpectedValue( time ), cursor.valueAt( time ) );
+    }
+
+    for ( long time = 0L; time < end; time += 250L )
+    {
+      assertEquals( "Time " + time, getExpectedValue( time ), cursor.valueAt( time ) );
+    }
+  }
+
+  /**
+   * Tests that the values are correctly returned while moving randomly.
+   */
+  @Test
+  public void testValueAtRandomOk()
+  {
+    final Random rnd = new Random( 5L );
+    final SampleCursor cursor = new SampleCursor( this.data, 16 );
+    final int end = ( int )this.data.getAbsoluteLength() + 10;
+
+    for ( int i = 0; i < 5000; i++ )
+    {
+      final long time = rnd.nextInt( end ) - 5L;
+      assertEquals( "Time " + time, getExpectedValue( time ), cursor.valueAt( time ) );
+      assertTrue( cursor.getTimestamp() <= Math.max( time, 10L ) );
+    }
+  }
+
+  /**
+   * Returns the value in effect at the given time, by brute force.
+   */
+  private int getExpectedValue( final long aTime )
+  {
+    final int[] values = this.data.getValues();
+    final long[] timestamps = this.data.getTimestamps();
+
+    int result = values[0];
+    for ( int i = 0; ( i < timestamps.length ) && ( timestamps[i] <= aTime ); i++ )
+    {
+      result = values[i];
+    }
+    return result;
+  }
+}
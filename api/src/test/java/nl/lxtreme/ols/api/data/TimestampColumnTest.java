@@ -0,0 +1,122 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for the timestamp representations, which should use less memory
+ * than a plain array of longs while yielding the very same timestamps.
+ */
+public class TimestampColumnTest
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 100003;
+  private static final int WINDOW_SIZE = 1000;
+
+  // METHODS
+
+  /**
+   * Tests that a long running, sparse capture is stored as deltas, in less
+   * memory than a plain array, and yields the same timestamps.
+   */
+  @Test
+  public void testDeltaTimestamps()
+  {
+    final Random rnd = new Random( 1L );
+
+    // Mostly small distances, with an occasional long period of inactivity...
+    final long[] timestamps = new long[SAMPLE_COUNT];
+    for ( int i = 1; i < SAMPLE_COUNT; i++ )
+    {
+      final int delta = ( rnd.nextInt( 100 ) == 0 ) ? rnd.nextInt( 1000000 ) : rnd.nextInt( 2000 );
+      timestamps[i] = timestamps[i - 1] + 1L + delta;
+    }
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, SAMPLE_COUNT );
+    assertTrue( column instanceof DeltaTimestampColumn );
+
+    assertSameTimestamps( timestamps, column );
+  }
+
+  /**
+   * Tests that a dense capture is stored implicitly, in less memory than a
+   * plain array, and yields the same timestamps.
+   */
+  @Test
+  public void testImplicitTimestamps()
+  {
+    final Random rnd = new Random( 1L );
+
+    final long[] timestamps = new long[SAMPLE_COUNT];
+    for ( int i = 1; i < SAMPLE_COUNT; i++ )
+    {
+      timestamps[i] = timestamps[i - 1] + ( ( rnd.nextInt( 1000 ) == 0 ) ? 2L : 1L );
+    }
+
+    final TimestampColumn column = TimestampColumn.create( timestamps, SAMPLE_COUNT );
+    assertTrue( column instanceof ImplicitTimestampColumn );
+
+    assertSameTimestamps( timestamps, column );
+  }
+
+  /**
+   * Asserts that the given column uses less memory than the given timestamps,
+   * and yields the very same timestamps, regardless of how they are accessed.
+   */
+  private static void assertSameTimestamps( final long[] aExpected, final TimestampColumn aColumn )
+  {
+    final ExplicitTimestampColumn reference = new ExplicitTimestampColumn( aExpected, aExpected.length );
+    assertTrue( aColumn.getMemoryUsage() < ( reference.getMemoryUsage() / 2 ) );
+
+    assertEquals( aExpected.length, aColumn.size() );
+    assertArrayEquals( aExpected, aColumn.toArray() );
+
+    // Sequential iteration in windows, which do not align with any internal
+    // block sizes...
+    final long[] window = new long[WINDOW_SIZE];
+    for ( int i = 0; i < aExpected.length; i += WINDOW_SIZE )
+    {
+      final int length = Math.min( WINDOW_SIZE, aExpected.length - i );
+      aColumn.read( i, window, 0, length );
+      for ( int j = 0; j < length; j++ )
+      {
+        assertEquals( aExpected[i + j], window[j] );
+      }
+    }
+
+    // Random access and searching...
+    final Random rnd = new Random( 2L );
+    for ( int n = 0; n < 1000; n++ )
+    {
+      final int idx = rnd.nextInt( aExpected.length );
+      assertEquals( aExpected[idx], aColumn.get( idx ) );
+      assertEquals( idx, aColumn.search( aExpected[idx] ) );
+    }
+  }
+}
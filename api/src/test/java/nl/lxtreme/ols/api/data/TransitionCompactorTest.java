@@ -0,0 +1,187 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link TransitionCompactor}.
+ */
+public class TransitionCompactorTest
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = TransitionCompactor.PARALLEL_THRESHOLD + 12345;
+
+  // METHODS
+
+  /**
+   * Tests that compacting in parallel yields the same result as compacting
+   * sequentially.
+   */
+  @Test
+  public void testCompactParallelOk()
+  {
+    final Random rnd = new Random( 1L );
+
+    final int[] values = new int[SAMPLE_COUNT];
+    final long[] timestamps = new long[SAMPLE_COUNT];
+    for ( int i = 1; i < SAMPLE_COUNT; i++ )
+    {
+      values[i] = ( rnd.nextInt( 10 ) == 0 ) ? rnd.nextInt( 4 ) : values[i - 1];
+      timestamps[i] = timestamps[i - 1] + 1L + rnd.nextInt( 3 );
+    }
+
+    for ( int parallelism = 2; parallelism <= 8; parallelism++ )
+    {
+      assertCompactedEqual( values, null, parallelism );
+      assertCompactedEqual( values, timestamps, parallelism );
+    }
+  }
+
+  /**
+   * Tests that a transition at the very start of a chunk is not lost.
+   */
+  @Test
+  public void testCompactTransitionsAtChunkBoundariesOk()
+  {
+    final int[] values = new int[SAMPLE_COUNT];
+    for ( int i = 0; i < SAMPLE_COUNT; i++ )
+    {
+      values[i] = ( i * 4 ) / SAMPLE_COUNT;
+    }
+
+    final TransitionCompactor compactor = new TransitionCompactor( values, null, 4 );
+    assertEquals( 4, compactor.countTransitions() );
+    assertEquals( ( ( 3 * SAMPLE_COUNT ) + 3 ) / 4, compactor.getLastTransitionIndex() );
+
+    final int[] compactedValues = new int[4];
+    final long[] compactedTimestamps = new long[4];
+    compactor.copyTransitions( compactedValues, compactedTimestamps );
+
+    assertArrayEquals( new int[] { 0, 1, 2, 3 }, compactedValues );
+  }
+
+  /**
+   * Tests that compacting in parallel yields the same result as compacting
+   * sequentially, for transitions right before, at and right after each chunk
+   * boundary, as well as for values that continue across a chunk boundary.
+   */
+  @Test
+  public void testCompactParallelAtChunkBoundariesOk()
+  {
+    final int chunkCount = 4;
+    final int chunkSize = TransitionCompactor.MIN_CHUNK_SIZE;
+
+    final int[] values = new int[chunkCount * chunkSize];
+    final long[] timestamps = new long[values.length];
+    for ( int i = 0; i < values.length; i++ )
+    {
+      timestamps[i] = 2L * i;
+    }
+
+    // A transition at the start of chunk 1, right before the start of chunk 2
+    // and right after the start of chunk 3. Chunks 2 and 3 start with the same
+    // value as their preceding chunk ends with...
+    fill( values, chunkSize, 1 );
+    fill( values, ( 2 * chunkSize ) - 1, 2 );
+    fill( values, ( 3 * chunkSize ) + 1, 3 );
+
+    final TransitionCompactor parallel = new TransitionCompactor( values, timestamps, chunkCount );
+    assertEquals( 4, parallel.countTransitions() );
+    assertEquals( ( 3 * chunkSize ) + 1, parallel.getLastTransitionIndex() );
+
+    final int[] compactedValues = new int[4];
+    final long[] compactedTimestamps = new long[4];
+    parallel.copyTransitions( compactedValues, compactedTimestamps );
+
+    assertArrayEquals( new int[] { 0, 1, 2, 3 }, compactedValues );
+    final long[] expectedTimestamps = { 0L, 2L * chunkSize, 2L * ( ( 2 * chunkSize ) - 1 ),
+        2L * ( ( 3 * chunkSize ) + 1 ) };
+    assertArrayEquals( expectedTimestamps, compactedTimestamps );
+
+    for ( int parallelism = 2; parallelism <= chunkCount; parallelism++ )
+    {
+      assertCompactedEqual( values, timestamps, parallelism );
+    }
+  }
+
+  /**
+   * Tests that constant data is compacted to a single sample.
+   */
+  @Test
+  public void testCompactConstantDataOk()
+  {
+    final TransitionCompactor compactor = new TransitionCompactor( new int[SAMPLE_COUNT], null, 4 );
+    assertEquals( 1, compactor.countTransitions() );
+    assertEquals( 0, compactor.getLastTransitionIndex() );
+  }
+
+  /**
+   * Tests that empty data is compacted to nothing.
+   */
+  @Test
+  public void testCompactEmptyDataOk()
+  {
+    final TransitionCompactor compactor = new TransitionCompactor( new int[0], null );
+    assertEquals( 0, compactor.countTransitions() );
+    assertEquals( -1, compactor.getLastTransitionIndex() );
+  }
+
+  /**
+   * Compacts the given data both sequentially and with the given parallelism,
+   * and asserts the results are equal.
+   */
+  private static void assertCompactedEqual( final int[] aValues, final long[] aTimestamps, final int aParallelism )
+  {
+    final TransitionCompactor sequential = new TransitionCompactor( aValues, aTimestamps, 1 );
+    final TransitionCompactor parallel = new TransitionCompactor( aValues, aTimestamps, aParallelism );
+
+    final int count = sequential.countTransitions();
+    assertEquals( count, parallel.countTransitions() );
+    assertEquals( sequential.getLastTransitionIndex(), parallel.getLastTransitionIndex() );
+
+    final int[] expectedValues = new int[count];
+    final long[] expectedTimestamps = new long[count];
+    sequential.copyTransitions( expectedValues, expectedTimestamps );
+
+    final int[] actualValues = new int[count];
+    final long[] actualTimestamps = new long[count];
+    parallel.copyTransitions( actualValues, actualTimestamps );
+
+    assertArrayEquals( expectedValues, actualValues );
+    assertArrayEquals( expectedTimestamps, actualTimestamps );
+  }
+
+  /**
+   * Sets all values from the given index onwards to the given value.
+   */
+  private static void fill( final int[] aValues, final int aFromIdx, final int aValue )
+  {
+    Arrays.fill( aValues, aFromIdx, aValues.length, aValue );
+  }
+}
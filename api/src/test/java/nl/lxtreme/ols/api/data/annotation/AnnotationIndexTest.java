@@ -0,0 +1,291 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data.annotation;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link AnnotationIndex}.
+ */
+public class AnnotationIndexTest
+{
+  // INNER TYPES
+
+  /**
+   * Provides a simple data annotation for testing purposes.
+   */
+  static final class TestAnnotation implements DataAnnotation<String>
+  {
+    private final long start;
+    private final long end;
+
+    TestAnnotation( final long aStart, final long aEnd )
+    {
+      this.start = aStart;
+      this.end = aEnd;
+    }
+
+    @Override
+    public int compareTo( final Annotation<String> aOther )
+    {
+      return getAnnotation().compareTo( aOther.getAnnotation() );
+    }
+
+    @Override
+    public String getAnnotation()
+    {
+      return this.start + "-" + this.end;
+    }
+
+    @Override
+    public int getChannel()
+    {
+      return 0;
+    }
+
+    @Override
+    public long getEndTimestamp()
+    {
+      return this.end;
+    }
+
+    @Override
+    public long getStartTimestamp()
+    {
+      return this.start;
+    }
+
+    @Override
+    public String toString()
+    {
+      return getAnnotation();
+    }
+  }
+
+  // VARIABLES
+
+  private AnnotationIndex index;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.index = new AnnotationIndex();
+    // A long-running annotation, spanning several shorter ones...
+    this.index.add( new TestAnnotation( 0L, 100L ) );
+    this.index.add( new TestAnnotation( 10L, 20L ) );
+    this.index.add( new TestAnnotation( 30L, 40L ) );
+    this.index.add( new TestAnnotation( 50L, 60L ) );
+    this.index.add( new TestAnnotation( 200L, 210L ) );
+  }
+
+  /**
+   * Tests {@link AnnotationIndex#findAfter(long)}.
+   */
+  @Test
+  public void testFindAfterOk()
+  {
+    assertEquals( "10-20", String.valueOf( this.index.findAfter( 1L ) ) );
+    assertEquals( "30-40", String.valueOf( this.index.findAfter( 30L ) ) );
+    assertEquals( "200-210", String.valueOf( this.index.findAfter( 51L ) ) );
+    assertNull( this.index.findAfter( 201L ) );
+  }
+
+  /**
+   * Tests {@link AnnotationIndex#findAt(long)}.
+   */
+  @Test
+  public void testFindAtOk()
+  {
+    assertEquals( "0-100", String.valueOf( this.index.findAt( 35L ) ) );
+    assertEquals( "200-210", String.valueOf( this.index.findAt( 205L ) ) );
+    assertNull( this.index.findAt( 150L ) );
+  }
+
+  /**
+   * Tests {@link AnnotationIndex#findBefore(long)}.
+   */
+  @Test
+  public void testFindBeforeOk()
+  {
+    assertEquals( "50-60", String.valueOf( this.index.findBefore( 61L ) ) );
+    assertEquals( "30-40", String.valueOf( this.index.findBefore( 60L ) ) );
+    assertEquals( "50-60", String.valueOf( this.index.findBefore( 200L ) ) );
+    assertNull( this.index.findBefore( 20L ) );
+  }
+
+  /**
+   * Tests {@link AnnotationIndex#findOverlapping(long, long)}.
+   */
+  @Test
+  public void testFindOverlappingOk()
+  {
+    assertEquals( "[0-100, 30-40, 50-60]", this.index.findOverlapping( 35L, 55L ).toString() );
+    assertEquals( "[0-100, 10-20]", this.index.findOverlapping( 0L, 10L ).toString() );
+    assertEquals( "[]", this.index.findOverlapping( 101L, 199L ).toString() );
+    assertEquals( "[200-210]", this.index.findOverlapping( 210L, 1000L ).toString() );
+  }
+
+  /**
+   * Tests that annotations added out of order are sorted before being queried.
+   */
+  @Test
+  public void testAddOutOfOrderOk()
+  {
+    this.index.addAll( Arrays.asList( new TestAnnotation( 150L, 160L ), new TestAnnotation( 5L, 6L ) ) );
+
+    assertEquals( 7, this.index.size() );
+    assertEquals( "[0-100, 5-6, 10-20, 30-40, 50-60, 150-160, 200-210]", this.index.getAnnotations().toString() );
+    assertEquals( "[150-160]", this.index.findOverlapping( 101L, 199L ).toString() );
+    assertEquals( "5-6", String.valueOf( this.index.findAfter( 1L ) ) );
+  }
+
+  /**
+   * Tests that a large number of annotations is looked up correctly.
+   */
+  @Test
+  public void testFindInLargeIndexOk()
+  {
+    this.index.clear();
+    assertTrue( this.index.isEmpty() );
+
+    for ( int i = 0; i < 100000; i++ )
+    {
+      this.index.add( new TestAnnotation( i * 10L, ( i * 10L ) + 5L ) );
+    }
+
+    assertEquals( "500000-500005", String.valueOf( this.index.findAt( 500003L ) ) );
+    assertNull( this.index.findAt( 500007L ) );
+    assertEquals( "500010-500015", String.valueOf( this.index.findAfter( 500001L ) ) );
+    assertEquals( "499990-499995", String.valueOf( this.index.findBefore( 500003L ) ) );
+    assertEquals( 3, this.index.findOverlapping( 500003L, 500020L ).size() );
+  }
+
+  /**
+   * Tests that overlap queries are correct when a long annotation spans many
+   * short ones, comparing against a linear scan of all annotations.
+   */
+  @Test
+  public void testFindWithSpanningAnnotationOk()
+  {
+    this.index.clear();
+
+    final List<TestAnnotation> all = new ArrayList<TestAnnotation>();
+    // A frame-level annotation covering (nearly) the whole range...
+    all.add( new TestAnnotation( 1L, 1000000L ) );
+
+    final Random rnd = new Random( 1L );
+    long start = 2L;
+    for ( int i = 0; i < 20000; i++ )
+    {
+      final long length = ( rnd.nextInt( 50 ) == 0 ) ? rnd.nextInt( 5000 ) : rnd.nextInt( 20 );
+      all.add( new TestAnnotation( start, start + length ) );
+      start += rnd.nextInt( 40 );
+    }
+    for ( TestAnnotation annotation : all )
+    {
+      this.index.add( annotation );
+    }
+
+    for ( int i = 0; i < 500; i++ )
+    {
+      final long from = rnd.nextInt( ( int )start + 100 );
+      final long to = from + rnd.nextInt( 200 );
+
+      final List<DataAnnotation<?>> expected = new ArrayList<DataAnnotation<?>>();
+      for ( TestAnnotation annotation : all )
+      {
+        if ( ( annotation.getStartTimestamp() <= to ) && ( annotation.getEndTimestamp() >= from ) )
+        {
+          expected.add( annotation );
+        }
+      }
+
+      assertEquals( expected, this.index.findOverlapping( from, to ) );
+
+      DataAnnotation<?> expectedAt = null;
+      for ( TestAnnotation annotation : all )
+      {
+        if ( ( annotation.getStartTimestamp() <= from ) && ( annotation.getEndTimestamp() >= from ) )
+        {
+          expectedAt = annotation;
+          break;
+        }
+      }
+      assertSame( expectedAt, this.index.findAt( from ) );
+    }
+  }
+
+  /**
+   * Tests that the annotations are returned as read-only view that reflects
+   * later changes.
+   */
+  @Test
+  public void testGetAnnotationsIsViewOk()
+  {
+    final List<Annotation<?>> annotations = this.index.getAnnotations();
+    assertEquals( 5, annotations.size() );
+
+    this.index.add( new TestAnnotation( 5L, 6L ) );
+    assertEquals( 6, annotations.size() );
+    assertEquals( "5-6", annotations.get( 1 ).toString() );
+
+    try
+    {
+      annotations.add( new TestAnnotation( 1L, 2L ) );
+      fail( "Expected UnsupportedOperationException!" );
+    }
+    catch ( UnsupportedOperationException exception )
+    {
+      // Ok; expected...
+    }
+  }
+
+  /**
+   * Tests that each change of the index changes its modification count, while
+   * queries do not.
+   */
+  @Test
+  public void testModificationCountOk()
+  {
+    int modCount = this.index.getModificationCount();
+
+    this.index.findOverlapping( 0L, 300L );
+    assertEquals( modCount, this.index.getModificationCount() );
+
+    this.index.add( new TestAnnotation( 300L, 310L ) );
+    assertTrue( modCount != this.index.getModificationCount() );
+
+    modCount = this.index.getModificationCount();
+    this.index.clear();
+    assertTrue( modCount != this.index.getModificationCount() );
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.data.internal;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link OlsDataTokenizer}.
+ */
+public class OlsDataTokenizerTest
+{
+  // METHODS
+
+  /**
+   * Tests that instructions are returned one by one, and data lines are
+   * collected in between.
+   */
+  @Test
+  public void testReadInstructionsAndDataOk() throws IOException
+  {
+    final OlsDataTokenizer tokenizer = createTokenizer( ";Size: 3\n;Rate: 100\r\n00@0\n1F@10\r\n;Cursor0: 5\nff@20" );
+
+    assertTrue( tokenizer.nextInstruction() );
+    assertEquals( "Size", tokenizer.getInstructionKey() );
+    assertEquals( "3", tokenizer.getInstructionValue() );
+
+    assertTrue( tokenizer.nextInstruction() );
+    assertEquals( "Rate", tokenizer.getInstructionKey() );
+    assertEquals( "100", tokenizer.getInstructionValue() );
+
+    assertTrue( tokenizer.nextInstruction() );
+    assertEquals( "Cursor0", tokenizer.getInstructionKey() );
+    assertEquals( "5", tokenizer.getInstructionValue() );
+    assertEquals( 2, tokenizer.getSampleCount() );
+
+    assertFalse( tokenizer.nextInstruction() );
+    assertNull( tokenizer.getInstructionKey() );
+
+    assertArrayEquals( new int[] { 0x00, 0x1F, 0xFF }, tokenizer.getValues() );
+    assertArrayEquals( new long[] { 0L, 10L, 20L }, tokenizer.getTimestamps() );
+  }
+
+  /**
+   * Tests that malformed lines are silently ignored.
+   */
+  @Test
+  public void testIgnoreMalformedLinesOk() throws IOException
+  {
+    final OlsDataTokenizer tokenizer = createTokenizer( "; Comment\n;NoValue:\n;NoSpace:1\n:Key: 1\n\n0@\n0@-1\n"
+        + "0@1 \n0x1@2\n1@3@4\ng@5\n 1@6\n;Key:  value: x \n2@7" );
+
+    assertTrue( tokenizer.nextInstruction() );
+    assertEquals( "Key", tokenizer.getInstructionKey() );
+    assertEquals( "value: x ", tokenizer.getInstructionValue() );
+
+    assertFalse( tokenizer.nextInstruction() );
+
+    assertArrayEquals( new int[] { 2 }, tokenizer.getValues() );
+    assertArrayEquals( new long[] { 7L }, tokenizer.getTimestamps() );
+  }
+
+  /**
+   * Tests that sample values larger than 32-bits are truncated.
+   */
+  @Test
+  public void testReadLargeValuesOk() throws IOException
+  {
+    final OlsDataTokenizer tokenizer = createTokenizer( "1ffffffff@9223372036854775807" );
+
+    assertFalse( tokenizer.nextInstruction() );
+
+    assertArrayEquals( new int[] { 0xFFFFFFFF }, tokenizer.getValues() );
+    assertArrayEquals( new long[] { Long.MAX_VALUE }, tokenizer.getTimestamps() );
+  }
+
+  /**
+   * Tests that a sample value that does not fit in a long is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadTooLargeValueFail() throws IOException
+  {
+    createTokenizer( "ffffffffffffffffff@0" ).nextInstruction();
+  }
+
+  /**
+   * Tests that a timestamp that does not fit in a long is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadTooLargeTimestampFail() throws IOException
+  {
+    createTokenizer( "0@9223372036854775808" ).nextInstruction();
+  }
+
+  /**
+   * Creates a tokenizer for the given data.
+   */
+  private OlsDataTokenizer createTokenizer( final String aData )
+  {
+    return new OlsDataTokenizer( new StringReader( aData ) );
+  }
+}
@@ -0,0 +1,170 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.api.util;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ChunkExecutor}.
+ */
+public class ChunkExecutorTest
+{
+  // METHODS
+
+  /**
+   * Creates a number of tasks that each mark their own slot.
+   */
+  private static List<Callable<Object>> createTasks( final int[] aSlots )
+  {
+    final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+    for ( int i = 0; i < aSlots.length; i++ )
+    {
+      final int slot = i;
+      tasks.add( new Callable<Object>()
+      {
+        @Override
+        public Object call() throws Exception
+        {
+          aSlots[slot]++;
+          return null;
+        }
+      } );
+    }
+    return tasks;
+  }
+
+  /**
+   * Tests that all tasks are run exactly once, also when reusing the executor.
+   */
+  @Test
+  public void testInvokeAllOk()
+  {
+    final ChunkExecutor executor = new ChunkExecutor( 4, "Test" );
+    try
+    {
+      final int[] slots = new int[16];
+      executor.invokeAll( createTasks( slots ) );
+      executor.invokeAll( createTasks( slots ) );
+
+      for ( int slot : slots )
+      {
+        assertEquals( 2, slot );
+      }
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests that a single thread runs all tasks on the calling thread.
+   */
+  @Test
+  public void testInvokeAllSequentialOk()
+  {
+    final ChunkExecutor executor = new ChunkExecutor( 1, "Test" );
+    final Thread caller = Thread.currentThread();
+    final List<Thread> threads = new ArrayList<Thread>();
+
+    final List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+    for ( int i = 0; i < 3; i++ )
+    {
+      tasks.add( new Callable<Object>()
+      {
+        @Override
+        public Object call() throws Exception
+        {
+          threads.add( Thread.currentThread() );
+          return null;
+        }
+      } );
+    }
+    executor.invokeAll( tasks );
+
+    assertEquals( Arrays.asList( caller, caller, caller ), threads );
+  }
+
+  /**
+   * Tests that a runtime exception of a concurrent task is rethrown as-is.
+   */
+  @Test( expected = IllegalStateException.class )
+  public void testInvokeAllRethrowsRuntimeExceptionOk()
+  {
+    final ChunkExecutor executor = new ChunkExecutor( 2, "Test" );
+    final List<Callable<Object>> tasks = createTasks( new int[2] );
+    tasks.add( new Callable<Object>()
+    {
+      @Override
+      public Object call() throws Exception
+      {
+        throw new IllegalStateException();
+      }
+    } );
+    try
+    {
+      executor.invokeAll( tasks );
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Tests that a checked exception of a task is wrapped.
+   */
+  @Test
+  public void testInvokeAllWrapsCheckedExceptionOk()
+  {
+    final ChunkExecutor executor = new ChunkExecutor( 2, "Test" );
+    final Exception failure = new Exception();
+    final List<Callable<Object>> tasks = createTasks( new int[2] );
+    tasks.add( new Callable<Object>()
+    {
+      @Override
+      public Object call() throws Exception
+      {
+        throw failure;
+      }
+    } );
+    try
+    {
+      executor.invokeAll( tasks );
+      fail( "Exception expected!" );
+    }
+    catch ( RuntimeException exception )
+    {
+      assertSame( failure, exception.getCause() );
+    }
+    finally
+    {
+      executor.shutdown();
+    }
+  }
+}
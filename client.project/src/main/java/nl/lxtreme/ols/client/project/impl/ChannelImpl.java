@@ -23,8 +23,6 @@ package nl.lxtreme.ols.client.project.impl;
 
 import java.beans.*;
 import java.util.*;
-import java.util.List;
-import java.util.concurrent.*;
 
 import nl.lxtreme.ols.api.*;
 import nl.lxtreme.ols.api.data.*;
@@ -48,7 +46,7 @@ public final class ChannelImpl implements Channel
   private String label;
   private boolean enabled;
 
-  private final List<Annotation<?>> annotations;
+  private final AnnotationIndex annotations;
   private final PropertyChangeSupport propertyChangeSupport;
 
   // CONSTRUCTORS
@@ -76,10 +74,13 @@ public final class ChannelImpl implements Channel
     this.label = aChannel.hasName() ? aChannel.getLabel() : null;
     this.enabled = aChannel.isEnabled();
 
-    this.annotations = new CopyOnWriteArrayList<Annotation<?>>();
+    this.annotations = new AnnotationIndex();
     if ( aRetainAnnotation )
     {
-      this.annotations.addAll( aChannel.getAnnotations() );
+      for ( Annotation<?> annotation : aChannel.getAnnotations() )
+      {
+        addAnnotation( annotation );
+      }
     }
   }
 
@@ -103,7 +104,7 @@ public final class ChannelImpl implements Channel
     this.label = null;
     this.enabled = true;
 
-    this.annotations = new CopyOnWriteArrayList<Annotation<?>>();
+    this.annotations = new AnnotationIndex();
   }
 
   // METHODS
@@ -116,7 +117,7 @@ public final class ChannelImpl implements Channel
   {
     if ( aAnnotation instanceof DataAnnotation )
     {
-      this.annotations.add( aAnnotation );
+      this.annotations.add( ( DataAnnotation<?> )aAnnotation );
     }
     else
     {
@@ -177,13 +178,22 @@ public final class ChannelImpl implements Channel
     return true;
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AnnotationIndex getAnnotationIndex()
+  {
+    return this.annotations;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   public Collection<Annotation<?>> getAnnotations()
   {
-    return Collections.unmodifiableCollection( this.annotations );
+    return this.annotations.getAnnotations();
   }
 
   /**
@@ -0,0 +1,336 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.project.impl;
+
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.*;
+
+
+/**
+ * Helper class that is capable of reading &amp; writing OLS data in a binary
+ * format.
+ * <p>
+ * In contrast to the text format, as used by {@link OlsDataHelper}, the binary
+ * format is not meant for interchange, but for quickly storing and loading
+ * captured data. It consists of a header, followed by the samples in blocks of
+ * at most {@link #BLOCK_SIZE} samples. Each block starts with its number of
+ * samples, followed by their values as (big-endian) integers, followed by
+ * their timestamps, each encoded as the difference with its preceding
+ * timestamp in a variable number of bytes.
+ * </p>
+ * <p>
+ * As the samples are interleaved in blocks, they can be read in a single pass
+ * without keeping all values in memory. The read samples are stored in a
+ * {@link MappedCapturedData}, so the heap usage does not depend on the number
+ * of samples either, for reading nor for writing.
+ * </p>
+ */
+public final class OlsBinaryDataHelper
+{
+  // CONSTANTS
+
+  /** The magic denoting the start of binary OLS data, "OLSB". */
+  static final int MAGIC = 0x4F4C5342;
+  /** The current version of the binary format. */
+  static final int VERSION = 2;
+  /** The maximum number of samples in a single block. */
+  static final int BLOCK_SIZE = 8192;
+
+  // METHODS
+
+  /**
+   * Reads the data from a given file.
+   * 
+   * @param aFile
+   *          the file to read the data from, cannot be <code>null</code>.
+   * @return the read data set, never <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
+   */
+  public static DataSetImpl read( final File aFile ) throws IOException
+  {
+    final InputStream is = new FileInputStream( aFile );
+
+    try
+    {
+      return read( is );
+    }
+    finally
+    {
+      HostUtils.closeResource( is );
+    }
+  }
+
+  /**
+   * Reads the data from a given input stream.
+   * <p>
+   * The sample values and timestamps are decoded block by block straight into
+   * a {@link MappedCapturedDataBuilder}, so only a single block of samples is
+   * kept in memory.
+   * </p>
+   * 
+   * @param aInput
+   *          the input stream to read the data from, cannot be
+   *          <code>null</code>. This stream is <em>not</em> closed.
+   * @return the read data set, never <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
+   */
+  public static DataSetImpl read( final InputStream aInput ) throws IOException
+  {
+    final DataInputStream dis = new DataInputStream( new BufferedInputStream( aInput, 65536 ) );
+
+    final MappedCapturedDataBuilder builder = new MappedCapturedDataBuilder();
+    boolean success = false;
+
+    try
+    {
+      if ( dis.readInt() != MAGIC )
+      {
+        throw new IOException( "Data file is corrupt?! Not a binary OLS data file!" );
+      }
+      final int version = dis.readInt();
+      if ( version != VERSION )
+      {
+        throw new IOException( "Unsupported data file version: " + version + "!" );
+      }
+
+      final long size = dis.readLong();
+      final int rate = dis.readInt();
+      final int channels = dis.readInt();
+      final int enabledChannels = dis.readInt();
+      final long triggerPos = dis.readLong();
+      final long absLen = dis.readLong();
+
+      final DataSetImpl tempDataSet = new DataSetImpl();
+      tempDataSet.setCursorsEnabled( dis.readBoolean() );
+
+      final int cursorCount = dis.readInt();
+      for ( int i = 0; i < cursorCount; i++ )
+      {
+        final int idx = dis.readInt();
+        final long timestamp = dis.readLong();
+        tempDataSet.getCursor( idx ).setTimestamp( timestamp );
+      }
+
+      // Perform some sanity checks, make it not possible to import invalid
+      // data...
+      if ( size <= 0L )
+      {
+        throw new IOException( "Data file does not contain any sample data!" );
+      }
+      if ( ( channels <= 0 ) || ( channels > 32 ) )
+      {
+        throw new IOException( "Data file is corrupt?! Channel count is not provided!" );
+      }
+
+      builder.setSampleRate( rate ).setChannels( channels ).setEnabledChannels( enabledChannels );
+      builder.setTriggerPosition( triggerPos ).setAbsoluteLength( absLen );
+
+      final int[] values = new int[( int )Math.min( BLOCK_SIZE, size )];
+
+      long timestamp = 0L;
+      long remaining = size;
+      while ( remaining > 0L )
+      {
+        final int blockSize = dis.readInt();
+        if ( ( blockSize <= 0 ) || ( blockSize > values.length ) || ( blockSize > remaining ) )
+        {
+          throw new IOException( "Data file is corrupt?! Invalid block size: " + blockSize + "!" );
+        }
+
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          values[i] = dis.readInt();
+        }
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          timestamp += readDelta( dis );
+          builder.addSample( values[i], timestamp );
+        }
+
+        remaining -= blockSize;
+      }
+
+      final DataSetImpl result = new DataSetImpl( builder.build(), tempDataSet, false /* aRetainAnnotations */);
+      success = true;
+      return result;
+    }
+    catch ( EOFException exception )
+    {
+      throw new IOException( "Data file is corrupt?! Unexpected end of data!" );
+    }
+    finally
+    {
+      if ( !success )
+      {
+        // Do not leave any partially written samples behind...
+        builder.discard();
+      }
+    }
+  }
+
+  /**
+   * Writes the data to the given output stream.
+   * <p>
+   * The samples are read block by block from the captured data, so only a
+   * single block of samples is kept in memory.
+   * </p>
+   * 
+   * @param aDataSet
+   *          the data set to write, cannot be <code>null</code>;
+   * @param aOutput
+   *          the output stream to write the data to, cannot be
+   *          <code>null</code>. This stream is <em>not</em> closed.
+   * @throws IOException
+   *           in case of I/O problems.
+   */
+  public static void write( final DataSet aDataSet, final OutputStream aOutput ) throws IOException
+  {
+    final DataOutputStream dos = new DataOutputStream( new BufferedOutputStream( aOutput ) );
+
+    final AcquisitionResult capturedData = aDataSet.getCapturedData();
+
+    final Cursor[] cursors = aDataSet.getCursors();
+    final boolean cursorsEnabled = aDataSet.isCursorsEnabled();
+
+    try
+    {
+      final long size = capturedData.getSampleCount();
+
+      dos.writeInt( MAGIC );
+      dos.writeInt( VERSION );
+
+      dos.writeLong( size );
+      dos.writeInt( capturedData.getSampleRate() );
+      dos.writeInt( capturedData.getChannels() );
+      dos.writeInt( capturedData.getEnabledChannels() );
+      dos.writeLong( capturedData.getTriggerPosition() );
+      dos.writeLong( capturedData.getAbsoluteLength() );
+
+      dos.writeBoolean( cursorsEnabled );
+
+      int cursorCount = 0;
+      for ( int i = 0; cursorsEnabled && ( i < cursors.length ); i++ )
+      {
+        if ( cursors[i].isDefined() )
+        {
+          cursorCount++;
+        }
+      }
+      dos.writeInt( cursorCount );
+      for ( int i = 0; cursorsEnabled && ( i < cursors.length ); i++ )
+      {
+        if ( cursors[i].isDefined() )
+        {
+          dos.writeInt( i );
+          dos.writeLong( cursors[i].getTimestamp() );
+        }
+      }
+
+      final int bufferSize = ( int )Math.max( 1L, Math.min( BLOCK_SIZE, size ) );
+      final int[] values = new int[bufferSize];
+      final long[] timestamps = new long[bufferSize];
+
+      long lastTimestamp = 0L;
+      for ( long index = 0L; index < size; index += bufferSize )
+      {
+        final int blockSize = ( int )Math.min( bufferSize, size - index );
+        capturedData.readValues( index, values, 0, blockSize );
+        capturedData.readTimestamps( index, timestamps, 0, blockSize );
+
+        dos.writeInt( blockSize );
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          dos.writeInt( values[i] );
+        }
+
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          // timestamps never can be negative (it is a relative timestamp!)...
+          final long timestamp = timestamps[i] & Long.MAX_VALUE;
+          if ( timestamp < lastTimestamp )
+          {
+            throw new IOException( "Timestamps are not in ascending order!" );
+          }
+
+          writeDelta( dos, timestamp - lastTimestamp );
+          lastTimestamp = timestamp;
+        }
+      }
+    }
+    finally
+    {
+      dos.flush();
+    }
+  }
+
+  /**
+   * Reads a single delta value, encoded in 7-bit groups, least significant
+   * group first.
+   * 
+   * @param aInput
+   *          the input to read from.
+   * @return the delta value, &gt;= 0.
+   * @throws IOException
+   *           in case the delta is invalid.
+   */
+  private static long readDelta( final DataInput aInput ) throws IOException
+  {
+    long result = 0L;
+    for ( int shift = 0; shift < Long.SIZE; shift += 7 )
+    {
+      final int b = aInput.readByte();
+      result |= ( long )( b & 0x7F ) << shift;
+      if ( ( b & 0x80 ) == 0 )
+      {
+        return result;
+      }
+    }
+    throw new IOException( "Data file is corrupt?! Invalid timestamp encountered!" );
+  }
+
+  /**
+   * Writes a single delta value, encoded in 7-bit groups, least significant
+   * group first.
+   * 
+   * @param aOutput
+   *          the output to write to;
+   * @param aDelta
+   *          the delta value to write, &gt;= 0.
+   * @throws IOException
+   *           in case of I/O problems.
+   */
+  private static void writeDelta( final DataOutput aOutput, final long aDelta ) throws IOException
+  {
+    long value = aDelta;
+    while ( ( value & ~0x7FL ) != 0L )
+    {
+      aOutput.writeByte( ( int )( ( value & 0x7F ) | 0x80 ) );
+      value >>>= 7;
+    }
+    aOutput.writeByte( ( int )value );
+  }
+}
@@ -26,10 +26,10 @@ import static nl.lxtreme.ols.util.NumberUtils.*;
 import java.io.*;
 import java.util.*;
 import java.util.logging.*;
-import java.util.regex.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.data.internal.*;
 
 
 /**
@@ -41,10 +41,8 @@ public final class OlsDataHelper
 
   private static final Logger LOG = Logger.getLogger( OlsDataHelper.class.getName() );
 
-  /** The regular expression used to parse an (OLS-datafile) instruction. */
-  private static final Pattern OLS_INSTRUCTION_PATTERN = Pattern.compile( "^;([^:]+):\\s+([^\r\n]+)$" );
-  /** The regular expression used to parse an (OLS-datafile) data value. */
-  private static final Pattern OLS_DATA_PATTERN = Pattern.compile( "^([0-9a-fA-F]+)@(\\d+)$" );
+  /** The number of samples that are read at once while writing. */
+  private static final int WRITE_BLOCK_SIZE = 8192;
 
   // METHODS
 
@@ -72,95 +70,81 @@ public final class OlsDataHelper
     AcquisitionResult capturedData = null;
     DataSetImpl tempDataSet = new DataSetImpl();
 
-    final BufferedReader br = new BufferedReader( aReader );
+    final OlsDataTokenizer tokenizer = new OlsDataTokenizer( aReader );
     if ( LOG.isLoggable( Level.INFO ) )
     {
       LOG.info( "Parsing OLS captured data from stream..." );
     }
 
-    final List<String[]> dataValues = new ArrayList<String[]>();
-
-    String line;
-    while ( ( line = br.readLine() ) != null )
+    while ( tokenizer.nextInstruction() )
     {
-      // Determine whether the line is an instruction, or data...
-      final Matcher instructionMatcher = OLS_INSTRUCTION_PATTERN.matcher( line );
-      final Matcher dataMatcher = OLS_DATA_PATTERN.matcher( line );
+      // Ok; found an instruction...
+      final String instrKey = tokenizer.getInstructionKey();
+      final String instrValue = tokenizer.getInstructionValue();
 
-      if ( dataMatcher.matches() )
+      if ( "Size".equals( instrKey ) )
       {
-        final String[] dataPair = new String[] { dataMatcher.group( 1 ), dataMatcher.group( 2 ) };
-        dataValues.add( dataPair );
+        size = safeParseInt( instrValue );
       }
-      else if ( instructionMatcher.matches() )
+      else if ( "Rate".equals( instrKey ) )
       {
-        // Ok; found an instruction...
-        final String instrKey = instructionMatcher.group( 1 );
-        final String instrValue = instructionMatcher.group( 2 );
-
-        if ( "Size".equals( instrKey ) )
-        {
-          size = safeParseInt( instrValue );
-        }
-        else if ( "Rate".equals( instrKey ) )
-        {
-          rate = safeParseInt( instrValue );
-        }
-        else if ( "Channels".equals( instrKey ) )
-        {
-          channels = safeParseInt( instrValue );
-        }
-        else if ( "TriggerPosition".equals( instrKey ) )
-        {
-          triggerPos = Long.parseLong( instrValue );
-        }
-        else if ( "EnabledChannels".equals( instrKey ) )
-        {
-          enabledChannels = safeParseInt( instrValue );
-        }
-        else if ( "CursorEnabled".equals( instrKey ) )
-        {
-          tempDataSet.setCursorsEnabled( Boolean.parseBoolean( instrValue ) );
-        }
-        else if ( "Compressed".equals( instrKey ) )
-        {
-          compressed = Boolean.parseBoolean( instrValue );
-        }
-        else if ( "AbsoluteLength".equals( instrKey ) )
-        {
-          absLen = Long.parseLong( instrValue );
-        }
-        else if ( "CursorA".equals( instrKey ) )
+        rate = safeParseInt( instrValue );
+      }
+      else if ( "Channels".equals( instrKey ) )
+      {
+        channels = safeParseInt( instrValue );
+      }
+      else if ( "TriggerPosition".equals( instrKey ) )
+      {
+        triggerPos = Long.parseLong( instrValue );
+      }
+      else if ( "EnabledChannels".equals( instrKey ) )
+      {
+        enabledChannels = safeParseInt( instrValue );
+      }
+      else if ( "CursorEnabled".equals( instrKey ) )
+      {
+        tempDataSet.setCursorsEnabled( Boolean.parseBoolean( instrValue ) );
+      }
+      else if ( "Compressed".equals( instrKey ) )
+      {
+        compressed = Boolean.parseBoolean( instrValue );
+      }
+      else if ( "AbsoluteLength".equals( instrKey ) )
+      {
+        absLen = Long.parseLong( instrValue );
+      }
+      else if ( "CursorA".equals( instrKey ) )
+      {
+        final long value = safeParseLong( instrValue );
+        if ( value > Long.MIN_VALUE )
         {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            tempDataSet.getCursor( 0 ).setTimestamp( value );
-          }
+          tempDataSet.getCursor( 0 ).setTimestamp( value );
         }
-        else if ( "CursorB".equals( instrKey ) )
+      }
+      else if ( "CursorB".equals( instrKey ) )
+      {
+        final long value = safeParseLong( instrValue );
+        if ( value > Long.MIN_VALUE )
         {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            tempDataSet.getCursor( 1 ).setTimestamp( value );
-          }
+          tempDataSet.getCursor( 1 ).setTimestamp( value );
         }
-        else if ( instrKey.startsWith( "Cursor" ) )
+      }
+      else if ( instrKey.startsWith( "Cursor" ) )
+      {
+        final int idx = safeParseInt( instrKey.substring( 6 ) );
+        final long pos = Long.parseLong( instrValue );
+        if ( pos > Long.MIN_VALUE )
         {
-          final int idx = safeParseInt( instrKey.substring( 6 ) );
-          final long pos = Long.parseLong( instrValue );
-          if ( pos > Long.MIN_VALUE )
-          {
-            tempDataSet.getCursor( idx ).setTimestamp( pos );
-          }
+          tempDataSet.getCursor( idx ).setTimestamp( pos );
         }
       }
     }
 
     // Perform some sanity checks, make it not possible to import invalid
     // data...
-    if ( dataValues.isEmpty() )
+    final int sampleCount = tokenizer.getSampleCount();
+    if ( sampleCount == 0 )
     {
       throw new IOException( "Data file does not contain any sample data!" );
     }
@@ -172,9 +156,9 @@ public final class OlsDataHelper
     // take the length of the data values as size indicator...
     if ( size < 0 )
     {
-      size = dataValues.size();
+      size = sampleCount;
     }
-    if ( size != dataValues.size() )
+    if ( size != sampleCount )
     {
       throw new IOException( "Data file is corrupt?! Data size does not match sample count!" );
     }
@@ -193,23 +177,8 @@ public final class OlsDataHelper
       enabledChannels = -1; // = 0xffffffff
     }
 
-    int[] values = new int[size];
-    long[] timestamps = new long[size];
-
-    try
-    {
-      for ( int i = 0; i < size; i++ )
-      {
-        final String[] dataPair = dataValues.get( i );
-
-        values[i] = ( int )Long.parseLong( dataPair[0], 16 );
-        timestamps[i] = Long.parseLong( dataPair[1], 10 ) & Long.MAX_VALUE;
-      }
-    }
-    catch ( final NumberFormatException exception )
-    {
-      throw new IOException( "Invalid data encountered.", exception );
-    }
+    final int[] values = tokenizer.getValues();
+    final long[] timestamps = tokenizer.getTimestamps();
 
     // Finally set the captured data, and notify all event listeners...
     capturedData = new CapturedData( values, timestamps, triggerPos, rate, channels, enabledChannels, absLen );
@@ -239,11 +208,10 @@ public final class OlsDataHelper
 
     try
     {
-      final int[] values = capturedData.getValues();
-      final long[] timestamps = capturedData.getTimestamps();
+      final long size = capturedData.getSampleCount();
 
       bw.write( ";Size: " );
-      bw.write( Integer.toString( values.length ) );
+      bw.write( Long.toString( size ) );
       bw.newLine();
 
       bw.write( ";Rate: " );
@@ -286,10 +254,23 @@ public final class OlsDataHelper
           bw.newLine();
         }
       }
-      for ( int i = 0; i < values.length; i++ )
+
+      // Read the samples in blocks, so they do not need to fit in memory...
+      final int bufferSize = ( int )Math.max( 1L, Math.min( WRITE_BLOCK_SIZE, size ) );
+      final int[] values = new int[bufferSize];
+      final long[] timestamps = new long[bufferSize];
+
+      for ( long index = 0L; index < size; index += bufferSize )
       {
-        bw.write( formatSample( values[i], timestamps[i] ) );
-        bw.newLine();
+        final int blockSize = ( int )Math.min( bufferSize, size - index );
+        capturedData.readValues( index, values, 0, blockSize );
+        capturedData.readTimestamps( index, timestamps, 0, blockSize );
+
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          bw.write( formatSample( values[i], timestamps[i] ) );
+          bw.newLine();
+        }
       }
     }
     finally
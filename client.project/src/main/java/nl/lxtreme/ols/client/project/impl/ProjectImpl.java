@@ -30,7 +30,9 @@ import javax.swing.*;
 
 import nl.lxtreme.ols.api.*;
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.project.*;
+import nl.lxtreme.ols.util.*;
 
 
 /**
@@ -357,5 +359,33 @@ public final class ProjectImpl implements Project, ProjectProperties, PropertyCh
     this.dataSet.addPropertyChangeListener( this );
 
     this.propertyChangeSupport.firePropertyChange( PROPERTY_CAPTURED_DATA, old, this.dataSet );
+
+    // All listeners now use the new data set; release the old captured data...
+    releaseCapturedData( old, this.dataSet );
+  }
+
+  /**
+   * Releases the captured data of a given data set, such as the temporary files
+   * of memory mapped captures, unless it is still used by another data set.
+   * 
+   * @param aOld
+   *          the data set whose captured data is to be released, can be
+   *          <code>null</code>;
+   * @param aNew
+   *          the data set that replaces the old data set, can be
+   *          <code>null</code>.
+   */
+  static void releaseCapturedData( final DataSet aOld, final DataSet aNew )
+  {
+    if ( aOld == null )
+    {
+      return;
+    }
+
+    final AcquisitionResult oldData = aOld.getCapturedData();
+    if ( ( oldData instanceof Closeable ) && ( ( aNew == null ) || ( aNew.getCapturedData() != oldData ) ) )
+    {
+      HostUtils.closeResource( ( Closeable )oldData );
+    }
   }
 }
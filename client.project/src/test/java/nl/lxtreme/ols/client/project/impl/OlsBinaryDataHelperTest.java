@@ -0,0 +1,180 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2011 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.project.impl;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.test.data.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link OlsBinaryDataHelper}.
+ */
+public class OlsBinaryDataHelperTest
+{
+  // METHODS
+
+  /**
+   * Tests that a truncated data file is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadTruncatedDataFail() throws IOException
+  {
+    final byte[] data = writeDataSet( new DataSetImpl( DataTestUtils.getMockedCapturedData(), new DataSetImpl(),
+        false ) );
+
+    OlsBinaryDataHelper.read( new ByteArrayInputStream( data, 0, data.length - 10 ) );
+  }
+
+  /**
+   * Tests that data without the proper magic is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadInvalidMagicFail() throws IOException
+  {
+    OlsBinaryDataHelper.read( new ByteArrayInputStream( ";Size: 1\n0@0\n".getBytes() ) );
+  }
+
+  /**
+   * Tests that written data can be read back from a file.
+   */
+  @Test
+  public void testWriteAndReadFileOk() throws IOException
+  {
+    final AcquisitionResult capturedData = DataTestUtils.getMockedCapturedData();
+
+    final DataSetImpl dataSet = new DataSetImpl( capturedData, new DataSetImpl(), false );
+    dataSet.setCursorsEnabled( true );
+    dataSet.getCursor( 0 ).setTimestamp( 1L );
+    dataSet.getCursor( 3 ).setTimestamp( 3L );
+
+    final File file = File.createTempFile( "ols", ".olsb" );
+    file.deleteOnExit();
+
+    final OutputStream os = new FileOutputStream( file );
+    try
+    {
+      OlsBinaryDataHelper.write( dataSet, os );
+    }
+    finally
+    {
+      os.close();
+    }
+
+    final DataSetImpl readDataSet = OlsBinaryDataHelper.read( file );
+
+    DataTestUtils.assertEquals( capturedData, readDataSet.getCapturedData() );
+    assertTrue( readDataSet.isCursorsEnabled() );
+    assertEquals( 1L, readDataSet.getCursor( 0 ).getTimestamp() );
+    assertFalse( readDataSet.getCursor( 1 ).isDefined() );
+    assertEquals( 3L, readDataSet.getCursor( 3 ).getTimestamp() );
+  }
+
+  /**
+   * Tests that data spanning multiple blocks is read back into memory-mapped
+   * captured data.
+   */
+  @Test
+  public void testWriteAndReadMultipleBlocksOk() throws IOException
+  {
+    final int size = ( 2 * OlsBinaryDataHelper.BLOCK_SIZE ) + 17;
+    final int[] values = new int[size];
+    final long[] timestamps = new long[size];
+    for ( int i = 0; i < size; i++ )
+    {
+      values[i] = i & 1;
+      timestamps[i] = 3L * i;
+    }
+    final AcquisitionResult capturedData = new CapturedData( values, timestamps, 6L, 100, 8, 0xFF,
+        timestamps[size - 1] );
+
+    final byte[] data = writeDataSet( new DataSetImpl( capturedData, new DataSetImpl(), false ) );
+
+    final AcquisitionResult readData = OlsBinaryDataHelper.read( new ByteArrayInputStream( data ) )
+        .getCapturedData();
+    try
+    {
+      assertTrue( readData instanceof MappedCapturedData );
+      assertEquals( size, readData.getSampleCount() );
+      assertArrayEquals( values, readData.getValues() );
+      assertArrayEquals( timestamps, readData.getTimestamps() );
+    }
+    finally
+    {
+      ( ( MappedCapturedData )readData ).close();
+    }
+  }
+
+  /**
+   * Tests that data of another version is refused.
+   */
+  @Test( expected = IOException.class )
+  public void testReadUnsupportedVersionFail() throws IOException
+  {
+    final byte[] data = writeDataSet( new DataSetImpl( DataTestUtils.getMockedCapturedData(), new DataSetImpl(),
+        false ) );
+    // The version directly follows the magic...
+    data[7] = 1;
+
+    OlsBinaryDataHelper.read( new ByteArrayInputStream( data ) );
+  }
+
+  /**
+   * Tests that large timestamp differences are preserved.
+   */
+  @Test
+  public void testWriteAndReadLargeTimestampsOk() throws IOException
+  {
+    final int[] values = { 0, 1, 0, 1 };
+    final long[] timestamps = { 0L, 127L, 128L, Long.MAX_VALUE - 1L };
+    final AcquisitionResult capturedData = new CapturedData( values, timestamps, 128L, 100, 8, 0xFF,
+        Long.MAX_VALUE - 1L );
+
+    final byte[] data = writeDataSet( new DataSetImpl( capturedData, new DataSetImpl(), false ) );
+
+    final AcquisitionResult readData = OlsBinaryDataHelper.read( new ByteArrayInputStream( data ) )
+        .getCapturedData();
+
+    assertArrayEquals( values, readData.getValues() );
+    assertArrayEquals( timestamps, readData.getTimestamps() );
+    assertEquals( 128L, readData.getTriggerPosition() );
+    assertEquals( Long.MAX_VALUE - 1L, readData.getAbsoluteLength() );
+  }
+
+  /**
+   * @param aDataSet
+   * @return
+   * @throws IOException
+   */
+  private byte[] writeDataSet( final DataSetImpl aDataSet ) throws IOException
+  {
+    final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    OlsBinaryDataHelper.write( aDataSet, baos );
+    return baos.toByteArray();
+  }
+}
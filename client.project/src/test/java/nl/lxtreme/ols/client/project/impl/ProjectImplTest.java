@@ -22,6 +22,7 @@ package nl.lxtreme.ols.client.project.impl;
 
 
 import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 import java.beans.*;
 import java.io.*;
@@ -169,6 +170,28 @@ public class ProjectImplTest
     assertTrue( this.project.isChanged() );
   }
 
+  /**
+   * Tests that replacing the captured data releases the previous captured
+   * data, in case it is closeable.
+   */
+  @Test
+  public void testSetCapturedDataReleasesPreviousData() throws IOException
+  {
+    final AcquisitionResult first = mock( AcquisitionResult.class, withSettings().extraInterfaces( Closeable.class ) );
+    final AcquisitionResult second = mock( AcquisitionResult.class, withSettings().extraInterfaces( Closeable.class ) );
+
+    this.project.setCapturedData( first );
+    verify( ( Closeable )first, never() ).close();
+
+    this.project.setCapturedData( second );
+    verify( ( Closeable )first ).close();
+    verify( ( Closeable )second, never() ).close();
+
+    // Setting the same data again should not release it...
+    this.project.setCapturedData( second );
+    verify( ( Closeable )second, never() ).close();
+  }
+
   /**
    * Test method for {@link ProjectImpl#setCursorsEnabled(boolean)}.
    */
@@ -37,6 +37,7 @@ import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.Cursor;
 import nl.lxtreme.ols.api.data.annotation.Annotation;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
+import nl.lxtreme.ols.api.data.annotation.DataAnnotation;
 import nl.lxtreme.ols.api.data.export.*;
 import nl.lxtreme.ols.api.data.project.*;
 import nl.lxtreme.ols.api.devices.*;
@@ -560,6 +561,42 @@ public final class ClientController implements ActionProvider, AcquisitionProgre
     }
   }
 
+  /**
+   * Starts acquiring data continuously with the current device and with its
+   * current settings, until the capture is cancelled.
+   */
+  public void captureDataContinuously()
+  {
+    final DataAcquisitionService acquisitionService = getDataAcquisitionService();
+    final Device devCtrl = getDevice();
+
+    if ( ( devCtrl == null ) || ( acquisitionService == null ) )
+    {
+      return;
+    }
+
+    try
+    {
+      setStatusOnEDT( "Continuous capture from {0} started at {1,date,medium} {1,time,medium} ...",
+          devCtrl.getName(), new Date() );
+
+      acquisitionService.acquireDataContinuously( devCtrl );
+    }
+    catch ( final IOException exception )
+    {
+      setStatusOnEDT( "I/O problem: " + exception.getMessage() );
+
+      LOG.log( Level.WARNING, "Failed to start continuous capture!", exception );
+
+      // Make sure to handle IO-interrupted exceptions properly!
+      HostUtils.handleInterruptedException( exception );
+    }
+    finally
+    {
+      updateActionsOnEDT();
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -969,6 +1006,68 @@ public final class ClientController implements ActionProvider, AcquisitionProgre
     this.repaintAccumulatingRunnable.add( ( Void )null );
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onAnnotations( final Collection<? extends Annotation<?>> aAnnotations )
+  {
+    addAnnotations( getCurrentDataSet(), aAnnotations );
+
+    // A single repaint suffices for the entire batch...
+    this.repaintAccumulatingRunnable.add( ( Void )null );
+  }
+
+  /**
+   * Adds a batch of annotations to the channels of a given data set.
+   * <p>
+   * Data annotations are grouped per channel, and added to the annotation
+   * index of their channel in bulk. All other annotations are added to their
+   * channel one by one.
+   * </p>
+   * 
+   * @param aDataSet
+   *          the data set to add the annotations to, may be <code>null</code>
+   *          in which case this method does nothing;
+   * @param aAnnotations
+   *          the annotations to add, cannot be <code>null</code>.
+   */
+  static void addAnnotations( final DataSet aDataSet, final Collection<? extends Annotation<?>> aAnnotations )
+  {
+    if ( aDataSet == null )
+    {
+      return;
+    }
+
+    // Group the data annotations per channel, in order to add them in bulk...
+    final Map<Integer, List<DataAnnotation<?>>> dataAnnotations = new HashMap<Integer, List<DataAnnotation<?>>>();
+    for ( Annotation<?> annotation : aAnnotations )
+    {
+      if ( annotation instanceof DataAnnotation )
+      {
+        final Integer channelIdx = Integer.valueOf( annotation.getChannel() );
+
+        List<DataAnnotation<?>> channelAnnotations = dataAnnotations.get( channelIdx );
+        if ( channelAnnotations == null )
+        {
+          channelAnnotations = new ArrayList<DataAnnotation<?>>();
+          dataAnnotations.put( channelIdx, channelAnnotations );
+        }
+        channelAnnotations.add( ( DataAnnotation<?> )annotation );
+      }
+      else
+      {
+        aDataSet.getChannel( annotation.getChannel() ).addAnnotation( annotation );
+      }
+    }
+
+    for ( Map.Entry<Integer, List<DataAnnotation<?>>> entry : dataAnnotations.entrySet() )
+    {
+      final Channel channel = aDataSet.getChannel( entry.getKey().intValue() );
+      channel.getAnnotationIndex().addAll( entry.getValue() );
+    }
+  }
+
   /**
    * Opens a given file as OLS-data file.
    * 
@@ -1587,6 +1686,7 @@ public final class ClientController implements ActionProvider, AcquisitionProgre
         getAction( CaptureAction.ID ).setEnabled( deviceControllerSet );
         getAction( CancelCaptureAction.ID ).setEnabled( deviceCapturing );
         getAction( RepeatCaptureAction.ID ).setEnabled( deviceSetup );
+        getAction( ContinuousCaptureAction.ID ).setEnabled( deviceSetup );
 
         final boolean projectChanged = isProjectChanged();
         final boolean projectSavedBefore = !isAnonymousProject();
@@ -1752,7 +1852,7 @@ public final class ClientController implements ActionProvider, AcquisitionProgre
 
     if ( capturedData != null )
     {
-      final int dataLength = capturedData.getValues().length;
+      final int dataLength = ( int )Math.min( capturedData.getSampleCount(), Integer.MAX_VALUE );
       if ( areCursorsEnabled() )
       {
         if ( isCursorSet( 0 ) )
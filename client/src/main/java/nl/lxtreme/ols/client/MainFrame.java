@@ -1015,6 +1015,7 @@ public final class MainFrame extends JFrame implements Closeable, PropertyChange
 
     captureMenu.add( this.controller.getAction( CaptureAction.ID ) );
     captureMenu.add( this.controller.getAction( RepeatCaptureAction.ID ) );
+    captureMenu.add( this.controller.getAction( ContinuousCaptureAction.ID ) );
     captureMenu.add( this.controller.getAction( CancelCaptureAction.ID ) );
     captureMenu.addSeparator();
     captureMenu.add( this.deviceMenu );
@@ -69,6 +69,7 @@ public final class ActionManagerFactory
     aActionManager.add( new CaptureAction( aController ) ).setEnabled( false );
     aActionManager.add( new CancelCaptureAction( aController ) ).setEnabled( false );
     aActionManager.add( new RepeatCaptureAction( aController ) ).setEnabled( false );
+    aActionManager.add( new ContinuousCaptureAction( aController ) ).setEnabled( false );
 
     aActionManager.add( new ZoomInAction( signalDiagramController ) ).setEnabled( false );
     aActionManager.add( new ZoomOutAction( signalDiagramController ) ).setEnabled( false );
@@ -85,11 +85,14 @@ public final class MeasurementInfo
    *          the reference state of the measurement;
    * @param aZoomFactor
    *          the zoom factor;
+   * @param aViewOffset
+   *          the view offset, in pixels;
    * @param aSampleRate
    *          the sample rate.
    */
   public MeasurementInfo( final SignalElement aElement, final long aStartState, final long aTransitionState,
-      final long aEndState, final double aRefState, final double aZoomFactor, final double aSampleRate )
+      final long aEndState, final double aRefState, final double aZoomFactor, final long aViewOffset,
+      final double aSampleRate )
   {
     this.channelIdx = aElement.getChannel().getIndex();
     this.channelLabel = aElement.getLabel();
@@ -100,14 +103,14 @@ public final class MeasurementInfo
 
     this.refTime = aRefState;
 
-    this.midSamplePos = Integer.valueOf( ( int )( aTransitionState * aZoomFactor ) );
+    this.midSamplePos = Integer.valueOf( ZoomController.toCoordinate( aTransitionState, aZoomFactor, aViewOffset ) );
 
     this.highTime = null;
     this.totalTime = null;
 
     this.rectangle = new Rectangle();
-    this.rectangle.x = ( int )( aZoomFactor * aStartState );
-    this.rectangle.width = ( int )( aZoomFactor * ( aEndState - aStartState ) );
+    this.rectangle.x = ZoomController.toCoordinate( aStartState, aZoomFactor, aViewOffset );
+    this.rectangle.width = ZoomController.toCoordinate( aEndState, aZoomFactor, aViewOffset ) - this.rectangle.x;
     this.rectangle.y = aElement.getYposition() + aElement.getOffset();
     this.rectangle.height = aElement.getSignalHeight();
 
@@ -132,12 +135,14 @@ public final class MeasurementInfo
    *          the reference time of the measurement;
    * @param aZoomFactor
    *          the zoom factor;
+   * @param aViewOffset
+   *          the view offset, in pixels;
    * @param aSampleRate
    *          the sample rate.
    */
   public MeasurementInfo( final SignalElement aElement, final long aStartTime, final long aTransitionTime,
       final long aEndTime, final long aHighTime, final double aRefTime, final double aZoomFactor,
-      final double aSampleRate )
+      final long aViewOffset, final double aSampleRate )
   {
     this.channelIdx = aElement.getChannel().getIndex();
     this.channelLabel = aElement.getLabel();
@@ -148,14 +153,14 @@ public final class MeasurementInfo
 
     this.refTime = aRefTime;
 
-    this.midSamplePos = Integer.valueOf( ( int )( aTransitionTime * aZoomFactor ) );
+    this.midSamplePos = Integer.valueOf( ZoomController.toCoordinate( aTransitionTime, aZoomFactor, aViewOffset ) );
 
     this.highTime = Double.valueOf( aHighTime / aSampleRate );
     this.totalTime = Double.valueOf( ( aEndTime - aStartTime ) / aSampleRate );
 
     this.rectangle = new Rectangle();
-    this.rectangle.x = ( int )( aZoomFactor * aStartTime );
-    this.rectangle.width = ( int )( aZoomFactor * ( aEndTime - aStartTime ) );
+    this.rectangle.x = ZoomController.toCoordinate( aStartTime, aZoomFactor, aViewOffset );
+    this.rectangle.width = ZoomController.toCoordinate( aEndTime, aZoomFactor, aViewOffset ) - this.rectangle.x;
     this.rectangle.y = aElement.getYposition() + aElement.getOffset();
     this.rectangle.height = aElement.getSignalHeight();
 
@@ -27,6 +27,7 @@ import java.awt.event.*;
 import java.util.*;
 
 import javax.swing.*;
+import javax.swing.event.*;
 
 import nl.lxtreme.ols.api.util.*;
 import nl.lxtreme.ols.client.*;
@@ -118,6 +119,64 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
     }
   }
 
+  /**
+   * Moves the view offset along whenever the visible region comes close to
+   * either side of this component, which only shows a part of very wide views.
+   */
+  static final class ViewportChangeHandler implements ChangeListener, Runnable
+  {
+    // VARIABLES
+
+    private final SignalDiagramController controller;
+
+    private volatile boolean pending;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link ViewportChangeHandler} instance.
+     */
+    public ViewportChangeHandler( final SignalDiagramController aController )
+    {
+      this.controller = aController;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run()
+    {
+      this.pending = false;
+
+      final ZoomController zoomCtrl = this.controller.getZoomController();
+      if ( zoomCtrl.isNearViewBorder( this.controller.getSignalDiagram().getVisibleRect() ) )
+      {
+        zoomCtrl.restoreZoomLevel();
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stateChanged( final ChangeEvent aEvent )
+    {
+      final JViewport viewport = ( JViewport )aEvent.getSource();
+
+      final ZoomController zoomCtrl = this.controller.getZoomController();
+      if ( !this.pending && zoomCtrl.isNearViewBorder( viewport.getViewRect() ) )
+      {
+        // Do not move the view while the viewport is notifying its
+        // listeners...
+        this.pending = true;
+        SwingUtilities.invokeLater( this );
+      }
+    }
+  }
+
   // CONSTANTS
 
   static final java.awt.Cursor CURSOR_WAIT = java.awt.Cursor.getPredefinedCursor( java.awt.Cursor.WAIT_CURSOR );
@@ -133,6 +192,7 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
   private final SignalDiagramController controller;
   private final SignalView signalView;
   private final ComponentEventHandler componentHandler;
+  private final ViewportChangeHandler viewportHandler;
 
   // CONSTRUCTORS
 
@@ -151,6 +211,7 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
     this.signalView = SignalView.create( this.controller );
 
     this.componentHandler = new ComponentEventHandler( this.controller );
+    this.viewportHandler = new ViewportChangeHandler( this.controller );
 
     add( this.signalView, BorderLayout.CENTER );
 
@@ -352,19 +413,31 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
   /**
    * Scrolls the signal diagram component so that the given timestamp for the
    * given channel becomes visible.
+   * <p>
+   * In case the timestamp lies outside the part of the view that is shown by
+   * this component, the view offset is moved instead.
+   * </p>
    * 
    * @param aTimestamp
    *          the timestamp to make visible, >= 0 and < last timestamp.
    */
   public void scrollToTimestamp( final long aTimestamp )
   {
+    final SignalDiagramModel model = getModel();
+    final int x = ZoomController.toCoordinate( aTimestamp, model.getZoomFactor(), model.getViewOffset() );
+    if ( ( x < 0 ) || ( x >= getWidth() ) )
+    {
+      model.getZoomController().centerTimestamp( aTimestamp );
+      return;
+    }
+
     final SignalView signalView = getSignalView();
     final Rectangle visibleRect = signalView.getVisibleRect();
 
     Rectangle rect = new Rectangle();
     rect.width = visibleRect.width;
     rect.height = visibleRect.height;
-    rect.x = ( int )( ( getModel().getZoomFactor() * aTimestamp ) - rect.getCenterX() );
+    rect.x = ( int )( x - rect.getCenterX() );
     rect.y = visibleRect.y;
 
     signalView.scrollRectToVisible( rect );
@@ -449,6 +522,7 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
       scrollPane.setCorner( ScrollPaneConstants.UPPER_LEADING_CORNER, new CornerView( this.controller ) );
 
       scrollPane.addComponentListener( this.componentHandler );
+      viewport.addChangeListener( this.viewportHandler );
     }
   }
 
@@ -513,6 +587,7 @@ public class SignalDiagramComponent extends JPanel implements Scrollable
     if ( scrollPane != null )
     {
       scrollPane.removeComponentListener( this.componentHandler );
+      scrollPane.getViewport().removeChangeListener( this.viewportHandler );
 
       scrollPane.setColumnHeaderView( null );
       scrollPane.setRowHeaderView( null );
@@ -163,18 +163,20 @@ public final class ZoomController
 
     final double factor;
     final ZoomAction lastAction;
+    final long offset;
 
     // CONSTRUCTORS
 
     public ZoomStateHolder()
     {
-      this( ZoomAction.DEFAULT, DEFAULT_ZOOM_FACTOR );
+      this( ZoomAction.DEFAULT, DEFAULT_ZOOM_FACTOR, 0L );
     }
 
-    public ZoomStateHolder( ZoomAction aAction, double aFactor )
+    public ZoomStateHolder( ZoomAction aAction, double aFactor, long aOffset )
     {
       this.lastAction = aAction;
       this.factor = aFactor;
+      this.offset = aOffset;
     }
   }
 
@@ -190,8 +192,29 @@ public final class ZoomController
    * in the clipping region of the component. To overcome this, we zero out the
    * lowest 16-bits in order to have enough head-room for integer calculations
    * without "overflowing".
+   * <p>
+   * Views that are wider than this show only a part of the time line, starting
+   * at the view offset. This part is moved along whenever the visible region
+   * comes close to either of its sides.
+   * </p>
    */
   static final int MAX_COMP_WIDTH = 0x7fff0000;
+  /**
+   * The maximum width of the (logical) view, in pixels. Up to this width, all
+   * pixel positions are exactly representable as double values.
+   */
+  static final double MAX_VIEW_WIDTH = 0x1p53;
+  /**
+   * The zoom level that can always be reached, regardless of the length of the
+   * captured data, in pixels per tick.
+   */
+  static final double MAX_TICK_WIDTH = 1000.0;
+  /**
+   * The largest (absolute) screen coordinate that is used for painting. Well
+   * outside the view component, but still far enough from
+   * {@link Integer#MAX_VALUE} to calculate with without "overflowing".
+   */
+  static final long MAX_COORDINATE = 1L << 30;
 
   /** The default/original zoom factor. */
   private static final double DEFAULT_ZOOM_FACTOR = 1.0;
@@ -260,6 +283,23 @@ public final class ZoomController
     return zoomFactor > minZoomLevel;
   }
 
+  /**
+   * Moves the view, without changing the zoom level, such that the given
+   * timestamp is shown in the center of the visible region.
+   *
+   * @param aTimestamp
+   *          the timestamp to center, &gt;= 0.
+   */
+  public void centerTimestamp( final long aTimestamp )
+  {
+    ZoomStateHolder zh = this.zoomHolderRef.get();
+    Rectangle visibleRect = getSignalDiagram().getVisibleRect();
+
+    double viewX = ( zh.factor * aTimestamp ) - ( visibleRect.width / 2.0 );
+
+    setZoomState( ZoomAction.RESTORE, zh.factor, zh, viewX );
+  }
+
   /**
    * Returns the current value of factor.
    * 
@@ -276,6 +316,47 @@ public final class ZoomController
     return result;
   }
 
+  /**
+   * Returns the current view offset, which is the logical X-coordinate of the
+   * left side of the view component.
+   *
+   * @return a view offset, in pixels, &gt;= 0.
+   */
+  public long getViewOffset()
+  {
+    return this.zoomHolderRef.get().offset;
+  }
+
+  /**
+   * Returns whether or not the given visible region comes so close to either
+   * side of the view component that the view offset should be moved along.
+   *
+   * @param aVisibleRect
+   *          the visible region of the view component, cannot be
+   *          <code>null</code>.
+   * @return <code>true</code> if the view should be centered around the
+   *         visible region, <code>false</code> otherwise.
+   */
+  public boolean isNearViewBorder( final Rectangle aVisibleRect )
+  {
+    final SignalDiagramModel model = getModel();
+    if ( !model.hasData() )
+    {
+      return false;
+    }
+
+    final ZoomStateHolder zh = this.zoomHolderRef.get();
+    final double viewWidth = model.getAbsoluteLength() * zh.factor;
+    final int margin = MAX_COMP_WIDTH / 4;
+
+    if ( ( zh.offset > 0L ) && ( aVisibleRect.x < margin ) )
+    {
+      return true;
+    }
+    return ( ( zh.offset + MAX_COMP_WIDTH ) < ( long )viewWidth )
+        && ( ( aVisibleRect.x + aVisibleRect.width ) > ( MAX_COMP_WIDTH - margin ) );
+  }
+
   /**
    * Returns whether or not we're zooming to fit all.
    * 
@@ -335,6 +416,25 @@ public final class ZoomController
     performZoomAction( action, factor, null );
   }
 
+  /**
+   * Converts a given timestamp to a screen coordinate, relative to the given
+   * view offset. Coordinates far outside the view component are clamped, so
+   * they can safely be used for painting.
+   * 
+   * @param aTimestamp
+   *          the timestamp to convert;
+   * @param aZoomFactor
+   *          the zoom factor to use, &gt; 0.0;
+   * @param aViewOffset
+   *          the view offset to use, in pixels.
+   * @return a screen coordinate.
+   */
+  public static int toCoordinate( final long aTimestamp, final double aZoomFactor, final long aViewOffset )
+  {
+    final long x = ( long )( aZoomFactor * aTimestamp ) - aViewOffset;
+    return ( int )Math.max( -MAX_COORDINATE, Math.min( MAX_COORDINATE, x ) );
+  }
+
   /**
    * Zooms in or out with a constant factor, according to the given mouse wheel
    * event.
@@ -482,103 +582,117 @@ public final class ZoomController
       newValue = ZoomAction.MAXIMUM;
     }
 
-    return new ZoomStateHolder( newValue, newFactor );
+    return new ZoomStateHolder( newValue, newFactor, 0L );
   }
 
   /**
-   * Calculates the visible rectangle of the view component given a zoom-action,
-   * a relative zoom-factor, a center position and the new zoom state.
-   * 
-   * @return a rectangle denoting the visible view of the component, never
-   *         <code>null</code>.
+   * Calculates the view offset to use for a view of a given width.
+   * <p>
+   * As long as the view fits in a single component, the view offset is always
+   * zero. Otherwise, the component shows a part of the view that is centered
+   * around the visible region.
+   * </p>
+   *
+   * @param aViewWidth
+   *          the (logical) width of the entire view, in pixels;
+   * @param aViewX
+   *          the (logical) X-coordinate of the visible region, in pixels;
+   * @param aVisibleWidth
+   *          the width of the visible region, in pixels.
+   * @return a view offset, in pixels, &gt;= 0.
    */
-  private Rectangle calculateVisibleViewRect( final ZoomStateHolder aZoomState, final Point aCenterPoint )
+  static long calculateViewOffset( final double aViewWidth, final double aViewX, final int aVisibleWidth )
   {
-    SignalDiagramComponent signalDiagram = getSignalDiagram();
-    SignalDiagramModel model = getModel();
+    if ( aViewWidth <= MAX_COMP_WIDTH )
+    {
+      return 0L;
+    }
 
-    // Take the location of the signal diagram component, as it is the
-    // only one that is shifted in location by its (parent) scrollpane...
-    Point currentLocation = signalDiagram.getLocation();
+    final long offset = ( long )( aViewX - ( ( MAX_COMP_WIDTH - aVisibleWidth ) / 2.0 ) );
+    final long maxOffset = ( long )aViewWidth - MAX_COMP_WIDTH;
 
-    Rectangle currentVisibleRect = signalDiagram.getVisibleRect();
+    return Math.max( 0L, Math.min( offset, maxOffset ) );
+  }
 
-    int mx = ( aCenterPoint != null ) ? aCenterPoint.x : ( int )currentVisibleRect.getCenterX();
+  /**
+   * Calculates the (logical) X-coordinate of the visible region of the view
+   * given a zoom-action, a center position and the new zoom state.
+   *
+   * @return the X-coordinate of the visible region, in pixels.
+   */
+  private double calculateViewX( final ZoomStateHolder aZoomState, final Point aCenterPoint )
+  {
+    final SignalDiagramComponent signalDiagram = getSignalDiagram();
+    final ZoomStateHolder zh = this.zoomHolderRef.get();
 
-    Rectangle visibleRect = new Rectangle();
+    // Take the location of the signal diagram component, as it is the
+    // only one that is shifted in location by its (parent) scrollpane...
+    final double currentX = zh.offset - signalDiagram.getLocation().x;
+
+    final Rectangle currentVisibleRect = signalDiagram.getVisibleRect();
+    final int mx = ( aCenterPoint != null ) ? aCenterPoint.x : ( int )currentVisibleRect.getCenterX();
+    final double centerX = zh.offset + mx;
 
     // Calculate the relative factor we're using...
-    double relFactor = aZoomState.factor / getFactor();
+    final double relFactor = aZoomState.factor / getFactor();
 
-    // Calculate the new dimensions and the new location of the view...
     switch ( aZoomState.lastAction )
     {
-      case IN:
-      case OUT:
-      {
-        // Use the given (relative!) factor to calculate the new
-        // width of the view!
-        Dimension viewSize = signalDiagram.getPreferredSize();
-        visibleRect.width = ( int )( viewSize.width * relFactor );
-        visibleRect.height = currentVisibleRect.height;
-        // Recalculate the new screen position of the visible view
-        // rectangle; the X-coordinate shifts relative to the zoom
-        // factor, while the Y-coordinate remains as-is...
-        visibleRect.x = ( int )Math.round( currentLocation.x - ( mx * relFactor ) + mx );
-        visibleRect.y = currentLocation.y;
-        break;
-      }
       case ALL:
-      {
-        // The new width of the view is always the same as the width of the view
-        // size...
-        Dimension outerViewSize = getOuterViewSize( signalDiagram, true, true );
-        visibleRect.width = outerViewSize.width;
-        visibleRect.height = outerViewSize.height;
         // Since everything fits on screen, we can reset the view location to
         // its initial X-coordinate...
-        visibleRect.x = 0;
-        visibleRect.y = currentLocation.y;
-        break;
-      }
+        return 0.0;
+
+      case IN:
+      case OUT:
       case MAXIMUM:
       case DEFAULT:
-      {
-        // Recalculate the new width based on the max./default zoom level...
-        visibleRect.width = ( int )( model.getAbsoluteLength() * aZoomState.factor );
-        visibleRect.height = currentVisibleRect.height;
-        // Recalculate the new screen position of the visible view
-        // rectangle; the X-coordinate shifts relative to the zoom
-        // factor, while the Y-coordinate remains as-is...
-        visibleRect.x = ( int )Math.round( currentLocation.x - ( mx * relFactor ) + mx );
-        visibleRect.y = currentLocation.y;
-        break;
-      }
+        // The X-coordinate shifts relative to the zoom factor, keeping the
+        // center position at the same screen position...
+        return Math.round( currentX + ( centerX * relFactor ) - centerX );
+
       case RESTORE:
       default:
-      {
-        // Recalculate the new width based on the old zoom level...
-        visibleRect.width = ( int )( model.getAbsoluteLength() * aZoomState.factor );
-        visibleRect.height = currentVisibleRect.height;
         // Keep the location as-is...
-        visibleRect.x = currentLocation.x;
-        visibleRect.y = currentLocation.y;
-        break;
-      }
+        return currentX;
     }
+  }
 
-    // Ensure the visible location stays in the calculated minimum and
-    // maximum...
-    int maxX = ( visibleRect.width - currentVisibleRect.width );
-    if ( Math.abs( visibleRect.x ) > maxX )
-    {
-      visibleRect.x = -maxX;
-    }
+  /**
+   * Calculates the visible rectangle of the view component for a given zoom
+   * state.
+   *
+   * @param aZoomState
+   *          the zoom state, including the view offset, to use;
+   * @param aViewWidth
+   *          the (logical) width of the entire view, in pixels;
+   * @param aViewX
+   *          the (logical) X-coordinate of the visible region, in pixels.
+   * @return a rectangle denoting the visible view of the component, never
+   *         <code>null</code>.
+   */
+  private Rectangle calculateVisibleViewRect( final ZoomStateHolder aZoomState, final double aViewWidth,
+      final double aViewX )
+  {
+    SignalDiagramComponent signalDiagram = getSignalDiagram();
+    SignalDiagramModel model = getModel();
+
+    Rectangle currentVisibleRect = signalDiagram.getVisibleRect();
+
+    Rectangle visibleRect = new Rectangle();
+    visibleRect.width = ( int )Math.min( aViewWidth, MAX_COMP_WIDTH );
     // View locations appear to be always negative with respect to the (0,
     // 0)-coordinate...
-    if ( visibleRect.x > 0 )
+    visibleRect.x = ( int )( aZoomState.offset - aViewX );
+    visibleRect.y = signalDiagram.getLocation().y;
+
+    if ( aZoomState.lastAction == ZoomAction.ALL )
     {
-      visibleRect.x = -visibleRect.x;
+      visibleRect.height = getOuterViewSize( signalDiagram, true, true ).height;
+    }
+    else
+    {
+      visibleRect.height = currentVisibleRect.height;
     }
 
     // Ensure the minimum height of the view is adhered...
@@ -639,8 +753,12 @@ public final class ZoomController
    * Determines the maximum zoom level that we can handle without causing
    * display problems.
    * <p>
-   * It appears that the maximum width of a component can be
-   * {@link Integer#MAX_VALUE} pixels wide.
+   * As the view component only shows a part of the view, the maximum zoom
+   * level no longer depends on the maximum width of a component. Short
+   * captures can be zoomed in until they are {@link #MAX_COMP_WIDTH} pixels
+   * wide, as before, while longer captures can be zoomed in until a single tick
+   * is {@link #MAX_TICK_WIDTH} pixels wide, as long as the view does not become
+   * wider than {@link #MAX_VIEW_WIDTH} pixels.
    * </p>
    * 
    * @return a maximum zoom level.
@@ -656,7 +774,7 @@ public final class ZoomController
 
     final double length = model.getAbsoluteLength();
 
-    return MAX_COMP_WIDTH / length;
+    return Math.min( MAX_VIEW_WIDTH / length, Math.max( MAX_COMP_WIDTH / length, MAX_TICK_WIDTH ) );
   }
 
   /**
@@ -676,7 +794,7 @@ public final class ZoomController
 
     final double width = getOuterViewSize( signalDiagram, true, true ).width;
     final double length = model.getAbsoluteLength();
-    final double min = 1.0 / MAX_COMP_WIDTH;
+    final double min = 1.0 / MAX_VIEW_WIDTH;
 
     return Math.max( min, width / length );
   }
@@ -708,7 +826,45 @@ public final class ZoomController
   private void performZoomAction( final ZoomAction aAction, final double aFactor, final Point aCenterPoint )
   {
     ZoomStateHolder newState = calculateNewZoomState( aAction, aFactor );
-    Rectangle visibleRect = calculateVisibleViewRect( newState, aCenterPoint );
+    double viewX = calculateViewX( newState, aCenterPoint );
+
+    setZoomState( aAction, aFactor, newState, viewX );
+  }
+
+  /**
+   * Sets the given zoom state, determines the view offset that belongs to it,
+   * and notifies all listeners.
+   *
+   * @param aAction
+   *          the zoom action that is performed;
+   * @param aFactor
+   *          the relative zoom factor that is applied;
+   * @param aZoomState
+   *          the new zoom state;
+   * @param aViewX
+   *          the (logical) X-coordinate of the visible region, in pixels.
+   */
+  private void setZoomState( final ZoomAction aAction, final double aFactor, final ZoomStateHolder aZoomState,
+      final double aViewX )
+  {
+    final SignalDiagramModel model = getModel();
+    final int visibleWidth = getSignalDiagram().getVisibleRect().width;
+
+    double viewWidth = model.getAbsoluteLength() * aZoomState.factor;
+    if ( aZoomState.lastAction == ZoomAction.ALL )
+    {
+      // The new width of the view is always the same as the width of the view
+      // size...
+      viewWidth = getOuterViewSize( getSignalDiagram(), true, true ).width;
+    }
+
+    // Ensure the visible location stays in the calculated minimum and
+    // maximum...
+    final double viewX = Math.max( 0.0, Math.min( aViewX, viewWidth - visibleWidth ) );
+    final long offset = calculateViewOffset( viewWidth, viewX, visibleWidth );
+
+    ZoomStateHolder newState = new ZoomStateHolder( aZoomState.lastAction, aZoomState.factor, offset );
+    Rectangle visibleRect = calculateVisibleViewRect( newState, viewWidth, viewX );
 
     ZoomStateHolder oldState;
     do
@@ -116,6 +116,6 @@ public class RemoveChannelAnnotations extends AbstractAction
    */
   private boolean hasAnnotations()
   {
-    return !getChannel().getAnnotations().isEmpty();
+    return !getChannel().getAnnotationIndex().isEmpty();
   }
 }
@@ -0,0 +1,295 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import java.awt.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.SignalAlignment;
+import nl.lxtreme.ols.client.signaldisplay.signalelement.*;
+
+
+/**
+ * Provides an immutable snapshot of the state of a UI-element, as needed to
+ * paint it.
+ * <p>
+ * UI-elements are changed on the event dispatch thread. Taking a snapshot on
+ * that thread allows an element to be painted on another thread, without ever
+ * seeing a partially updated element.
+ * </p>
+ */
+final class ElementState
+{
+  // VARIABLES
+
+  private final IUIElement element;
+  private final int yPosition;
+  private final int height;
+  private final Color color;
+
+  private final boolean signalElement;
+  private final boolean digitalSignal;
+  private final boolean groupSummary;
+  private final boolean analogSignal;
+  private final boolean enabled;
+  private final int mask;
+  private final int signalHeight;
+  private final int offset;
+  private final int annotationOffset;
+  private final Channel channel;
+  private final int annotationModCount;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link ElementState} instance.
+   * 
+   * @param aElement
+   *          the UI-element to take a snapshot of, cannot be <code>null</code>;
+   * @param aAnnotationAlignment
+   *          the alignment of the annotations of digital signals.
+   */
+  public ElementState( final IUIElement aElement, final SignalAlignment aAnnotationAlignment )
+  {
+    this.element = aElement;
+    this.yPosition = aElement.getYposition();
+    this.height = aElement.getHeight();
+    this.color = aElement.getColor();
+
+    if ( aElement instanceof SignalElement )
+    {
+      final SignalElement element = ( SignalElement )aElement;
+      this.signalElement = true;
+      this.digitalSignal = element.isDigitalSignal();
+      this.groupSummary = element.isGroupSummary();
+      this.analogSignal = element.isAnalogSignal();
+      this.enabled = element.isEnabled();
+      this.mask = element.getMask();
+      this.signalHeight = element.getSignalHeight();
+      this.offset = element.getOffset();
+
+      if ( this.digitalSignal )
+      {
+        this.annotationOffset = element.getOffset( aAnnotationAlignment );
+        this.channel = element.getChannel();
+        this.annotationModCount = this.channel.getAnnotationIndex().getModificationCount();
+      }
+      else
+      {
+        this.annotationOffset = 0;
+        this.channel = null;
+        this.annotationModCount = 0;
+      }
+    }
+    else
+    {
+      this.signalElement = false;
+      this.digitalSignal = false;
+      this.groupSummary = false;
+      this.analogSignal = false;
+      this.enabled = true;
+      this.mask = 0;
+      this.signalHeight = 0;
+      this.offset = 0;
+      this.annotationOffset = 0;
+      this.channel = null;
+      this.annotationModCount = 0;
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Takes a snapshot of each of the given UI-elements.
+   * 
+   * @param aElements
+   *          the UI-elements to take a snapshot of, cannot be <code>null</code>;
+   * @param aAnnotationAlignment
+   *          the alignment of the annotations of digital signals.
+   * @return the snapshots, in the same order as the given elements.
+   */
+  public static ElementState[] create( final IUIElement[] aElements, final SignalAlignment aAnnotationAlignment )
+  {
+    final ElementState[] result = new ElementState[aElements.length];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      result[i] = new ElementState( aElements[i], aAnnotationAlignment );
+    }
+    return result;
+  }
+
+  /**
+   * @return the offset of the annotations within this element, only defined
+   *         for digital signals.
+   */
+  public int getAnnotationOffset()
+  {
+    return this.annotationOffset;
+  }
+
+  /**
+   * @return the channel of this element, or <code>null</code> if this element
+   *         is not a digital signal.
+   */
+  public Channel getChannel()
+  {
+    return this.channel;
+  }
+
+  /**
+   * @return the main color of this element, never <code>null</code>.
+   */
+  public Color getColor()
+  {
+    return this.color;
+  }
+
+  /**
+   * @return the UI-element this is a snapshot of, never <code>null</code>.
+   */
+  public IUIElement getElement()
+  {
+    return this.element;
+  }
+
+  /**
+   * @return the height of this element, in pixels.
+   */
+  public int getHeight()
+  {
+    return this.height;
+  }
+
+  /**
+   * @return the mask of the channels of this element.
+   */
+  public int getMask()
+  {
+    return this.mask;
+  }
+
+  /**
+   * @return the offset of the signal within this element, in pixels.
+   */
+  public int getOffset()
+  {
+    return this.offset;
+  }
+
+  /**
+   * @return the height of the signal of this element, in pixels.
+   */
+  public int getSignalHeight()
+  {
+    return this.signalHeight;
+  }
+
+  /**
+   * @return the y-position of this element, in pixels.
+   */
+  public int getYposition()
+  {
+    return this.yPosition;
+  }
+
+  /**
+   * @return <code>true</code> if this element is an analog scope,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isAnalogSignal()
+  {
+    return this.analogSignal;
+  }
+
+  /**
+   * @return <code>true</code> if this element is a digital signal,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isDigitalSignal()
+  {
+    return this.digitalSignal;
+  }
+
+  /**
+   * @return <code>true</code> if this element is enabled, <code>false</code>
+   *         otherwise.
+   */
+  public boolean isEnabled()
+  {
+    return this.enabled;
+  }
+
+  /**
+   * @return <code>true</code> if this element is a group summary,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isGroupSummary()
+  {
+    return this.groupSummary;
+  }
+
+  /**
+   * @return <code>true</code> if this element is a signal element,
+   *         <code>false</code> if it is an element group.
+   */
+  public boolean isSignalElement()
+  {
+    return this.signalElement;
+  }
+
+  /**
+   * Returns whether or not the given UI-element is still in the state of this
+   * snapshot, as far as painting it is concerned.
+   * 
+   * @param aElement
+   *          the element to test against, cannot be <code>null</code>.
+   * @return <code>true</code> if the element is unchanged, <code>false</code>
+   *         otherwise.
+   */
+  public boolean isValidFor( final IUIElement aElement )
+  {
+    if ( ( this.height != aElement.getHeight() ) || !this.color.equals( aElement.getColor() ) )
+    {
+      return false;
+    }
+    if ( aElement instanceof SignalElement )
+    {
+      final SignalElement element = ( SignalElement )aElement;
+      return ( this.mask == element.getMask() ) && ( this.signalHeight == element.getSignalHeight() )
+          && ( this.offset == element.getOffset() ) && ( this.enabled == element.isEnabled() )
+          && ( this.annotationModCount == getAnnotationModCount( element ) );
+    }
+    return true;
+  }
+
+  /**
+   * Returns the modification count of the annotations of the given element.
+   */
+  private static int getAnnotationModCount( final SignalElement aElement )
+  {
+    if ( !aElement.isDigitalSignal() )
+    {
+      return 0;
+    }
+    return aElement.getChannel().getAnnotationIndex().getModificationCount();
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import java.awt.*;
+
+
+/**
+ * Provides a cache for the hexadecimal labels shown in group summaries,
+ * together with their widths in a given font.
+ * <p>
+ * Labels are kept in a direct-mapped table indexed by their value, so looking
+ * up a label that is already present neither formats nor measures any text,
+ * and does not allocate anything. As bus values tend to repeat, most lookups
+ * are hits. Callers are expected to first compare the available space against
+ * {@link #getMinimumWidth()}, allowing labels that can never fit to be skipped
+ * without looking them up at all.
+ * </p>
+ */
+final class HexLabelCache
+{
+  // CONSTANTS
+
+  /** The number of labels in the cache, should be a power of two. */
+  private static final int CACHE_SIZE = 4096;
+
+  // VARIABLES
+
+  private final int[] values;
+  private final String[] labels;
+  private final int[] widths;
+
+  private FontMetrics fontMetrics;
+  private int minimumWidth;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new, empty, {@link HexLabelCache} instance.
+   */
+  public HexLabelCache()
+  {
+    this.values = new int[CACHE_SIZE];
+    this.labels = new String[CACHE_SIZE];
+    this.widths = new int[CACHE_SIZE];
+  }
+
+  // METHODS
+
+  /**
+   * Formats the given value as hexadecimal label, in the same way as
+   * <code>String.format("%02X", value)</code> does.
+   * 
+   * @param aValue
+   *          the value to format.
+   * @return a label, never <code>null</code>.
+   */
+  static String format( final int aValue )
+  {
+    final String hex = Integer.toHexString( aValue ).toUpperCase();
+    return ( hex.length() < 2 ) ? "0".concat( hex ) : hex;
+  }
+
+  /**
+   * Returns the label for the given value.
+   * 
+   * @param aValue
+   *          the value to return the label for.
+   * @return a label, never <code>null</code>.
+   */
+  public String getLabel( final int aValue )
+  {
+    return this.labels[lookup( aValue )];
+  }
+
+  /**
+   * Returns the width of the narrowest label, that is, the width of a label
+   * with two digits. No label fits in a space smaller than this width.
+   * 
+   * @return a width, in pixels, &gt;= 0.
+   */
+  public int getMinimumWidth()
+  {
+    return this.minimumWidth;
+  }
+
+  /**
+   * Returns the width of the label for the given value.
+   * 
+   * @param aValue
+   *          the value to return the label width for.
+   * @return a width, in pixels, &gt;= 0.
+   */
+  public int getWidth( final int aValue )
+  {
+    return this.widths[lookup( aValue )];
+  }
+
+  /**
+   * Sets the font metrics used to measure the labels; if they differ from the
+   * current ones, all cached labels are dropped.
+   * 
+   * @param aFontMetrics
+   *          the font metrics to use, cannot be <code>null</code>.
+   */
+  public void setFontMetrics( final FontMetrics aFontMetrics )
+  {
+    final FontMetrics current = this.fontMetrics;
+    if ( ( current != null ) && current.getFont().equals( aFontMetrics.getFont() )
+        && current.getFontRenderContext().equals( aFontMetrics.getFontRenderContext() ) )
+    {
+      return;
+    }
+
+    this.fontMetrics = aFontMetrics;
+    this.minimumWidth = aFontMetrics.stringWidth( "00" );
+
+    for ( int i = 0; i < CACHE_SIZE; i++ )
+    {
+      this.labels[i] = null;
+    }
+  }
+
+  /**
+   * Returns the slot of the given value, formatting and measuring its label if
+   * it is not present.
+   */
+  private int lookup( final int aValue )
+  {
+    // Spread the upper bits of the value, as group values are not shifted...
+    final int hash = aValue ^ ( aValue >>> 12 ) ^ ( aValue >>> 24 );
+    final int slot = hash & ( CACHE_SIZE - 1 );
+
+    if ( ( this.labels[slot] == null ) || ( this.values[slot] != aValue ) )
+    {
+      final String label = format( aValue );
+
+      this.values[slot] = aValue;
+      this.labels[slot] = label;
+      this.widths[slot] = this.fontMetrics.stringWidth( label );
+    }
+    return slot;
+  }
+}
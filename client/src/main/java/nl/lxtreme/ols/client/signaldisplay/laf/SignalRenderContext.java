@@ -0,0 +1,367 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import java.awt.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.client.signaldisplay.model.*;
+import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.SignalAlignment;
+
+
+/**
+ * Provides an immutable snapshot of the settings and captured data of a
+ * {@link SignalViewModel}, as needed to paint signals.
+ * <p>
+ * The model is changed on the event dispatch thread. Taking a snapshot on that
+ * thread allows signals to be painted on another thread, without ever seeing
+ * a partially changed zoom level, view offset or data set.
+ * </p>
+ */
+final class SignalRenderContext
+{
+  // VARIABLES
+
+  private final SignalViewModel model;
+  private final AcquisitionResult data;
+  private final long sampleCount;
+  private final double zoomFactor;
+  private final long viewOffset;
+  private final int signalElementSpacing;
+  private final Color backgroundColor;
+
+  private final boolean triggerData;
+  private final long triggerOffset;
+  private final Color triggerColor;
+
+  private final SignalAlignment annotationAlignment;
+  private final float annotationAlpha;
+  private final Color annotationColor;
+  private final Font annotationFont;
+  private final boolean renderAnnotationAlternatively;
+  private final boolean renderAnnotationAntiAliased;
+
+  private final Color groupSummaryBarColor;
+  private final int groupSummaryPadding;
+  private final Font groupSummaryTextFont;
+  private final boolean renderGroupSummaryAntiAliased;
+
+  private final boolean renderScopeSignalAntiAliased;
+  private final boolean sloppyScopeRenderingAllowed;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link SignalRenderContext} instance.
+   * 
+   * @param aModel
+   *          the model to take a snapshot of, cannot be <code>null</code>.
+   */
+  public SignalRenderContext( final SignalViewModel aModel )
+  {
+    this.model = aModel;
+    this.data = aModel.getCapturedData();
+    this.sampleCount = aModel.getSampleCount();
+    this.zoomFactor = aModel.getZoomFactor();
+    this.viewOffset = aModel.getViewOffset();
+    this.signalElementSpacing = aModel.getSignalElementSpacing();
+    this.backgroundColor = aModel.getBackgroundColor();
+
+    this.triggerData = aModel.hasTriggerData();
+    this.triggerOffset = aModel.getTriggerOffset();
+    this.triggerColor = aModel.getTriggerColor();
+
+    this.annotationAlignment = aModel.getAnnotationAlignment();
+    this.annotationAlpha = aModel.getAnnotationAlpha();
+    this.annotationColor = aModel.getAnnotationColor();
+    this.annotationFont = aModel.getAnnotationFont();
+    this.renderAnnotationAlternatively = aModel.isRenderAnnotationAlternatively();
+    this.renderAnnotationAntiAliased = aModel.isRenderAnnotationAntiAliased();
+
+    this.groupSummaryBarColor = aModel.getGroupSummaryBarColor();
+    this.groupSummaryPadding = aModel.getGroupSummaryPadding();
+    this.groupSummaryTextFont = aModel.getGroupSummaryTextFont();
+    this.renderGroupSummaryAntiAliased = aModel.isRenderGroupSummaryAntiAliased();
+
+    this.renderScopeSignalAntiAliased = aModel.isRenderScopeSignalAntiAliased();
+    this.sloppyScopeRenderingAllowed = aModel.isSloppyScopeRenderingAllowed();
+  }
+
+  // METHODS
+
+  /**
+   * @return the alignment for the annotations, never <code>null</code>.
+   */
+  public SignalAlignment getAnnotationAlignment()
+  {
+    return this.annotationAlignment;
+  }
+
+  /**
+   * @return the alpha value to use for fading out annotated signals.
+   */
+  public float getAnnotationAlpha()
+  {
+    return this.annotationAlpha;
+  }
+
+  /**
+   * @return the color for the annotations, never <code>null</code>.
+   */
+  public Color getAnnotationColor()
+  {
+    return this.annotationColor;
+  }
+
+  /**
+   * @return the font for the annotations, never <code>null</code>.
+   */
+  public Font getAnnotationFont()
+  {
+    return this.annotationFont;
+  }
+
+  /**
+   * @return the background color of the signal view, never <code>null</code>.
+   */
+  public Color getBackgroundColor()
+  {
+    return this.backgroundColor;
+  }
+
+  /**
+   * @return the captured data, never <code>null</code>.
+   */
+  public AcquisitionResult getCapturedData()
+  {
+    return this.data;
+  }
+
+  /**
+   * Returns the index of the last sample that is (partially) visible in the
+   * given clip region.
+   * 
+   * @param aClip
+   *          the clip region, cannot be <code>null</code>;
+   * @param aLength
+   *          the number of samples, &gt; 0.
+   * @return a sample index.
+   */
+  public long getEndIndex( final Rectangle aClip, final long aLength )
+  {
+    final long index = locationToSampleIndex( aClip.x + aClip.width );
+    return Math.min( index + 1L, aLength - 1L );
+  }
+
+  /**
+   * @return the color for the group summary bars, never <code>null</code>.
+   */
+  public Color getGroupSummaryBarColor()
+  {
+    return this.groupSummaryBarColor;
+  }
+
+  /**
+   * @return the padding used for the group summary, in pixels.
+   */
+  public int getGroupSummaryPadding()
+  {
+    return this.groupSummaryPadding;
+  }
+
+  /**
+   * @return the font for the group summary text, never <code>null</code>.
+   */
+  public Font getGroupSummaryTextFont()
+  {
+    return this.groupSummaryTextFont;
+  }
+
+  /**
+   * @return the number of samples in the captured data, &gt;= 0.
+   */
+  public long getSampleCount()
+  {
+    return this.sampleCount;
+  }
+
+  /**
+   * @return the spacing between two signal elements, in pixels.
+   */
+  public int getSignalElementSpacing()
+  {
+    return this.signalElementSpacing;
+  }
+
+  /**
+   * Determines the envelope of an analog scope for a range of pixel columns.
+   * 
+   * @see SignalViewModel#getSignalEnvelope(int, int, int[], int[])
+   */
+  public void getSignalEnvelope( final int aMask, final int aStartX, final int[] aMinValues, final int[] aMaxValues )
+  {
+    this.model.getSignalEnvelope( this.data, aMask, this.viewOffset + aStartX, this.zoomFactor, aMinValues,
+        aMaxValues );
+  }
+
+  /**
+   * Summarizes the signal of a channel for a range of pixel columns.
+   * 
+   * @see SignalViewModel#getSignalSummary(int, int, int[])
+   */
+  public int getSignalSummary( final int aChannelIdx, final int aStartX, final int[] aTransitionCounts )
+  {
+    return SignalViewModel.getSignalSummary( this.data.getEdgeIndex(), aChannelIdx, this.viewOffset + aStartX,
+        this.zoomFactor, aTransitionCounts );
+  }
+
+  /**
+   * Returns the index of the first sample that is (partially) visible in the
+   * given clip region.
+   * 
+   * @param aClip
+   *          the clip region, cannot be <code>null</code>.
+   * @return a sample index, &gt;= 0.
+   */
+  public long getStartIndex( final Rectangle aClip )
+  {
+    final long index = locationToSampleIndex( aClip.x );
+    return Math.max( index - 1L, 0L );
+  }
+
+  /**
+   * Returns the timestamp of the sample with the given index.
+   * 
+   * @param aIndex
+   *          the index of the sample, &gt;= 0 &amp;&amp; &lt;
+   *          {@link #getSampleCount()}.
+   * @return a timestamp.
+   */
+  public long getTimestamp( final long aIndex )
+  {
+    return this.data.getTimestamp( aIndex );
+  }
+
+  /**
+   * @return the color to use for painting a trigger moment, never
+   *         <code>null</code>.
+   */
+  public Color getTriggerColor()
+  {
+    return this.triggerColor;
+  }
+
+  /**
+   * @return the trigger position, as timestamp, or 0 if no trigger is present.
+   */
+  public long getTriggerOffset()
+  {
+    return this.triggerOffset;
+  }
+
+  /**
+   * @return the offset of the view, in pixels.
+   */
+  public long getViewOffset()
+  {
+    return this.viewOffset;
+  }
+
+  /**
+   * @return the zoom factor that is used to display the signals with.
+   */
+  public double getZoomFactor()
+  {
+    return this.zoomFactor;
+  }
+
+  /**
+   * @return <code>true</code> if there is trigger data present,
+   *         <code>false</code> otherwise.
+   */
+  public boolean hasTriggerData()
+  {
+    return this.triggerData;
+  }
+
+  /**
+   * @return <code>true</code> if the alternative rendering style for
+   *         annotations should be used, <code>false</code> otherwise.
+   */
+  public boolean isRenderAnnotationAlternatively()
+  {
+    return this.renderAnnotationAlternatively;
+  }
+
+  /**
+   * @return <code>true</code> if annotations should be rendered anti-aliased,
+   *         <code>false</code> otherwise.
+   */
+  public boolean isRenderAnnotationAntiAliased()
+  {
+    return this.renderAnnotationAntiAliased;
+  }
+
+  /**
+   * @return <code>true</code> if group summaries should be rendered
+   *         anti-aliased, <code>false</code> otherwise.
+   */
+  public boolean isRenderGroupSummaryAntiAliased()
+  {
+    return this.renderGroupSummaryAntiAliased;
+  }
+
+  /**
+   * @return <code>true</code> if analog scopes should be rendered
+   *         anti-aliased, <code>false</code> otherwise.
+   */
+  public boolean isRenderScopeSignalAntiAliased()
+  {
+    return this.renderScopeSignalAntiAliased;
+  }
+
+  /**
+   * @return <code>true</code> if analog scopes may be rendered sloppy for
+   *         large data sets, <code>false</code> otherwise.
+   */
+  public boolean isSloppyScopeRenderingAllowed()
+  {
+    return this.sloppyScopeRenderingAllowed;
+  }
+
+  /**
+   * Converts the given x-coordinate to the corresponding sample index.
+   * 
+   * @return a sample index, &gt;= 0, or -1 if no corresponding sample index
+   *         could be found.
+   */
+  private long locationToSampleIndex( final int aX )
+  {
+    final long timestamp = ( long )Math.ceil( ( this.viewOffset + aX ) / this.zoomFactor );
+    final long idx = this.data.findSampleIndex( Math.max( -1L, timestamp ) );
+    if ( idx < 0L )
+    {
+      return -1L;
+    }
+    return Math.min( idx, this.sampleCount - 1L );
+  }
+}
@@ -0,0 +1,355 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import java.awt.image.*;
+import java.util.*;
+
+import nl.lxtreme.ols.client.signaldisplay.signalelement.*;
+
+
+/**
+ * Provides a cache of pre-rendered tiles of the signal view.
+ * <p>
+ * Each tile covers a fixed-width range of pixel columns of a single signal
+ * element. Tiles are only valid for the zoom level and captured data they are
+ * rendered for; in addition, each tile remembers the state of its signal
+ * element (such as its height, color and annotations) at the moment it was
+ * rendered, so that changes to that element are detected upon lookup. When
+ * the total size of all tiles exceeds the memory budget, the least recently
+ * used tiles are evicted.
+ * </p>
+ * <p>
+ * Tiles can be rendered in two passes: a coarse one that is quick to render,
+ * and a refined one that shows all details. As tiles are rendered on a
+ * background thread, each tile is tagged with the generation of this cache it
+ * is rendered for, allowing renders that were started before the cache was
+ * cleared to be discarded.
+ * </p>
+ */
+final class SignalTileCache
+{
+  // INNER TYPES
+
+  /**
+   * Identifies a tile by the identity of its signal element and its column.
+   */
+  static final class TileKey
+  {
+    // VARIABLES
+
+    private final IUIElement element;
+    private final int column;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link TileKey} instance.
+     */
+    public TileKey( final IUIElement aElement, final int aColumn )
+    {
+      this.element = aElement;
+      this.column = aColumn;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean equals( final Object aObject )
+    {
+      if ( this == aObject )
+      {
+        return true;
+      }
+      if ( !( aObject instanceof TileKey ) )
+      {
+        return false;
+      }
+
+      final TileKey other = ( TileKey )aObject;
+      return ( this.element == other.element ) && ( this.column == other.column );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int hashCode()
+    {
+      return ( 31 * System.identityHashCode( this.element ) ) + this.column;
+    }
+  }
+
+  /**
+   * Provides a rendered tile along with the state of its signal element at the
+   * time it was rendered.
+   */
+  static final class Tile
+  {
+    // VARIABLES
+
+    private final BufferedImage image;
+    private final boolean refined;
+    private final ElementState state;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link Tile} instance.
+     */
+    public Tile( final BufferedImage aImage, final boolean aRefined, final ElementState aState )
+    {
+      this.image = aImage;
+      this.refined = aRefined;
+      this.state = aState;
+    }
+
+    // METHODS
+
+    /**
+     * Returns the rendered image of this tile.
+     * 
+     * @return an image, never <code>null</code>.
+     */
+    public BufferedImage getImage()
+    {
+      return this.image;
+    }
+
+    /**
+     * Returns whether this tile is rendered in full detail.
+     * 
+     * @return <code>true</code> if this tile is the result of a refined render,
+     *         <code>false</code> if it is the result of a coarse render.
+     */
+    public boolean isRefined()
+    {
+      return this.refined;
+    }
+
+    /**
+     * Returns whether or not this tile still represents the given element.
+     * 
+     * @param aElement
+     *          the element to test against, cannot be <code>null</code>.
+     * @return <code>true</code> if this tile can be used as-is,
+     *         <code>false</code> if it needs to be rendered again.
+     */
+    public boolean isValidFor( final IUIElement aElement )
+    {
+      return this.state.isValidFor( aElement );
+    }
+
+    /**
+     * Returns the number of bytes (approximately) used by this tile.
+     */
+    final long getSize()
+    {
+      return 4L * this.image.getWidth() * this.image.getHeight();
+    }
+  }
+
+  // CONSTANTS
+
+  /** The width of a single tile, in pixels. */
+  static final int TILE_WIDTH = 256;
+
+  // VARIABLES
+
+  private final LinkedHashMap<TileKey, Tile> tiles;
+
+  private long budget;
+  private long size;
+  private int generation;
+  private Object capturedData;
+  private double zoomFactor;
+  private long viewOffset;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new, empty, {@link SignalTileCache} instance.
+   */
+  public SignalTileCache()
+  {
+    // Use access-order, so the eldest entry is the least recently used one...
+    this.tiles = new LinkedHashMap<TileKey, Tile>( 64, 0.75f, true /* accessOrder */);
+  }
+
+  // METHODS
+
+  /**
+   * Removes all tiles from this cache.
+   */
+  public synchronized void clear()
+  {
+    this.tiles.clear();
+    this.size = 0L;
+    this.generation++;
+  }
+
+  /**
+   * Returns a tile, if it is present and still valid for the given element.
+   * 
+   * @param aElement
+   *          the element to return the tile for, cannot be <code>null</code>;
+   * @param aColumn
+   *          the column of the tile, &gt;= 0.
+   * @return the tile, or <code>null</code> if it should be rendered.
+   */
+  public synchronized Tile get( final IUIElement aElement, final int aColumn )
+  {
+    final TileKey key = new TileKey( aElement, aColumn );
+
+    final Tile tile = this.tiles.get( key );
+    if ( tile == null )
+    {
+      return null;
+    }
+    if ( !tile.isValidFor( aElement ) )
+    {
+      remove( key );
+      return null;
+    }
+    return tile;
+  }
+
+  /**
+   * Returns the current generation of this cache, which changes each time this
+   * cache is cleared.
+   * 
+   * @return a generation number.
+   */
+  public synchronized int getGeneration()
+  {
+    return this.generation;
+  }
+
+  /**
+   * Returns whether or not tiles are cached at all.
+   * 
+   * @return <code>true</code> if a memory budget is available for tiles,
+   *         <code>false</code> otherwise.
+   */
+  public synchronized boolean isEnabled()
+  {
+    return this.budget > 0L;
+  }
+
+  /**
+   * Adds a rendered tile to this cache, evicting the least recently used tiles
+   * if the memory budget is exceeded.
+   * 
+   * @param aState
+   *          the state of the element the tile is rendered for, cannot be
+   *          <code>null</code>;
+   * @param aColumn
+   *          the column of the tile, &gt;= 0;
+   * @param aImage
+   *          the rendered tile, cannot be <code>null</code>;
+   * @param aRefined
+   *          <code>true</code> if the tile is rendered in full detail,
+   *          <code>false</code> if it is a coarse render;
+   * @param aGeneration
+   *          the generation of this cache the tile is rendered for.
+   * @return <code>true</code> if the tile is added, <code>false</code> if it
+   *         is discarded as the cache is cleared after the tile was requested.
+   */
+  public synchronized boolean put( final ElementState aState, final int aColumn, final BufferedImage aImage,
+      final boolean aRefined, final int aGeneration )
+  {
+    if ( aGeneration != this.generation )
+    {
+      return false;
+    }
+
+    final Tile tile = new Tile( aImage, aRefined, aState );
+    final Tile old = this.tiles.put( new TileKey( aState.getElement(), aColumn ), tile );
+    if ( old != null )
+    {
+      this.size -= old.getSize();
+    }
+    this.size += tile.getSize();
+
+    final Iterator<Tile> iter = this.tiles.values().iterator();
+    while ( ( this.size > this.budget ) && iter.hasNext() )
+    {
+      final Tile eldest = iter.next();
+      if ( eldest == tile )
+      {
+        // Always keep the tile just added...
+        continue;
+      }
+      this.size -= eldest.getSize();
+      iter.remove();
+    }
+    return true;
+  }
+
+  /**
+   * Updates the state this cache is valid for, dropping all tiles if either
+   * the captured data, zoom factor or view offset is changed.
+   * 
+   * @param aCapturedData
+   *          the captured data currently shown;
+   * @param aZoomFactor
+   *          the current zoom factor;
+   * @param aViewOffset
+   *          the current view offset, in pixels;
+   * @param aBudget
+   *          the memory budget for all tiles, in bytes, &gt;= 0.
+   */
+  public synchronized void update( final Object aCapturedData, final double aZoomFactor, final long aViewOffset,
+      final long aBudget )
+  {
+    if ( ( this.capturedData != aCapturedData ) || ( Double.compare( this.zoomFactor, aZoomFactor ) != 0 )
+        || ( this.viewOffset != aViewOffset ) )
+    {
+      clear();
+
+      this.capturedData = aCapturedData;
+      this.zoomFactor = aZoomFactor;
+      this.viewOffset = aViewOffset;
+    }
+
+    this.budget = aBudget;
+    if ( this.size > aBudget )
+    {
+      clear();
+    }
+  }
+
+  /**
+   * Removes a single tile.
+   */
+  private void remove( final TileKey aKey )
+  {
+    final Tile tile = this.tiles.remove( aKey );
+    if ( tile != null )
+    {
+      this.size -= tile.getSize();
+    }
+  }
+}
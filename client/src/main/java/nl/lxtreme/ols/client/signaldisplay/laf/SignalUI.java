@@ -20,16 +20,25 @@
 package nl.lxtreme.ols.client.signaldisplay.laf;
 
 
+import static nl.lxtreme.ols.client.signaldisplay.ZoomController.*;
+
 import java.awt.*;
+import java.awt.image.*;
+import java.beans.*;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
 
 import javax.swing.*;
 import javax.swing.plaf.*;
 
 import nl.lxtreme.ols.api.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.annotation.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
+import nl.lxtreme.ols.client.signaldisplay.laf.SignalTileCache.Tile;
+import nl.lxtreme.ols.client.signaldisplay.laf.SignalTileCache.TileKey;
 import nl.lxtreme.ols.client.signaldisplay.model.*;
-import nl.lxtreme.ols.client.signaldisplay.signalelement.*;
 import nl.lxtreme.ols.client.signaldisplay.util.*;
 import nl.lxtreme.ols.client.signaldisplay.view.*;
 
@@ -39,6 +48,132 @@ import nl.lxtreme.ols.client.signaldisplay.view.*;
  */
 public class SignalUI extends ComponentUI
 {
+  // INNER TYPES
+
+  /**
+   * Renders the tiles of a single column for a number of UI-elements on the
+   * render thread. A coarse render is followed by a refined one, which is
+   * queued after all coarse renders that are already requested, so that the
+   * entire view is shown roughly before any details are filled in.
+   */
+  private final class RenderJob implements Runnable
+  {
+    // VARIABLES
+
+    private final SignalView view;
+    private final SignalRenderContext context;
+    private final int column;
+    private final ElementState[] elements;
+    private final int generation;
+    private final boolean refined;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link RenderJob} instance.
+     */
+    public RenderJob( final SignalView aView, final SignalRenderContext aContext, final int aColumn,
+        final ElementState[] aElements, final int aGeneration, final boolean aRefined )
+    {
+      this.view = aView;
+      this.context = aContext;
+      this.column = aColumn;
+      this.elements = aElements;
+      this.generation = aGeneration;
+      this.refined = aRefined;
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void run()
+    {
+      boolean followUp = false;
+
+      try
+      {
+        if ( render() && !this.refined )
+        {
+          followUp = submit( new RenderJob( this.view, this.context, this.column, this.elements, this.generation,
+              true /* aRefined */) );
+        }
+      }
+      finally
+      {
+        if ( !followUp )
+        {
+          releaseTiles( this.elements, this.column, this.generation );
+        }
+      }
+    }
+
+    /**
+     * Renders all tiles of this job that are still visible.
+     * 
+     * @return <code>true</code> if this job is completed, <code>false</code>
+     *         if it is cancelled as its tiles became stale.
+     */
+    private boolean render()
+    {
+      final int spacing = this.context.getSignalElementSpacing();
+      final Rectangle tileRect = new Rectangle( this.column * SignalTileCache.TILE_WIDTH, 0,
+          SignalTileCache.TILE_WIDTH, 0 );
+
+      synchronized ( SignalUI.this.renderLock )
+      {
+        for ( ElementState element : this.elements )
+        {
+          if ( this.generation != SignalUI.this.tileCache.getGeneration() )
+          {
+            // Zoom level, data or settings are changed in the meantime...
+            return false;
+          }
+
+          tileRect.y = element.getYposition();
+          tileRect.height = element.getHeight() + spacing;
+
+          final Rectangle visibleRect = SignalUI.this.visibleRect;
+          if ( ( visibleRect == null ) || !visibleRect.intersects( tileRect ) )
+          {
+            // Scrolled out of view; leave it for a next paint...
+            continue;
+          }
+
+          final BufferedImage tile = renderTile( this.view, this.context, element, tileRect, this.refined );
+          if ( !SignalUI.this.tileCache.put( element, this.column, tile, this.refined, this.generation ) )
+          {
+            return false;
+          }
+
+          this.view.repaint( tileRect );
+        }
+      }
+
+      return true;
+    }
+  }
+
+  /**
+   * Drops all cached tiles whenever one of the UI defaults, such as the colors
+   * or fonts used to render the signals, is changed.
+   */
+  private final class UIDefaultsListener implements PropertyChangeListener
+  {
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void propertyChange( final PropertyChangeEvent aEvent )
+    {
+      SignalUI.this.tileCache.clear();
+    }
+  }
+
   // CONSTANTS
 
   /** The maximum number of points in a polyline. */
@@ -51,12 +186,34 @@ public class SignalUI extends ComponentUI
 
   // VARIABLES
 
+  private final SignalTileCache tileCache = new SignalTileCache();
+  private final HexLabelCache groupSummaryLabels = new HexLabelCache();
+  private final PropertyChangeListener uiDefaultsListener = new UIDefaultsListener();
+  /** the tiles that are being rendered, with the cache generation they are rendered for. */
+  private final Map<TileKey, Integer> pendingTiles = new HashMap<TileKey, Integer>();
+  /**
+   * guards the buffers used while rendering signals, which are shared by the
+   * painting on the EDT and the render thread.
+   */
+  private final Object renderLock = new Object();
+
+  private volatile ExecutorService renderExecutor;
+  /** the part of the view that is visible as of the last paint. */
+  private volatile Rectangle visibleRect;
+
   private volatile boolean listening = true;
   private volatile MeasurementInfo measurementInfo;
   private volatile Rectangle measurementRect;
-
-  private static final int[] x = new int[2 * POINT_COUNT];
-  private static final int[] y = new int[2 * POINT_COUNT];
+  /** the transition count per pixel column, used for summarized signals. */
+  private int[] transitionCounts;
+  /** the minimum and maximum value per pixel column, used for scope envelopes. */
+  private int[] envelopeMinValues;
+  private int[] envelopeMaxValues;
+  /** the (smoothed) number of points drawn for the last digital signal. */
+  private int lastPointCount;
+  /** the points of the polylines and polygons to draw. */
+  private final int[] xPoints = new int[2 * POINT_COUNT];
+  private final int[] yPoints = new int[2 * POINT_COUNT];
 
   // METHODS
 
@@ -133,6 +290,27 @@ public class SignalUI extends ComponentUI
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void installUI( final JComponent aComponent )
+  {
+    UIManager.getDefaults().addPropertyChangeListener( this.uiDefaultsListener );
+
+    this.renderExecutor = Executors.newSingleThreadExecutor( new ThreadFactory()
+    {
+      @Override
+      public Thread newThread( final Runnable aRunnable )
+      {
+        final Thread thread = new Thread( aRunnable, "Signal tile renderer" );
+        thread.setDaemon( true );
+        thread.setPriority( Thread.NORM_PRIORITY - 1 );
+        return thread;
+      }
+    } );
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -160,7 +338,16 @@ public class SignalUI extends ComponentUI
     try
     {
       final Rectangle clip = aGraphics.getClipBounds();
-      final IUIElement[] elements = model.getSignalElements( clip.y, clip.height );
+
+      // Take a snapshot of everything needed to paint the signals, as the
+      // tiles are rendered on another thread...
+      final SignalRenderContext context = new SignalRenderContext( model );
+      final ElementState[] elements = ElementState.create( model.getSignalElements( clip.y, clip.height ),
+          context.getAnnotationAlignment() );
+
+      this.tileCache.update( context.getCapturedData(), context.getZoomFactor(), context.getViewOffset(),
+          model.getTileCacheSize() );
+      final boolean useTiles = this.tileCache.isEnabled();
 
       Graphics2D canvas = ( Graphics2D )aGraphics.create();
 
@@ -168,7 +355,17 @@ public class SignalUI extends ComponentUI
       {
         if ( elements.length > 0 )
         {
-          paintSignals( canvas, model, elements );
+          if ( useTiles )
+          {
+            paintTiles( canvas, view, context, elements );
+          }
+          else
+          {
+            synchronized ( this.renderLock )
+            {
+              paintSignals( canvas, context, elements );
+            }
+          }
         }
       }
       finally
@@ -193,8 +390,11 @@ public class SignalUI extends ComponentUI
         paintMeasurementArrow( canvas, model, this.measurementInfo );
       }
 
-      // Draw the annotations...
-      paintAnnotations( canvas, model, elements );
+      // Draw the annotations, unless they are already part of the tiles...
+      if ( !useTiles )
+      {
+        paintAnnotations( canvas, context, elements );
+      }
     }
     finally
     {
@@ -202,6 +402,61 @@ public class SignalUI extends ComponentUI
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void uninstallUI( final JComponent aComponent )
+  {
+    UIManager.getDefaults().removePropertyChangeListener( this.uiDefaultsListener );
+
+    final ExecutorService executor = this.renderExecutor;
+    this.renderExecutor = null;
+    if ( executor != null )
+    {
+      executor.shutdownNow();
+    }
+
+    this.tileCache.clear();
+  }
+
+  /**
+   * Marks the tile of an element in a column as being rendered, unless it is
+   * already being rendered.
+   * 
+   * @return <code>true</code> if the tile should be requested,
+   *         <code>false</code> if it already is.
+   */
+  private boolean claimTile( final ElementState aElement, final int aColumn, final int aGeneration )
+  {
+    final TileKey key = new TileKey( aElement.getElement(), aColumn );
+    final Integer generation = Integer.valueOf( aGeneration );
+
+    synchronized ( this.pendingTiles )
+    {
+      if ( generation.equals( this.pendingTiles.get( key ) ) )
+      {
+        return false;
+      }
+      this.pendingTiles.put( key, generation );
+      return true;
+    }
+  }
+
+  /**
+   * Creates a new image for a single tile, compatible with the screen the given
+   * view is shown on, if possible.
+   */
+  private static BufferedImage createTileImage( final SignalView aView, final int aWidth, final int aHeight )
+  {
+    final GraphicsConfiguration gc = aView.getGraphicsConfiguration();
+    if ( gc != null )
+    {
+      return gc.createCompatibleImage( aWidth, aHeight );
+    }
+    return new BufferedImage( aWidth, aHeight, BufferedImage.TYPE_INT_RGB );
+  }
+
   /**
    * Returns the stroke to use to render the annotation lines.
    * 
@@ -228,55 +483,55 @@ public class SignalUI extends ComponentUI
 
   /**
    * @param aCanvas
-   * @param aModel
+   * @param aContext
    * @param aSignalElements
    */
-  private void paintAnnotations( final Graphics2D aCanvas, final SignalViewModel aModel,
-      final IUIElement[] aSignalElements )
+  private void paintAnnotations( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState[] aSignalElements )
   {
-    final long[] timestamps = aModel.getTimestamps();
-    if ( ( timestamps == null ) || ( timestamps.length == 0 ) || ( aSignalElements.length == 0 ) )
+    final long sampleCount = aContext.getSampleCount();
+    if ( ( sampleCount == 0L ) || ( aSignalElements.length == 0 ) )
     {
       // Nothing to do...
       return;
     }
 
     final Rectangle clip = aCanvas.getClipBounds();
-    final int startIdx = aModel.getStartIndex( clip );
-    final int endIdx = aModel.getEndIndex( clip, timestamps.length );
+    final long startIdx = aContext.getStartIndex( clip );
+    final long endIdx = aContext.getEndIndex( clip, sampleCount );
 
-    final long startTimestamp = timestamps[startIdx];
-    final long endTimestamp = timestamps[endIdx];
+    final long startTimestamp = aContext.getTimestamp( startIdx );
+    final long endTimestamp = aContext.getTimestamp( endIdx );
 
-    final double zoomFactor = aModel.getZoomFactor();
+    final double zoomFactor = aContext.getZoomFactor();
+    final long viewOffset = aContext.getViewOffset();
 
     // Start drawing at the correct position in the clipped region...
     aCanvas.translate( 0, aSignalElements[0].getYposition() );
 
-    final boolean annotationRenderStyle = aModel.isRenderAnnotationAlternatively();
+    final boolean annotationRenderStyle = aContext.isRenderAnnotationAlternatively();
 
     // Some drawing primitives we're going to re-use over and over...
     final Stroke stroke = getAnnotationLineStroke( annotationRenderStyle, zoomFactor );
 
-    final AlphaComposite alphaComposite = AlphaComposite.SrcOver.derive( aModel.getAnnotationAlpha() );
+    final AlphaComposite alphaComposite = AlphaComposite.SrcOver.derive( aContext.getAnnotationAlpha() );
 
-    for ( IUIElement element : aSignalElements )
+    for ( ElementState element : aSignalElements )
     {
-      if ( element instanceof SignalElement )
+      if ( element.isSignalElement() )
       {
-        SignalElement signalElement = ( SignalElement )element;
-        if ( signalElement.isDigitalSignal() )
+        if ( element.isDigitalSignal() )
         {
           // Tell Swing how we would like to render ourselves...
-          aCanvas.setRenderingHints( createSignalRenderingHints( aModel.isRenderAnnotationAntiAliased() ) );
+          aCanvas.setRenderingHints( createSignalRenderingHints( aContext.isRenderAnnotationAntiAliased() ) );
 
-          aCanvas.setColor( signalElement.getColor() );
+          aCanvas.setColor( element.getColor() );
 
-          if ( signalElement.isEnabled() )
+          if ( element.isEnabled() )
           {
-            final AnnotationsHelper helper = new AnnotationsHelper( signalElement );
+            final AnnotationsHelper helper = new AnnotationsHelper( element.getChannel() );
 
-            aCanvas.setFont( aModel.getAnnotationFont() );
+            aCanvas.setFont( aContext.getAnnotationFont() );
 
             final FontMetrics fm = aCanvas.getFontMetrics();
             final int fontHeight = fm.getHeight();
@@ -286,10 +541,10 @@ public class SignalUI extends ComponentUI
               final long annStartTime = ann.getStartTimestamp();
               final long annEndTime = ann.getEndTimestamp();
 
-              int x1 = ( int )( annStartTime * zoomFactor );
-              int x2 = ( int )( annEndTime * zoomFactor );
-              int y1 = signalElement.getOffset( aModel.getAnnotationAlignment() );
-              int y2 = y1 + signalElement.getSignalHeight();
+              int x1 = toCoordinate( annStartTime, zoomFactor, viewOffset );
+              int x2 = toCoordinate( annEndTime, zoomFactor, viewOffset );
+              int y1 = element.getAnnotationOffset();
+              int y2 = y1 + element.getSignalHeight();
               int midY = y1 + ( ( y2 - y1 ) / 2 );
 
               final String annText = ann.getAnnotation().toString();
@@ -302,7 +557,7 @@ public class SignalUI extends ComponentUI
               aCanvas.setComposite( alphaComposite );
 
               // Fade out the signal itself...
-              aCanvas.setColor( aModel.getBackgroundColor() );
+              aCanvas.setColor( aContext.getBackgroundColor() );
               if ( annotationRenderStyle )
               {
                 aCanvas.fillRect( x1, y1 + 0, annotationWidth, ( y2 - y1 ) + 1 );
@@ -315,7 +570,7 @@ public class SignalUI extends ComponentUI
               aCanvas.setComposite( oldComposite );
 
               // Draw the thick white boundaries...
-              aCanvas.setColor( aModel.getAnnotationColor() );
+              aCanvas.setColor( aContext.getAnnotationColor() );
               aCanvas.setStroke( stroke );
               aCanvas.drawLine( x1, y1 + 2, x1, y2 - 2 );
               aCanvas.drawLine( x2, y1 + 2, x2, y2 - 2 );
@@ -342,7 +597,7 @@ public class SignalUI extends ComponentUI
       }
 
       // Advance to the next channel...
-      aCanvas.translate( 0, element.getHeight() + aModel.getSignalElementSpacing() );
+      aCanvas.translate( 0, element.getHeight() + aContext.getSignalElementSpacing() );
     }
   }
 
@@ -351,7 +606,7 @@ public class SignalUI extends ComponentUI
    * 
    * @param aCanvas
    *          the canvas to paint the cursor on;
-   * @param aModel
+   * @param aContext
    *          the model to use;
    */
   private void paintCursors( final Graphics2D aCanvas, final SignalViewModel aModel )
@@ -418,114 +673,155 @@ public class SignalUI extends ComponentUI
    * 
    * @param aCanvas
    *          the canvas to paint on, cannot be <code>null</code>;
-   * @param aModel
-   *          the model to use, cannot be <code>null</code>;
+   * @param aContext
+   *          the render context to use, cannot be <code>null</code>;
    * @param aElements
    *          the UI-elements to draw, cannot be <code>null</code> or empty!
    */
-  private void paintSignals( final Graphics2D aCanvas, final SignalViewModel aModel, final IUIElement[] aElements )
+  private void paintSignals( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState[] aElements )
   {
-    final int[] values = aModel.getDataValues();
-    final long[] timestamps = aModel.getTimestamps();
-
     final Rectangle clip = aCanvas.getClipBounds();
 
-    aCanvas.setBackground( aModel.getBackgroundColor() );
+    aCanvas.setBackground( aContext.getBackgroundColor() );
     aCanvas.clearRect( clip.x, clip.y, clip.width, clip.height );
 
-    final int startIdx = aModel.getStartIndex( clip );
-    final int endIdx = aModel.getEndIndex( clip, values.length );
+    final long startIdx = aContext.getStartIndex( clip );
+    final long endIdx = aContext.getEndIndex( clip, aContext.getSampleCount() );
+    if ( endIdx < startIdx )
+    {
+      // Nothing to do...
+      return;
+    }
 
-    final double zoomFactor = aModel.getZoomFactor();
+    paintTriggerLine( aCanvas, aContext, clip );
+    paintSignals( aCanvas, aContext, aElements, startIdx, endIdx );
+  }
 
-    if ( aModel.hasTriggerData() )
-    {
-      final long triggerOffset = aModel.getTriggerOffset();
-      if ( ( timestamps[startIdx] <= triggerOffset ) && ( timestamps[endIdx] >= triggerOffset ) )
-      {
-        // Draw a line denoting the trigger position...
-        final int x = ( int )Math.round( triggerOffset * zoomFactor ) - 1;
+  /**
+   * Paints the given UI-elements using the samples between the given indices.
+   * <p>
+   * The samples are not read up front, as the visible window can span any
+   * number of samples. Instead, summaries only need the timestamps of the
+   * first and last sample, while all other signals are painted by walking
+   * through the samples with a {@link SampleCursor}, which reads them in
+   * bounded chunks.
+   * </p>
+   * 
+   * @param aCanvas
+   *          the canvas to paint on, cannot be <code>null</code>;
+   * @param aContext
+   *          the render context to use, cannot be <code>null</code>;
+   * @param aElements
+   *          the UI-elements to draw, cannot be <code>null</code> or empty!
+   * @param aStartIdx
+   *          the index of the first visible sample, &gt;= 0;
+   * @param aEndIdx
+   *          the index of the last visible sample, &gt;= aStartIdx.
+   */
+  private void paintSignals( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState[] aElements, final long aStartIdx, final long aEndIdx )
+  {
+    final Rectangle clip = aCanvas.getClipBounds();
 
-        aCanvas.setColor( aModel.getTriggerColor() );
-        aCanvas.drawLine( x, clip.y, x, clip.y + clip.height );
-      }
-    }
+    final long startIdx = aStartIdx;
+    final long endIdx = aEndIdx;
+
+    // Shared by all elements, which all walk through the same samples...
+    final SampleCursor cursor = new SampleCursor( aContext.getCapturedData() );
+    final long startTimestamp = aContext.getTimestamp( startIdx );
+    final long endTimestamp = aContext.getTimestamp( endIdx );
+
+    final double zoomFactor = aContext.getZoomFactor();
+    final long viewOffset = aContext.getViewOffset();
 
     // Start drawing at the correct position in the clipped region...
     aCanvas.translate( 0, aElements[0].getYposition() );
 
-    final boolean enableSloppyScopePainting = aModel.isSloppyScopeRenderingAllowed();
-    int lastP = 0;
+    final boolean enableSloppyScopePainting = aContext.isSloppyScopeRenderingAllowed();
+    int lastP = this.lastPointCount;
 
-    for ( IUIElement element : aElements )
+    for ( ElementState element : aElements )
     {
-      if ( element instanceof ElementGroup )
+      if ( !element.isSignalElement() )
       {
         // Draw nothing...
 
         // advance to the next element...
-        aCanvas.translate( 0, element.getHeight() + aModel.getSignalElementSpacing() );
+        aCanvas.translate( 0, element.getHeight() + aContext.getSignalElementSpacing() );
 
         continue;
       }
 
       aCanvas.setColor( element.getColor() );
 
-      final SignalElement signalElement = ( SignalElement )element;
-
-      if ( signalElement.isDigitalSignal() )
+      if ( element.isDigitalSignal() )
       {
-        int signalHeight = signalElement.getSignalHeight();
-        int signalOffset = signalElement.getOffset();
+        int signalHeight = element.getSignalHeight();
+        int signalOffset = element.getOffset();
 
         // Tell Swing how we would like to render ourselves...
         aCanvas.setRenderingHints( createSignalRenderingHints( false /* aUseAA */) );
 
         aCanvas.translate( 0, signalOffset );
 
-        if ( !signalElement.isEnabled() || ( startIdx == endIdx ) )
+        if ( !element.isEnabled() || ( startIdx == endIdx ) )
         {
           // Forced zero'd channel is *very* easy to draw...
           aCanvas.drawLine( clip.x, signalHeight, clip.x + clip.width, signalHeight );
         }
+        else if ( ( endIdx - startIdx ) > clip.width )
+        {
+          // More transitions than pixels; draw a summary of each pixel
+          // column instead of each individual transition...
+          final int startX = Math.max( clip.x, toCoordinate( startTimestamp, zoomFactor, viewOffset ) );
+          final int endX = Math.min( clip.x + clip.width, toCoordinate( endTimestamp, zoomFactor, viewOffset ) );
+
+          paintSignalSummary( aCanvas, aContext, element, startX, endX );
+
+          lastP = ( int )( ( ( endIdx - startIdx ) * 0.1 ) + ( lastP * 0.9 ) );
+        }
         else
         {
           // "Normal" data set; draw as accurate as possible...
-          final int mask = signalElement.getMask();
+          final int mask = element.getMask();
 
           // Make sure we always start with time 0...
-          long timestamp = timestamps[startIdx];
-          int prevSampleValue = ( values[startIdx] & mask );
+          cursor.moveTo( startIdx );
+          long timestamp = cursor.getTimestamp();
+          int prevSampleValue = ( cursor.getValue() & mask );
 
-          int xValue = ( int )( zoomFactor * timestamp );
+          int xValue = toCoordinate( timestamp, zoomFactor, viewOffset );
           int yValue = ( prevSampleValue == 0 ? signalHeight : 0 );
 
-          x[0] = xValue;
-          y[0] = yValue;
+          this.xPoints[0] = xValue;
+          this.yPoints[0] = yValue;
           int p = 1;
 
-          for ( int sampleIdx = startIdx + 1; ( p < POINT_COUNT ) && ( sampleIdx <= endIdx ); sampleIdx++ )
+          for ( long sampleIdx = startIdx + 1L; ( p < POINT_COUNT ) && ( sampleIdx <= endIdx ); sampleIdx++ )
           {
-            timestamp = timestamps[sampleIdx];
-            int sampleValue = ( values[sampleIdx] & mask );
+            cursor.next();
 
-            xValue = ( int )( zoomFactor * timestamp );
+            timestamp = cursor.getTimestamp();
+            int sampleValue = ( cursor.getValue() & mask );
+
+            xValue = toCoordinate( timestamp, zoomFactor, viewOffset );
 
             if ( prevSampleValue != sampleValue )
             {
-              x[p] = xValue;
-              y[p] = ( prevSampleValue == 0 ? signalHeight : 0 );
+              this.xPoints[p] = xValue;
+              this.yPoints[p] = ( prevSampleValue == 0 ? signalHeight : 0 );
               p++;
             }
 
-            x[p] = xValue;
-            y[p] = ( sampleValue == 0 ? signalHeight : 0 );
+            this.xPoints[p] = xValue;
+            this.yPoints[p] = ( sampleValue == 0 ? signalHeight : 0 );
             p++;
 
             prevSampleValue = sampleValue;
           }
 
-          aCanvas.drawPolyline( x, y, p );
+          aCanvas.drawPolyline( this.xPoints, this.yPoints, p );
 
           lastP = ( int )( ( p * 0.1 ) + ( lastP * 0.9 ) );
         }
@@ -534,54 +830,69 @@ public class SignalUI extends ComponentUI
         aCanvas.translate( 0, -signalOffset );
       }
 
+      this.lastPointCount = lastP;
+
       int sampleIncr = 1;
       if ( enableSloppyScopePainting && ( lastP > SLOPPY_DRAW_THRESHOLD ) )
       {
         sampleIncr = ( int )Math.max( 1.0, ( 1.0 / zoomFactor ) );
       }
 
-      if ( signalElement.isGroupSummary() )
+      if ( element.isGroupSummary() )
       {
         // Tell Swing how we would like to render ourselves...
-        aCanvas.setRenderingHints( createSignalRenderingHints( aModel.isRenderGroupSummaryAntiAliased() ) );
+        aCanvas.setRenderingHints( createSignalRenderingHints( aContext.isRenderGroupSummaryAntiAliased() ) );
 
-        int mask = signalElement.getMask();
+        int mask = element.getMask();
 
-        int padding = aModel.getGroupSummaryPadding();
+        int padding = aContext.getGroupSummaryPadding();
 
-        int prevSampleValue = values[startIdx] & mask;
-        int prevX = ( int )( zoomFactor * timestamps[startIdx] );
+        cursor.moveTo( startIdx );
+        int prevSampleValue = cursor.getValue() & mask;
+        int prevX = toCoordinate( startTimestamp, zoomFactor, viewOffset );
 
-        aCanvas.setFont( aModel.getGroupSummaryTextFont() );
+        aCanvas.setFont( aContext.getGroupSummaryTextFont() );
 
         FontMetrics fm = aCanvas.getFontMetrics();
-        int textYpos = ( int )( ( signalElement.getHeight() + fm.getLeading() + fm.getMaxAscent() ) / 2.0 ) - padding;
+        int textYpos = ( int )( ( element.getHeight() + fm.getLeading() + fm.getMaxAscent() ) / 2.0 ) - padding;
+
+        final HexLabelCache labels = this.groupSummaryLabels;
+        labels.setFontMetrics( fm );
+
+        // Cells that cannot even hold the narrowest label are skipped without
+        // looking up their label...
+        final int minCellWidth = labels.getMinimumWidth() + ( 2 * padding );
+
+        final Color textColor = element.getColor();
+        final Color barColor = aContext.getGroupSummaryBarColor();
 
-        for ( int sampleIdx = startIdx + 1; sampleIdx < endIdx; sampleIdx += sampleIncr )
+        for ( long sampleIdx = startIdx + 1L; sampleIdx < endIdx; sampleIdx += sampleIncr )
         {
-          int sampleValue = ( values[sampleIdx] & mask );
+          cursor.moveTo( sampleIdx );
+          int sampleValue = ( cursor.getValue() & mask );
 
           if ( sampleValue != prevSampleValue )
           {
-            int x = ( int )( zoomFactor * timestamps[sampleIdx] );
+            int x = toCoordinate( cursor.getTimestamp(), zoomFactor, viewOffset );
 
-            String text = String.format( "%02X", Integer.valueOf( prevSampleValue ) );
-
-            int textWidth = fm.stringWidth( text ) + ( 2 * padding );
             int cellWidth = x - prevX;
-            if ( textWidth < cellWidth )
+            if ( cellWidth > minCellWidth )
             {
-              int textXpos = prevX + ( int )( ( cellWidth - textWidth ) / 2.0 ) + padding;
+              int textWidth = labels.getWidth( prevSampleValue ) + ( 2 * padding );
+              if ( textWidth < cellWidth )
+              {
+                int textXpos = prevX + ( int )( ( cellWidth - textWidth ) / 2.0 ) + padding;
 
-              aCanvas.setColor( signalElement.getColor() );
+                aCanvas.setColor( textColor );
 
-              aCanvas.drawString( text, textXpos, textYpos );
+                aCanvas.drawString( labels.getLabel( prevSampleValue ), textXpos, textYpos );
+              }
             }
 
-            aCanvas.setColor( aModel.getGroupSummaryBarColor() );
+            aCanvas.setColor( barColor );
 
             // draw a small line...
-            aCanvas.drawLine( x, padding, x, signalElement.getHeight() - padding );
+            aCanvas.drawLine( x, padding, x, element.getHeight() - padding );
 
             prevX = x;
           }
@@ -590,57 +901,469 @@ public class SignalUI extends ComponentUI
         }
       }
 
-      if ( signalElement.isAnalogSignal() )
+      if ( element.isAnalogSignal() )
       {
         // Tell Swing how we would like to render ourselves...
-        aCanvas.setRenderingHints( createSignalRenderingHints( aModel.isRenderScopeSignalAntiAliased() ) );
+        aCanvas.setRenderingHints( createSignalRenderingHints( aContext.isRenderScopeSignalAntiAliased() ) );
 
-        aCanvas.setColor( signalElement.getColor() );
+        aCanvas.setColor( element.getColor() );
 
-        long mask = signalElement.getMask() & 0xFFFFFFFFL;
+        long mask = element.getMask() & 0xFFFFFFFFL;
         final int trailingZeros = Long.numberOfTrailingZeros( mask );
         final int onesCount = Long.SIZE - Long.numberOfLeadingZeros( mask ) - trailingZeros;
         final long maxValue = ( ( 1L << onesCount ) - 1L ) & 0xFFFFFFFFL;
-        double scaleFactor = ( maxValue == 0L ) ? 1.0 : signalElement.getHeight() / ( double )maxValue;
+        double scaleFactor = ( maxValue == 0L ) ? 1.0 : element.getHeight() / ( double )maxValue;
 
-        // Make sure we always start with time 0...
-        int p = 0;
-        if ( startIdx == endIdx )
+        if ( ( endIdx - startIdx ) > clip.width )
         {
-          x[p] = clip.x;
-          y[p] = signalElement.getHeight();
-          p++;
+          // More samples than pixels; draw the envelope of each pixel column
+          // instead, which keeps all peaks visible...
+          final int startX = Math.max( clip.x, toCoordinate( startTimestamp, zoomFactor, viewOffset ) );
+          final int endX = Math.min( clip.x + clip.width, toCoordinate( endTimestamp, zoomFactor, viewOffset ) );
+
+          paintScopeEnvelope( aCanvas, aContext, element, startX, endX, maxValue, scaleFactor );
         }
         else
         {
-          for ( int sampleIdx = startIdx; ( p < POINT_COUNT ) && ( sampleIdx < endIdx ); sampleIdx += sampleIncr )
+          // Make sure we always start with time 0...
+          int p = 0;
+          if ( startIdx == endIdx )
           {
-            long timestamp = timestamps[sampleIdx];
-
-            int sampleValue = ( int )( ( values[sampleIdx] & mask ) >> trailingZeros );
-            final int i_max = Math.min( endIdx, ( sampleIdx + sampleIncr ) - 1 );
-            for ( int i = sampleIdx + 1; i < i_max; i++ )
+            this.xPoints[p] = clip.x;
+            this.yPoints[p] = element.getHeight();
+            p++;
+          }
+          else
+          {
+            for ( long sampleIdx = startIdx; ( p < POINT_COUNT ) && ( sampleIdx < endIdx ); sampleIdx += sampleIncr )
             {
-              sampleValue += ( ( values[i] & mask ) >> trailingZeros );
-            }
-            sampleValue = ( int )( maxValue - ( sampleValue / ( double )sampleIncr ) );
+              cursor.moveTo( sampleIdx );
+              long timestamp = cursor.getTimestamp();
 
-            x[p] = ( int )( zoomFactor * timestamp );
-            y[p] = ( int )( scaleFactor * sampleValue );
-            p++;
+              int sampleValue = ( int )( ( cursor.getValue() & mask ) >> trailingZeros );
+              final long i_max = Math.min( endIdx, ( sampleIdx + sampleIncr ) - 1L );
+              for ( long i = sampleIdx + 1L; i < i_max; i++ )
+              {
+                cursor.next();
+                sampleValue += ( ( cursor.getValue() & mask ) >> trailingZeros );
+              }
+              sampleValue = ( int )( maxValue - ( sampleValue / ( double )sampleIncr ) );
+
+              this.xPoints[p] = toCoordinate( timestamp, zoomFactor, viewOffset );
+              this.yPoints[p] = ( int )( scaleFactor * sampleValue );
+              p++;
+            }
           }
+
+          // Make sure we end at the last visible sample index...
+          this.xPoints[p] = clip.x + clip.width;
+          this.yPoints[p] = this.yPoints[p - 1];
+          p++;
+
+          aCanvas.drawPolyline( this.xPoints, this.yPoints, p );
         }
+      }
+
+      // advance to the next element...
+      aCanvas.translate( 0, element.getHeight() + aContext.getSignalElementSpacing() );
+    }
+  }
+
+  /**
+   * Paints the envelope of an analog scope as filled area between the minimum
+   * and maximum value of each pixel column. As this envelope is determined
+   * from the precomputed envelope of the scope, its costs only depend on the
+   * number of columns.
+   * 
+   * @param aCanvas
+   *          the canvas to paint on, translated to the top of the scope;
+   * @param aContext
+   *          the render context to use;
+   * @param aSignalElement
+   *          the analog scope to paint;
+   * @param aStartX
+   *          the first column to paint;
+   * @param aEndX
+   *          the last column to paint;
+   * @param aMaxValue
+   *          the largest value the scope can have;
+   * @param aScaleFactor
+   *          the vertical scale factor of the scope.
+   */
+  private void paintScopeEnvelope( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState aSignalElement, final int aStartX, final int aEndX, final long aMaxValue,
+      final double aScaleFactor )
+  {
+    final int columns = Math.min( POINT_COUNT, Math.max( 1, ( aEndX - aStartX ) + 1 ) );
+
+    if ( ( this.envelopeMinValues == null ) || ( this.envelopeMinValues.length != columns ) )
+    {
+      this.envelopeMinValues = new int[columns];
+      this.envelopeMaxValues = new int[columns];
+    }
+
+    aContext.getSignalEnvelope( aSignalElement.getMask(), aStartX, this.envelopeMinValues, this.envelopeMaxValues );
+
+    int p = 0;
+    // The upper edge from left to right...
+    for ( int i = 0; i < columns; i++ )
+    {
+      this.xPoints[p] = aStartX + i;
+      this.yPoints[p] = ( int )( aScaleFactor * ( aMaxValue - this.envelopeMaxValues[i] ) );
+      p++;
+    }
+    // ...and the lower edge from right to left...
+    for ( int i = columns - 1; i >= 0; i-- )
+    {
+      this.xPoints[p] = aStartX + i;
+      this.yPoints[p] = ( int )( aScaleFactor * ( aMaxValue - this.envelopeMinValues[i] ) );
+      p++;
+    }
+
+    aCanvas.fillPolygon( this.xPoints, this.yPoints, p );
+    // Also draw the outline, as filling does not cover flat parts...
+    aCanvas.drawPolygon( this.xPoints, this.yPoints, p );
+  }
+
+  /**
+   * Paints the summary of a digital signal, showing for each pixel column
+   * whether the signal is low, high or both. As this summary is determined from
+   * the edge index, its costs only depend on the number of columns.
+   * 
+   * @param aCanvas
+   *          the canvas to paint on, translated to the top of the signal;
+   * @param aContext
+   *          the render context to use;
+   * @param aSignalElement
+   *          the digital signal to paint;
+   * @param aStartX
+   *          the first column to paint;
+   * @param aEndX
+   *          the last column to paint.
+   */
+  private void paintSignalSummary( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState aSignalElement, final int aStartX, final int aEndX )
+  {
+    final int channelIdx = aSignalElement.getChannel().getIndex();
+    final int signalHeight = aSignalElement.getSignalHeight();
+
+    final int columns = Math.min( POINT_COUNT / 3, Math.max( 1, ( aEndX - aStartX ) + 1 ) );
+
+    if ( ( this.transitionCounts == null ) || ( this.transitionCounts.length != columns ) )
+    {
+      this.transitionCounts = new int[columns];
+    }
+
+    int level = aContext.getSignalSummary( channelIdx, aStartX, this.transitionCounts );
+    int p = 0;
+
+    for ( int i = 0; i < columns; i++ )
+    {
+      final int xValue = aStartX + i;
+      final int yValue = ( level == 0 ? signalHeight : 0 );
+
+      this.xPoints[p] = xValue;
+      this.yPoints[p] = yValue;
+      p++;
 
-        // Make sure we end at the last visible sample index...
-        x[p] = clip.x + clip.width;
-        y[p] = y[p - 1];
+      final int count = this.transitionCounts[i];
+      if ( count > 0 )
+      {
+        // Both levels occur in this column; draw a vertical line...
+        this.xPoints[p] = xValue;
+        this.yPoints[p] = signalHeight - yValue;
         p++;
 
-        aCanvas.drawPolyline( x, y, p );
+        if ( ( count & 1 ) == 0 )
+        {
+          // Even number of transitions: we end on the same level...
+          this.xPoints[p] = xValue;
+          this.yPoints[p] = yValue;
+          p++;
+        }
+        else
+        {
+          level ^= 1;
+        }
       }
+    }
 
-      // advance to the next element...
-      aCanvas.translate( 0, signalElement.getHeight() + aModel.getSignalElementSpacing() );
+    aCanvas.drawPolyline( this.xPoints, this.yPoints, p );
+  }
+
+  /**
+   * Paints the given UI-element coarsely, without reading any samples: digital
+   * signals are drawn as summary, while group summaries and analog scopes are
+   * left out until the tile is refined.
+   * 
+   * @param aCanvas
+   *          the canvas to paint on, cannot be <code>null</code>;
+   * @param aContext
+   *          the render context to use, cannot be <code>null</code>;
+   * @param aElement
+   *          the UI-element to draw, cannot be <code>null</code>.
+   */
+  private void paintSignalCoarsely( final Graphics2D aCanvas, final SignalRenderContext aContext,
+      final ElementState aElement )
+  {
+    if ( !aElement.isDigitalSignal() )
+    {
+      return;
+    }
+
+    final Rectangle clip = aCanvas.getClipBounds();
+
+    final long sampleCount = aContext.getSampleCount();
+    if ( sampleCount == 0L )
+    {
+      return;
+    }
+
+    final double zoomFactor = aContext.getZoomFactor();
+    final long viewOffset = aContext.getViewOffset();
+
+    final int startX = Math.max( clip.x, toCoordinate( aContext.getTimestamp( 0L ), zoomFactor, viewOffset ) );
+    final int endX = Math.min( clip.x + clip.width,
+        toCoordinate( aContext.getTimestamp( sampleCount - 1L ), zoomFactor, viewOffset ) );
+    if ( endX < startX )
+    {
+      return;
+    }
+
+    final int signalHeight = aElement.getSignalHeight();
+    final int offset = aElement.getYposition() + aElement.getOffset();
+
+    aCanvas.setRenderingHints( createSignalRenderingHints( false /* aUseAA */) );
+    aCanvas.setColor( aElement.getColor() );
+    aCanvas.translate( 0, offset );
+
+    if ( !aElement.isEnabled() )
+    {
+      aCanvas.drawLine( startX, signalHeight, endX, signalHeight );
+    }
+    else
+    {
+      paintSignalSummary( aCanvas, aContext, aElement, startX, endX );
+    }
+
+    aCanvas.translate( 0, -offset );
+  }
+
+  /**
+   * Paints the given UI-elements by drawing their pre-rendered tiles. Tiles
+   * that are missing or only coarsely rendered are requested from the render
+   * thread, which repaints their area once they are available.
+   * 
+   * @param aCanvas
+   *          the canvas to paint on, cannot be <code>null</code>;
+   * @param aView
+   *          the view to paint, cannot be <code>null</code>;
+   * @param aContext
+   *          the render context to use, cannot be <code>null</code>;
+   * @param aElements
+   *          the UI-elements to draw, cannot be <code>null</code> or empty!
+   */
+  private void paintTiles( final Graphics2D aCanvas, final SignalView aView, final SignalRenderContext aContext,
+      final ElementState[] aElements )
+  {
+    final Rectangle clip = aCanvas.getClipBounds();
+
+    this.visibleRect = aView.getVisibleRect();
+
+    // Take care of the area that is not covered by any (rendered) tile...
+    aCanvas.setBackground( aContext.getBackgroundColor() );
+    aCanvas.clearRect( clip.x, clip.y, clip.width, clip.height );
+    paintTriggerLine( aCanvas, aContext, clip );
+
+    final int generation = this.tileCache.getGeneration();
+    final int spacing = aContext.getSignalElementSpacing();
+    final int tileWidth = SignalTileCache.TILE_WIDTH;
+
+    final int firstColumn = clip.x / tileWidth;
+    final int lastColumn = ( ( clip.x + clip.width ) - 1 ) / tileWidth;
+
+    final List<ElementState> coarse = new ArrayList<ElementState>();
+    final List<ElementState> refine = new ArrayList<ElementState>();
+
+    for ( int column = firstColumn; column <= lastColumn; column++ )
+    {
+      for ( ElementState element : aElements )
+      {
+        final int height = element.getHeight() + spacing;
+        if ( height <= 0 )
+        {
+          continue;
+        }
+
+        final Tile tile = this.tileCache.get( element.getElement(), column );
+        if ( tile != null )
+        {
+          aCanvas.drawImage( tile.getImage(), column * tileWidth, element.getYposition(), null );
+        }
+
+        if ( ( ( tile == null ) || !tile.isRefined() ) && claimTile( element, column, generation ) )
+        {
+          ( ( tile == null ) ? coarse : refine ).add( element );
+        }
+      }
+
+      if ( !coarse.isEmpty() )
+      {
+        requestTiles( aView, aContext, column, coarse, generation, false /* aRefined */);
+        coarse.clear();
+      }
+      if ( !refine.isEmpty() )
+      {
+        requestTiles( aView, aContext, column, refine, generation, true /* aRefined */);
+        refine.clear();
+      }
+    }
+  }
+
+  /**
+   * Paints a line denoting the trigger moment, if it lies within the given clip
+   * region.
+   */
+  private void paintTriggerLine( final Graphics2D aCanvas, final SignalRenderContext aContext, final Rectangle aClip )
+  {
+    if ( !aContext.hasTriggerData() )
+    {
+      return;
+    }
+
+    final int x = toCoordinate( aContext.getTriggerOffset(), aContext.getZoomFactor(), aContext.getViewOffset() ) - 1;
+    if ( ( x >= aClip.x ) && ( x < ( aClip.x + aClip.width ) ) )
+    {
+      aCanvas.setColor( aContext.getTriggerColor() );
+      aCanvas.drawLine( x, aClip.y, x, aClip.y + aClip.height );
+    }
+  }
+
+  /**
+   * Marks the tiles of a column as no longer being rendered.
+   */
+  private void releaseTiles( final ElementState[] aElements, final int aColumn, final int aGeneration )
+  {
+    final Integer generation = Integer.valueOf( aGeneration );
+
+    synchronized ( this.pendingTiles )
+    {
+      for ( ElementState element : aElements )
+      {
+        final TileKey key = new TileKey( element.getElement(), aColumn );
+        if ( generation.equals( this.pendingTiles.get( key ) ) )
+        {
+          this.pendingTiles.remove( key );
+        }
+      }
+    }
+  }
+
+  /**
+   * Renders a single tile of the given UI-element, including its annotations.
+   * 
+   * @param aView
+   *          the view to render the tile for, cannot be <code>null</code>;
+   * @param aContext
+   *          the render context to use, cannot be <code>null</code>;
+   * @param aElement
+   *          the UI-element to render, cannot be <code>null</code>;
+   * @param aTileRect
+   *          the area covered by the tile, in view coordinates;
+   * @param aRefined
+   *          <code>true</code> to render all details, <code>false</code> to
+   *          render a coarse version of the tile.
+   * @return the rendered tile, never <code>null</code>.
+   */
+  private BufferedImage renderTile( final SignalView aView, final SignalRenderContext aContext,
+      final ElementState aElement, final Rectangle aTileRect, final boolean aRefined )
+  {
+    final BufferedImage result = createTileImage( aView, aTileRect.width, aTileRect.height );
+
+    final Graphics2D canvas = result.createGraphics();
+
+    try
+    {
+      // Allow the tile to be painted in view coordinates...
+      canvas.translate( -aTileRect.x, -aTileRect.y );
+      canvas.setClip( aTileRect );
+
+      canvas.setBackground( aContext.getBackgroundColor() );
+      canvas.clearRect( aTileRect.x, aTileRect.y, aTileRect.width, aTileRect.height );
+      paintTriggerLine( canvas, aContext, aTileRect );
+
+      final ElementState[] elements = { aElement };
+
+      if ( !aRefined )
+      {
+        paintSignalCoarsely( canvas, aContext, aElement );
+        paintAnnotations( canvas, aContext, elements );
+      }
+      else
+      {
+        final long startIdx = aContext.getStartIndex( aTileRect );
+        final long endIdx = aContext.getEndIndex( aTileRect, aContext.getSampleCount() );
+
+        if ( endIdx >= startIdx )
+        {
+          final Graphics2D signalCanvas = ( Graphics2D )canvas.create();
+          try
+          {
+            paintSignals( signalCanvas, aContext, elements, startIdx, endIdx );
+          }
+          finally
+          {
+            signalCanvas.dispose();
+          }
+        }
+
+        paintAnnotations( canvas, aContext, elements );
+      }
+    }
+    finally
+    {
+      canvas.dispose();
+    }
+
+    return result;
+  }
+
+  /**
+   * Requests the tiles of the given UI-elements in a column to be rendered.
+   */
+  private void requestTiles( final SignalView aView, final SignalRenderContext aContext, final int aColumn,
+      final List<ElementState> aElements, final int aGeneration, final boolean aRefined )
+  {
+    final ElementState[] elements = aElements.toArray( new ElementState[aElements.size()] );
+
+    if ( !submit( new RenderJob( aView, aContext, aColumn, elements, aGeneration, aRefined ) ) )
+    {
+      releaseTiles( elements, aColumn, aGeneration );
+    }
+  }
+
+  /**
+   * Submits a render job to the render thread.
+   * 
+   * @return <code>true</code> if the job is submitted, <code>false</code> if
+   *         this UI is uninstalled.
+   */
+  private boolean submit( final RenderJob aJob )
+  {
+    final ExecutorService executor = this.renderExecutor;
+    if ( executor == null )
+    {
+      return false;
+    }
+
+    try
+    {
+      executor.execute( aJob );
+      return true;
+    }
+    catch ( RejectedExecutionException exception )
+    {
+      return false;
     }
   }
 }
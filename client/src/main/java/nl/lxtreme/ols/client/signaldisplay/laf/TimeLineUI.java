@@ -361,7 +361,9 @@ public class TimeLineUI extends ComponentUI
       final Rectangle visibleRect = view.getVisibleRect();
 
       final double zoomFactor = model.getZoomFactor();
-      final double triggerOffset = ( model.getTriggerOffset() * zoomFactor );
+      // the trigger offset is relative to the view offset, as are all clip
+      // coordinates...
+      final double triggerOffset = ( model.getTriggerOffset() * zoomFactor ) - model.getViewOffset();
 
       // s denotes the amount of pixels per second...
       final double s = model.getPixelsPerSecond();
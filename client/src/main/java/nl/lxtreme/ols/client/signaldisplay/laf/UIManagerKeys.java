@@ -193,4 +193,9 @@ public interface UIManagerKeys
    * Whether to use an alternative style for rendering annotations (true|false).
    */
   String SIGNALVIEW_ANNOTATION_USE_ALTSTYLE = "ols.signal.annotation.altstyle.boolean";
+  /**
+   * The memory budget for caching pre-rendered parts of the signal view, in
+   * megabytes; zero disables this cache.
+   */
+  String SIGNALVIEW_TILE_CACHE_SIZE = "ols.signal.tile.cache.size";
 }
@@ -196,6 +196,18 @@ public abstract class AbstractViewModel
     return triggerPosition.longValue();
   }
 
+  /**
+   * Returns the current view offset, to which all screen coordinates are
+   * relative.
+   * 
+   * @return a view offset, in pixels, >= 0.
+   * @see SignalDiagramModel#getViewOffset()
+   */
+  public long getViewOffset()
+  {
+    return getSignalDiagramModel().getViewOffset();
+  }
+
   /**
    * Returns the current zoom factor that is used to display the signals with.
    * 
@@ -249,16 +261,13 @@ public abstract class AbstractViewModel
    * 
    * @param aTimestamp
    *          the time stamp to convert, >= 0.
-   * @return a screen coordinate, >= 0.
+   * @return a screen coordinate, >= 0, or -1 if the time stamp lies before the
+   *         view.
+   * @see SignalDiagramModel#timestampToCoordinate(long)
    */
   public int timestampToCoordinate( final long aTimestamp )
   {
-    double result = getSignalDiagramModel().getZoomFactor() * aTimestamp;
-    if ( result > Integer.MAX_VALUE )
-    {
-      return Integer.MAX_VALUE;
-    }
-    return ( int )result;
+    return getSignalDiagramModel().timestampToCoordinate( aTimestamp );
   }
 
   /**
@@ -273,7 +282,7 @@ public abstract class AbstractViewModel
    * @param aPoint
    * @return
    */
-  protected int locationToSampleIndex( final Point aPoint )
+  protected long locationToSampleIndex( final Point aPoint )
   {
     final SignalDiagramModel model = this.controller.getSignalDiagram().getModel();
     return model.locationToSampleIndex( aPoint );
@@ -237,73 +237,56 @@ public class SignalDiagramModel
   }
 
   /**
+   * Finds the first edge of the channel with the given index that occurs after
+   * the given timestamp.
+   * 
    * @param aChannelIdx
+   *          the index of the channel to find the edge for;
    * @param aTimestamp
-   * @return
+   *          the timestamp to search from.
+   * @return the timestamp of the found edge, or the last timestamp if no such
+   *         edge exists.
    */
   public final long findEdgeAfter( final int aChannelIdx, final long aTimestamp )
   {
-    final long[] timestamps = getTimestamps();
-    final int[] values = getValues();
-
-    int refIdx = Arrays.binarySearch( timestamps, aTimestamp );
-    if ( refIdx < 0 )
-    {
-      refIdx = -( refIdx + 1 ) - 1;
-    }
-
-    if ( ( refIdx < 0 ) || ( refIdx >= values.length ) )
+    final long sampleCount = getSampleCount();
+    if ( sampleCount == 0L )
     {
-      return timestamps[0];
+      return 0L;
     }
 
-    // find the reference time value; which is the "timestamp" under the
-    // cursor...
-    final int mask = ( 1 << aChannelIdx );
-    final int refValue = ( values[refIdx] & mask );
-
-    do
+    final long result = getCapturedData().getEdgeIndex().findEdgeAfter( aChannelIdx, aTimestamp );
+    if ( result < 0L )
     {
-      refIdx++;
+      return getSampleTimestamp( sampleCount - 1L );
     }
-    while ( ( refIdx < ( values.length - 1 ) ) && ( ( values[refIdx] & mask ) == refValue ) );
-
-    return timestamps[refIdx];
+    return result;
   }
 
   /**
+   * Finds the last edge of the channel with the given index that occurs before
+   * the given timestamp.
+   * 
    * @param aChannelIdx
+   *          the index of the channel to find the edge for;
    * @param aTimestamp
-   * @return
+   *          the timestamp to search from.
+   * @return the timestamp of the found edge, or the first timestamp if no such
+   *         edge exists.
    */
   public final long findEdgeBefore( final int aChannelIdx, final long aTimestamp )
   {
-    final long[] timestamps = getTimestamps();
-    final int[] values = getValues();
-
-    int refIdx = Arrays.binarySearch( timestamps, aTimestamp );
-    if ( refIdx < 0 )
+    if ( getSampleCount() == 0L )
     {
-      refIdx = -( refIdx + 1 ) - 1;
-    }
-
-    if ( ( refIdx < 0 ) || ( refIdx >= values.length ) )
-    {
-      return timestamps[0];
+      return 0L;
     }
 
-    // find the reference time value; which is the "timestamp" under the
-    // cursor...
-    final int mask = ( 1 << aChannelIdx );
-    final int refValue = ( values[refIdx] & mask );
-
-    do
+    final long result = getCapturedData().getEdgeIndex().findEdgeBefore( aChannelIdx, aTimestamp );
+    if ( result < 0L )
     {
-      refIdx--;
+      return getSampleTimestamp( 0L );
     }
-    while ( ( refIdx > 0 ) && ( ( values[refIdx] & mask ) == refValue ) );
-
-    return timestamps[Math.max( 0, refIdx )];
+    return result;
   }
 
   /**
@@ -449,9 +432,9 @@ public class SignalDiagramModel
   {
     final int blockIncr = 50;
 
-    final int firstVisibleSample = locationToSampleIndex( aVisibleRect.getLocation() );
-    final int lastVisibleSample = locationToSampleIndex( new Point( aVisibleRect.x + aVisibleRect.width, 0 ) );
-    final int lastSampleIdx = getSampleCount();
+    final long firstVisibleSample = locationToSampleIndex( aVisibleRect.getLocation() );
+    final long lastVisibleSample = locationToSampleIndex( new Point( aVisibleRect.x + aVisibleRect.width, 0 ) );
+    final long lastSampleIdx = getSampleCount();
 
     int inc = 0;
     if ( aDirection < 0 )
@@ -562,7 +545,7 @@ public class SignalDiagramModel
       throw new IllegalArgumentException( "Signal element must represent a digital channel!" );
     }
 
-    final int refIdx = locationToSampleIndex( aPoint );
+    final long refIdx = locationToSampleIndex( aPoint );
     // Calculate the "absolute" time based on the mouse position, use a
     // "over sampling" factor to allow intermediary (between two time stamps)
     // time value to be shown...
@@ -583,7 +566,7 @@ public class SignalDiagramModel
       return new MeasurementInfo( aSignalElement, refTime );
     }
 
-    final long[] timestamps = getTimestamps();
+    final long sampleCount = getSampleCount();
 
     long ts = -1L;
     long tm = -1L;
@@ -592,47 +575,24 @@ public class SignalDiagramModel
 
     // find the reference time value; which is the "timestamp" under the
     // cursor...
-    final int[] values = getValues();
-    if ( ( refIdx >= 0 ) && ( refIdx < values.length ) )
+    if ( ( refIdx >= 0 ) && ( refIdx < sampleCount ) )
     {
-      final int mask = channel.getMask();
-      final int refValue = ( values[refIdx] & mask );
-
-      int idx = refIdx;
-      do
-      {
-        idx--;
-      }
-      while ( ( idx >= 0 ) && ( ( values[idx] & mask ) == refValue ) );
-
-      // convert the found index back to "screen" values...
-      final int tm_idx = Math.max( 0, idx + 1 );
-      tm = ( tm_idx == 0 ) ? 0 : timestamps[tm_idx];
-
-      // Search for the original value again, to complete the pulse...
-      do
-      {
-        idx--;
-      }
-      while ( ( idx >= 0 ) && ( ( values[idx] & mask ) != refValue ) );
-
-      // convert the found index back to "screen" values...
-      final int ts_idx = Math.max( 0, idx + 1 );
-      ts = ( ts_idx == 0 ) ? 0 : timestamps[ts_idx];
-
-      idx = refIdx;
-      do
-      {
-        idx++;
-      }
-      while ( ( idx < values.length ) && ( ( values[idx] & mask ) == refValue ) );
-
-      // convert the found index back to "screen" values...
-      final int te_idx = Math.min( idx, timestamps.length - 1 );
-      te = ( te_idx == 0 ) ? 0 : timestamps[te_idx];
-
-      // Determine the width of the "high" part...
-      if ( ( values[ts_idx] & mask ) != 0 )
+      final int channelIdx = channel.getIndex();
+      final EdgeIndex edgeIndex = getCapturedData().getEdgeIndex();
+      final long[] edges = edgeIndex.getEdges( channelIdx );
+
+      // The number of edges up to the reference time denotes the "pulse" we're
+      // currently in, the edges around it denote its start & end...
+      final int edgeCount = edgeIndex.getEdgeCount( channelIdx, getSampleTimestamp( refIdx ) );
+
+      tm = ( edgeCount > 0 ) ? edges[edgeCount - 1] : 0L;
+      ts = ( edgeCount > 1 ) ? edges[edgeCount - 2] : 0L;
+      te = ( edgeCount < edges.length ) ? edges[edgeCount] : getSampleTimestamp( sampleCount - 1L );
+
+      // Determine the width of the "high" part, the pulse starting at "ts" is
+      // high if the initial level has been toggled an even number of times...
+      final int tsLevel = edgeIndex.getInitialLevel( channelIdx ) ^ ( Math.max( 0, edgeCount - 1 ) & 1 );
+      if ( tsLevel != 0 )
       {
         th = Math.abs( tm - ts );
       }
@@ -645,11 +605,13 @@ public class SignalDiagramModel
     MeasurementInfo result;
     if ( hasTimingData() )
     {
-      result = new MeasurementInfo( aSignalElement, ts, tm, te, th, refTime, getZoomFactor(), getSampleRate() );
+      result = new MeasurementInfo( aSignalElement, ts, tm, te, th, refTime, getZoomFactor(), getViewOffset(),
+          getSampleRate() );
     }
     else
     {
-      result = new MeasurementInfo( aSignalElement, ts, tm, te, refTime, getZoomFactor(), getSampleRate() );
+      result = new MeasurementInfo( aSignalElement, ts, tm, te, refTime, getZoomFactor(), getViewOffset(),
+          getSampleRate() );
     }
 
     return result;
@@ -751,7 +713,7 @@ public class SignalDiagramModel
     final double scaleFactor = TIMESTAMP_FACTOR * zoomFactor;
 
     // Convert mouse position to absolute timestamp...
-    double x = aPoint.x / zoomFactor;
+    double x = ( getViewOffset() + aPoint.x ) / zoomFactor;
     // Take (optional) trigger position into account...
     final Long triggerPos = getTriggerPosition();
     if ( triggerPos != null )
@@ -771,27 +733,42 @@ public class SignalDiagramModel
   /**
    * {@inheritDoc}
    */
-  public int getTimestampIndex( final long aValue )
+  public long getTimestampIndex( final long aValue )
   {
     final AcquisitionResult capturedData = getCapturedData();
     if ( capturedData == null )
     {
-      return 0;
+      return 0L;
     }
-    return capturedData.getSampleIndex( aValue );
+    return capturedData.findSampleIndex( aValue );
   }
 
   /**
-   * {@inheritDoc}
+   * Returns the number of samples in the captured data.
+   * 
+   * @return a sample count, &gt;= 0.
    */
-  public long[] getTimestamps()
+  public long getSampleCount()
   {
     final AcquisitionResult capturedData = getCapturedData();
     if ( capturedData == null )
     {
-      return new long[0];
+      return 0L;
     }
-    return capturedData.getTimestamps();
+    return capturedData.getSampleCount();
+  }
+
+  /**
+   * Returns the timestamp of the sample with the given index.
+   * 
+   * @param aIndex
+   *          the index of the sample, &gt;= 0 &amp;&amp; &lt;
+   *          {@link #getSampleCount()}.
+   * @return a timestamp.
+   */
+  public long getSampleTimestamp( final long aIndex )
+  {
+    return getCapturedData().getTimestamp( aIndex );
   }
 
   /**
@@ -810,18 +787,6 @@ public class SignalDiagramModel
     return Long.valueOf( capturedData.getTriggerPosition() );
   }
 
-  /**
-   * {@inheritDoc}
-   */
-  public int[] getValues()
-  {
-    final AcquisitionResult capturedData = getCapturedData();
-    if ( capturedData == null )
-    {
-      return new int[0];
-    }
-    return capturedData.getValues();
-  }
 
   /**
    * Calculates the vertical block increment.
@@ -890,6 +855,22 @@ public class SignalDiagramModel
     return inc;
   }
 
+  /**
+   * Returns the view offset, which is the logical X-coordinate of the left side
+   * of the signal diagram.
+   * <p>
+   * The signal diagram only shows a part of the view, as the entire view can
+   * easily become wider than a Swing component can be. All screen coordinates
+   * are relative to this view offset.
+   * </p>
+   * 
+   * @return a view offset, in pixels, &gt;= 0.
+   */
+  public final long getViewOffset()
+  {
+    return getZoomController().getViewOffset();
+  }
+
   /**
    * Returns the zoom controller of this diagram.
    * 
@@ -1001,15 +982,15 @@ public class SignalDiagramModel
    * @return a sample index, >= 0, or -1 if no corresponding sample index could
    *         be found.
    */
-  public int locationToSampleIndex( final Point aCoordinate )
+  public long locationToSampleIndex( final Point aCoordinate )
   {
     final long timestamp = locationToTimestamp( aCoordinate );
-    final int idx = getTimestampIndex( timestamp );
-    if ( idx < 0 )
+    final long idx = getTimestampIndex( timestamp );
+    if ( idx < 0L )
     {
-      return -1;
+      return -1L;
     }
-    final int sampleCount = getSampleCount() - 1;
+    final long sampleCount = getSampleCount() - 1L;
     if ( idx > sampleCount )
     {
       return sampleCount;
@@ -1029,7 +1010,7 @@ public class SignalDiagramModel
    */
   public long locationToTimestamp( final Point aCoordinate )
   {
-    final long timestamp = ( long )Math.ceil( aCoordinate.x / getZoomFactor() );
+    final long timestamp = ( long )Math.ceil( ( getViewOffset() + aCoordinate.x ) / getZoomFactor() );
     if ( timestamp < 0 )
     {
       return -1;
@@ -1037,6 +1018,27 @@ public class SignalDiagramModel
     return timestamp;
   }
 
+  /**
+   * Reads the values and timestamps of a consecutive range of samples.
+   *
+   * @param aIndex
+   *          the index of the first sample to read, &gt;= 0;
+   * @param aValues
+   *          the array to read the sample values into, cannot be
+   *          <code>null</code>;
+   * @param aTimestamps
+   *          the array to read the sample timestamps into, cannot be
+   *          <code>null</code>;
+   * @param aLength
+   *          the number of samples to read, &gt;= 0.
+   */
+  public void readSamples( final long aIndex, final int[] aValues, final long[] aTimestamps, final int aLength )
+  {
+    final AcquisitionResult capturedData = getCapturedData();
+    capturedData.readValues( aIndex, aValues, 0, aLength );
+    capturedData.readTimestamps( aIndex, aTimestamps, 0, aLength );
+  }
+
   /**
    * @param aCursorIdx
    */
@@ -1284,6 +1286,21 @@ public class SignalDiagramModel
     }
   }
 
+  /**
+   * Converts a given time stamp to a screen coordinate, relative to the view
+   * offset.
+   * 
+   * @param aTimestamp
+   *          the time stamp to convert, >= 0.
+   * @return a screen coordinate, >= 0, or -1 if the time stamp lies before the
+   *         view.
+   * @see #getViewOffset()
+   */
+  public int timestampToCoordinate( final long aTimestamp )
+  {
+    return Math.max( -1, ZoomController.toCoordinate( aTimestamp, getZoomFactor(), getViewOffset() ) );
+  }
+
   /**
    * @param aOldCursor
    * @param aCursor
@@ -1303,12 +1320,4 @@ public class SignalDiagramModel
       }
     }
   }
-
-  /**
-   * {@inheritDoc}
-   */
-  private int getSampleCount()
-  {
-    return getValues().length;
-  }
 }
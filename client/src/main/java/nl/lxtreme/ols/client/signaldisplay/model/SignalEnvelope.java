@@ -0,0 +1,252 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.model;
+
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+
+/**
+ * Provides the minimum and maximum values of a group of channels for arbitrary
+ * ranges of samples, used to render analog scopes when more than one sample
+ * maps to a single pixel.
+ * <p>
+ * The values of the group, that is, the sample values masked with the mask of
+ * the group and shifted to the right, are summarized in levels of blocks: the
+ * first level holds the minimum and maximum of each block of
+ * {@value #BLOCK_SIZE} samples, each next level those of twice as many
+ * samples. A range is covered by the largest blocks that fit, while only the
+ * samples at both ends of the range that do not fill an entire block are read
+ * from the captured data. Hence, determining the minimum and maximum of a
+ * range takes at most a logarithmic number of blocks and twice the block size
+ * of samples, regardless of the length of the range.
+ * </p>
+ */
+public final class SignalEnvelope
+{
+  // CONSTANTS
+
+  /** The number of samples summarized in a single block of the first level. */
+  static final int BLOCK_SIZE = 64;
+
+  private static final int BLOCK_SHIFT = 6;
+  /** The number of samples read at once while creating the envelope. */
+  private static final int READ_CHUNK_SIZE = BLOCK_SIZE * 1024;
+
+  // VARIABLES
+
+  private final AcquisitionResult data;
+  private final int mask;
+  private final int shift;
+  private final long sampleCount;
+  /** the minimum and maximum value of each block, per level. */
+  private final int[][] minValues;
+  private final int[][] maxValues;
+  /** used to read the samples at both ends of a range. */
+  private final int[] buffer;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link SignalEnvelope} instance, reading all samples of the
+   * given captured data once.
+   * 
+   * @param aData
+   *          the captured data to summarize, cannot be <code>null</code>;
+   * @param aMask
+   *          the mask of the channels to summarize, should not cover all 32
+   *          bits.
+   */
+  public SignalEnvelope( final AcquisitionResult aData, final int aMask )
+  {
+    this.data = aData;
+    this.mask = aMask;
+    this.shift = Integer.numberOfTrailingZeros( aMask );
+    this.sampleCount = aData.getSampleCount();
+    this.buffer = new int[READ_CHUNK_SIZE];
+
+    int levels = 1;
+    for ( long blocks = getBlockCount( this.sampleCount, 0 ); blocks > 1; blocks = ( blocks + 1 ) >> 1 )
+    {
+      levels++;
+    }
+
+    this.minValues = new int[levels][];
+    this.maxValues = new int[levels][];
+
+    createFirstLevel();
+    for ( int level = 1; level < levels; level++ )
+    {
+      createLevel( level );
+    }
+  }
+
+  // METHODS
+
+  /**
+   * Returns the number of blocks needed to cover a number of samples.
+   */
+  private static int getBlockCount( final long aSampleCount, final int aLevel )
+  {
+    final int shift = BLOCK_SHIFT + aLevel;
+    return ( int )( ( aSampleCount + ( 1L << shift ) - 1L ) >> shift );
+  }
+
+  /**
+   * Returns the captured data this envelope summarizes.
+   * 
+   * @return the captured data, never <code>null</code>.
+   */
+  public AcquisitionResult getData()
+  {
+    return this.data;
+  }
+
+  /**
+   * Determines the minimum and maximum value of a range of samples.
+   * 
+   * @param aFromIdx
+   *          the index of the first sample of the range, inclusive, &gt;= 0;
+   * @param aToIdx
+   *          the index of the last sample of the range, exclusive, &gt;
+   *          <tt>aFromIdx</tt> and &lt;= sample count;
+   * @param aResult
+   *          the array to store the minimum (at index 0) and maximum (at index
+   *          1) value in, cannot be <code>null</code>.
+   */
+  public synchronized void getRange( final long aFromIdx, final long aToIdx, final int[] aResult )
+  {
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+
+    long idx = aFromIdx;
+
+    // Read the samples up to the first block boundary...
+    final long headEnd = Math.min( aToIdx, ( ( aFromIdx + BLOCK_SIZE ) - 1L ) & -BLOCK_SIZE );
+    if ( idx < headEnd )
+    {
+      final int length = ( int )( headEnd - idx );
+      this.data.readValues( idx, this.buffer, 0, length );
+      for ( int i = 0; i < length; i++ )
+      {
+        final int value = ( this.buffer[i] & this.mask ) >>> this.shift;
+        min = Math.min( min, value );
+        max = Math.max( max, value );
+      }
+      idx = headEnd;
+    }
+
+    // Use the largest aligned blocks that fit in the remaining range...
+    while ( ( aToIdx - idx ) >= BLOCK_SIZE )
+    {
+      final int block = ( int )( idx >>> BLOCK_SHIFT );
+
+      int level = 0;
+      while ( ( ( level + 1 ) < this.minValues.length ) && ( ( block & ( ( 2 << level ) - 1 ) ) == 0 )
+          && ( ( idx + ( ( long )BLOCK_SIZE << ( level + 1 ) ) ) <= aToIdx ) )
+      {
+        level++;
+      }
+
+      min = Math.min( min, this.minValues[level][block >>> level] );
+      max = Math.max( max, this.maxValues[level][block >>> level] );
+      idx += ( BLOCK_SIZE << level );
+    }
+
+    // Read the remaining samples that do not fill an entire block...
+    if ( idx < aToIdx )
+    {
+      final int length = ( int )( aToIdx - idx );
+      this.data.readValues( idx, this.buffer, 0, length );
+      for ( int i = 0; i < length; i++ )
+      {
+        final int value = ( this.buffer[i] & this.mask ) >>> this.shift;
+        min = Math.min( min, value );
+        max = Math.max( max, value );
+      }
+    }
+
+    aResult[0] = min;
+    aResult[1] = max;
+  }
+
+  /**
+   * Creates the first level, by reading all samples.
+   */
+  private void createFirstLevel()
+  {
+    final int blockCount = getBlockCount( this.sampleCount, 0 );
+    final int[] mins = new int[blockCount];
+    final int[] maxs = new int[blockCount];
+
+    for ( long offset = 0L; offset < this.sampleCount; offset += READ_CHUNK_SIZE )
+    {
+      final int length = ( int )Math.min( READ_CHUNK_SIZE, this.sampleCount - offset );
+      this.data.readValues( offset, this.buffer, 0, length );
+
+      for ( int i = 0; i < length; i += BLOCK_SIZE )
+      {
+        final int end = Math.min( length, i + BLOCK_SIZE );
+
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for ( int j = i; j < end; j++ )
+        {
+          final int value = ( this.buffer[j] & this.mask ) >>> this.shift;
+          min = Math.min( min, value );
+          max = Math.max( max, value );
+        }
+
+        final int block = ( int )( ( offset + i ) >>> BLOCK_SHIFT );
+        mins[block] = min;
+        maxs[block] = max;
+      }
+    }
+
+    this.minValues[0] = mins;
+    this.maxValues[0] = maxs;
+  }
+
+  /**
+   * Creates a level from the level below it.
+   */
+  private void createLevel( final int aLevel )
+  {
+    final int[] lowerMins = this.minValues[aLevel - 1];
+    final int[] lowerMaxs = this.maxValues[aLevel - 1];
+
+    final int blockCount = ( lowerMins.length + 1 ) >> 1;
+    final int[] mins = new int[blockCount];
+    final int[] maxs = new int[blockCount];
+
+    for ( int i = 0; i < blockCount; i++ )
+    {
+      final int first = 2 * i;
+      final int second = Math.min( first + 1, lowerMins.length - 1 );
+
+      mins[i] = Math.min( lowerMins[first], lowerMins[second] );
+      maxs[i] = Math.max( lowerMaxs[first], lowerMaxs[second] );
+    }
+
+    this.minValues[aLevel] = mins;
+    this.maxValues[aLevel] = maxs;
+  }
+}
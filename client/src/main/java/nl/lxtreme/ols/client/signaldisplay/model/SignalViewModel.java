@@ -23,9 +23,12 @@ package nl.lxtreme.ols.client.signaldisplay.model;
 import static nl.lxtreme.ols.client.signaldisplay.laf.UIManagerKeys.*;
 
 import java.awt.*;
+import java.util.*;
 
 import javax.swing.*;
 
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.client.signaldisplay.*;
 import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.*;
 import nl.lxtreme.ols.client.signaldisplay.view.*;
@@ -36,6 +39,16 @@ import nl.lxtreme.ols.client.signaldisplay.view.*;
  */
 public class SignalViewModel extends AbstractViewModel
 {
+  // CONSTANTS
+
+  /** The default memory budget for caching tiles, in megabytes. */
+  private static final int DEFAULT_TILE_CACHE_SIZE = 32;
+
+  // VARIABLES
+
+  /** the envelopes of the analog scopes, per group mask. */
+  private final Map<Integer, SignalEnvelope> envelopes = new HashMap<Integer, SignalEnvelope>();
+
   // CONSTRUCTORS
 
   /**
@@ -118,6 +131,16 @@ public class SignalViewModel extends AbstractViewModel
     return color;
   }
 
+  /**
+   * Returns the captured data shown in the signal view.
+   * 
+   * @return the captured data, can be <code>null</code>.
+   */
+  public AcquisitionResult getCapturedData()
+  {
+    return getSignalDiagramModel().getCapturedData();
+  }
+
   /**
    * Returns the font for the cursor flags.
    * 
@@ -133,23 +156,15 @@ public class SignalViewModel extends AbstractViewModel
     return font;
   }
 
-  /**
-   * @return
-   */
-  public int[] getDataValues()
-  {
-    return this.controller.getSignalDiagramModel().getValues();
-  }
-
   /**
    * @param aClip
    * @return
    */
-  public int getEndIndex( final Rectangle aClip, final int aLength )
+  public long getEndIndex( final Rectangle aClip, final long aLength )
   {
     final Point location = new Point( aClip.x + aClip.width, 0 );
-    int index = locationToSampleIndex( location );
-    return Math.min( index + 1, aLength - 1 );
+    long index = locationToSampleIndex( location );
+    return Math.min( index + 1L, aLength - 1L );
   }
 
   /**
@@ -207,23 +222,156 @@ public class SignalViewModel extends AbstractViewModel
     return color;
   }
 
+  /**
+   * Determines the envelope of an analog scope for a range of pixel columns.
+   * <p>
+   * For each column, starting at the given x-coordinate, the minimum and
+   * maximum value of the scope within that column is determined, including the
+   * value that is current at the start of the column. The envelope is created
+   * once for each group mask and captured data, after which the costs of this
+   * method only depend on the number of columns, and not on the number of
+   * samples shown in each column.
+   * </p>
+   * 
+   * @param aMask
+   *          the mask of the channels of the scope;
+   * @param aStartX
+   *          the x-coordinate of the first column, &gt;= 0;
+   * @param aMinValues
+   *          the array to store the minimum value of each column in, cannot be
+   *          <code>null</code>;
+   * @param aMaxValues
+   *          the array to store the maximum value of each column in, should
+   *          have the same length as <tt>aMinValues</tt>.
+   */
+  public void getSignalEnvelope( final int aMask, final int aStartX, final int[] aMinValues, final int[] aMaxValues )
+  {
+    getSignalEnvelope( getCapturedData(), aMask, getViewOffset() + aStartX, getZoomFactor(), aMinValues, aMaxValues );
+  }
+
+  /**
+   * Determines the envelope of an analog scope for a range of logical pixel
+   * columns of the given captured data, see
+   * {@link #getSignalEnvelope(int, int, int[], int[])}.
+   * 
+   * @param aData
+   *          the captured data to determine the envelope for, cannot be
+   *          <code>null</code>;
+   * @param aMask
+   *          the mask of the channels of the scope;
+   * @param aStartX
+   *          the logical x-coordinate (including the view offset) of the first
+   *          column, &gt;= 0;
+   * @param aZoomFactor
+   *          the zoom factor to use, &gt; 0.0;
+   * @param aMinValues
+   *          the array to store the minimum value of each column in, cannot be
+   *          <code>null</code>;
+   * @param aMaxValues
+   *          the array to store the maximum value of each column in, should
+   *          have the same length as <tt>aMinValues</tt>.
+   */
+  public void getSignalEnvelope( final AcquisitionResult aData, final int aMask, final long aStartX,
+      final double aZoomFactor, final int[] aMinValues, final int[] aMaxValues )
+  {
+    final SignalEnvelope envelope = getEnvelope( aData, aMask );
+    final long lastIdx = aData.getSampleCount() - 1L;
+    final int[] range = new int[2];
+
+    // The sample that is current at the start of the first column...
+    long fromIdx = aData.findSampleIndex( getFirstTimestamp( aStartX, aZoomFactor ) );
+
+    for ( int i = 0; i < aMinValues.length; i++ )
+    {
+      final long endTime = getFirstTimestamp( aStartX + i + 1, aZoomFactor );
+
+      final long toIdx = Math.min( lastIdx, aData.findSampleIndex( endTime - 1L ) );
+      envelope.getRange( fromIdx, Math.max( fromIdx, toIdx ) + 1L, range );
+
+      aMinValues[i] = range[0];
+      aMaxValues[i] = range[1];
+
+      // The last sample of this column is current at the start of the next...
+      fromIdx = Math.max( fromIdx, toIdx );
+    }
+  }
+
+  /**
+   * Summarizes the signal of a channel for a range of pixel columns.
+   * <p>
+   * For each column, starting at the given x-coordinate, the number of
+   * transitions of the channel within that column is determined. Together with
+   * the returned level, this tells for each column whether the signal is low,
+   * high or both. As the transitions are looked up in the edge index of the
+   * captured data, the costs of this method only depend on the number of
+   * columns, and not on the number of samples shown in each column.
+   * </p>
+   * 
+   * @param aChannelIdx
+   *          the index of the channel to summarize;
+   * @param aStartX
+   *          the x-coordinate of the first column to summarize, &gt;= 0;
+   * @param aTransitionCounts
+   *          the array to store the number of transitions in, one for each
+   *          column, cannot be <code>null</code>.
+   * @return the level of the signal at the start of the first column, 0 (low)
+   *         or 1 (high).
+   */
+  public int getSignalSummary( final int aChannelIdx, final int aStartX, final int[] aTransitionCounts )
+  {
+    final EdgeIndex edgeIndex = getSignalDiagramModel().getCapturedData().getEdgeIndex();
+
+    return getSignalSummary( edgeIndex, aChannelIdx, getViewOffset() + aStartX, getZoomFactor(), aTransitionCounts );
+  }
+
+  /**
+   * Returns the number of samples in the captured data.
+   * 
+   * @return a sample count, &gt;= 0.
+   */
+  public long getSampleCount()
+  {
+    return this.controller.getSignalDiagramModel().getSampleCount();
+  }
+
   /**
    * @param aClip
    * @return
    */
-  public int getStartIndex( final Rectangle aClip )
+  public long getStartIndex( final Rectangle aClip )
   {
     final Point location = aClip.getLocation();
-    int index = locationToSampleIndex( location );
-    return Math.max( index - 1, 0 );
+    long index = locationToSampleIndex( location );
+    return Math.max( index - 1L, 0L );
   }
 
   /**
-   * @return
+   * Returns the memory budget for caching pre-rendered tiles of the signal
+   * view.
+   * 
+   * @return a memory budget, in bytes, &gt;= 0.
+   */
+  public long getTileCacheSize()
+  {
+    int size = DEFAULT_TILE_CACHE_SIZE;
+    if ( UIManager.get( SIGNALVIEW_TILE_CACHE_SIZE ) != null )
+    {
+      size = Math.max( 0, UIManager.getInt( SIGNALVIEW_TILE_CACHE_SIZE ) );
+    }
+    return ( long )size << 20;
+  }
+
+  /**
+   * Returns the timestamp of the sample with the given index.
+   * 
+   * @param aIndex
+   *          the index of the sample, &gt;= 0 &amp;&amp; &lt;
+   *          {@link #getSampleCount()}.
+   * @return a timestamp.
    */
-  public long[] getTimestamps()
+  public long getTimestamp( final long aIndex )
   {
-    return this.controller.getSignalDiagramModel().getTimestamps();
+    return this.controller.getSignalDiagramModel().getSampleTimestamp( aIndex );
   }
 
   /**
@@ -285,4 +433,116 @@ public class SignalViewModel extends AbstractViewModel
   {
     return !UIManager.getBoolean( DISABLE_SLOPPY_SCOPE_PAINTING );
   }
+
+  /**
+   * Reads the values and timestamps of a consecutive range of samples.
+   *
+   * @param aIndex
+   *          the index of the first sample to read, &gt;= 0;
+   * @param aValues
+   *          the array to read the sample values into;
+   * @param aTimestamps
+   *          the array to read the sample timestamps into;
+   * @param aLength
+   *          the number of samples to read, &gt;= 0.
+   */
+  public void readSamples( final long aIndex, final int[] aValues, final long[] aTimestamps, final int aLength )
+  {
+    this.controller.getSignalDiagramModel().readSamples( aIndex, aValues, aTimestamps, aLength );
+  }
+
+  /**
+   * Returns the envelope for the given captured data and mask, creating it if
+   * necessary.
+   */
+  private SignalEnvelope getEnvelope( final AcquisitionResult aData, final int aMask )
+  {
+    synchronized ( this.envelopes )
+    {
+      final Integer key = Integer.valueOf( aMask );
+
+      SignalEnvelope result = this.envelopes.get( key );
+      if ( ( result == null ) || ( result.getData() != aData ) )
+      {
+        if ( ( result != null ) && ( result.getData() != aData ) )
+        {
+          // New data; all envelopes are outdated...
+          this.envelopes.clear();
+        }
+
+        result = new SignalEnvelope( aData, aMask );
+        this.envelopes.put( key, result );
+      }
+      return result;
+    }
+  }
+
+  /**
+   * Summarizes the signal of a channel for a range of logical pixel columns,
+   * see {@link #getSignalSummary(int, int, int[])}.
+   * 
+   * @param aEdgeIndex
+   *          the edge index to look up the transitions in, cannot be
+   *          <code>null</code>;
+   * @param aChannelIdx
+   *          the index of the channel to summarize;
+   * @param aStartX
+   *          the logical x-coordinate (including the view offset) of the first
+   *          column to summarize, &gt;= 0;
+   * @param aZoomFactor
+   *          the zoom factor to use, &gt; 0.0;
+   * @param aTransitionCounts
+   *          the array to store the number of transitions in, one for each
+   *          column, cannot be <code>null</code>.
+   * @return the level of the signal at the start of the first column, 0 (low)
+   *         or 1 (high).
+   */
+  public static int getSignalSummary( final EdgeIndex aEdgeIndex, final int aChannelIdx, final long aStartX,
+      final double aZoomFactor, final int[] aTransitionCounts )
+  {
+    int startCount = aEdgeIndex.getEdgeCount( aChannelIdx, getFirstTimestamp( aStartX, aZoomFactor ) - 1L );
+    final int level = aEdgeIndex.getInitialLevel( aChannelIdx ) ^ ( startCount & 1 );
+
+    for ( int i = 0; i < aTransitionCounts.length; i++ )
+    {
+      final long endTime = getFirstTimestamp( aStartX + i + 1, aZoomFactor );
+
+      final int endCount = aEdgeIndex.getEdgeCount( aChannelIdx, endTime - 1L );
+      aTransitionCounts[i] = endCount - startCount;
+      startCount = endCount;
+    }
+
+    return level;
+  }
+
+  /**
+   * Returns the first timestamp that is shown at or after the given (logical)
+   * x-coordinate.
+   * 
+   * @param aX
+   *          the x-coordinate, including the view offset;
+   * @param aZoomFactor
+   *          the zoom factor to use, &gt; 0.0.
+   * @return a timestamp, &gt;= 0.
+   */
+  private static long getFirstTimestamp( final long aX, final double aZoomFactor )
+  {
+    if ( aX <= 0 )
+    {
+      return 0L;
+    }
+
+    long result = ( long )Math.ceil( aX / aZoomFactor );
+    // Correct for rounding errors, as timestamps are converted to coordinates
+    // by truncation...
+    while ( ( result > 0L ) && ( ( long )( aZoomFactor * ( result - 1L ) ) >= aX ) )
+    {
+      result--;
+    }
+    while ( ( long )( aZoomFactor * result ) < aX )
+    {
+      result++;
+    }
+    return result;
+  }
 }
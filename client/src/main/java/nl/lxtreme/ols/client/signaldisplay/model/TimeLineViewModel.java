@@ -92,7 +92,7 @@ public class TimeLineViewModel extends AbstractViewModel
   public double getEndTimestamp( final Rectangle aClip )
   {
     final double zf = getZoomFactor();
-    return ( ( aClip.x + aClip.width ) / zf );
+    return ( ( getViewOffset() + aClip.x + aClip.width ) / zf );
   }
 
   /**
@@ -244,7 +244,7 @@ public class TimeLineViewModel extends AbstractViewModel
   public double getStartTimestamp( final Rectangle aClip )
   {
     final double zf = getZoomFactor();
-    return ( aClip.x / zf );
+    return ( ( getViewOffset() + aClip.x ) / zf );
   }
 
   /**
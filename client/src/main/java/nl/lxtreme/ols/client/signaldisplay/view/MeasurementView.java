@@ -216,7 +216,7 @@ public class MeasurementView extends AbstractViewLayer implements IToolWindow, I
     // VARIABLES
 
     private final AcquisitionResult result;
-    private final int mask;
+    private final int index;
     private final long startTimestamp;
     private final long endTimestamp;
 
@@ -229,7 +229,7 @@ public class MeasurementView extends AbstractViewLayer implements IToolWindow, I
         final long aEndTimestamp )
     {
       this.result = aResult;
-      this.mask = ( 1 << aIndex );
+      this.index = aIndex;
       this.startTimestamp = aStartTimestamp;
       this.endTimestamp = aEndTimestamp;
     }
@@ -243,49 +243,46 @@ public class MeasurementView extends AbstractViewLayer implements IToolWindow, I
      */
     public PulseCountInfo run()
     {
-      final int startIdx = this.result.getSampleIndex( this.startTimestamp );
-      final int endIdx = this.result.getSampleIndex( this.endTimestamp );
+      final long startIdx = this.result.findSampleIndex( this.startTimestamp );
+      final long endIdx = this.result.findSampleIndex( this.endTimestamp );
 
       final boolean hasTimingData = this.result.hasTimingData();
 
-      final int[] values = this.result.getValues();
-      final long[] timestamps = this.result.getTimestamps();
+      final EdgeIndex edgeIndex = this.result.getEdgeIndex();
 
       int fallingEdgeCount = 0;
       long highTime = 0;
       int risingEdgeCount = 0;
       long lowTime = 0;
 
-      int i = startIdx;
-      long lastTransition = timestamps[i];
-      int lastBitValue = values[i++] & this.mask;
+      // Only visit the edges of our channel between both sample indexes...
+      final long[] edges = edgeIndex.getEdges( this.index );
+      final long startTime = this.result.getTimestamp( startIdx );
+      final int firstEdge = edgeIndex.getEdgeCount( this.index, startTime );
+      final int lastEdge = edgeIndex.getEdgeCount( this.index, this.result.getTimestamp( endIdx ) );
+
+      long lastTransition = startTime;
+      int lastBitValue = edgeIndex.getLevel( this.index, startTime );
 
-      for ( ; !Thread.currentThread().isInterrupted() && ( i <= endIdx ); i++ )
+      for ( int i = firstEdge; !Thread.currentThread().isInterrupted() && ( i < lastEdge ); i++ )
       {
-        final int bitValue = values[i] & this.mask;
-        final Edge edge = Edge.toEdge( lastBitValue, bitValue );
+        final long periodTime = edges[i] - lastTransition;
+        lastTransition = edges[i];
 
-        if ( !edge.isNone() )
+        if ( lastBitValue == 0 )
+        {
+          // Low to high transition: previously seen a low-state...
+          risingEdgeCount++;
+          lowTime += periodTime;
+        }
+        else
         {
-          final long periodTime = timestamps[i] - lastTransition;
-          lastTransition = timestamps[i];
-
-          if ( edge.isRising() )
-          {
-            // Low to high transition: previously seen a low-state...
-            risingEdgeCount++;
-            lowTime += periodTime;
-          }
-          else
-          /* if ( edge.isFalling() ) */
-          {
-            // High to low transition: previously seen a high-state...
-            fallingEdgeCount++;
-            highTime += periodTime;
-          }
+          // High to low transition: previously seen a high-state...
+          fallingEdgeCount++;
+          highTime += periodTime;
         }
 
-        lastBitValue = bitValue;
+        lastBitValue ^= 1;
       }
 
       final double measureTime = Math.abs( ( this.endTimestamp - this.startTimestamp )
@@ -340,7 +337,7 @@ public class MeasurementView extends AbstractViewLayer implements IToolWindow, I
       long start = this.startTimestamp;
       if ( start < 0L )
       {
-        start = model.getTimestamps()[0];
+        start = model.getSampleTimestamp( 0L );
       }
       long end = this.endTimestamp;
       if ( end < 0L )
@@ -0,0 +1,127 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.data.annotation.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link ClientController#addAnnotations(DataSet, Collection)}.
+ */
+public class ClientControllerTest
+{
+  // VARIABLES
+
+  private DataSet dataSet;
+  private Channel channel0;
+  private Channel channel1;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.channel0 = createChannel();
+    this.channel1 = createChannel();
+
+    this.dataSet = mock( DataSet.class );
+    when( this.dataSet.getChannel( 0 ) ).thenReturn( this.channel0 );
+    when( this.dataSet.getChannel( 1 ) ).thenReturn( this.channel1 );
+  }
+
+  /**
+   * Tests that data annotations are grouped per channel and added to the index
+   * of their own channel, while other annotations are added to their channel
+   * directly.
+   */
+  @Test
+  public void testAddAnnotationsGroupsPerChannel()
+  {
+    final DataAnnotation<?> data0a = createDataAnnotation( 0, 10L );
+    final DataAnnotation<?> data1a = createDataAnnotation( 1, 20L );
+    final DataAnnotation<?> data0b = createDataAnnotation( 0, 30L );
+    final Annotation<?> label1 = createAnnotation( 1 );
+
+    ClientController.addAnnotations( this.dataSet, Arrays.asList( data0a, label1, data1a, data0b ) );
+
+    assertEquals( Arrays.asList( data0a, data0b ), this.channel0.getAnnotationIndex().getAnnotations() );
+    assertEquals( Arrays.asList( data1a ), this.channel1.getAnnotationIndex().getAnnotations() );
+
+    verify( this.channel1 ).addAnnotation( label1 );
+    verify( this.channel0, never() ).addAnnotation( any( Annotation.class ) );
+  }
+
+  /**
+   * Tests that annotations without a current data set are ignored.
+   */
+  @Test
+  public void testAddAnnotationsWithoutDataSet()
+  {
+    ClientController.addAnnotations( null, Arrays.asList( createDataAnnotation( 0, 10L ), createAnnotation( 0 ) ) );
+
+    assertTrue( this.channel0.getAnnotationIndex().isEmpty() );
+    verify( this.channel0, never() ).addAnnotation( any( Annotation.class ) );
+  }
+
+  /**
+   * Creates a mocked (non-data) annotation for the given channel.
+   */
+  private Annotation<?> createAnnotation( final int aChannelIdx )
+  {
+    final Annotation<?> result = mock( Annotation.class );
+    when( Integer.valueOf( result.getChannel() ) ).thenReturn( Integer.valueOf( aChannelIdx ) );
+    return result;
+  }
+
+  /**
+   * Creates a mocked channel with an actual annotation index.
+   */
+  private Channel createChannel()
+  {
+    final Channel result = mock( Channel.class );
+    when( result.getAnnotationIndex() ).thenReturn( new AnnotationIndex() );
+    return result;
+  }
+
+  /**
+   * Creates a mocked data annotation for the given channel and timestamp.
+   */
+  private DataAnnotation<?> createDataAnnotation( final int aChannelIdx, final long aTimestamp )
+  {
+    final DataAnnotation<?> result = mock( DataAnnotation.class );
+    when( Integer.valueOf( result.getChannel() ) ).thenReturn( Integer.valueOf( aChannelIdx ) );
+    when( Long.valueOf( result.getStartTimestamp() ) ).thenReturn( Long.valueOf( aTimestamp ) );
+    when( Long.valueOf( result.getEndTimestamp() ) ).thenReturn( Long.valueOf( aTimestamp + 1L ) );
+    return result;
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay;
+
+
+import static org.junit.Assert.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for the view offset calculations of {@link ZoomController}.
+ */
+public class ZoomControllerTest
+{
+  // CONSTANTS
+
+  private static final int VISIBLE_WIDTH = 1000;
+  private static final int MAX_WIDTH = ZoomController.MAX_COMP_WIDTH;
+
+  // METHODS
+
+  /**
+   * Tests that the view offset keeps the visible region near the center of
+   * the view component, but never beyond either side of the view.
+   */
+  @Test
+  public void testViewOffsetCentersVisibleRegion()
+  {
+    final double viewWidth = 0x1p40;
+
+    assertEquals( 0L, ZoomController.calculateViewOffset( viewWidth, 0.0, VISIBLE_WIDTH ) );
+
+    final double viewX = 0x1p39;
+    final long offset = ZoomController.calculateViewOffset( viewWidth, viewX, VISIBLE_WIDTH );
+    final double x = viewX - offset;
+    assertTrue( x > ( MAX_WIDTH / 4 ) );
+    assertTrue( ( x + VISIBLE_WIDTH ) < ( 3L * MAX_WIDTH / 4 ) );
+
+    final double lastX = viewWidth - VISIBLE_WIDTH;
+    assertEquals( ( long )viewWidth - MAX_WIDTH,
+        ZoomController.calculateViewOffset( viewWidth, lastX, VISIBLE_WIDTH ) );
+  }
+
+  /**
+   * Tests that views that fit in a single component do not use a view offset.
+   */
+  @Test
+  public void testViewOffsetOfNarrowView()
+  {
+    assertEquals( 0L, ZoomController.calculateViewOffset( MAX_WIDTH, MAX_WIDTH - VISIBLE_WIDTH, VISIBLE_WIDTH ) );
+    assertEquals( 0L, ZoomController.calculateViewOffset( 5000.0, 4000.0, VISIBLE_WIDTH ) );
+  }
+
+  /**
+   * Tests that timestamps of very long captures are converted to screen
+   * coordinates relative to the view offset, without overflowing.
+   */
+  @Test
+  public void testTimestampToCoordinate()
+  {
+    final long timestamp = 1L << 40;
+    final double zoomFactor = 1000.0;
+    final long viewOffset = ( long )( timestamp * zoomFactor ) - 500L;
+
+    assertEquals( 500, ZoomController.toCoordinate( timestamp, zoomFactor, viewOffset ) );
+    assertEquals( 1500, ZoomController.toCoordinate( timestamp + 1L, zoomFactor, viewOffset ) );
+
+    assertEquals( -ZoomController.MAX_COORDINATE, ZoomController.toCoordinate( 0L, zoomFactor, viewOffset ) );
+    assertEquals( ZoomController.MAX_COORDINATE,
+        ZoomController.toCoordinate( 2L * timestamp, zoomFactor, viewOffset ) );
+  }
+}
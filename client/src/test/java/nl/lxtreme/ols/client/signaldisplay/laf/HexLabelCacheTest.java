@@ -0,0 +1,223 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import static org.junit.Assert.*;
+
+import java.awt.*;
+import java.awt.image.*;
+import java.util.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link HexLabelCache}.
+ */
+public class HexLabelCacheTest
+{
+  // CONSTANTS
+
+  /** the number of value changes in a single frame. */
+  private static final int CHANGES = 200000;
+  private static final int PADDING = 2;
+
+  // VARIABLES
+
+  private Graphics2D canvas;
+  private HexLabelCache cache;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.canvas = new BufferedImage( 10, 10, BufferedImage.TYPE_INT_RGB ).createGraphics();
+    this.canvas.setFont( new Font( Font.MONOSPACED, Font.PLAIN, 12 ) );
+
+    this.cache = new HexLabelCache();
+    this.cache.setFontMetrics( this.canvas.getFontMetrics() );
+  }
+
+  /**
+   * Tear down for each test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.canvas.dispose();
+  }
+
+  /**
+   * Tests that labels are formatted identically to "%02X".
+   */
+  @Test
+  public void testFormatOk()
+  {
+    final int[] values = { 0, 1, 0x0F, 0x10, 0xFF, 0x100, 0x1200, 0xABCDEF, 0x7FFFFFFF, 0x80000000, -1 };
+    for ( int value : values )
+    {
+      assertEquals( String.format( "%02X", Integer.valueOf( value ) ), HexLabelCache.format( value ) );
+    }
+  }
+
+  /**
+   * Tests that colliding values do not return each other's label.
+   */
+  @Test
+  public void testCollidingValuesOk()
+  {
+    for ( int i = 0; i < 100000; i += 7 )
+    {
+      final int value = i * 4096;
+      assertEquals( HexLabelCache.format( value ), this.cache.getLabel( value ) );
+      assertEquals( HexLabelCache.format( i ), this.cache.getLabel( i ) );
+    }
+  }
+
+  /**
+   * Tests that changing the font drops all cached labels.
+   */
+  @Test
+  public void testFontChangeResetsLabelsOk()
+  {
+    final String label = this.cache.getLabel( 0x1234 );
+
+    this.cache.setFontMetrics( this.canvas.getFontMetrics( new Font( Font.MONOSPACED, Font.PLAIN, 24 ) ) );
+
+    final String relabel = this.cache.getLabel( 0x1234 );
+    assertEquals( label, relabel );
+    assertNotSame( label, relabel );
+  }
+
+  /**
+   * Tests that repeated lookups return the same label instance.
+   */
+  @Test
+  public void testLabelIsCachedOk()
+  {
+    final String label = this.cache.getLabel( 0x1234 );
+    assertEquals( "1234", label );
+    assertSame( label, this.cache.getLabel( 0x1234 ) );
+  }
+
+  /**
+   * Tests that setting the metrics of the same font keeps the cached labels.
+   */
+  @Test
+  public void testSameFontKeepsLabelsOk()
+  {
+    final String label = this.cache.getLabel( 0x1234 );
+
+    this.cache.setFontMetrics( this.canvas.getFontMetrics( this.canvas.getFont() ) );
+
+    assertSame( label, this.cache.getLabel( 0x1234 ) );
+  }
+
+  /**
+   * Tests that two values sharing the same slot replace each other, without
+   * ever returning the label or width of the other value.
+   */
+  @Test
+  public void testSlotCollisionOk()
+  {
+    final FontMetrics fm = this.canvas.getFontMetrics();
+
+    // Both values hash to slot 0...
+    final int value1 = 0x0000;
+    final int value2 = 0x1001;
+
+    for ( int i = 0; i < 3; i++ )
+    {
+      assertEquals( "00", this.cache.getLabel( value1 ) );
+      assertEquals( fm.stringWidth( "00" ), this.cache.getWidth( value1 ) );
+
+      assertEquals( "1001", this.cache.getLabel( value2 ) );
+      assertEquals( fm.stringWidth( "1001" ), this.cache.getWidth( value2 ) );
+    }
+  }
+
+  /**
+   * Tests that looking up the labels in the cache, skipping cells narrower
+   * than the minimum width, shows the same labels as formatting and measuring
+   * each label.
+   */
+  @Test
+  public void testShowsSameLabelsAsFormattingOk()
+  {
+    // A 32-bit bus cycling through a limited set of values, at a zoom level
+    // where most cells are narrow, but some can hold their label...
+    final Random rnd = new Random( 1L );
+    final int[] values = new int[CHANGES];
+    final int[] cellWidths = new int[CHANGES];
+    for ( int i = 0; i < CHANGES; i++ )
+    {
+      values[i] = 0x40000000 | ( rnd.nextInt( 1024 ) << 8 );
+      cellWidths[i] = ( rnd.nextInt( 8 ) == 0 ) ? 80 : rnd.nextInt( 16 );
+    }
+
+    final FontMetrics fm = this.canvas.getFontMetrics();
+    final int minCellWidth = this.cache.getMinimumWidth() + ( 2 * PADDING );
+
+    int expected = 0;
+    int shown = 0;
+    for ( int i = 0; i < CHANGES; i++ )
+    {
+      final String text = String.format( "%02X", Integer.valueOf( values[i] ) );
+      if ( ( fm.stringWidth( text ) + ( 2 * PADDING ) ) < cellWidths[i] )
+      {
+        expected += text.length();
+      }
+
+      if ( ( cellWidths[i] > minCellWidth )
+          && ( ( this.cache.getWidth( values[i] ) + ( 2 * PADDING ) ) < cellWidths[i] ) )
+      {
+        shown += this.cache.getLabel( values[i] ).length();
+      }
+    }
+
+    assertTrue( expected > 0 );
+    assertEquals( expected, shown );
+  }
+
+  /**
+   * Tests that the widths correspond to the font metrics, and are updated if
+   * the font changes.
+   */
+  @Test
+  public void testWidthOk()
+  {
+    FontMetrics fm = this.canvas.getFontMetrics();
+    assertEquals( fm.stringWidth( "00" ), this.cache.getMinimumWidth() );
+    assertEquals( fm.stringWidth( "ABCD" ), this.cache.getWidth( 0xABCD ) );
+
+    this.canvas.setFont( new Font( Font.MONOSPACED, Font.PLAIN, 24 ) );
+    fm = this.canvas.getFontMetrics();
+    this.cache.setFontMetrics( fm );
+
+    assertEquals( fm.stringWidth( "00" ), this.cache.getMinimumWidth() );
+    assertEquals( fm.stringWidth( "ABCD" ), this.cache.getWidth( 0xABCD ) );
+  }
+}
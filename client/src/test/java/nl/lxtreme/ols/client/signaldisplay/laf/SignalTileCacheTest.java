@@ -0,0 +1,191 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.laf;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.*;
+import java.awt.image.*;
+
+import nl.lxtreme.ols.client.signaldisplay.model.SignalDiagramModel.SignalAlignment;
+import nl.lxtreme.ols.client.signaldisplay.signalelement.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SignalTileCache}.
+ */
+public class SignalTileCacheTest
+{
+  // CONSTANTS
+
+  private static final int TILE_HEIGHT = 10;
+  /** the size of a single tile, in bytes. */
+  private static final long TILE_SIZE = 4L * SignalTileCache.TILE_WIDTH * TILE_HEIGHT;
+
+  // VARIABLES
+
+  private SignalTileCache cache;
+  private Object capturedData;
+  private IUIElement element;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.capturedData = new Object();
+
+    this.element = mock( IUIElement.class );
+    when( this.element.getHeight() ).thenReturn( Integer.valueOf( TILE_HEIGHT ) );
+    when( this.element.getColor() ).thenReturn( Color.RED );
+
+    this.cache = new SignalTileCache();
+    this.cache.update( this.capturedData, 1.0, 0L, 2 * TILE_SIZE );
+  }
+
+  /**
+   * Tests that a changed color of an element invalidates its tiles.
+   */
+  @Test
+  public void testChangedElementInvalidatesTile()
+  {
+    this.cache.put( createState(), 0, createTile(), true, this.cache.getGeneration() );
+
+    when( this.element.getColor() ).thenReturn( Color.GREEN );
+
+    assertNull( this.cache.get( this.element, 0 ) );
+  }
+
+  /**
+   * Tests that a budget of zero disables the cache.
+   */
+  @Test
+  public void testDisabledWithoutBudget()
+  {
+    assertTrue( this.cache.isEnabled() );
+
+    this.cache.update( this.capturedData, 1.0, 0L, 0L );
+
+    assertFalse( this.cache.isEnabled() );
+  }
+
+  /**
+   * Tests that the least recently used tile is evicted when the budget is
+   * exceeded.
+   */
+  @Test
+  public void testEvictLeastRecentlyUsedTile()
+  {
+    final BufferedImage tile0 = createTile();
+    final BufferedImage tile1 = createTile();
+    final BufferedImage tile2 = createTile();
+
+    this.cache.put( createState(), 0, tile0, true, this.cache.getGeneration() );
+    this.cache.put( createState(), 1, tile1, true, this.cache.getGeneration() );
+    // Makes tile 1 the least recently used one...
+    assertSame( tile0, this.cache.get( this.element, 0 ).getImage() );
+
+    this.cache.put( createState(), 2, tile2, true, this.cache.getGeneration() );
+
+    assertSame( tile0, this.cache.get( this.element, 0 ).getImage() );
+    assertNull( this.cache.get( this.element, 1 ) );
+    assertSame( tile2, this.cache.get( this.element, 2 ).getImage() );
+  }
+
+  /**
+   * Tests that a cached tile is returned as long as nothing changes.
+   */
+  @Test
+  public void testGetCachedTile()
+  {
+    final BufferedImage tile = createTile();
+    this.cache.put( createState(), 3, tile, true, this.cache.getGeneration() );
+
+    this.cache.update( this.capturedData, 1.0, 0L, 2 * TILE_SIZE );
+
+    assertSame( tile, this.cache.get( this.element, 3 ).getImage() );
+    assertNull( this.cache.get( this.element, 2 ) );
+  }
+
+  /**
+   * Tests that tiles rendered for an older generation of the cache are
+   * discarded.
+   */
+  @Test
+  public void testPutStaleTileIgnored()
+  {
+    final int generation = this.cache.getGeneration();
+
+    this.cache.clear();
+
+    assertFalse( this.cache.put( createState(), 0, createTile(), false, generation ) );
+    assertNull( this.cache.get( this.element, 0 ) );
+
+    assertTrue( this.cache.put( createState(), 0, createTile(), false, this.cache.getGeneration() ) );
+    assertFalse( this.cache.get( this.element, 0 ).isRefined() );
+  }
+
+  /**
+   * Tests that changing the zoom factor, view offset or captured data drops all
+   * tiles.
+   */
+  @Test
+  public void testUpdateInvalidatesAllTiles()
+  {
+    this.cache.put( createState(), 0, createTile(), true, this.cache.getGeneration() );
+
+    this.cache.update( this.capturedData, 2.0, 0L, 2 * TILE_SIZE );
+    assertNull( this.cache.get( this.element, 0 ) );
+
+    this.cache.put( createState(), 0, createTile(), true, this.cache.getGeneration() );
+
+    this.cache.update( this.capturedData, 2.0, 1L << 32, 2 * TILE_SIZE );
+    assertNull( this.cache.get( this.element, 0 ) );
+
+    this.cache.put( createState(), 0, createTile(), true, this.cache.getGeneration() );
+
+    this.cache.update( new Object(), 2.0, 1L << 32, 2 * TILE_SIZE );
+    assertNull( this.cache.get( this.element, 0 ) );
+  }
+
+  /**
+   * Takes a snapshot of the current state of the element.
+   */
+  private ElementState createState()
+  {
+    return new ElementState( this.element, SignalAlignment.CENTER );
+  }
+
+  /**
+   * Creates a new tile image.
+   */
+  private BufferedImage createTile()
+  {
+    return new BufferedImage( SignalTileCache.TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB );
+  }
+}
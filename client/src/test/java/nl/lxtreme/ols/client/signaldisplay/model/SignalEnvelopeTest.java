@@ -0,0 +1,128 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.model;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SignalEnvelope}.
+ */
+public class SignalEnvelopeTest
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 100003;
+  private static final int MASK = 0x0000FF00;
+
+  // VARIABLES
+
+  private int[] values;
+  private SignalEnvelope envelope;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    final Random rnd = new Random( 42L );
+
+    this.values = new int[SAMPLE_COUNT];
+    final long[] timestamps = new long[SAMPLE_COUNT];
+    for ( int i = 0; i < SAMPLE_COUNT; i++ )
+    {
+      // A signal varying in the middle of the range; the upper bits ensure
+      // that no two subsequent samples are equal...
+      this.values[i] = ( i << 16 ) | ( ( 0x80 + rnd.nextInt( 16 ) ) << 8 ) | rnd.nextInt( 256 );
+      timestamps[i] = i;
+    }
+    // Add two single-sample glitches...
+    this.values[54321] = ( 54321 << 16 ) | 0xFF00;
+    this.values[77777] = ( 77777 << 16 );
+
+    final CapturedData data = new CapturedData( this.values, timestamps, -1L, 1000000, 32, 0xFFFFFFFF, SAMPLE_COUNT );
+    assertTrue( data.getSampleCount() >= SAMPLE_COUNT );
+
+    this.envelope = new SignalEnvelope( data, MASK );
+  }
+
+  /**
+   * Tests that glitches are retained in ranges of any length.
+   */
+  @Test
+  public void testGlitchesRetainedOk()
+  {
+    final int[] range = new int[2];
+
+    this.envelope.getRange( 0, SAMPLE_COUNT, range );
+    assertEquals( 0x00, range[0] );
+    assertEquals( 0xFF, range[1] );
+
+    this.envelope.getRange( 54321, 54322, range );
+    assertEquals( 0xFF, range[0] );
+    assertEquals( 0xFF, range[1] );
+
+    this.envelope.getRange( 50000, 60000, range );
+    assertEquals( 0xFF, range[1] );
+    assertTrue( range[0] >= 0x80 );
+  }
+
+  /**
+   * Tests that random ranges yield the same minimum and maximum as walking
+   * all samples of the range.
+   */
+  @Test
+  public void testRandomRangesOk()
+  {
+    final Random rnd = new Random( 1L );
+    final int[] range = new int[2];
+
+    for ( int i = 0; i < 2000; i++ )
+    {
+      final int from = rnd.nextInt( SAMPLE_COUNT );
+      final int length = 1 + rnd.nextInt( ( i % 2 == 0 ) ? 200 : ( SAMPLE_COUNT - from ) );
+      final int to = Math.min( SAMPLE_COUNT, from + length );
+
+      int min = Integer.MAX_VALUE;
+      int max = Integer.MIN_VALUE;
+      for ( int j = from; j < to; j++ )
+      {
+        final int value = ( this.values[j] & MASK ) >>> 8;
+        min = Math.min( min, value );
+        max = Math.max( max, value );
+      }
+
+      this.envelope.getRange( from, to, range );
+      assertEquals( "min of [" + from + ", " + to + ")", min, range[0] );
+      assertEquals( "max of [" + from + ", " + to + ")", max, range[1] );
+    }
+  }
+}
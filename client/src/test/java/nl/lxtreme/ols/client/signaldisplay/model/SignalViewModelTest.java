@@ -0,0 +1,110 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.client.signaldisplay.model;
+
+
+import static org.junit.Assert.*;
+
+import nl.lxtreme.ols.api.data.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SignalViewModel#getSignalSummary(int, int, int[])}.
+ */
+public class SignalViewModelTest
+{
+  // CONSTANTS
+
+  private static final long TRIGGER_POSITION = 50L;
+
+  // VARIABLES
+
+  private EdgeIndex edgeIndex;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    // Channel 0 goes high at 10, low at 20, and toggles three times right at
+    // the trigger position; channel 1 remains low all the time...
+    final int[] values = { 0, 1, 0, 1, 0, 1, 1 };
+    final long[] timestamps = { 0L, 10L, 20L, TRIGGER_POSITION, TRIGGER_POSITION + 1L, TRIGGER_POSITION + 2L, 100L };
+
+    final CapturedData data = new CapturedData( values, timestamps, TRIGGER_POSITION, 1000000, 2, 0x03, 120L );
+    this.edgeIndex = data.getEdgeIndex();
+  }
+
+  /**
+   * Tests that summarizing an empty range of columns only yields the level of
+   * the signal.
+   */
+  @Test
+  public void testSummarizeEmptyRange()
+  {
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 0, 5L, 1.0, new int[0] ) );
+    assertEquals( 1, SignalViewModel.getSignalSummary( this.edgeIndex, 0, 15L, 1.0, new int[0] ) );
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 1, 15L, 1.0, new int[0] ) );
+  }
+
+  /**
+   * Tests that a range crossing the trigger position yields all transitions
+   * around the trigger, also when multiple timestamps share a single column.
+   */
+  @Test
+  public void testSummarizeRangeCrossingTrigger()
+  {
+    int[] counts = new int[4];
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 0, TRIGGER_POSITION - 1L, 1.0, counts ) );
+    assertArrayEquals( new int[] { 0, 1, 1, 1 }, counts );
+
+    // Ten timestamps per column; all three transitions end up in one column...
+    counts = new int[3];
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 0, 4L, 0.1, counts ) );
+    assertArrayEquals( new int[] { 0, 3, 0 }, counts );
+
+    // A channel without transitions remains flat...
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 1, 4L, 0.1, counts ) );
+    assertArrayEquals( new int[] { 0, 0, 0 }, counts );
+  }
+
+  /**
+   * Tests that a single transition is counted in exactly one column.
+   */
+  @Test
+  public void testSummarizeSingleTransition()
+  {
+    final int[] counts = new int[8];
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 0, 5L, 1.0, counts ) );
+    assertArrayEquals( new int[] { 0, 0, 0, 0, 0, 1, 0, 0 }, counts );
+
+    // Two pixels per timestamp; the transition only shows in the column of
+    // its own timestamp...
+    final int[] zoomedCounts = new int[4];
+    assertEquals( 0, SignalViewModel.getSignalSummary( this.edgeIndex, 0, 18L, 2.0, zoomedCounts ) );
+    assertArrayEquals( new int[] { 0, 0, 1, 0 }, zoomedCounts );
+  }
+}
@@ -24,7 +24,6 @@ package nl.lxtreme.ols.device.generic;
 import java.io.*;
 import java.util.logging.*;
 
-import nl.lxtreme.ols.api.*;
 import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.devices.*;
@@ -40,6 +39,12 @@ public final class GenericDeviceAcquisitionTask implements AcquisitionTask
 
   private static final Logger LOG = Logger.getLogger( GenericDeviceAcquisitionTask.class.getName() );
 
+  /**
+   * The number of samples above which the samples are no longer kept in
+   * memory, but written to a memory-mapped file instead.
+   */
+  private static final long MAPPED_THRESHOLD = 16L * 1024L * 1024L;
+
   // VARIABLES
 
   private final AcquisitionProgressListener progressListener;
@@ -78,16 +83,23 @@ public final class GenericDeviceAcquisitionTask implements AcquisitionTask
     final int rate = this.deviceConfig.getSampleRate();
     final int channels = this.deviceConfig.getChannelCount();
 
-    final int count = depth * width;
+    final long count = ( long )depth * width;
 
-    final int[] values = new int[count];
-    final long[] timestamps = new long[count];
+    final AcquisitionResultBuilder builder;
+    if ( count > MAPPED_THRESHOLD )
+    {
+      builder = new MappedCapturedDataBuilder();
+    }
+    else
+    {
+      builder = new CapturedDataBuilder( ( int )count + 1 );
+    }
 
     this.inputStream = new FileInputStream( this.deviceConfig.getDevicePath() );
 
     try
     {
-      int idx = 0;
+      long idx = 0;
       while ( !Thread.currentThread().isInterrupted() && ( idx < count ) )
       {
         final int sample = readSample( width );
@@ -97,17 +109,17 @@ public final class GenericDeviceAcquisitionTask implements AcquisitionTask
           LOG.log( Level.FINE, "Read: 0x{0}", Integer.toHexString( sample ) );
         }
 
-        values[idx] = sample;
-        timestamps[idx] = idx;
+        builder.addSample( sample, idx );
 
         // Update the progress...
         this.progressListener.acquisitionInProgress( ( int )( ( idx++ * 100.0 ) / count ) );
       }
 
-      final long absLength = timestamps[idx - 1];
+      final long absLength = idx - 1;
       final int enabledChannels = ( 1 << channels ) - 1;
 
-      return new CapturedData( values, timestamps, Ols.NOT_AVAILABLE, rate, channels, enabledChannels, absLength );
+      return builder.setAbsoluteLength( absLength ).setSampleRate( rate ).setChannels( channels )
+          .setEnabledChannels( enabledChannels ).build();
     }
     catch ( IOException exception )
     {
@@ -22,7 +22,8 @@ package org.sump.device.logicsniffer;
 
 
 import java.io.*;
-import java.util.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.util.logging.*;
 
 import javax.microedition.io.*;
@@ -42,12 +43,15 @@ import org.sump.device.logicsniffer.sampleprocessor.*;
  * Provides an acquisition task that uses the SUMP protocol for talking with a
  * LogicSniffer device on a serial/USB port.
  */
-public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, AcquisitionTask
+public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, ContinuousAcquisitionTask
 {
   // CONSTANTS
 
   private static final Logger LOG = Logger.getLogger( LogicSnifferAcquisitionTask.class.getName() );
 
+  /** the number of samples that are read and processed at once. */
+  private static final int SAMPLE_CHUNK_SIZE = 65536;
+
   // VARIABLES
 
   private final DeviceProfileManager deviceProfileManager;
@@ -78,7 +82,8 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   /**
    * Sends the configuration to the device, starts it, reads the captured data
    * and returns a CapturedData object containing the data read as well as
-   * device configuration information.
+   * device configuration information. The device is only opened and detected
+   * if it is not already opened by a previous call to this method.
    * 
    * @return the captured results, never <code>null</code>.
    * @throws IOException
@@ -88,15 +93,18 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
    *           called before trigger match
    */
   @Override
-  public AcquisitionResult call() throws IOException, InterruptedException
+  public AcquisitionResult acquireNext() throws IOException, InterruptedException
   {
     LOG.info( "Starting capture ..." );
 
-    // Opens the device...
-    open();
+    if ( this.inputStream == null )
+    {
+      // Opens the device...
+      open();
 
-    // First try to find the logic sniffer itself...
-    detectDevice();
+      // First try to find the logic sniffer itself...
+      detectDevice();
+    }
 
     // check if data needs to be multiplexed
     final int channelCount = this.config.getChannelCount();
@@ -114,54 +122,51 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
     // Setup/configure the device with the UI-settings...
     configureAndArmDevice();
 
-    // read all samples
-    int[] samples = readSamples( this.config.getEnabledGroupCount(), sampleCount );
+    // Issue #98: use the *enabled* channel count, not the total channel
+    // count...
+    final CapturedDataBuilder builder = new CapturedDataBuilder( sampleCount + 1 );
+    builder.setSampleRate( this.config.getSampleRate() );
+    builder.setChannels( this.config.getEnabledChannelsCount() );
+    builder.setEnabledChannels( this.config.getEnabledChannelsMask() );
+
+    final SampleProcessor processor = createSampleProcessor( sampleCount, builder );
+
+    // read all samples, and process them while they arrive...
+    final int samplesRead = readSamples( this.config.getEnabledGroupCount(), sampleCount, processor );
 
-    if ( samples.length < sampleCount )
+    if ( samplesRead < sampleCount )
     {
-      LOG.log( Level.INFO, "Only {0} samples read!", Integer.valueOf( samples.length ) );
+      LOG.log( Level.INFO, "Only {0} samples read!", Integer.valueOf( samplesRead ) );
     }
     else
     {
-      LOG.log( Level.FINE, "{0} samples read. Starting post processing...", Integer.valueOf( sampleCount ) );
+      LOG.log( Level.FINE, "{0} samples read. Finishing post processing...", Integer.valueOf( sampleCount ) );
     }
 
-    final List<Integer> values = new ArrayList<Integer>();
-    final List<Long> timestamps = new ArrayList<Long>();
+    processor.finish();
 
-    // collect additional information for CapturedData; we use arrays here,
-    // as their values are to be filled from anonymous inner classes...
-    final long[] absoluteLength = { 0L };
-    final long[] triggerPos = { Ols.NOT_AVAILABLE };
-    final int rate = this.config.getSampleRate();
-
-    final SampleProcessorCallback callback = new SampleProcessorCallback()
+    if ( !this.config.isTriggerEnabled() )
     {
-      public void addValue( final int aSampleValue, final long aTimestamp )
-      {
-        values.add( Integer.valueOf( aSampleValue ) );
-        timestamps.add( Long.valueOf( aTimestamp ) );
-      }
+      builder.setTriggerPosition( Ols.NOT_AVAILABLE );
+    }
 
-      public void ready( final long aAbsoluteLength, final long aTriggerPosition )
-      {
-        absoluteLength[0] = aAbsoluteLength;
-        if ( LogicSnifferAcquisitionTask.this.config.isTriggerEnabled() )
-        {
-          triggerPos[0] = aTriggerPosition;
-        }
-      }
-    };
-    // Process the actual samples...
-    createSampleProcessor( sampleCount, samples, callback ).process();
+    return builder.build();
+  }
+
+  /**
+   * Opens the device, acquires data from it, and closes the device again.
+   * 
+   * @see #acquireNext()
+   */
+  @Override
+  public AcquisitionResult call() throws IOException, InterruptedException
+  {
+    final AcquisitionResult result = acquireNext();
 
     // Close the connection...
     close();
 
-    // Issue #98: use the *enabled* channel count, not the total channel
-    // count...
-    return new CapturedData( values, timestamps, triggerPos[0], rate, this.config.getEnabledChannelsCount(),
-        this.config.getEnabledChannelsMask(), absoluteLength[0] );
+    return result;
   }
 
   /**
@@ -183,16 +188,11 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   }
 
   /**
-   * Factory method to create a sample procesor for the given numer of samples
-   * and sample values.
-   * 
-   * @param aSampleCount
-   *          the sample count;
-   * @param aSampleValues
-   *          the sample values; Detaches the currently attached port, if one
-   *          exists. This will close the serial port.
+   * Detaches the currently attached port, if one exists. This will close the
+   * serial port.
    */
-  protected void close()
+  @Override
+  public void close()
   {
     StreamConnection conn = getStreamConnection();
     if ( conn != null )
@@ -294,7 +294,10 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
       }
 
       this.outputStream = new SumpCommandWriter( this.config, conn.openDataOutputStream() );
-      this.inputStream = new SumpResultReader( conn.openDataInputStream() );
+      // Socket connections allow the sample data to be read directly from
+      // their channel...
+      final ReadableByteChannel channel = ( conn instanceof ReadableByteChannel ) ? ( ReadableByteChannel )conn : null;
+      this.inputStream = new SumpResultReader( conn.openDataInputStream(), channel );
 
       // We don't expect any data, so flush all data pending in the given
       // input stream. See issue #34.
@@ -316,25 +319,22 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   /**
    * @param aSampleCount
    *          the actual number of samples to process;
-   * @param aSampleValues
-   *          the sample values to process;
-   * @param aCallback
-   *          the processor callback to use.
+   * @param aBuilder
+   *          the captured data builder to add the processed samples to.
    * @return a sample processor instance, never <code>null</code>.
    */
-  private SampleProcessor createSampleProcessor( final int aSampleCount, final int[] aSampleValues,
-      final SampleProcessorCallback aCallback )
+  private SampleProcessor createSampleProcessor( final int aSampleCount, final CapturedDataBuilder aBuilder )
   {
     final SampleProcessor processor;
     if ( this.config.isRleEnabled() )
     {
       LOG.log( Level.INFO, "Decoding Run Length Encoded data, sample count: {0}", Integer.valueOf( aSampleCount ) );
-      processor = new RleDecoder( this.config, aSampleValues, this.trigcount, aCallback );
+      processor = new RleDecoder( this.config, aSampleCount, this.trigcount, aBuilder );
     }
     else
     {
       LOG.log( Level.INFO, "Decoding unencoded data, sample count: {0}", Integer.valueOf( aSampleCount ) );
-      processor = new EqualityFilter( this.config, aSampleValues, this.trigcount, aCallback );
+      processor = new EqualityFilter( this.config, aSampleCount, this.trigcount, aBuilder );
     }
     return processor;
   }
@@ -398,41 +398,90 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
   }
 
   /**
-   * Reads all (or as many as possible) samples from the OLS device.
+   * Returns the bit shifts needed to place the bytes of a sample at the
+   * position of their channel group.
+   * 
+   * @return the bit shifts, one for each enabled group, never <code>null</code>.
+   */
+  private int[] getEnabledGroupShifts()
+  {
+    final int groupCount = this.config.getGroupCount();
+
+    final int[] shifts = new int[this.config.getEnabledGroupCount()];
+    for ( int g = 0, i = 0; ( g < groupCount ) && ( i < shifts.length ); g++ )
+    {
+      if ( this.config.isGroupEnabled( g ) )
+      {
+        shifts[i++] = 8 * g;
+      }
+    }
+    return shifts;
+  }
+
+  /**
+   * Reads all (or as many as possible) samples from the OLS device, and feeds
+   * them to the given sample processor while they are read.
    * 
    * @param aEnabledGroupCount
    *          the number of enabled groups (denotes the number of bytes for one sample);
    * @param aSampleCount
-   *          the number of samples to read.
-   * @return the read samples, normalized to match the layout of the enabled groups.
+   *          the number of samples to read;
+   * @param aProcessor
+   *          the sample processor to feed the read samples to, normalized to
+   *          match the layout of the enabled groups.
+   * @return the number of samples read.
    * @throws IOException
    *           in case of I/O problems;
    * @throws InterruptedException
    *           in case the current thread was interrupted.
    */
-  private int[] readSamples( final int aEnabledGroupCount, int aSampleCount ) throws IOException, InterruptedException
+  private int readSamples( final int aEnabledGroupCount, final int aSampleCount, final SampleProcessor aProcessor )
+      throws IOException, InterruptedException
   {
     final int length = aEnabledGroupCount * aSampleCount;
-    final byte[] rawData = new byte[length];
+    final int[] groupShifts = getEnabledGroupShifts();
+
+    final int[] samples = new int[Math.min( aSampleCount, SAMPLE_CHUNK_SIZE )];
+    final ByteBuffer rawData = this.inputStream.allocateBuffer( aEnabledGroupCount * samples.length );
+
+    int offset = 0;
 
     try
     {
-      int offset = 0;
-      int count = length;
-      while ( !Thread.currentThread().isInterrupted() && ( offset >= 0 ) && ( offset < length ) )
+      while ( !Thread.currentThread().isInterrupted() && ( offset < length ) )
       {
-        int read = this.inputStream.readRawData( rawData, offset, count );
+        // Do not read beyond the sample data...
+        rawData.limit( Math.min( rawData.capacity(), rawData.position() + ( length - offset ) ) );
+
+        int read = this.inputStream.readRawData( rawData );
         if ( read < 0 )
         {
           throw new EOFException();
         }
-        else
+
+        offset += read;
+
+        // Normalize the raw data of all complete samples into the sample data,
+        // as expected...
+        rawData.flip();
+
+        final int count = rawData.remaining() / aEnabledGroupCount;
+        for ( int i = 0; i < count; i++ )
         {
-          count -= read;
-          offset += read;
+          int sample = 0;
+          for ( int g = 0; g < groupShifts.length; g++ )
+          {
+            sample |= ( ( rawData.get() & 0xff ) << groupShifts[g] );
+          }
+          samples[i] = sample;
         }
 
-        this.acquisitionProgressListener.acquisitionInProgress( ( 100 * offset ) / length );
+        // Keep the bytes of an incomplete sample for the next read...
+        rawData.compact();
+
+        aProcessor.process( samples, 0, count );
+
+        this.acquisitionProgressListener.acquisitionInProgress( ( int )( ( 100L * offset ) / length ) );
       }
     }
     catch ( IOException exception )
@@ -450,35 +499,14 @@ public class LogicSnifferAcquisitionTask implements SumpProtocolConstants, Acqui
 
       this.acquisitionProgressListener.acquisitionInProgress( 100 );
     }
-    
+
     if ( Thread.currentThread().isInterrupted() )
     {
       // We're interrupted while read samples, do not proceed...
       throw new InterruptedException();
     }
-    
-    final int groupCount = this.config.getGroupCount();
-    
-    // Normalize the raw data into the sample data, as expected...
-    int[] samples = new int[aSampleCount];
-    for ( int i = samples.length - 1, j = 0; i >= 0; i-- )
-    {
-      for ( int g = 0; g < groupCount; g++ )
-      {
-        if ( this.config.isGroupEnabled( g ) )
-        {
-          samples[i] |= ( ( rawData[j++] & 0xff ) << ( 8 * g ) );
-        }
-      }
-    }
-
-    // In case the device sends its samples in "reverse" order, we need to
-    // revert it now, before processing them further...
-    if ( this.config.isSamplesInReverseOrder() )
-    {
-      HostUtils.reverse( samples );
-    }
 
-    return samples;
+    // In case no groups are enabled, there's nothing to read...
+    return ( aEnabledGroupCount > 0 ) ? ( offset / aEnabledGroupCount ) : 0;
   }
 }
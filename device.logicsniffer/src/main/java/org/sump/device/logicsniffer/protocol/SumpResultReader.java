@@ -22,6 +22,8 @@ package org.sump.device.logicsniffer.protocol;
 
 
 import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
 import java.util.logging.*;
 
 import nl.lxtreme.ols.util.*;
@@ -31,6 +33,13 @@ import org.sump.device.logicsniffer.*;
 
 /**
  * Wrapper to read SUMP-specific results from a normal {@link DataInputStream}.
+ * <p>
+ * In case the connection also provides a {@link ReadableByteChannel}, such as
+ * socket connections do, the raw sample data is read from this channel into a
+ * direct buffer, allowing large reads without copying the data through an
+ * intermediary array. Otherwise, such as for serial connections, the raw
+ * sample data is read from the input stream.
+ * </p>
  */
 public class SumpResultReader implements Closeable, SumpProtocolConstants
 {
@@ -38,9 +47,13 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
 
   private static final Logger LOG = Logger.getLogger( SumpResultReader.class.getName() );
 
+  /** the size of the buffer used to drain pending data. */
+  private static final int FLUSH_BUFFER_SIZE = 1024;
+
   // VARIABLES
 
   private final DataInputStream inputStream;
+  private final ReadableByteChannel channel;
 
   // CONSTRUCTORS
 
@@ -52,12 +65,47 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
    *          <code>null</code>.
    */
   public SumpResultReader( final DataInputStream aInputStream )
+  {
+    this( aInputStream, null );
+  }
+
+  /**
+   * Creates a new {@link SumpResultReader} instance.
+   * 
+   * @param aInputStream
+   *          the {@link DataInputStream} to read from, cannot be
+   *          <code>null</code>;
+   * @param aChannel
+   *          the channel to read raw sample data from, can be <code>null</code>
+   *          to read the raw sample data from the given input stream. The
+   *          channel should read from the same source as the input stream.
+   */
+  public SumpResultReader( final DataInputStream aInputStream, final ReadableByteChannel aChannel )
   {
     this.inputStream = aInputStream;
+    this.channel = aChannel;
   }
 
   // METHODS
 
+  /**
+   * Allocates a buffer suitable to read raw sample data into.
+   * 
+   * @param aCapacity
+   *          the capacity of the buffer, in bytes, &gt;= 0.
+   * @return a new buffer, direct if the raw sample data is read from a channel,
+   *         never <code>null</code>.
+   * @see #readRawData(ByteBuffer)
+   */
+  public ByteBuffer allocateBuffer( final int aCapacity )
+  {
+    if ( this.channel != null )
+    {
+      return ByteBuffer.allocateDirect( aCapacity );
+    }
+    return ByteBuffer.allocate( aCapacity );
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -74,8 +122,15 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
   {
     if ( this.inputStream != null )
     {
-      while ( ( this.inputStream.available() > 0 ) && ( this.inputStream.read() >= 0 ) )
+      final byte[] buffer = new byte[FLUSH_BUFFER_SIZE];
+
+      int available;
+      while ( ( available = this.inputStream.available() ) > 0 )
       {
+        if ( this.inputStream.read( buffer, 0, Math.min( available, buffer.length ) ) < 0 )
+        {
+          break;
+        }
       }
     }
   }
@@ -187,6 +242,49 @@ public class SumpResultReader implements Closeable, SumpProtocolConstants
     return this.inputStream.read( aBuffer, aOffset, aCount );
   }
 
+  /**
+   * Reads raw data into the given buffer, from the contained channel, if
+   * available, or from the contained input stream otherwise.
+   * <p>
+   * The data is read at the position of the given buffer, up to its limit,
+   * after which its position is advanced by the number of read bytes.
+   * </p>
+   * 
+   * @param aBuffer
+   *          the buffer to read into, preferably allocated by
+   *          {@link #allocateBuffer(int)}, cannot be <code>null</code>.
+   * @return the number of bytes read, or -1 if the end of the data is reached.
+   * @throws IOException
+   *           if reading fails.
+   */
+  public int readRawData( final ByteBuffer aBuffer ) throws IOException
+  {
+    if ( this.channel != null )
+    {
+      return this.channel.read( aBuffer );
+    }
+
+    if ( !aBuffer.hasArray() )
+    {
+      // Read through an intermediary array...
+      final byte[] buffer = new byte[aBuffer.remaining()];
+      final int read = this.inputStream.read( buffer, 0, buffer.length );
+      if ( read > 0 )
+      {
+        aBuffer.put( buffer, 0, read );
+      }
+      return read;
+    }
+
+    final int read = this.inputStream.read( aBuffer.array(), aBuffer.arrayOffset() + aBuffer.position(),
+        aBuffer.remaining() );
+    if ( read > 0 )
+    {
+      aBuffer.position( aBuffer.position() + read );
+    }
+    return read;
+  }
+
   /**
    * Reads a zero-terminated ASCII-string from the current input stream.
    * 
@@ -21,78 +21,90 @@
 package org.sump.device.logicsniffer.sampleprocessor;
 
 
+import nl.lxtreme.ols.api.data.*;
+
 import org.sump.device.logicsniffer.*;
 
 
 /**
  * Processes all samples and only returns the actual changed sample values.
+ * <p>
+ * In case the device sends its samples in chronological order, the samples are
+ * directly added to the captured data. Otherwise, only their transitions are
+ * kept until all samples are received.
+ * </p>
  */
 public final class EqualityFilter implements SampleProcessor
 {
   // VARIABLES
 
   private final LogicSnifferConfig config;
-  private final int[] buffer;
+  private final int sampleCount;
   private final int trigCount;
-  private final SampleProcessorCallback callback;
+  private final CapturedDataBuilder builder;
+  /** only used when samples are received in reverse chronological order. */
+  private final ReverseTransitionBuffer transitions;
+
+  private int index;
+  private int lastSample;
 
   // CONSTRUCTORS
 
   /**
    * @param aConfig
    *          the configuration to use;
-   * @param aBuffer
-   *          the buffer with sample data to decode.
+   * @param aSampleCount
+   *          the total number of samples that are to be processed;
    * @param aTrigCount
    *          the trigcount value;
-   * @param aCallback
-   *          the callback to use.
+   * @param aBuilder
+   *          the builder to add the processed samples to.
    */
-  public EqualityFilter( final LogicSnifferConfig aConfig, final int[] aBuffer, final int aTrigCount,
-      final SampleProcessorCallback aCallback )
+  public EqualityFilter( final LogicSnifferConfig aConfig, final int aSampleCount, final int aTrigCount,
+      final CapturedDataBuilder aBuilder )
   {
-    if ( aBuffer == null )
+    if ( aBuilder == null )
     {
-      throw new IllegalArgumentException( "Buffer cannot be null!" );
+      throw new IllegalArgumentException( "Builder cannot be null!" );
     }
 
     this.config = aConfig;
-    this.buffer = aBuffer;
+    this.sampleCount = aSampleCount;
     this.trigCount = aTrigCount;
-    this.callback = aCallback;
+    this.builder = aBuilder;
+
+    // The device normally sends its last sample first, unless it is told to
+    // send them in "reverse" order...
+    this.transitions = this.config.isSamplesInReverseOrder() ? null : new ReverseTransitionBuffer();
+
+    this.index = 0;
+    this.lastSample = 0; // first value doesn't really matter
   }
 
   // METHODS
 
   /**
-   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process()
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#finish()
    */
   @Override
-  public final void process()
+  public void finish()
   {
-    long time = 0;
-
-    final int samples = this.buffer.length;
-
-    int lastSample = 0; // first value doesn't really matter
-    for ( int i = 0; i < samples; i++ )
+    final long time;
+    if ( this.transitions == null )
     {
-      final int newSample = this.buffer[i];
-
-      if ( ( i == 0 ) || ( lastSample != newSample ) )
-      {
-        // add the read sample & add a timestamp value as well...
-        this.callback.addValue( newSample, time );
-      }
+      time = this.index;
+    }
+    else
+    {
+      time = this.sampleCount;
 
-      lastSample = newSample;
-      time++;
+      this.transitions.writeTo( this.builder, time );
     }
 
     // Ensure the last sample is shown as well (even if there was a lot of time
     // between the last real sample and the end of the capture; i.e., constant
     // data)...
-    this.callback.addValue( lastSample, time );
+    this.builder.addSample( this.lastSample, time );
 
     // XXX JaWi: why is this correction needed?
     int correction = 2;
@@ -102,6 +114,41 @@ public final class EqualityFilter implements SampleProcessor
     }
 
     // Take the last seen time value as "absolete" length of this trace...
-    this.callback.ready( time, ( this.trigCount - correction ) );
+    this.builder.setAbsoluteLength( time ).setTriggerPosition( this.trigCount - correction );
+  }
+
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process(int[],
+   *      int, int)
+   */
+  @Override
+  public void process( final int[] aSamples, final int aOffset, final int aLength )
+  {
+    final int end = aOffset + aLength;
+
+    if ( this.transitions == null )
+    {
+      for ( int i = aOffset; i < end; i++ )
+      {
+        // the builder only keeps the actual transitions...
+        this.lastSample = aSamples[i];
+        this.builder.addSample( this.lastSample, this.index++ );
+      }
+    }
+    else
+    {
+      if ( ( this.index == 0 ) && ( aLength > 0 ) )
+      {
+        // The first received sample is the chronologically last one...
+        this.lastSample = aSamples[aOffset];
+      }
+
+      for ( int i = aOffset; i < end; i++ )
+      {
+        // the sample at index 0 is at timestamp (sampleCount - 1), hence its
+        // distance to the end is 1...
+        this.transitions.add( aSamples[i], ++this.index );
+      }
+    }
   }
 }
@@ -0,0 +1,127 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import org.sump.device.logicsniffer.*;
+
+
+/**
+ * Normalizes sample values by removing the bytes of disabled channel groups,
+ * moving the bytes of the enabled channel groups down to fill their place.
+ * <p>
+ * The enabled channel groups form at most two runs of adjacent groups (four
+ * groups can be split by disabled groups into no more than two runs), each of
+ * which is moved down as a whole. Hence, normalizing a sample value takes two
+ * shifts and two masks, which are determined once for a given configuration,
+ * instead of testing each channel group for every sample value.
+ * </p>
+ */
+final class GroupNormalizer
+{
+  // CONSTANTS
+
+  private static final int MAX_GROUPS = 4;
+
+  // VARIABLES
+
+  private final int firstShift;
+  private final int firstMask;
+  private final int secondShift;
+  private final int secondMask;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link GroupNormalizer} instance.
+   * 
+   * @param aGroupMask
+   *          the bit mask of enabled channel groups, bit 0 denoting the first
+   *          channel group.
+   */
+  GroupNormalizer( final int aGroupMask )
+  {
+    final int[] shifts = new int[2];
+    final int[] masks = new int[2];
+
+    int runs = 0;
+    int outGroup = 0;
+    for ( int g = 0; g < MAX_GROUPS; g++ )
+    {
+      if ( ( aGroupMask & ( 1 << g ) ) == 0 )
+      {
+        continue;
+      }
+
+      final boolean runContinues = ( g > 0 ) && ( ( aGroupMask & ( 1 << ( g - 1 ) ) ) != 0 );
+      if ( !runContinues )
+      {
+        shifts[runs++] = 8 * ( g - outGroup );
+      }
+      masks[runs - 1] |= 0xFF << ( 8 * outGroup );
+      outGroup++;
+    }
+
+    this.firstShift = shifts[0];
+    this.firstMask = masks[0];
+    this.secondShift = shifts[1];
+    this.secondMask = masks[1];
+  }
+
+  // METHODS
+
+  /**
+   * Creates a normalizer for the channel groups enabled in the given
+   * configuration.
+   * 
+   * @param aConfig
+   *          the configuration to use, cannot be <code>null</code>.
+   * @return a new normalizer, never <code>null</code>.
+   */
+  public static GroupNormalizer create( final LogicSnifferConfig aConfig )
+  {
+    final int groupCount = Math.min( MAX_GROUPS, aConfig.getGroupCount() );
+
+    int groupMask = 0;
+    for ( int g = 0; g < groupCount; g++ )
+    {
+      if ( aConfig.isGroupEnabled( g ) )
+      {
+        groupMask |= ( 1 << g );
+      }
+    }
+    return new GroupNormalizer( groupMask );
+  }
+
+  /**
+   * Normalizes the given sample value to mask out the unused channel groups and
+   * get a sample value in the correct width.
+   * 
+   * @param aSampleValue
+   *          the original sample to normalize.
+   * @return the normalized sample value.
+   */
+  public int normalize( final int aSampleValue )
+  {
+    return ( ( aSampleValue >>> this.firstShift ) & this.firstMask )
+        | ( ( aSampleValue >>> this.secondShift ) & this.secondMask );
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010 J.W. Janssen, www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.*;
+
+
+/**
+ * Collects the transitions of samples that are received in reverse
+ * chronological order, that is, last sample first.
+ * <p>
+ * As the absolute timestamps of such samples are not known until all samples
+ * are received, each sample value is stored together with its distance to the
+ * end of the capture. Consecutive equal sample values are collapsed into a
+ * single transition, keeping the distance of the chronologically first one.
+ * </p>
+ */
+final class ReverseTransitionBuffer
+{
+  // CONSTANTS
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  // VARIABLES
+
+  private int[] values;
+  private long[] distances;
+  private int size;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link ReverseTransitionBuffer} instance.
+   */
+  public ReverseTransitionBuffer()
+  {
+    this.values = new int[DEFAULT_CAPACITY];
+    this.distances = new long[DEFAULT_CAPACITY];
+    this.size = 0;
+  }
+
+  // METHODS
+
+  /**
+   * Adds a sample value that chronologically precedes all earlier added sample
+   * values.
+   * 
+   * @param aValue
+   *          the sample value to add;
+   * @param aDistance
+   *          the distance of the sample value to the end of the capture, should
+   *          be larger than the distance of the previously added sample value.
+   */
+  public void add( final int aValue, final long aDistance )
+  {
+    final int idx = this.size - 1;
+    if ( ( idx >= 0 ) && ( this.values[idx] == aValue ) )
+    {
+      // Not a transition; move the existing one back in time...
+      this.distances[idx] = aDistance;
+      return;
+    }
+
+    if ( this.size == this.values.length )
+    {
+      final int newCapacity = this.size + ( this.size >> 1 );
+
+      this.values = Arrays.copyOf( this.values, newCapacity );
+      this.distances = Arrays.copyOf( this.distances, newCapacity );
+    }
+
+    this.values[this.size] = aValue;
+    this.distances[this.size] = aDistance;
+    this.size++;
+  }
+
+  /**
+   * Returns the distance to the end of the capture of the transition at the
+   * given index.
+   * 
+   * @param aIndex
+   *          the index of the transition, in the order they are added.
+   * @return a distance to the end of the capture.
+   */
+  public long getDistance( final int aIndex )
+  {
+    return this.distances[aIndex];
+  }
+
+  /**
+   * Returns the number of collected transitions.
+   * 
+   * @return a transition count, &gt;= 0.
+   */
+  public int size()
+  {
+    return this.size;
+  }
+
+  /**
+   * Adds all collected transitions, in chronological order, to the given
+   * builder.
+   * 
+   * @param aBuilder
+   *          the builder to add the transitions to, cannot be <code>null</code>;
+   * @param aLength
+   *          the absolute length of the capture, used to convert the distances
+   *          to timestamps.
+   */
+  public void writeTo( final CapturedDataBuilder aBuilder, final long aLength )
+  {
+    for ( int i = this.size - 1; i >= 0; i-- )
+    {
+      aBuilder.addSample( this.values[i], aLength - this.distances[i] );
+    }
+  }
+}
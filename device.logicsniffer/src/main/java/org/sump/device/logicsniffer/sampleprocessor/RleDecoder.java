@@ -21,29 +21,372 @@
 package org.sump.device.logicsniffer.sampleprocessor;
 
 
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.logging.*;
 
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.util.*;
+
 import org.sump.device.logicsniffer.*;
 
 
 /**
  * Provides a RLE decoder.
+ * <p>
+ * The samples are collected in blocks, and each block is decoded as soon as it
+ * is complete. In case the device sends its samples in chronological order,
+ * each block is directly decoded into the captured data. Otherwise, the
+ * samples are decoded backwards, keeping track of the time distance of each
+ * transition to the end of the capture, which allows the timestamps to be
+ * determined as soon as the last sample is received.
+ * </p>
+ * <p>
+ * As the timestamp (or distance) of each sample depends on all RLE counts
+ * received before it, a block is decoded in two steps: first, all chunks of
+ * the block are decoded concurrently, each determining its transitions
+ * relative to its own start. Then, the chunks are merged in order, in which
+ * the time at the start of each chunk follows from the total time of all
+ * chunks received before it.
+ * </p>
  */
 public final class RleDecoder implements SampleProcessor
 {
+  // INNER TYPES
+
+  /**
+   * Decodes a chunk of samples in reverse chronological order, independently
+   * of all other chunks.
+   * <p>
+   * In DDR mode, a chunk always starts with a sample value, as the decoding of
+   * the RLE counts chronologically before it never depends on the samples
+   * chronologically after it.
+   * </p>
+   */
+  final class BackwardChunk implements Callable<Object>
+  {
+    // VARIABLES
+
+    private final int start;
+    private final int end;
+    private final boolean last;
+
+    /** the distance at the end of this chunk, relative to its start. */
+    long endDistance;
+    /** the index of the first sample of the undecoded DDR segment. */
+    int pendingStart;
+
+    int size;
+    int[] values;
+    long[] distances;
+    int[] positions;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link BackwardChunk} instance.
+     * 
+     * @param aStart
+     *          the index of the first sample in the block;
+     * @param aEnd
+     *          the index of the sample after the last one in the block;
+     * @param aLast
+     *          <code>true</code> if this is the last chunk of the block, whose
+     *          last DDR segment might be continued in the next block.
+     */
+    BackwardChunk( final int aStart, final int aEnd, final boolean aLast )
+    {
+      this.start = aStart;
+      this.end = aEnd;
+      this.last = aLast;
+      this.pendingStart = aEnd;
+
+      final int capacity = Math.min( 1024, aEnd - aStart + 1 );
+      this.values = new int[capacity];
+      this.distances = new long[capacity];
+      this.positions = new int[capacity];
+    }
+
+    // METHODS
+
+    /**
+     * Decodes the samples of this chunk.
+     */
+    @Override
+    public Object call()
+    {
+      final int[] samples = RleDecoder.this.block;
+      long distance = 0L;
+
+      if ( RleDecoder.this.ddrMode )
+      {
+        // Each sample value ends the segment started by the previous one...
+        int segmentStart = this.start;
+        for ( int i = this.start + 1; i < this.end; i++ )
+        {
+          if ( !isRleCount( samples[i] ) )
+          {
+            distance = addSegment( samples, segmentStart, i, distance );
+            segmentStart = i;
+          }
+        }
+
+        if ( this.last )
+        {
+          this.pendingStart = segmentStart;
+        }
+        else
+        {
+          distance = addSegment( samples, segmentStart, this.end, distance );
+        }
+      }
+      else
+      {
+        for ( int i = this.start; i < this.end; i++ )
+        {
+          final int sampleValue = samples[i];
+          if ( isRleCount( sampleValue ) )
+          {
+            distance += ( normalizeSampleValue( sampleValue ) & RleDecoder.this.rleCountMask );
+          }
+          else
+          {
+            distance++;
+            addTransition( sampleValue, distance, getPosition( i ) );
+          }
+        }
+      }
+
+      this.endDistance = distance;
+      return null;
+    }
+
+    /**
+     * Decodes a complete DDR segment of this chunk.
+     * 
+     * @return the distance after the segment.
+     */
+    private long addSegment( final int[] aSamples, final int aStart, final int aEnd, final long aDistance )
+    {
+      long distance = aDistance;
+      if ( isDdrSegmentValue( aSamples, aStart, aEnd - aStart ) )
+      {
+        distance++;
+        addTransition( aSamples[aStart], distance, getPosition( aStart ) );
+      }
+      return distance + getDdrSegmentCount( aSamples, aStart, aEnd - aStart );
+    }
+
+    /**
+     * Adds a transition to this chunk, collapsing consecutive equal values.
+     */
+    private void addTransition( final int aValue, final long aDistance, final int aPosition )
+    {
+      final int idx = this.size - 1;
+      if ( ( idx >= 0 ) && ( this.values[idx] == aValue ) )
+      {
+        this.distances[idx] = aDistance;
+        this.positions[idx] = aPosition;
+        return;
+      }
+
+      if ( this.size == this.values.length )
+      {
+        final int newCapacity = this.size + ( this.size >> 1 ) + 1;
+
+        this.values = Arrays.copyOf( this.values, newCapacity );
+        this.distances = Arrays.copyOf( this.distances, newCapacity );
+        this.positions = Arrays.copyOf( this.positions, newCapacity );
+      }
+
+      this.values[this.size] = aValue;
+      this.distances[this.size] = aDistance;
+      this.positions[this.size] = aPosition;
+      this.size++;
+    }
+  }
+
+  /**
+   * Decodes a chunk of samples in chronological order, independently of all
+   * other chunks.
+   */
+  final class ForwardChunk implements Callable<Object>
+  {
+    // VARIABLES
+
+    private final int start;
+    private final int end;
+
+    /** the time spent on RLE counts before the first sample value. */
+    long leadingCount;
+    /** the time at the end of this chunk, relative to its start. */
+    long endTime;
+    /** the state for the chunk following this one. */
+    boolean endDdrCountPending;
+    int endDdrHighSample;
+
+    int size;
+    int[] values;
+    long[] times;
+    int[] positions;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link ForwardChunk} instance.
+     * 
+     * @param aStart
+     *          the index of the first sample in the block;
+     * @param aEnd
+     *          the index of the sample after the last one in the block.
+     */
+    ForwardChunk( final int aStart, final int aEnd )
+    {
+      this.start = aStart;
+      this.end = aEnd;
+
+      final int capacity = Math.min( 1024, aEnd - aStart + 1 );
+      this.values = new int[capacity];
+      this.times = new long[capacity];
+      this.positions = new int[capacity];
+    }
+
+    // METHODS
+
+    /**
+     * Decodes the samples of this chunk.
+     */
+    @Override
+    public Object call()
+    {
+      final int[] samples = RleDecoder.this.block;
+      final int basePosition = RleDecoder.this.index;
+
+      boolean ddrCountPending = isDdrCountPending( this.start );
+      int ddrHighSample = ( this.start > 0 ) ? samples[this.start - 1] : RleDecoder.this.ddrHighSample;
+      boolean seenValue = false;
+      int lastValue = 0;
+      long time = 0L;
+
+      for ( int i = this.start; i < this.end; i++ )
+      {
+        final int sampleValue = samples[i];
+        final int position = basePosition + i;
+
+        long count = -1L;
+        if ( ddrCountPending )
+        {
+          ddrCountPending = false;
+          count = decodeDdrCount( ddrHighSample, sampleValue );
+        }
+        else
+        {
+          final int normalizedSampleValue = normalizeSampleValue( sampleValue );
+
+          if ( ( normalizedSampleValue & RleDecoder.this.rleCountValue ) == 0 )
+          {
+            // this is a data value only save data if different to last
+            if ( !seenValue || ( sampleValue != lastValue ) )
+            {
+              addTransition( sampleValue, time, position );
+              lastValue = sampleValue;
+              seenValue = true;
+            }
+            time++;
+          }
+          else if ( RleDecoder.this.ddrMode && ( position < ( RleDecoder.this.sampleCount - 1 ) ) )
+          {
+            // the lower part of the count is in the next sample...
+            ddrHighSample = sampleValue;
+            ddrCountPending = true;
+          }
+          else
+          {
+            count = normalizedSampleValue & RleDecoder.this.rleCountMask;
+          }
+        }
+
+        if ( count >= 0L )
+        {
+          time += count;
+          if ( !seenValue )
+          {
+            this.leadingCount += count;
+          }
+        }
+      }
+
+      this.endTime = time;
+      this.endDdrCountPending = ddrCountPending;
+      this.endDdrHighSample = ddrHighSample;
+      return null;
+    }
+
+    /**
+     * Adds a transition to this chunk.
+     */
+    private void addTransition( final int aValue, final long aTime, final int aPosition )
+    {
+      if ( this.size == this.values.length )
+      {
+        final int newCapacity = this.size + ( this.size >> 1 ) + 1;
+
+        this.values = Arrays.copyOf( this.values, newCapacity );
+        this.times = Arrays.copyOf( this.times, newCapacity );
+        this.positions = Arrays.copyOf( this.positions, newCapacity );
+      }
+
+      this.values[this.size] = aValue;
+      this.times[this.size] = aTime;
+      this.positions[this.size] = aPosition;
+      this.size++;
+    }
+  }
+
   // CONSTANTS
 
   private static final Logger LOG = Logger.getLogger( RleDecoder.class.getName() );
 
+  /** the number of samples in chronological order that are decoded at once. */
+  private static final int BLOCK_SIZE = 1 << 20;
+  /** the number of samples in a single, concurrently decoded, chunk. */
+  private static final int CHUNK_SIZE = 1 << 18;
+
   // VARIABLES
 
   private final LogicSnifferConfig config;
-  private final int[] buffer;
+  private final GroupNormalizer normalizer;
+  private final int sampleCount;
   private final int trigCount;
-  private final SampleProcessorCallback callback;
+  private final CapturedDataBuilder builder;
 
   private final int rleCountValue;
   private final int rleCountMask;
+  private final int rleShiftBits;
+  private final boolean ddrMode;
+
+  /** the number of samples processed so far. */
+  private int index;
+  /** the samples that are not processed yet. */
+  private final int[] block;
+  private int blockSize;
+  /** the threads decoding the chunks, shared by all blocks. */
+  private final ChunkExecutor executor;
+
+  // used for samples in chronological order
+  private long time;
+  private long rleTrigPos;
+  private int lastSample;
+  private boolean ddrCountPending;
+  private int ddrHighSample;
+
+  // used for samples in reverse chronological order
+  private final ReverseTransitionBuffer transitions;
+  private long distance;
+  private long distanceAtLastValue;
+  private int triggerCandidates;
+  private int[] ddrSegment;
+  private int ddrSegmentSize;
 
   // CONSTRUCTORS
 
@@ -51,22 +394,27 @@ public final class RleDecoder implements SampleProcessor
    * Creates a new RleDecoder instance.
    * 
    * @param aConfig
-   * @param aBuffer
+   *          the configuration to use;
+   * @param aSampleCount
+   *          the total number of samples that are to be processed;
    * @param aTrigCount
-   * @param aCallback
+   *          the trigcount value;
+   * @param aBuilder
+   *          the builder to add the decoded samples to.
    */
-  public RleDecoder( final LogicSnifferConfig aConfig, final int[] aBuffer, final int aTrigCount,
-      final SampleProcessorCallback aCallback )
+  public RleDecoder( final LogicSnifferConfig aConfig, final int aSampleCount, final int aTrigCount,
+      final CapturedDataBuilder aBuilder )
   {
-    if ( aBuffer == null )
+    if ( aBuilder == null )
     {
-      throw new IllegalArgumentException( "Buffer cannot be null!" );
+      throw new IllegalArgumentException( "Builder cannot be null!" );
     }
 
     this.config = aConfig;
-    this.buffer = aBuffer;
+    this.normalizer = GroupNormalizer.create( aConfig );
+    this.sampleCount = aSampleCount;
     this.trigCount = aTrigCount;
-    this.callback = aCallback;
+    this.builder = aBuilder;
 
     // enabled group count is "automatically" corrected for DDR/Demux mode...
     final int width = this.config.getRLEDataWidth();
@@ -91,86 +439,506 @@ public final class RleDecoder implements SampleProcessor
       default:
         throw new IllegalArgumentException( "Illegal RLE width! Should be 8, 16, 24 or 32!" );
     }
+
+    // shiftBits needs to be 8 if 8 bit selected and 16 if 16 bit selected
+    this.rleShiftBits = width;
+    this.ddrMode = this.config.isDoubleDataRateEnabled();
+
+    // The device normally sends its last sample first, unless it is told to
+    // send them in "reverse" order...
+    this.block = new int[Math.max( 1, Math.min( BLOCK_SIZE, aSampleCount ) )];
+    this.executor = new ChunkExecutor( Runtime.getRuntime().availableProcessors(), "RLE decoding" );
+    if ( this.config.isSamplesInReverseOrder() )
+    {
+      this.transitions = null;
+    }
+    else
+    {
+      this.transitions = new ReverseTransitionBuffer();
+      this.ddrSegment = new int[16];
+    }
+
+    this.lastSample = -1;
   }
 
   // METHODS
 
   /**
-   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process()
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#finish()
    */
-  public void process()
+  @Override
+  public void finish()
   {
-    long time = 0;
-    long rleTrigPos = 0;
-    int lastSample = -1;
+    final long length;
+    final long triggerPos;
 
-    // if msb set increment time by the count value
-    // else save sample check trigger pos and increment time by 1
-    // this should work for either dogsbody or rasmus bitstreams
+    try
+    {
+      if ( this.transitions == null )
+      {
+        decodeBlock();
+      }
+      else
+      {
+        decodeBackwardBlock();
+      }
+    }
+    finally
+    {
+      // No more blocks to decode...
+      this.executor.shutdown();
+    }
 
-    final int samples = this.buffer.length;
+    if ( this.transitions == null )
+    {
+      if ( this.ddrCountPending )
+      {
+        // Samples ended prematurely; use the pending count as-is...
+        this.ddrCountPending = false;
+        addCount( normalizeSampleValue( this.ddrHighSample ) & this.rleCountMask );
+      }
 
-    // shiftBits needs to be 8 if 8 bit selected and 16 if 16 bit selected
-    final int rleShiftBits = this.config.getRLEDataWidth();
-    final boolean ddrMode = this.config.isDoubleDataRateEnabled();
+      length = this.time;
+      triggerPos = this.rleTrigPos;
+    }
+    else
+    {
+      if ( this.ddrMode )
+      {
+        // The remaining segment starts at the first sample...
+        resolveDdrSegment( this.sampleCount - this.index );
+      }
+
+      final long ignored = this.distance - this.distanceAtLastValue;
+      if ( ignored > 0L )
+      {
+        LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( ignored ) );
+      }
+
+      // The time of the first sample value equals the total length...
+      length = this.distanceAtLastValue;
+
+      // The first transition is always at time zero, and is never considered
+      // to be the trigger position...
+      int candidates = this.triggerCandidates;
+      if ( candidates == this.transitions.size() )
+      {
+        candidates--;
+      }
+
+      if ( candidates > 0 )
+      {
+        triggerPos = length - this.transitions.getDistance( candidates - 1 );
+      }
+      else
+      {
+        triggerPos = 0L;
+      }
 
-    for ( int i = 0; i < samples; i++ )
+      this.transitions.writeTo( this.builder, length );
+    }
+
+    // Ensure the last sample is shown as well (even if there was a lot of time
+    // between the last real sample and the end of the capture; i.e., constant
+    // data)...
+    this.builder.addSample( this.lastSample, length );
+
+    // Take the last seen time value as "absolete" length of this trace...
+    this.builder.setAbsoluteLength( length ).setTriggerPosition( triggerPos - 1 );
+  }
+
+  /**
+   * @see org.sump.device.logicsniffer.sampleprocessor.SampleProcessor#process(int[],
+   *      int, int)
+   */
+  @Override
+  public void process( final int[] aSamples, final int aOffset, final int aLength )
+  {
+    final int end = aOffset + aLength;
+
+    int i = aOffset;
+    while ( i < end )
     {
-      final int sampleValue = this.buffer[i];
-      final int normalizedSampleValue = normalizeSampleValue( sampleValue );
+      final int length = Math.min( end - i, this.block.length - this.blockSize );
+      System.arraycopy( aSamples, i, this.block, this.blockSize, length );
+      this.blockSize += length;
+      i += length;
 
-      // if a count just add it to the time
-      if ( ( normalizedSampleValue & this.rleCountValue ) != 0 )
+      if ( this.blockSize == this.block.length )
       {
-        long count = ( normalizedSampleValue & this.rleCountMask );
-        if ( ddrMode && ( i < ( samples - 1 ) ) )
+        if ( this.transitions == null )
         {
-          // In case of "double data rate", the RLE-counts are encoded as 16-
-          // resp. 32-bit values, so we need to take two samples for each
-          // count (as they are 8- or 16-bits in DDR mode).
-          // This should also solve issue #31...
-
-          // Issue #55: double the RLE-count as we're using DDR mode which
-          // takes two samples in one time period...
-          long ddrCount = ( ( count << rleShiftBits ) | normalizeSampleValue( this.buffer[++i] ) );
-          count = 2L * ddrCount;
+          decodeBlock();
         }
-
-        if ( lastSample >= 0 )
+        else
         {
-          time += count;
+          decodeBackwardBlock();
         }
-        else
+      }
+    }
+  }
+
+  /**
+   * Adds a RLE count to the current time, for samples in chronological order.
+   * 
+   * @param aCount
+   *          the count to add.
+   */
+  private void addCount( final long aCount )
+  {
+    if ( this.lastSample >= 0 )
+    {
+      this.time += aCount;
+    }
+    else
+    {
+      LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( aCount ) );
+    }
+  }
+
+  /**
+   * Adds a sample value, for samples in reverse chronological order.
+   * 
+   * @param aSampleValue
+   *          the sample value to add;
+   * @param aDistance
+   *          the distance of the sample value to the end of the capture;
+   * @param aPosition
+   *          the (chronological) position of the sample value.
+   */
+  private void addValueBackward( final int aSampleValue, final long aDistance, final int aPosition )
+  {
+    if ( this.transitions.size() == 0 )
+    {
+      // The first sample value we see, is the last one in time...
+      this.lastSample = aSampleValue;
+    }
+
+    this.transitions.add( aSampleValue, aDistance );
+    this.distanceAtLastValue = aDistance;
+
+    // The trigger position is the time of the chronologically first transition
+    // that is at or after the trigcount; as we're going back in time, those
+    // transitions are always the first ones we collect...
+    final int idx = this.transitions.size() - 1;
+    if ( aPosition >= this.trigCount )
+    {
+      this.triggerCandidates = idx + 1;
+    }
+    else
+    {
+      this.triggerCandidates = Math.min( this.triggerCandidates, idx );
+    }
+  }
+
+  /**
+   * Appends a sample to the pending DDR segment, for samples in reverse
+   * chronological order.
+   * 
+   * @param aSampleValue
+   *          the sample to append.
+   */
+  private void appendDdrSegment( final int aSampleValue )
+  {
+    if ( this.ddrSegmentSize == this.ddrSegment.length )
+    {
+      this.ddrSegment = Arrays.copyOf( this.ddrSegment, 2 * this.ddrSegmentSize );
+    }
+    this.ddrSegment[this.ddrSegmentSize++] = aSampleValue;
+  }
+
+  /**
+   * Decodes all collected samples in reverse chronological order, and adds
+   * their transitions to the collected transitions.
+   */
+  private void decodeBackwardBlock()
+  {
+    final int size = this.blockSize;
+    if ( size == 0 )
+    {
+      return;
+    }
+
+    int start = 0;
+    if ( this.ddrMode )
+    {
+      // The counts up to the first sample value continue the pending segment,
+      // which is ended by that sample value...
+      while ( ( start < size ) && isRleCount( this.block[start] ) )
+      {
+        appendDdrSegment( this.block[start++] );
+      }
+      if ( start < size )
+      {
+        resolveDdrSegment( getPosition( start ) + 1 );
+      }
+    }
+
+    final List<BackwardChunk> chunks = new ArrayList<BackwardChunk>();
+    while ( start < size )
+    {
+      int end = Math.min( size, start + CHUNK_SIZE );
+      if ( this.ddrMode )
+      {
+        // Let the next chunk start with a sample value...
+        while ( ( end < size ) && isRleCount( this.block[end] ) )
         {
-          LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( count ) );
+          end++;
         }
       }
+      chunks.add( new BackwardChunk( start, end, end == size ) );
+      start = end;
+    }
+
+    this.executor.invokeAll( chunks );
+
+    for ( BackwardChunk chunk : chunks )
+    {
+      mergeBackwardChunk( chunk );
+    }
+
+    this.index += size;
+    this.blockSize = 0;
+  }
+
+  /**
+   * Decodes all collected samples in chronological order, and adds their
+   * transitions to the captured data.
+   */
+  private void decodeBlock()
+  {
+    final int size = this.blockSize;
+    if ( size == 0 )
+    {
+      return;
+    }
+
+    final List<ForwardChunk> chunks = new ArrayList<ForwardChunk>();
+    for ( int start = 0; start < size; start += CHUNK_SIZE )
+    {
+      chunks.add( new ForwardChunk( start, Math.min( size, start + CHUNK_SIZE ) ) );
+    }
+
+    this.executor.invokeAll( chunks );
+
+    for ( ForwardChunk chunk : chunks )
+    {
+      mergeChunk( chunk );
+    }
+
+    this.index += size;
+    this.blockSize = 0;
+  }
+
+  /**
+   * Decodes a DDR-encoded RLE count from the given high and low part.
+   * 
+   * @param aHighSample
+   *          the sample with the upper bits of the count;
+   * @param aLowSample
+   *          the sample with the lower bits of the count.
+   * @return the decoded count.
+   */
+  private long decodeDdrCount( final int aHighSample, final int aLowSample )
+  {
+    // In case of "double data rate", the RLE-counts are encoded as 16-
+    // resp. 32-bit values, so we need to take two samples for each
+    // count (as they are 8- or 16-bits in DDR mode).
+    // This should also solve issue #31...
+    final long count = ( normalizeSampleValue( aHighSample ) & this.rleCountMask );
+    final long ddrCount = ( ( count << this.rleShiftBits ) | normalizeSampleValue( aLowSample ) );
+
+    // Issue #55: double the RLE-count as we're using DDR mode which
+    // takes two samples in one time period...
+    return 2L * ddrCount;
+  }
+
+  /**
+   * Returns the total count of a DDR segment.
+   * 
+   * @param aSamples
+   *          the samples to decode;
+   * @param aOffset
+   *          the index of the first sample of the segment;
+   * @param aSize
+   *          the number of samples in the segment.
+   * @return the decoded count.
+   * @see #resolveDdrSegment(int)
+   */
+  private long getDdrSegmentCount( final int[] aSamples, final int aOffset, final int aSize )
+  {
+    final boolean hasValue = !isRleCount( aSamples[aOffset] );
+    final int countSamples = hasValue ? ( aSize - 1 ) : aSize;
+
+    // RLE counts chronologically start at the end of the segment, and take
+    // two samples each...
+    long count = 0L;
+    int i = aSize - 1;
+    for ( ; i >= ( aSize - countSamples + 1 ); i -= 2 )
+    {
+      count += decodeDdrCount( aSamples[aOffset + i], aSamples[aOffset + i - 1] );
+    }
+    if ( i >= ( aSize - countSamples ) )
+    {
+      if ( hasValue )
+      {
+        // the sample value is the lower part of this count...
+        count += decodeDdrCount( aSamples[aOffset + i], aSamples[aOffset] );
+      }
       else
       {
-        // this is a data value only save data if different to last
-        if ( sampleValue != lastSample )
-        {
-          // set the trigger position as a time value
-          if ( ( i >= this.trigCount ) && ( rleTrigPos == 0 ) )
-          {
-            rleTrigPos = time;
-          }
+        // last sample of the capture; there's no lower part...
+        count += ( normalizeSampleValue( aSamples[aOffset + i] ) & this.rleCountMask );
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the chronological position of a sample in the current block, for
+   * samples in reverse chronological order.
+   * 
+   * @param aBlockIdx
+   *          the index of the sample in the current block.
+   * @return a position, &gt;= 0.
+   */
+  private int getPosition( final int aBlockIdx )
+  {
+    return this.sampleCount - 1 - this.index - aBlockIdx;
+  }
+
+  /**
+   * Determines whether the sample at the given index in the current block is
+   * the lower part of a DDR-encoded RLE count.
+   * <p>
+   * A sample value always ends a pending count, either by being its lower part
+   * or by being a sample value by itself. Hence, only the RLE counts directly
+   * preceding the sample need to be considered, which are taken in pairs.
+   * </p>
+   * 
+   * @param aBlockIdx
+   *          the index of the sample in the current block.
+   * @return <code>true</code> if the sample is the lower part of a count,
+   *         <code>false</code> otherwise.
+   */
+  private boolean isDdrCountPending( final int aBlockIdx )
+  {
+    if ( !this.ddrMode )
+    {
+      return false;
+    }
+
+    int i = aBlockIdx - 1;
+    while ( ( i >= 0 ) && isRleCount( this.block[i] ) )
+    {
+      i--;
+    }
+
+    final boolean oddCounts = ( ( aBlockIdx - 1 - i ) % 2 ) != 0;
+    if ( i < 0 )
+    {
+      // All samples before it in this block are counts, so the state at the
+      // start of this block matters as well...
+      return this.ddrCountPending ^ oddCounts;
+    }
+    return oddCounts;
+  }
 
-          // add the read sample & add a timestamp value as well...
-          this.callback.addValue( sampleValue, time );
-          lastSample = sampleValue;
+  /**
+   * Determines whether the first sample of a DDR segment is a sample value by
+   * itself, rather than the lower part of a count.
+   * 
+   * @param aSamples
+   *          the samples to decode;
+   * @param aOffset
+   *          the index of the first sample of the segment;
+   * @param aSize
+   *          the number of samples in the segment.
+   * @return <code>true</code> if the segment starts with a sample value,
+   *         <code>false</code> otherwise.
+   * @see #resolveDdrSegment(int)
+   */
+  private boolean isDdrSegmentValue( final int[] aSamples, final int aOffset, final int aSize )
+  {
+    // a sample value followed by an odd number of count samples is the lower
+    // part of the last count...
+    return !isRleCount( aSamples[aOffset] ) && ( ( ( aSize - 1 ) % 2 ) == 0 );
+  }
+
+  /**
+   * @param aSampleValue
+   *          the sample value to test.
+   * @return <code>true</code> if the given sample value represents a RLE count,
+   *         <code>false</code> if it represents a sample value.
+   */
+  private boolean isRleCount( final int aSampleValue )
+  {
+    return ( normalizeSampleValue( aSampleValue ) & this.rleCountValue ) != 0;
+  }
+
+  /**
+   * Adds the transitions of a decoded chunk to the collected transitions, for
+   * samples in reverse chronological order.
+   * 
+   * @param aChunk
+   *          the decoded chunk to merge, whose preceding chunks should already
+   *          be merged.
+   */
+  private void mergeBackwardChunk( final BackwardChunk aChunk )
+  {
+    final long startDistance = this.distance;
+    for ( int i = 0; i < aChunk.size; i++ )
+    {
+      addValueBackward( aChunk.values[i], startDistance + aChunk.distances[i], aChunk.positions[i] );
+    }
+    this.distance = startDistance + aChunk.endDistance;
+
+    // The last segment might be continued by the samples still to come...
+    for ( int i = aChunk.pendingStart; i < aChunk.end; i++ )
+    {
+      appendDdrSegment( this.block[i] );
+    }
+  }
+
+  /**
+   * Adds the transitions of a decoded chunk to the captured data, for samples
+   * in chronological order.
+   * 
+   * @param aChunk
+   *          the decoded chunk to merge, whose preceding chunks should already
+   *          be merged.
+   */
+  private void mergeChunk( final ForwardChunk aChunk )
+  {
+    long startTime = this.time;
+    if ( ( this.lastSample < 0 ) && ( aChunk.leadingCount > 0L ) )
+    {
+      LOG.warning( "Ignoring RLE count without preceeding sample value: " + Long.toHexString( aChunk.leadingCount ) );
+      startTime -= aChunk.leadingCount;
+    }
+
+    for ( int i = 0; i < aChunk.size; i++ )
+    {
+      final int sampleValue = aChunk.values[i];
+      if ( sampleValue != this.lastSample )
+      {
+        final long time = startTime + aChunk.times[i];
+
+        // set the trigger position as a time value
+        if ( ( aChunk.positions[i] >= this.trigCount ) && ( this.rleTrigPos == 0 ) )
+        {
+          this.rleTrigPos = time;
         }
-        time++;
+
+        // add the read sample & add a timestamp value as well...
+        this.builder.addSample( sampleValue, time );
+        this.lastSample = sampleValue;
       }
     }
 
-    // Ensure the last sample is shown as well (even if there was a lot of time
-    // between the last real sample and the end of the capture; i.e., constant
-    // data)...
-    this.callback.addValue( lastSample, time );
-
-    // Take the last seen time value as "absolete" length of this trace...
-    this.callback.ready( time, rleTrigPos - 1 );
+    this.time = startTime + aChunk.endTime;
+    this.ddrCountPending = aChunk.endDdrCountPending;
+    this.ddrHighSample = aChunk.endDdrHighSample;
   }
 
   /**
@@ -183,20 +951,38 @@ public final class RleDecoder implements SampleProcessor
    */
   private int normalizeSampleValue( final int aSampleValue )
   {
-    int groupCount = this.config.getGroupCount();
-    int compdata = 0;
+    return this.normalizer.normalize( aSampleValue );
+  }
+
+  /**
+   * Decodes the pending DDR segment, for samples in reverse chronological
+   * order.
+   * <p>
+   * A segment consists of an optional sample value (the first sample of the
+   * segment) followed by a number of RLE counts (all other samples), and is
+   * stored in reverse chronological order. The samples preceding the segment
+   * are known not to influence its decoding.
+   * </p>
+   * 
+   * @param aFirstPosition
+   *          the chronological position of the first sample in the segment.
+   */
+  private void resolveDdrSegment( final int aFirstPosition )
+  {
+    final int size = this.ddrSegmentSize;
+    if ( size == 0 )
+    {
+      return;
+    }
 
-    // to enable non contiguous channel groups
-    // need to remove zero data from unused groups
-    int indata = aSampleValue;
-    for ( int j = 0, outcount = 0; j < groupCount; j++ )
+    if ( isDdrSegmentValue( this.ddrSegment, 0, size ) )
     {
-      if ( this.config.isGroupEnabled( j ) )
-      {
-        compdata |= ( ( indata & 0xff ) << ( 8 * outcount++ ) );
-      }
-      indata >>= 8;
+      // the sample value is not the lower part of a count...
+      this.distance++;
+      addValueBackward( this.ddrSegment[0], this.distance, aFirstPosition + size - 1 );
     }
-    return compdata;
+
+    this.distance += getDdrSegmentCount( this.ddrSegment, 0, size );
+    this.ddrSegmentSize = 0;
   }
 }
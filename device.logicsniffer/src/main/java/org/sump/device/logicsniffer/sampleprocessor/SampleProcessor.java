@@ -24,11 +24,32 @@ package org.sump.device.logicsniffer.sampleprocessor;
 /**
  * Denotes a sample processor, which performs a transformation function (such as
  * uncompressing) on a set of samples.
+ * <p>
+ * Samples are fed to a sample processor in chunks, while they are read from the
+ * device, in the order as they are sent by the device. This allows the samples
+ * to be processed while the remainder of the samples is still being
+ * transferred. After the last chunk is fed, {@link #finish()} should be called
+ * exactly once to complete the processing.
+ * </p>
  */
 public interface SampleProcessor
 {
   /**
-   * Processes the samples.
+   * Finishes the processing of samples, after all samples are fed to this
+   * processor.
    */
-  void process();
+  void finish();
+
+  /**
+   * Processes the next chunk of samples.
+   * 
+   * @param aSamples
+   *          the array with (normalized) samples to process, cannot be
+   *          <code>null</code>;
+   * @param aOffset
+   *          the offset in the given array of the first sample to process;
+   * @param aLength
+   *          the number of samples to process.
+   */
+  void process( int[] aSamples, int aOffset, int aLength );
 }
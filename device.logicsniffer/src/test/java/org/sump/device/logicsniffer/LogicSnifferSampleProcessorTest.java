@@ -0,0 +1,302 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * 
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.*;
+
+import org.junit.*;
+import org.sump.device.logicsniffer.profile.*;
+import org.sump.device.logicsniffer.sampleprocessor.*;
+
+
+/**
+ * Test cases for the sample processors, verifying that the samples can be fed
+ * in chunks, regardless of the order in which the device sends them.
+ */
+public class LogicSnifferSampleProcessorTest
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 4096;
+  /** spans multiple blocks of the RLE decoder, each with multiple chunks. */
+  private static final int LARGE_SAMPLE_COUNT = ( 5 << 19 ) + 123;
+  private static final int CHUNK_SIZE = 1 << 18;
+
+  // VARIABLES
+
+  private DeviceProfile forwardProfile;
+  private DeviceProfile backwardProfile;
+  private Random random;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    final VirtualLogicSnifferDevice device = new VirtualLogicSnifferDevice( new LogicSnifferConfig() );
+
+    this.forwardProfile = device.addDeviceProfile( "Forward", "\"Forward\"", true /* aSamplesInReverseOrder */);
+    this.backwardProfile = device.addDeviceProfile( "Backward", "\"Backward\"", false /* aSamplesInReverseOrder */);
+
+    device.close();
+
+    this.random = new Random( 1234L );
+  }
+
+  /**
+   * Tests that unencoded samples sent last sample first are processed
+   * correctly.
+   */
+  @Test
+  public void testEqualityFilterBackwardOk()
+  {
+    final int[] samples = createSamples( SAMPLE_COUNT, 0xFF, false /* aRle */);
+
+    final CapturedData expected = process( samples, false /* aRle */, false /* aDdr */, true /* aForward */);
+    final CapturedData actual = process( samples, false /* aRle */, false /* aDdr */, false /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that RLE-encoded samples sent last sample first are decoded
+   * correctly.
+   */
+  @Test
+  public void testRleDecoderBackwardOk()
+  {
+    final int[] samples = createSamples( SAMPLE_COUNT, 0xFF, true /* aRle */);
+
+    final CapturedData expected = process( samples, true /* aRle */, false /* aDdr */, true /* aForward */);
+    final CapturedData actual = process( samples, true /* aRle */, false /* aDdr */, false /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that RLE-encoded samples in DDR mode sent last sample first are
+   * decoded correctly.
+   */
+  @Test
+  public void testRleDecoderBackwardDdrOk()
+  {
+    final int[] samples = createSamples( SAMPLE_COUNT, 0xFF, true /* aRle */);
+
+    final CapturedData expected = process( samples, true /* aRle */, true /* aDdr */, true /* aForward */);
+    final CapturedData actual = process( samples, true /* aRle */, true /* aDdr */, false /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that a large number of RLE-encoded samples, which are decoded in
+   * concurrent chunks in either order, are decoded correctly.
+   */
+  @Test( timeout = 60000 )
+  public void testRleDecoderLargeForwardOk()
+  {
+    final int[] samples = createSamples( LARGE_SAMPLE_COUNT, 0xFF, true /* aRle */);
+
+    final CapturedData expected = process( samples, true /* aRle */, false /* aDdr */, false /* aForward */);
+    final CapturedData actual = process( samples, true /* aRle */, false /* aDdr */, true /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that a large number of RLE-encoded samples in DDR mode, which are
+   * decoded in concurrent chunks, are decoded correctly, even if a count
+   * straddles two chunks.
+   */
+  @Test( timeout = 60000 )
+  public void testRleDecoderLargeForwardDdrOk()
+  {
+    final int[] samples = createSamples( LARGE_SAMPLE_COUNT, 0xFF, true /* aRle */);
+    // Ensure there are runs of counts, of varying length, around each chunk
+    // boundary...
+    for ( int boundary = CHUNK_SIZE, run = 1; boundary < samples.length; boundary += CHUNK_SIZE, run++ )
+    {
+      for ( int i = boundary - run; i < boundary + 2; i++ )
+      {
+        samples[i] = 0x80 | ( i & 0x7F );
+      }
+    }
+
+    final CapturedData expected = process( samples, true /* aRle */, true /* aDdr */, false /* aForward */);
+    final CapturedData actual = process( samples, true /* aRle */, true /* aDdr */, true /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that a large number of RLE-encoded samples in DDR mode sent last
+   * sample first, which are decoded in concurrent chunks, are decoded
+   * correctly, even if a count straddles two chunks or blocks.
+   */
+  @Test( timeout = 60000 )
+  public void testRleDecoderLargeBackwardDdrOk()
+  {
+    final int[] samples = createSamples( LARGE_SAMPLE_COUNT, 0xFF, true /* aRle */);
+    // Ensure there are runs of counts, of varying length, around each chunk
+    // boundary as seen from the end of the capture...
+    for ( int boundary = samples.length - CHUNK_SIZE, run = 1; boundary > 0; boundary -= CHUNK_SIZE, run++ )
+    {
+      for ( int i = boundary - 2; i < boundary + run; i++ )
+      {
+        samples[i] = 0x80 | ( i & 0x7F );
+      }
+    }
+    // Ensure a run of counts spans an entire chunk...
+    for ( int i = 100; i < ( 100 + CHUNK_SIZE + 3 ); i++ )
+    {
+      samples[i] = 0x80 | ( i & 0x7F );
+    }
+
+    final CapturedData expected = process( samples, true /* aRle */, true /* aDdr */, true /* aForward */);
+    final CapturedData actual = process( samples, true /* aRle */, true /* aDdr */, false /* aForward */);
+
+    assertCapturedDataEquals( expected, actual );
+  }
+
+  /**
+   * Tests that RLE-encoded samples are decoded to the expected timestamps.
+   */
+  @Test
+  public void testRleDecoderKnownSamplesOk()
+  {
+    // 0x81 is a count of 1; 0x80 is a count of 0...
+    final int[] samples = { 0x82, 0x01, 0x83, 0x01, 0x02, 0x80, 0x03, 0x84 };
+
+    for ( boolean forward : new boolean[] { true, false } )
+    {
+      final CapturedData data = process( samples, true /* aRle */, false /* aDdr */, forward );
+
+      assertArrayEquals( new int[] { 0x01, 0x02, 0x03, 0x03 }, data.getValues() );
+      assertArrayEquals( new long[] { 0L, 5L, 6L, 11L }, data.getTimestamps() );
+      assertEquals( 11L, data.getAbsoluteLength() );
+    }
+  }
+
+  /**
+   * @param aExpected
+   * @param aActual
+   */
+  private void assertCapturedDataEquals( final CapturedData aExpected, final CapturedData aActual )
+  {
+    assertArrayEquals( aExpected.getValues(), aActual.getValues() );
+    assertArrayEquals( aExpected.getTimestamps(), aActual.getTimestamps() );
+    assertEquals( aExpected.getAbsoluteLength(), aActual.getAbsoluteLength() );
+    assertEquals( aExpected.getTriggerPosition(), aActual.getTriggerPosition() );
+  }
+
+  /**
+   * Creates random (chronologically ordered) samples for 8 channels.
+   * 
+   * @param aCount
+   *          the number of samples to create;
+   * @param aMask
+   *          the mask of sample values;
+   * @param aRle
+   *          <code>true</code> to add RLE counts between sample values.
+   * @return the samples, never <code>null</code>.
+   */
+  private int[] createSamples( final int aCount, final int aMask, final boolean aRle )
+  {
+    final int[] result = new int[aCount];
+    for ( int i = 0; i < result.length; i++ )
+    {
+      if ( aRle )
+      {
+        // use a few distinct values and plenty of (consecutive) counts...
+        result[i] = this.random.nextBoolean() ? ( 0x80 | this.random.nextInt( 0x80 ) ) : this.random.nextInt( 4 );
+      }
+      else
+      {
+        result[i] = this.random.nextInt( 4 ) & aMask;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Feeds the given samples in random chunks to a sample processor.
+   * 
+   * @param aSamples
+   *          the samples to process, in chronological order;
+   * @param aRle
+   *          <code>true</code> to use RLE decoding;
+   * @param aDdr
+   *          <code>true</code> to use DDR mode;
+   * @param aForward
+   *          <code>true</code> to feed the samples in chronological order,
+   *          <code>false</code> to feed them last sample first.
+   * @return the processed samples, never <code>null</code>.
+   */
+  private CapturedData process( final int[] aSamples, final boolean aRle, final boolean aDdr, final boolean aForward )
+  {
+    final LogicSnifferConfig config = new LogicSnifferConfig();
+    config.setDeviceProfile( aForward ? this.forwardProfile : this.backwardProfile );
+    config.setEnabledChannels( 0xFF );
+    config.setRleEnabled( aRle );
+    config.setSampleRate( aDdr ? 200000000 : 100000000 );
+
+    assertEquals( aDdr, config.isDoubleDataRateEnabled() );
+
+    final int trigCount = aSamples.length / 3;
+
+    final CapturedDataBuilder builder = new CapturedDataBuilder();
+    final SampleProcessor processor;
+    if ( aRle )
+    {
+      processor = new RleDecoder( config, aSamples.length, trigCount, builder );
+    }
+    else
+    {
+      processor = new EqualityFilter( config, aSamples.length, trigCount, builder );
+    }
+
+    final int[] samples = aSamples.clone();
+    if ( !aForward )
+    {
+      HostUtils.reverse( samples );
+    }
+
+    int offset = 0;
+    while ( offset < samples.length )
+    {
+      final int length = Math.min( samples.length - offset, 1 + this.random.nextInt( 100 ) );
+      processor.process( samples, offset, length );
+      offset += length;
+    }
+    processor.finish();
+
+    return builder.build();
+  }
+}
@@ -72,7 +72,7 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
   {
     // VARIABLES
 
-    private final InputStream is;
+    private final DataInputStream is;
     private final OutputStream os;
     private final SampleProvider sampleProvider;
 
@@ -91,7 +91,7 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
     public IOHelper( final InputStream aIS, final OutputStream aOS, final SampleProvider aSampleProvider )
     {
       super( "IOHelper" );
-      this.is = aIS;
+      this.is = new DataInputStream( aIS );
       this.os = aOS;
       this.sampleProvider = aSampleProvider;
     }
@@ -127,7 +127,8 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
           // Short or long command?
           if ( ( command & 0x80 ) != 0 )
           {
-            this.is.read( parameters );
+            // The parameters can arrive in separate writes...
+            this.is.readFully( parameters );
             // Construct a 32-bit integer back from the parameters
             parameterValue = ( ( ( parameters[3] & 0xFF ) << 24 ) | ( ( parameters[2] & 0xFF ) << 16 )
                 | ( ( parameters[1] & 0xFF ) << 8 ) | ( parameters[0] & 0xFF ) );
@@ -408,6 +409,15 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
    */
   public DeviceProfile addDeviceProfile( final String aType, final String aMetadataKeys )
       throws org.osgi.service.cm.ConfigurationException
+  {
+    return addDeviceProfile( aType, aMetadataKeys, true /* aSamplesInReverseOrder */);
+  }
+
+  /**
+   * @return
+   */
+  public DeviceProfile addDeviceProfile( final String aType, final String aMetadataKeys,
+      final boolean aSamplesInReverseOrder ) throws org.osgi.service.cm.ConfigurationException
   {
     Properties properties = new Properties();
     properties.put( DeviceProfile.DEVICE_CAPTURECLOCK, "INTERNAL" );
@@ -428,7 +438,7 @@ public class VirtualLogicSnifferDevice extends LogicSnifferAcquisitionTask
     properties.put( DeviceProfile.DEVICE_OPEN_PORT_DELAY, "0" );
     properties.put( DeviceProfile.DEVICE_OPEN_PORT_DTR, "false" );
     properties.put( DeviceProfile.DEVICE_RECEIVE_TIMEOUT, "12" );
-    properties.put( DeviceProfile.DEVICE_SAMPLE_REVERSE_ORDER, "true" );
+    properties.put( DeviceProfile.DEVICE_SAMPLE_REVERSE_ORDER, Boolean.toString( aSamplesInReverseOrder ) );
     properties.put( DeviceProfile.DEVICE_SAMPLERATES, "1000000" );
     properties.put( DeviceProfile.DEVICE_SUPPORTS_DDR, "true" );
     properties.put( DeviceProfile.DEVICE_TRIGGER_COMPLEX, "true" );
@@ -0,0 +1,111 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.protocol;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SumpResultReader}.
+ */
+public class SumpResultReaderTest
+{
+  // CONSTANTS
+
+  private static final byte[] DATA = { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10 };
+
+  // METHODS
+
+  /**
+   * Tests that raw data is read from the channel, if given.
+   */
+  @Test
+  public void testReadRawDataFromChannelOk() throws IOException
+  {
+    final DataInputStream is = new DataInputStream( new ByteArrayInputStream( new byte[0] ) );
+    final ReadableByteChannel channel = Channels.newChannel( new ByteArrayInputStream( DATA ) );
+
+    final SumpResultReader reader = new SumpResultReader( is, channel );
+
+    final ByteBuffer buffer = reader.allocateBuffer( 16 );
+    assertTrue( buffer.isDirect() );
+
+    assertRawDataRead( reader, buffer );
+  }
+
+  /**
+   * Tests that raw data is read from the input stream, if no channel is given.
+   */
+  @Test
+  public void testReadRawDataFromStreamOk() throws IOException
+  {
+    final DataInputStream is = new DataInputStream( new ByteArrayInputStream( DATA ) );
+
+    final SumpResultReader reader = new SumpResultReader( is );
+
+    final ByteBuffer buffer = reader.allocateBuffer( 16 );
+    assertFalse( buffer.isDirect() );
+
+    assertRawDataRead( reader, buffer );
+  }
+
+  /**
+   * Tests that flushing drains all pending data.
+   */
+  @Test
+  public void testFlushOk() throws IOException
+  {
+    final ByteArrayInputStream bais = new ByteArrayInputStream( new byte[5000] );
+
+    new SumpResultReader( new DataInputStream( bais ) ).flush();
+
+    assertEquals( 0, bais.available() );
+  }
+
+  /**
+   * Reads the raw data in two parts, and verifies the read data.
+   */
+  private static void assertRawDataRead( final SumpResultReader aReader, final ByteBuffer aBuffer )
+      throws IOException
+  {
+    aBuffer.put( ( byte )0 );
+    aBuffer.limit( 5 );
+    assertEquals( 4, aReader.readRawData( aBuffer ) );
+    assertEquals( 5, aBuffer.position() );
+
+    aBuffer.limit( aBuffer.capacity() );
+    assertEquals( 6, aReader.readRawData( aBuffer ) );
+    assertEquals( -1, aReader.readRawData( aBuffer ) );
+
+    aBuffer.flip();
+    for ( int i = 0; i <= DATA.length; i++ )
+    {
+      assertEquals( i, aBuffer.get() );
+    }
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package org.sump.device.logicsniffer.sampleprocessor;
+
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.junit.*;
+import org.sump.device.logicsniffer.*;
+
+
+/**
+ * Test cases for {@link GroupNormalizer}.
+ */
+public class GroupNormalizerTest
+{
+  // CONSTANTS
+
+  private static final int SAMPLE_COUNT = 10000;
+
+  // METHODS
+
+  /**
+   * Tests that sample values are normalized to the expected values for a few
+   * known channel group combinations.
+   */
+  @Test
+  public void testNormalizeKnownValuesOk()
+  {
+    final int sample = 0x44332211;
+
+    assertEquals( 0x44332211, GroupNormalizer.create( createConfig( 0xF, false ) ).normalize( sample ) );
+    assertEquals( 0x3311, GroupNormalizer.create( createConfig( 0x5, false ) ).normalize( sample ) );
+    assertEquals( 0x44, GroupNormalizer.create( createConfig( 0x8, false ) ).normalize( sample ) );
+    assertEquals( 0x443322, GroupNormalizer.create( createConfig( 0xE, false ) ).normalize( sample ) );
+  }
+
+  /**
+   * Tests that the normalized sample values equal those obtained by testing
+   * each channel group for every sample, for all combinations of enabled
+   * channel groups, with and without DDR mode.
+   */
+  @Test
+  public void testNormalizeAllGroupCombinationsOk()
+  {
+    final Random rnd = new Random( 1L );
+
+    final int[] samples = new int[SAMPLE_COUNT];
+    for ( int i = 0; i < SAMPLE_COUNT; i++ )
+    {
+      samples[i] = rnd.nextInt();
+    }
+    samples[0] = 0;
+    samples[1] = -1;
+    samples[2] = Integer.MIN_VALUE;
+    samples[3] = Integer.MAX_VALUE;
+
+    for ( boolean ddr : new boolean[] { false, true } )
+    {
+      for ( int groupMask = 1; groupMask < 16; groupMask++ )
+      {
+        final LogicSnifferConfig config = createConfig( groupMask, ddr );
+        final GroupNormalizer normalizer = GroupNormalizer.create( config );
+
+        for ( int sample : samples )
+        {
+          assertEquals( "Groups " + Integer.toBinaryString( groupMask ) + ", DDR " + ddr,
+              normalizeByGroup( config, sample ), normalizer.normalize( sample ) );
+        }
+      }
+    }
+  }
+
+  /**
+   * Creates a configuration with the given channel groups enabled.
+   */
+  private static LogicSnifferConfig createConfig( final int aGroupMask, final boolean aDdr )
+  {
+    int enabledChannels = 0;
+    for ( int g = 0; g < 4; g++ )
+    {
+      if ( ( aGroupMask & ( 1 << g ) ) != 0 )
+      {
+        enabledChannels |= 0xFF << ( 8 * g );
+      }
+    }
+
+    final LogicSnifferConfig config = new LogicSnifferConfig();
+    config.setSampleRate( aDdr ? 200000000 : 100000000 );
+    config.setEnabledChannels( enabledChannels );
+
+    assertEquals( aDdr, config.isDoubleDataRateEnabled() );
+    return config;
+  }
+
+  /**
+   * Normalizes a single sample by testing each channel group, as done before.
+   */
+  private static int normalizeByGroup( final LogicSnifferConfig aConfig, final int aSampleValue )
+  {
+    int groupCount = aConfig.getGroupCount();
+    int compdata = 0;
+
+    int indata = aSampleValue;
+    for ( int j = 0, outcount = 0; j < groupCount; j++ )
+    {
+      if ( aConfig.isGroupEnabled( j ) )
+      {
+        compdata |= ( ( indata & 0xff ) << ( 8 * outcount++ ) );
+      }
+      indata >>= 8;
+    }
+    return compdata;
+  }
+}
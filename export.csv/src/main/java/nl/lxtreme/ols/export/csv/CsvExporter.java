@@ -37,6 +37,11 @@ import nl.lxtreme.ols.api.data.export.*;
  */
 public class CsvExporter implements Exporter
 {
+  // CONSTANTS
+
+  /** the number of samples read at once from the captured data. */
+  private static final int WINDOW_SIZE = 8192;
+
   // VARIABLES
 
   private final char colSeparator;
@@ -71,15 +76,25 @@ public class CsvExporter implements Exporter
 
       final AcquisitionResult capturedData = aDataSet.getCapturedData();
       final int sampleRate = capturedData.getSampleRate();
-      final int[] values = capturedData.getValues();
-      final long[] timestamps = capturedData.getTimestamps();
+      final long sampleCount = capturedData.getSampleCount();
       final long triggerPos = capturedData.getTriggerPosition();
 
+      // Read the data in windows, to avoid copying it all onto the heap...
+      final int[] values = new int[( int )Math.min( WINDOW_SIZE, sampleCount )];
+      final long[] timestamps = new long[values.length];
+
       // Write data...
-      for ( int i = 0; i < values.length; i++ )
+      for ( long windowStart = 0L; windowStart < sampleCount; windowStart += values.length )
       {
-        // Write data row...
-        writeDataRow( stream, timestamps[i], triggerPos, sampleRate, values[i], channels );
+        final int length = ( int )Math.min( values.length, sampleCount - windowStart );
+        capturedData.readValues( windowStart, values, 0, length );
+        capturedData.readTimestamps( windowStart, timestamps, 0, length );
+
+        for ( int i = 0; i < length; i++ )
+        {
+          // Write data row...
+          writeDataRow( stream, timestamps[i], triggerPos, sampleRate, values[i], channels );
+        }
       }
     }
     finally
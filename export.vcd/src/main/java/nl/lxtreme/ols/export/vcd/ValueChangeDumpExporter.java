@@ -44,6 +44,9 @@ public class ValueChangeDumpExporter implements Exporter
   private static final String ID = "OLS Java Client";
   private static final String VERSION = "VCD exporter v1.1";
 
+  /** the number of samples read at once from the captured data. */
+  private static final int WINDOW_SIZE = 8192;
+
   // METHODS
 
   /**
@@ -95,26 +98,37 @@ public class ValueChangeDumpExporter implements Exporter
    */
   protected void writeDataDump( final PrintWriter aWriter, final AcquisitionResult aCapturedData, final double aTimebase )
   {
-    final int[] values = aCapturedData.getValues();
-    final long[] timestamps = aCapturedData.getTimestamps();
+    final long sampleCount = aCapturedData.getSampleCount();
     final int channelCount = aCapturedData.getChannels();
     final int channelMask = aCapturedData.getEnabledChannels();
 
+    // Read the data in windows, to avoid copying it all onto the heap...
+    final int[] values = new int[( int )Math.min( WINDOW_SIZE, sampleCount )];
+    final long[] timestamps = new long[values.length];
+
     int oldValue = -1;
-    for ( int i = 0, size = values.length; i < size; i++ )
+    for ( long windowStart = 0L; windowStart < sampleCount; windowStart += values.length )
     {
-      final int value = values[i];
-      final long timestamp = timestamps[i];
+      final int length = ( int )Math.min( values.length, sampleCount - windowStart );
+      aCapturedData.readValues( windowStart, values, 0, length );
+      aCapturedData.readTimestamps( windowStart, timestamps, 0, length );
 
-      final int time = ( int )( timestamp / ( aCapturedData.getSampleRate() * aTimebase ) );
-
-      if ( ( i == 0 ) || ( oldValue != value ) )
+      for ( int i = 0; i < length; i++ )
       {
-        writeTime( aWriter, time );
-        writeVariableData( aWriter, channelCount, channelMask, value, oldValue, ( i == 0 ) );
-      }
+        final boolean first = ( windowStart == 0L ) && ( i == 0 );
+        final int value = values[i];
+        final long timestamp = timestamps[i];
 
-      oldValue = value;
+        final int time = ( int )( timestamp / ( aCapturedData.getSampleRate() * aTimebase ) );
+
+        if ( first || ( oldValue != value ) )
+        {
+          writeTime( aWriter, time );
+          writeVariableData( aWriter, channelCount, channelMask, value, oldValue, first );
+        }
+
+        oldValue = value;
+      }
     }
 
     final int time = ( int )( aCapturedData.getAbsoluteLength() / ( aCapturedData.getSampleRate() * aTimebase ) );
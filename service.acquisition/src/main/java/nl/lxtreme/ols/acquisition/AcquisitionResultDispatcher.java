@@ -0,0 +1,187 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.acquisition;
+
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+import java.util.logging.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.task.*;
+
+
+/**
+ * Passes continuously acquired results on to a listener in the background, in
+ * the order they are acquired.
+ * <p>
+ * In case the listener cannot keep up, the oldest pending result is dropped.
+ * All other pending results are passed on before this dispatcher ends, hence
+ * the listener is never interrupted while handling a result.
+ * </p>
+ */
+final class AcquisitionResultDispatcher implements Task<Void>
+{
+  // CONSTANTS
+
+  private static final Logger LOG = Logger.getLogger( AcquisitionResultDispatcher.class.getName() );
+
+  /** marks the end of the results, as <code>null</code> cannot be queued. */
+  private static final Object END = new Object();
+
+  // VARIABLES
+
+  private final int capacity;
+  private final AcquisitionDataListener listener;
+  private final BlockingQueue<Object> results;
+  /** whether or not the results are passed on by a thread already. */
+  private final AtomicBoolean claimed;
+  private final CountDownLatch ended;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link AcquisitionResultDispatcher} instance.
+   * 
+   * @param aCapacity
+   *          the maximum number of pending results, &gt; 0;
+   * @param aListener
+   *          the listener to pass the results on to, cannot be
+   *          <code>null</code>.
+   */
+  public AcquisitionResultDispatcher( final int aCapacity, final AcquisitionDataListener aListener )
+  {
+    if ( aCapacity <= 0 )
+    {
+      throw new IllegalArgumentException( "Capacity should be positive!" );
+    }
+    if ( aListener == null )
+    {
+      throw new IllegalArgumentException( "Listener cannot be null!" );
+    }
+
+    this.capacity = aCapacity;
+    this.listener = aListener;
+    this.results = new LinkedBlockingQueue<Object>();
+    this.claimed = new AtomicBoolean( false );
+    this.ended = new CountDownLatch( 1 );
+  }
+
+  // METHODS
+
+  /**
+   * Adds a result to pass on, dropping the oldest pending result in case there
+   * are too many pending results.
+   * <p>
+   * This method should only be called by a single thread.
+   * </p>
+   * 
+   * @param aResult
+   *          the result to add, cannot be <code>null</code>.
+   * @return <code>true</code> if a pending result was dropped,
+   *         <code>false</code> otherwise.
+   */
+  public boolean add( final AcquisitionResult aResult )
+  {
+    boolean dropped = false;
+    while ( ( this.results.size() >= this.capacity ) && ( this.results.poll() != null ) )
+    {
+      LOG.log( Level.FINE, "Dropping acquisition result; listeners cannot keep up!" );
+      dropped = true;
+    }
+
+    this.results.add( aResult );
+    return dropped;
+  }
+
+  /**
+   * Passes on all added results until this dispatcher is stopped.
+   * 
+   * @see #stop()
+   */
+  @Override
+  public Void call() throws Exception
+  {
+    if ( !this.claimed.compareAndSet( false, true ) )
+    {
+      // Already stopped before we got the chance to start...
+      return null;
+    }
+
+    try
+    {
+      Object result;
+      while ( ( result = this.results.take() ) != END )
+      {
+        this.listener.acquisitionComplete( ( AcquisitionResult )result );
+      }
+      return null;
+    }
+    finally
+    {
+      this.ended.countDown();
+    }
+  }
+
+  /**
+   * Stops this dispatcher after all pending results are passed on, and waits
+   * until this is done.
+   * <p>
+   * This method should be called by the same thread that adds the results.
+   * In case this dispatcher is not started yet, the pending results are passed
+   * on by the current thread. The wait is not interrupted; instead, the
+   * interrupted state of the current thread is restored afterwards.
+   * </p>
+   */
+  public void stop()
+  {
+    this.results.add( END );
+
+    if ( this.claimed.compareAndSet( false, true ) )
+    {
+      Object result;
+      while ( ( result = this.results.poll() ) != END )
+      {
+        this.listener.acquisitionComplete( ( AcquisitionResult )result );
+      }
+      return;
+    }
+
+    boolean interrupted = false;
+    while ( true )
+    {
+      try
+      {
+        this.ended.await();
+        break;
+      }
+      catch ( InterruptedException exception )
+      {
+        interrupted = true;
+      }
+    }
+
+    if ( interrupted )
+    {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -43,6 +43,9 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
 
   private static final Logger LOG = Logger.getLogger( BackgroundDataAcquisitionService.class.getName() );
 
+  /** the maximum number of continuously acquired results waiting to be passed on. */
+  private static final int RESULT_QUEUE_SIZE = 2;
+
   // VARIABLES
 
   private final List<AcquisitionProgressListener> acquisitionProgressListeners;
@@ -52,6 +55,8 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
   private volatile TaskExecutionService taskExecutionService;
   private volatile Future<?> acquisitionFutureTask;
   private volatile Task<AcquisitionResult> acquisitionTask;
+  /** whether or not data is to be acquired continuously. */
+  private volatile boolean continuous;
 
   // CONSTRUCTORS
 
@@ -65,6 +70,18 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
     this.acquisitionDataListeners = new CopyOnWriteArrayList<AcquisitionDataListener>();
   }
 
+  /**
+   * Creates a new {@link BackgroundDataAcquisitionService} instance.
+   * 
+   * @param aTaskExecutionService
+   *          the task execution service to use, cannot be <code>null</code>.
+   */
+  BackgroundDataAcquisitionService( final TaskExecutionService aTaskExecutionService )
+  {
+    this();
+    this.taskExecutionService = aTaskExecutionService;
+  }
+
   // METHODS
 
   /**
@@ -73,28 +90,91 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
   @Override
   public void acquireData( final Device aDevice ) throws IOException
   {
-    final AcquisitionTask innerTask = aDevice.createAcquisitionTask( new AcquisitionProgressListener()
+    final AcquisitionTask innerTask = createAcquisitionTask( aDevice );
+
+    this.continuous = false;
+
+    // Wrap the actual acquisition task in order to get a kind of "auto"
+    // closable behavior...
+    this.acquisitionTask = new Task<AcquisitionResult>()
     {
       @Override
-      public void acquisitionInProgress( final int aPercentage )
+      public AcquisitionResult call() throws Exception
       {
-        fireAcquisitionInProgressEvent( aPercentage );
+        try
+        {
+          return innerTask.call();
+        }
+        finally
+        {
+          aDevice.close();
+        }
       }
-    } );
+    };
+
+    this.acquisitionFutureTask = this.taskExecutionService.execute( this.acquisitionTask );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void acquireDataContinuously( final Device aDevice ) throws IOException
+  {
+    final AcquisitionTask innerTask = createAcquisitionTask( aDevice );
+
+    this.continuous = true;
 
-    // Wrap the actual acquisition task in order to get a kind of "auto"
-    // closable behavior...
     this.acquisitionTask = new Task<AcquisitionResult>()
     {
       @Override
       public AcquisitionResult call() throws Exception
       {
+        // Pass on the acquired data in the background, allowing the next
+        // acquisition to start right away...
+        final AcquisitionResultDispatcher dispatcher = new AcquisitionResultDispatcher( RESULT_QUEUE_SIZE,
+            new AcquisitionDataListener()
+            {
+              @Override
+              public void acquisitionComplete( final AcquisitionResult aData )
+              {
+                fireAcquisitionCompleteEvent( aData );
+              }
+            } );
+        BackgroundDataAcquisitionService.this.taskExecutionService.execute( dispatcher );
+
         try
         {
-          return innerTask.call();
+          while ( true )
+          {
+            final AcquisitionResult result;
+            if ( innerTask instanceof ContinuousAcquisitionTask )
+            {
+              result = ( ( ContinuousAcquisitionTask )innerTask ).acquireNext();
+            }
+            else
+            {
+              result = innerTask.call();
+            }
+
+            if ( !BackgroundDataAcquisitionService.this.continuous || Thread.currentThread().isInterrupted() )
+            {
+              // Cancelled; the last result is passed on when this task ends,
+              // after all pending results...
+              return result;
+            }
+
+            dispatcher.add( result );
+          }
         }
         finally
         {
+          dispatcher.stop();
+
+          if ( innerTask instanceof ContinuousAcquisitionTask )
+          {
+            ( ( ContinuousAcquisitionTask )innerTask ).close();
+          }
           aDevice.close();
         }
       }
@@ -156,6 +236,10 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
       throw new IllegalStateException( "No acquisition in progress!" );
     }
 
+    // Stop acquiring continuously, even if the device only stops the current
+    // acquisition...
+    this.continuous = false;
+
     final CancelTask cancelTask = aDevice.createCancelTask();
     if ( cancelTask != null )
     {
@@ -229,6 +313,8 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
    */
   public void stop()
   {
+    this.continuous = false;
+
     if ( ( this.acquisitionFutureTask != null ) && !this.acquisitionFutureTask.isDone() )
     {
       this.acquisitionFutureTask.cancel( true /* mayInterruptIfRunning */);
@@ -287,6 +373,22 @@ public class BackgroundDataAcquisitionService implements DataAcquisitionService,
     }
   }
 
+  /**
+   * Creates the acquisition task for the given device, reporting its progress
+   * to all progress listeners.
+   */
+  private AcquisitionTask createAcquisitionTask( final Device aDevice ) throws IOException
+  {
+    return aDevice.createAcquisitionTask( new AcquisitionProgressListener()
+    {
+      @Override
+      public void acquisitionInProgress( final int aPercentage )
+      {
+        fireAcquisitionInProgressEvent( aPercentage );
+      }
+    } );
+  }
+
   /**
    * @param result
    */
@@ -0,0 +1,188 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.acquisition;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link AcquisitionResultDispatcher}.
+ */
+public class AcquisitionResultDispatcherTest
+{
+  // INNER TYPES
+
+  /**
+   * Collects all passed on results.
+   */
+  static final class CollectingListener implements AcquisitionDataListener
+  {
+    // VARIABLES
+
+    final List<AcquisitionResult> results = new CopyOnWriteArrayList<AcquisitionResult>();
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void acquisitionComplete( final AcquisitionResult aData )
+    {
+      this.results.add( aData );
+    }
+  }
+
+  // VARIABLES
+
+  private CollectingListener listener;
+  private ExecutorService executor;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.listener = new CollectingListener();
+    this.executor = Executors.newSingleThreadExecutor();
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.executor.shutdownNow();
+  }
+
+  /**
+   * Tests that the oldest pending result is dropped in case there are too many
+   * pending results.
+   */
+  @Test
+  public void testAddDropsOldestResultOk()
+  {
+    final AcquisitionResultDispatcher dispatcher = new AcquisitionResultDispatcher( 2, this.listener );
+    final List<AcquisitionResult> results = createResults( 4 );
+
+    assertFalse( dispatcher.add( results.get( 0 ) ) );
+    assertFalse( dispatcher.add( results.get( 1 ) ) );
+    assertTrue( dispatcher.add( results.get( 2 ) ) );
+    assertTrue( dispatcher.add( results.get( 3 ) ) );
+
+    // Not started, hence the pending results are passed on by this thread...
+    dispatcher.stop();
+
+    assertEquals( results.subList( 2, 4 ), this.listener.results );
+  }
+
+  /**
+   * Tests that all results are passed on in the order they are added, before
+   * {@link AcquisitionResultDispatcher#stop()} returns.
+   */
+  @Test( timeout = 10000 )
+  public void testResultsPassedOnInOrderOk() throws Exception
+  {
+    final AcquisitionResultDispatcher dispatcher = new AcquisitionResultDispatcher( 1000, this.listener );
+    final List<AcquisitionResult> results = createResults( 100 );
+
+    final Future<Void> future = this.executor.submit( dispatcher );
+    for ( AcquisitionResult result : results )
+    {
+      dispatcher.add( result );
+    }
+    dispatcher.stop();
+
+    assertEquals( results, this.listener.results );
+    assertNull( future.get() );
+  }
+
+  /**
+   * Tests that stopping does not interrupt the listener, even if the stopping
+   * thread is interrupted itself.
+   */
+  @Test( timeout = 10000 )
+  public void testStopWhenInterruptedOk() throws Exception
+  {
+    final CountDownLatch handling = new CountDownLatch( 1 );
+    final CountDownLatch proceed = new CountDownLatch( 1 );
+    final List<AcquisitionResult> completed = new CopyOnWriteArrayList<AcquisitionResult>();
+
+    final AcquisitionResultDispatcher dispatcher = new AcquisitionResultDispatcher( 10, new AcquisitionDataListener()
+    {
+      @Override
+      public void acquisitionComplete( final AcquisitionResult aData )
+      {
+        handling.countDown();
+        try
+        {
+          proceed.await();
+          completed.add( aData );
+        }
+        catch ( InterruptedException exception )
+        {
+          Thread.currentThread().interrupt();
+        }
+      }
+    } );
+    final List<AcquisitionResult> results = createResults( 3 );
+
+    this.executor.submit( dispatcher );
+    for ( AcquisitionResult result : results )
+    {
+      dispatcher.add( result );
+    }
+    handling.await();
+
+    Thread.currentThread().interrupt();
+    proceed.countDown();
+    dispatcher.stop();
+
+    assertTrue( Thread.interrupted() );
+    assertEquals( results, completed );
+  }
+
+  /**
+   * Creates a number of distinct results.
+   */
+  private static List<AcquisitionResult> createResults( final int aCount )
+  {
+    final List<AcquisitionResult> result = new ArrayList<AcquisitionResult>();
+    for ( int i = 0; i < aCount; i++ )
+    {
+      result.add( mock( AcquisitionResult.class ) );
+    }
+    return result;
+  }
+}
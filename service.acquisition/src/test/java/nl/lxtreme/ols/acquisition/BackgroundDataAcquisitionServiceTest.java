@@ -0,0 +1,187 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.acquisition;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import nl.lxtreme.ols.acquisition.AcquisitionResultDispatcherTest.CollectingListener;
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.devices.*;
+import nl.lxtreme.ols.api.task.*;
+
+import org.junit.*;
+import org.mockito.invocation.*;
+import org.mockito.stubbing.*;
+
+
+/**
+ * Test cases for {@link BackgroundDataAcquisitionService}.
+ */
+public class BackgroundDataAcquisitionServiceTest
+{
+  // INNER TYPES
+
+  /**
+   * Executes tasks in the background, reporting their status to the service.
+   */
+  static final class TestTaskExecutionService implements TaskExecutionService
+  {
+    // VARIABLES
+
+    final ExecutorService executor = Executors.newCachedThreadPool();
+    volatile TaskStatusListener listener;
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public <RESULT_TYPE> Future<RESULT_TYPE> execute( final Task<RESULT_TYPE> aTask )
+    {
+      return this.executor.submit( new Callable<RESULT_TYPE>()
+      {
+        @Override
+        public RESULT_TYPE call() throws Exception
+        {
+          TestTaskExecutionService.this.listener.taskStarted( aTask );
+          try
+          {
+            final RESULT_TYPE result = aTask.call();
+            TestTaskExecutionService.this.listener.taskEnded( aTask, result );
+            return result;
+          }
+          catch ( Exception exception )
+          {
+            TestTaskExecutionService.this.listener.taskFailed( aTask, exception );
+            throw exception;
+          }
+        }
+      } );
+    }
+  }
+
+  // VARIABLES
+
+  private TestTaskExecutionService taskExecutionService;
+  private BackgroundDataAcquisitionService service;
+  private CollectingListener dataListener;
+  private AcquisitionStatusListener statusListener;
+  private CountDownLatch ended;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.taskExecutionService = new TestTaskExecutionService();
+    this.service = new BackgroundDataAcquisitionService( this.taskExecutionService );
+    this.taskExecutionService.listener = this.service;
+
+    this.ended = new CountDownLatch( 1 );
+    this.statusListener = mock( AcquisitionStatusListener.class );
+    doAnswer( new Answer<Object>()
+    {
+      @Override
+      public Object answer( final InvocationOnMock aInvocation )
+      {
+        BackgroundDataAcquisitionServiceTest.this.ended.countDown();
+        return null;
+      }
+    } ).when( this.statusListener ).acquisitionEnded( any( AcquisitionResultStatus.class ) );
+
+    this.dataListener = new CollectingListener();
+
+    this.service.addAcquisitionStatusListener( this.statusListener );
+    this.service.addAcquisitionDataListener( this.dataListener );
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown()
+  {
+    this.taskExecutionService.executor.shutdownNow();
+  }
+
+  /**
+   * Tests that cancelling a continuous acquisition passes on the pending
+   * results in order, followed by the final result exactly once.
+   */
+  @Test( timeout = 10000 )
+  public void testCancelContinuousAcquisitionPassesFinalResultOnceOk() throws Exception
+  {
+    final List<AcquisitionResult> acquired = new CopyOnWriteArrayList<AcquisitionResult>();
+
+    final ContinuousAcquisitionTask task = mock( ContinuousAcquisitionTask.class );
+    when( task.acquireNext() ).thenAnswer( new Answer<AcquisitionResult>()
+    {
+      @Override
+      public AcquisitionResult answer( final InvocationOnMock aInvocation ) throws Throwable
+      {
+        final AcquisitionResult result = mock( AcquisitionResult.class );
+        acquired.add( result );
+        return result;
+      }
+    } );
+
+    final Device device = mock( Device.class );
+    when( device.createAcquisitionTask( any( AcquisitionProgressListener.class ) ) ).thenReturn( task );
+
+    this.service.acquireDataContinuously( device );
+
+    while ( this.dataListener.results.size() < 5 )
+    {
+      Thread.sleep( 1L );
+    }
+    this.service.cancelAcquisition( device );
+
+    this.ended.await();
+
+    final List<AcquisitionResult> received = new ArrayList<AcquisitionResult>( this.dataListener.results );
+    final Set<AcquisitionResult> distinct = new HashSet<AcquisitionResult>( received );
+    assertEquals( "Results passed on more than once?!", distinct.size(), received.size() );
+    // The final result is the last one acquired, and is passed on last...
+    assertSame( acquired.get( acquired.size() - 1 ), received.get( received.size() - 1 ) );
+
+    // All results are passed on in the order they are acquired...
+    int lastIdx = -1;
+    for ( AcquisitionResult result : received )
+    {
+      final int idx = acquired.indexOf( result );
+      assertTrue( idx > lastIdx );
+      lastIdx = idx;
+    }
+
+    verify( this.statusListener ).acquisitionEnded( any( AcquisitionResultStatus.class ) );
+    verify( task ).close();
+    verify( device ).close();
+  }
+}
@@ -23,6 +23,7 @@ package nl.lxtreme.ols.io.socket;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 
 import javax.microedition.io.*;
 
@@ -90,7 +91,16 @@ public class SocketConnectionFactory implements ConnectionFactory
       this.logService.log( LogService.LOG_DEBUG,
           "Opening socket to " + aOptions.getAddress() + ":" + aOptions.getPort() );
 
-      Socket socket = new Socket( aOptions.getAddress(), aOptions.getPort() );
+      // Open the socket through a channel, allowing its data to be read
+      // directly into buffers...
+      InetSocketAddress address = new InetSocketAddress( aOptions.getAddress(), aOptions.getPort() );
+      if ( address.isUnresolved() )
+      {
+        throw new UnknownHostException( aOptions.getAddress() );
+      }
+
+      Socket socket = SocketChannel.open().socket();
+      socket.connect( address );
       socket.setSoTimeout( aOptions.getTimeout() );
 
       return new SocketConnectionImpl( socket );
@@ -23,6 +23,8 @@ package nl.lxtreme.ols.io.socket;
 
 import java.io.*;
 import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
 
 import javax.microedition.io.*;
 
@@ -30,17 +32,30 @@ import javax.microedition.io.*;
 /**
  * Provides a {@link SocketConnection} implementation for non-remote socket
  * connections.
+ * <p>
+ * This connection is a {@link ReadableByteChannel} as well, allowing users to
+ * read large amounts of data directly into a (direct) buffer. If the socket is
+ * opened through a {@link SocketChannel} and has no timeout, its data is read
+ * directly from this channel; otherwise, it is read from the input stream of
+ * the socket, which honors the timeout of the socket.
+ * </p>
  */
-final class SocketConnectionImpl implements SocketConnection
+final class SocketConnectionImpl implements SocketConnection, ReadableByteChannel
 {
   // CONSTANTS
 
   private static final int YES = 1;
   private static final int NO = 0;
 
+  /** the maximum number of bytes read at once into a direct buffer. */
+  private static final int SCRATCH_SIZE = 64 * 1024;
+
   // VARIABLES
 
   private final Socket socket;
+  private final Object readLock = new Object();
+  /** used to read into direct buffers, created on demand. */
+  private byte[] scratch;
 
   // CONSTRUCTORS
 
@@ -131,6 +146,15 @@ final class SocketConnectionImpl implements SocketConnection
     }
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean isOpen()
+  {
+    return !this.socket.isClosed();
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -167,6 +191,57 @@ final class SocketConnectionImpl implements SocketConnection
     return this.socket.getOutputStream();
   }
 
+  /**
+   * Reads data from this socket into the given buffer.
+   * <p>
+   * As reading from the channel of a socket blocks until data is available,
+   * regardless of the timeout of the socket, the channel is only used if no
+   * timeout is set. Otherwise, a {@link SocketTimeoutException} is thrown in
+   * case no data is received within the timeout. Direct buffers are filled
+   * through a scratch buffer, which limits the number of bytes read at once.
+   * </p>
+   * 
+   * @see java.nio.channels.ReadableByteChannel#read(java.nio.ByteBuffer)
+   */
+  @Override
+  public int read( final ByteBuffer aBuffer ) throws IOException
+  {
+    final SocketChannel channel = this.socket.getChannel();
+    if ( ( channel != null ) && ( this.socket.getSoTimeout() == 0 ) )
+    {
+      return channel.read( aBuffer );
+    }
+
+    if ( aBuffer.hasArray() )
+    {
+      final int read = this.socket.getInputStream().read( aBuffer.array(),
+          aBuffer.arrayOffset() + aBuffer.position(), aBuffer.remaining() );
+      if ( read > 0 )
+      {
+        aBuffer.position( aBuffer.position() + read );
+      }
+      return read;
+    }
+
+    // Only one read may be in progress at any time, as all share the same
+    // scratch buffer...
+    synchronized ( this.readLock )
+    {
+      if ( this.scratch == null )
+      {
+        this.scratch = new byte[SCRATCH_SIZE];
+      }
+
+      final int read = this.socket.getInputStream().read( this.scratch, 0,
+          Math.min( this.scratch.length, aBuffer.remaining() ) );
+      if ( read > 0 )
+      {
+        aBuffer.put( this.scratch, 0, read );
+      }
+      return read;
+    }
+  }
+
   /**
    * {@inheritDoc}
    */
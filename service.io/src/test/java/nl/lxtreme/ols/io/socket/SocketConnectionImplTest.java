@@ -0,0 +1,180 @@
+/*
+ * OpenBench LogicSniffer / SUMP project 
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.io.socket;
+
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+import java.net.*;
+import java.nio.*;
+import java.nio.channels.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link SocketConnectionImpl}.
+ */
+public class SocketConnectionImplTest
+{
+  // VARIABLES
+
+  private ServerSocket serverSocket;
+  private Socket socket;
+  private Socket peer;
+  private SocketConnectionImpl connection;
+
+  // METHODS
+
+  /**
+   * Sets up the test case.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    this.serverSocket = new ServerSocket( 0, 1, InetAddress.getByName( "127.0.0.1" ) );
+
+    this.socket = SocketChannel.open().socket();
+    this.socket.connect( this.serverSocket.getLocalSocketAddress() );
+
+    this.peer = this.serverSocket.accept();
+    this.connection = new SocketConnectionImpl( this.socket );
+  }
+
+  /**
+   * Tears down the test case.
+   */
+  @After
+  public void tearDown() throws Exception
+  {
+    this.connection.close();
+    this.peer.close();
+    this.serverSocket.close();
+  }
+
+  /**
+   * Tests that data is read into a direct buffer if the socket has no timeout.
+   */
+  @Test( timeout = 10000 )
+  public void testReadWithoutTimeoutOk() throws Exception
+  {
+    this.peer.getOutputStream().write( new byte[] { 1, 2, 3 } );
+    this.peer.getOutputStream().flush();
+
+    assertReadBytes( ByteBuffer.allocateDirect( 16 ), 1, 2, 3 );
+  }
+
+  /**
+   * Tests that data is read into both direct and heap buffers if the socket
+   * has a timeout.
+   */
+  @Test( timeout = 10000 )
+  public void testReadWithTimeoutOk() throws Exception
+  {
+    this.socket.setSoTimeout( 5000 );
+
+    this.peer.getOutputStream().write( new byte[] { 4, 5 } );
+    this.peer.getOutputStream().flush();
+
+    assertReadBytes( ByteBuffer.allocateDirect( 16 ), 4, 5 );
+
+    this.peer.getOutputStream().write( new byte[] { 6 } );
+    assertReadBytes( ByteBuffer.allocate( 16 ), 6 );
+  }
+
+  /**
+   * Tests that a direct buffer larger than the scratch buffer is filled in
+   * multiple reads if the socket has a timeout.
+   */
+  @Test( timeout = 10000 )
+  public void testReadLargeDirectBufferWithTimeoutOk() throws Exception
+  {
+    this.socket.setSoTimeout( 5000 );
+
+    final byte[] data = new byte[200 * 1024];
+    for ( int i = 0; i < data.length; i++ )
+    {
+      data[i] = ( byte )( i * 31 );
+    }
+
+    final Thread writer = new Thread()
+    {
+      @Override
+      public void run()
+      {
+        try
+        {
+          SocketConnectionImplTest.this.peer.getOutputStream().write( data );
+          SocketConnectionImplTest.this.peer.getOutputStream().flush();
+        }
+        catch ( IOException exception )
+        {
+          // Ignore; the reader times out...
+        }
+      }
+    };
+    writer.start();
+
+    final ByteBuffer buffer = ByteBuffer.allocateDirect( data.length );
+    while ( buffer.hasRemaining() )
+    {
+      assertTrue( this.connection.read( buffer ) > 0 );
+    }
+    writer.join();
+
+    buffer.flip();
+    for ( byte expected : data )
+    {
+      assertEquals( expected, buffer.get() );
+    }
+  }
+
+  /**
+   * Tests that reading from a socket with a timeout fails in case no data is
+   * received within this timeout.
+   */
+  @Test( timeout = 10000, expected = SocketTimeoutException.class )
+  public void testReadTimesOutFail() throws Exception
+  {
+    this.socket.setSoTimeout( 100 );
+
+    this.connection.read( ByteBuffer.allocateDirect( 16 ) );
+  }
+
+  /**
+   * Reads from the connection until the given bytes are read.
+   */
+  private void assertReadBytes( final ByteBuffer aBuffer, final int... aExpected ) throws IOException
+  {
+    while ( aBuffer.position() < aExpected.length )
+    {
+      assertTrue( this.connection.read( aBuffer ) > 0 );
+    }
+
+    aBuffer.flip();
+    assertEquals( aExpected.length, aBuffer.remaining() );
+    for ( int expected : aExpected )
+    {
+      assertEquals( expected, aBuffer.get() );
+    }
+  }
+}
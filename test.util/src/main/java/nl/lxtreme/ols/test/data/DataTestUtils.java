@@ -360,6 +360,12 @@ public final class DataTestUtils
   {
     return new AcquisitionResult()
     {
+      @Override
+      public long findSampleIndex( final long aTimeValue )
+      {
+        return getSampleIndex( aTimeValue );
+      }
+
       @Override
       public long getAbsoluteLength()
       {
@@ -372,12 +378,24 @@ public final class DataTestUtils
         return 8;
       }
 
+      @Override
+      public EdgeIndex getEdgeIndex()
+      {
+        return new EdgeIndex( this );
+      }
+
       @Override
       public int getEnabledChannels()
       {
         return 0xFF;
       }
 
+      @Override
+      public long getSampleCount()
+      {
+        return getValues().length;
+      }
+
       @Override
       public int getSampleIndex( final long aTimeValue )
       {
@@ -390,6 +408,12 @@ public final class DataTestUtils
         return 100;
       }
 
+      @Override
+      public long getTimestamp( final long aIndex )
+      {
+        return getTimestamps()[( int )aIndex];
+      }
+
       @Override
       public long[] getTimestamps()
       {
@@ -402,6 +426,12 @@ public final class DataTestUtils
         return -1L;
       }
 
+      @Override
+      public int getValue( final long aIndex )
+      {
+        return getValues()[( int )aIndex];
+      }
+
       @Override
       public int[] getValues()
       {
@@ -419,6 +449,18 @@ public final class DataTestUtils
       {
         return false;
       }
+
+      @Override
+      public void readTimestamps( final long aIndex, final long[] aTimestamps, final int aOffset, final int aLength )
+      {
+        System.arraycopy( getTimestamps(), ( int )aIndex, aTimestamps, aOffset, aLength );
+      }
+
+      @Override
+      public void readValues( final long aIndex, final int[] aValues, final int aOffset, final int aLength )
+      {
+        System.arraycopy( getValues(), ( int )aIndex, aValues, aOffset, aLength );
+      }
     };
   }
 }
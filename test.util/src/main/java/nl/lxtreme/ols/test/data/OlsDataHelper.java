@@ -25,10 +25,10 @@ import static nl.lxtreme.ols.util.NumberUtils.*;
 
 import java.io.*;
 import java.util.*;
-import java.util.regex.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.data.internal.*;
 import nl.lxtreme.ols.test.data.project.*;
 import nl.lxtreme.ols.util.*;
 
@@ -40,10 +40,8 @@ public final class OlsDataHelper
 {
   // CONSTANTS
 
-  /** The regular expression used to parse an (OLS-datafile) instruction. */
-  private static final Pattern OLS_INSTRUCTION_PATTERN = Pattern.compile( "^;([^:]+):\\s+([^\r\n]+)$" );
-  /** The regular expression used to parse an (OLS-datafile) data value. */
-  private static final Pattern OLS_DATA_PATTERN = Pattern.compile( "^([0-9a-fA-F]+)@(\\d+)$" );
+  /** The number of samples that are read at once while writing. */
+  private static final int WRITE_BLOCK_SIZE = 8192;
 
   // METHODS
 
@@ -68,91 +66,77 @@ public final class OlsDataHelper
     // assume 'new' file format is in use, don't support uncompressed ones...
     boolean compressed = true;
 
-    final BufferedReader br = new BufferedReader( aReader );
+    final OlsDataTokenizer tokenizer = new OlsDataTokenizer( aReader );
 
-    final List<String[]> dataValues = new ArrayList<String[]>();
-
-    String line;
-    while ( ( line = br.readLine() ) != null )
+    while ( tokenizer.nextInstruction() )
     {
-      // Determine whether the line is an instruction, or data...
-      final Matcher instructionMatcher = OLS_INSTRUCTION_PATTERN.matcher( line );
-      final Matcher dataMatcher = OLS_DATA_PATTERN.matcher( line );
+      // Ok; found an instruction...
+      final String instrKey = tokenizer.getInstructionKey();
+      final String instrValue = tokenizer.getInstructionValue();
 
-      if ( dataMatcher.matches() )
+      if ( "Size".equals( instrKey ) )
       {
-        final String[] dataPair = new String[] { dataMatcher.group( 1 ), dataMatcher.group( 2 ) };
-        dataValues.add( dataPair );
+        size = safeParseInt( instrValue );
       }
-      else if ( instructionMatcher.matches() )
+      else if ( "Rate".equals( instrKey ) )
       {
-        // Ok; found an instruction...
-        final String instrKey = instructionMatcher.group( 1 );
-        final String instrValue = instructionMatcher.group( 2 );
-
-        if ( "Size".equals( instrKey ) )
-        {
-          size = safeParseInt( instrValue );
-        }
-        else if ( "Rate".equals( instrKey ) )
-        {
-          rate = safeParseInt( instrValue );
-        }
-        else if ( "Channels".equals( instrKey ) )
-        {
-          channels = safeParseInt( instrValue );
-        }
-        else if ( "TriggerPosition".equals( instrKey ) )
-        {
-          triggerPos = Long.parseLong( instrValue );
-        }
-        else if ( "EnabledChannels".equals( instrKey ) )
-        {
-          enabledChannels = safeParseInt( instrValue );
-        }
-        else if ( "CursorEnabled".equals( instrKey ) )
-        {
-          aDataSet.setCursorsEnabled( Boolean.parseBoolean( instrValue ) );
-        }
-        else if ( "Compressed".equals( instrKey ) )
-        {
-          compressed = Boolean.parseBoolean( instrValue );
-        }
-        else if ( "AbsoluteLength".equals( instrKey ) )
-        {
-          absLen = Long.parseLong( instrValue );
-        }
-        else if ( "CursorA".equals( instrKey ) )
+        rate = safeParseInt( instrValue );
+      }
+      else if ( "Channels".equals( instrKey ) )
+      {
+        channels = safeParseInt( instrValue );
+      }
+      else if ( "TriggerPosition".equals( instrKey ) )
+      {
+        triggerPos = Long.parseLong( instrValue );
+      }
+      else if ( "EnabledChannels".equals( instrKey ) )
+      {
+        enabledChannels = safeParseInt( instrValue );
+      }
+      else if ( "CursorEnabled".equals( instrKey ) )
+      {
+        aDataSet.setCursorsEnabled( Boolean.parseBoolean( instrValue ) );
+      }
+      else if ( "Compressed".equals( instrKey ) )
+      {
+        compressed = Boolean.parseBoolean( instrValue );
+      }
+      else if ( "AbsoluteLength".equals( instrKey ) )
+      {
+        absLen = Long.parseLong( instrValue );
+      }
+      else if ( "CursorA".equals( instrKey ) )
+      {
+        final long value = safeParseLong( instrValue );
+        if ( value > Long.MIN_VALUE )
         {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            aDataSet.getCursor( 0 ).setTimestamp( value );
-          }
+          aDataSet.getCursor( 0 ).setTimestamp( value );
         }
-        else if ( "CursorB".equals( instrKey ) )
+      }
+      else if ( "CursorB".equals( instrKey ) )
+      {
+        final long value = safeParseLong( instrValue );
+        if ( value > Long.MIN_VALUE )
         {
-          final long value = safeParseLong( instrValue );
-          if ( value > Long.MIN_VALUE )
-          {
-            aDataSet.getCursor( 1 ).setTimestamp( value );
-          }
+          aDataSet.getCursor( 1 ).setTimestamp( value );
         }
-        else if ( instrKey.startsWith( "Cursor" ) )
+      }
+      else if ( instrKey.startsWith( "Cursor" ) )
+      {
+        final int idx = safeParseInt( instrKey.substring( 6 ) );
+        final long pos = Long.parseLong( instrValue );
+        if ( pos > Long.MIN_VALUE )
         {
-          final int idx = safeParseInt( instrKey.substring( 6 ) );
-          final long pos = Long.parseLong( instrValue );
-          if ( pos > Long.MIN_VALUE )
-          {
-            aDataSet.getCursor( idx ).setTimestamp( pos );
-          }
+          aDataSet.getCursor( idx ).setTimestamp( pos );
         }
       }
     }
 
     // Perform some sanity checks, make it not possible to import invalid
     // data...
-    if ( dataValues.isEmpty() )
+    final int sampleCount = tokenizer.getSampleCount();
+    if ( sampleCount == 0 )
     {
       throw new IOException( "Data file does not contain any sample data!" );
     }
@@ -164,9 +148,9 @@ public final class OlsDataHelper
     // take the length of the data values as size indicator...
     if ( size < 0 )
     {
-      size = dataValues.size();
+      size = sampleCount;
     }
-    if ( size != dataValues.size() )
+    if ( size != sampleCount )
     {
       throw new IOException( "Data file is corrupt?! Data size does not match sample count!" );
     }
@@ -184,23 +168,8 @@ public final class OlsDataHelper
       enabledChannels = NumberUtils.getBitMask( channels );
     }
 
-    int[] values = new int[size];
-    long[] timestamps = new long[size];
-
-    try
-    {
-      for ( int i = 0; i < size; i++ )
-      {
-        final String[] dataPair = dataValues.get( i );
-
-        values[i] = ( int )Long.parseLong( dataPair[0], 16 );
-        timestamps[i] = Long.parseLong( dataPair[1], 10 ) & Long.MAX_VALUE;
-      }
-    }
-    catch ( final NumberFormatException exception )
-    {
-      throw new IOException( "Invalid data encountered.", exception );
-    }
+    final int[] values = tokenizer.getValues();
+    final long[] timestamps = tokenizer.getTimestamps();
 
     // Allow the absolute length to be undefined, in which case the last
     // time stamp is used (+ some margin to be able to see the last
@@ -234,11 +203,10 @@ public final class OlsDataHelper
 
     try
     {
-      final int[] values = capturedData.getValues();
-      final long[] timestamps = capturedData.getTimestamps();
+      final long size = capturedData.getSampleCount();
 
       bw.write( ";Size: " );
-      bw.write( Integer.toString( values.length ) );
+      bw.write( Long.toString( size ) );
       bw.newLine();
 
       bw.write( ";Rate: " );
@@ -281,10 +249,23 @@ public final class OlsDataHelper
           bw.newLine();
         }
       }
-      for ( int i = 0; i < values.length; i++ )
+
+      // Read the samples in blocks, so they do not need to fit in memory...
+      final int bufferSize = ( int )Math.max( 1L, Math.min( WRITE_BLOCK_SIZE, size ) );
+      final int[] values = new int[bufferSize];
+      final long[] timestamps = new long[bufferSize];
+
+      for ( long index = 0L; index < size; index += bufferSize )
       {
-        bw.write( formatSample( values[i], timestamps[i] ) );
-        bw.newLine();
+        final int blockSize = ( int )Math.min( bufferSize, size - index );
+        capturedData.readValues( index, values, 0, blockSize );
+        capturedData.readTimestamps( index, timestamps, 0, blockSize );
+
+        for ( int i = 0; i < blockSize; i++ )
+        {
+          bw.write( formatSample( values[i], timestamps[i] ) );
+          bw.newLine();
+        }
       }
     }
     finally
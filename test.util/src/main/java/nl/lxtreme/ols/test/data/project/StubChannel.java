@@ -40,6 +40,8 @@ public class StubChannel implements Channel
   private String label;
   private boolean enabled;
 
+  private final AnnotationIndex annotationIndex;
+
   // CONSTRUCTORS
 
   /**
@@ -53,6 +55,7 @@ public class StubChannel implements Channel
     this.mask = ( int )( 1L << aIndex );
 
     this.enabled = true;
+    this.annotationIndex = new AnnotationIndex();
   }
 
   // METHODS
@@ -84,6 +87,15 @@ public class StubChannel implements Channel
     return this.index - aChannel.getIndex();
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AnnotationIndex getAnnotationIndex()
+  {
+    return this.annotationIndex;
+  }
+
   /**
    * {@inheritDoc}
    */
@@ -28,7 +28,6 @@ import java.awt.*;
 import java.io.*;
 import java.text.*;
 import java.util.*;
-import java.util.List;
 
 import javax.swing.*;
 
@@ -52,6 +51,73 @@ import org.osgi.framework.*;
  */
 public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implements ExportAware<OneWireDataSet>
 {
+  // INNER TYPES
+
+  /**
+   * Provides the table model for the decoded 1-Wire data.
+   */
+  static final class OneWireTableModel extends DataSetTableModel<OneWireDataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color RESET_COLOR = new Color( 0xe0e0e0 );
+    private static final Color UNKNOWN_EVENT_COLOR = new Color( 0xff8000 );
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link OneWireTableModel} instance.
+     */
+    public OneWireTableModel()
+    {
+      super( "Index", "Time", "Hex", "Bin", "Dec", "ASCII" );
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final OneWireDataSet aDataSet, final int aDataIdx )
+    {
+      final OneWireData data = aDataSet.getData().get( aDataIdx );
+      if ( !data.isEvent() )
+      {
+        return null;
+      }
+      return OneWireDataSet.OW_RESET.equals( data.getEventName() ) ? RESET_COLOR : UNKNOWN_EVENT_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final OneWireDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final OneWireData data = aDataSet.getData().get( aDataIdx );
+      switch ( aColumnIdx )
+      {
+        case 0:
+          return Integer.valueOf( aDataIdx );
+        case 1:
+          return Unit.Time.format( aDataSet.getTime( data.getStartSampleIndex() ) );
+        case 2:
+          return data.isEvent() ? data.getEventName() : "0x" + StringUtils.integerToHexString( data.getValue(), 2 );
+        case 3:
+          return data.isEvent() ? null : "0b" + StringUtils.integerToBinString( data.getValue(), 8 );
+        case 4:
+          return data.isEvent() ? null : String.valueOf( data.getValue() );
+        case 5:
+          return data.isEvent() ? null : String.valueOf( ( char )data.getValue() );
+        default:
+          return null;
+      }
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -60,7 +126,8 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
 
   private JComboBox owLine;
   private JComboBox owMode;
-  private JEditorPane outText;
+  private OneWireTableModel tableModel;
+  private JLabel statistics;
 
   private RestorableAction runAnalysisAction;
   private Action exportAction;
@@ -127,9 +194,8 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
   @Override
   public void reset()
   {
-    final String emptyHtmlPage = getEmptyHtmlPage();
-    this.outText.setText( emptyHtmlPage );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -154,32 +220,10 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
   @Override
   protected void onToolEnded( final OneWireDataSet aResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aResult );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-      }
-
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.tableModel.setDataSet( aResult );
+    this.statistics.setText( getStatistics( aResult ) );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // This should not happen for the no-file exports!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -273,16 +317,19 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
   }
 
   /**
-   * @return
+   * Creates the preview pane, showing the statistics and decoded data.
+   * 
+   * @return a preview pane, never <code>null</code>.
    */
   private JPanel createPreviewPane()
   {
-    final JPanel output = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel output = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new OneWireTableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    output.add( new JScrollPane( this.outText ) );
+    output.add( this.statistics, BorderLayout.NORTH );
+    output.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return output;
   }
@@ -317,34 +364,21 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
   }
 
   /**
-   * Returns an "empty" HTML page.
+   * Returns the statistics of the given analysis result.
    * 
-   * @return an empty HTML page string, never <code>null</code>.
+   * @param aAnalysisResult
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
    */
-  private String getEmptyHtmlPage()
+  private String getStatistics( final OneWireDataSet aAnalysisResult )
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    if ( aAnalysisResult == null )
     {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
-      {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        else if ( "sda-bus-config".equals( aMacro ) || "scl-bus-config".equals( aMacro ) )
-        {
-          return "&lt;auto detect&gt;";
-        }
-        else if ( "decoded-bytes".equals( aMacro ) || "detected-bus-errors".equals( aMacro ) )
-        {
-          return "-";
-        }
-        return null;
-      }
-    } );
+      return "Decoded bytes: -, detected bus errors: -";
+    }
+    return String.format( "Decoded bytes: %d, detected bus errors: %d",
+        Integer.valueOf( aAnalysisResult.getDecodedByteCount() ), Integer.valueOf( aAnalysisResult.getBusErrorCount() ) );
   }
 
   /**
@@ -384,13 +418,16 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param aEmpty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aAnalysisResult
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final OneWireDataSet aAnalysisResult ) throws IOException
+  private void toHtmlPage( final File aFile, final OneWireDataSet aAnalysisResult ) throws IOException
   {
     final MacroResolver macroResolver = new MacroResolver()
     {
@@ -412,68 +449,24 @@ public class OneWireAnalyserDialog extends BaseToolDialog<OneWireDataSet> implem
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<OneWireData> dataSet = aAnalysisResult.getData();
-          Element tr;
-
-          for ( int i = 0; i < dataSet.size(); i++ )
-          {
-            final OneWireData data = dataSet.get( i );
-
-            if ( data.isEvent() )
-            {
-              // this is an event
-              final String event = data.getEventName();
-
-              String bgColor;
-              if ( OneWireDataSet.OW_RESET.equals( event ) )
-              {
-                bgColor = "#e0e0e0";
-              }
-              else
-              {
-                // unknown event
-                bgColor = "#ff8000";
-              }
-
-              tr = aParent.addChild( TR ).addAttribute( "style", "background-color: " + bgColor + ";" );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( event );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-            }
-            else
-            {
-              final int value = data.getValue();
-
-              tr = aParent.addChild( TR );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( "0x" + StringUtils.integerToHexString( value, 2 ) );
-              tr.addChild( TD ).addContent( "0b" + StringUtils.integerToBinString( value, 8 ) );
-              tr.addChild( TD ).addContent( String.valueOf( value ) );
-              tr.addChild( TD ).addContent( String.valueOf( ( char )value ) );
-            }
-          }
+          // Rows are written to file one by one...
+          final OneWireTableModel model = new OneWireTableModel();
+          model.setDataSet( aAnalysisResult );
+          return model.toHtmlRows();
         }
 
         return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
@@ -48,7 +48,7 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
 
   private final ToolContext context;
   private final ToolProgressListener progressListener;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
 
   private int owLineIndex;
   private int owLineMask;
@@ -69,7 +69,7 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
     this.owTiming = new OneWireTiming( OneWireBusMode.STANDARD );
   }
 
@@ -81,47 +81,54 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   @Override
   public OneWireDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
-
-    int sampleIdx;
+    try
+    {
+      final AcquisitionResult data = this.context.getData();
 
-    final int dataMask = this.owLineMask;
-    final int sampleCount = values.length;
+      final int dataMask = this.owLineMask;
+      final int sampleCount = ( int )data.getSampleCount();
 
-    if ( LOG.isLoggable( Level.FINE ) )
-    {
-      LOG.log( Level.FINE, "1-Wire Line mask = 0x{0}", Integer.toHexString( this.owLineMask ) );
-    }
+      if ( LOG.isLoggable( Level.FINE ) )
+      {
+        LOG.log( Level.FINE, "1-Wire Line mask = 0x{0}", Integer.toHexString( this.owLineMask ) );
+      }
 
-    // Search the moment on which the 1-wire line is idle (= high)...
-    for ( sampleIdx = 0; sampleIdx < sampleCount; sampleIdx++ )
-    {
-      final int dataValue = values[sampleIdx];
+      // Search the moment on which the 1-wire line is idle (= high)...
+      final SampleCursor cursor = new SampleCursor( data );
 
-      if ( ( dataValue & dataMask ) == dataMask )
+      int sampleIdx = sampleCount;
+      if ( sampleCount > 0 )
       {
-        // IDLE found here
-        break;
+        // If the line is not idle at the start, it becomes idle on its next edge...
+        if ( ( ( cursor.getValue() & dataMask ) == dataMask ) || ( cursor.nextEdge( dataMask ) >= 0L ) )
+        {
+          // IDLE found here
+          sampleIdx = ( int )cursor.getIndex();
+        }
       }
-    }
 
-    if ( sampleIdx == sampleCount )
-    {
-      // no idle state could be found
-      LOG.log( Level.WARNING, "No IDLE state found in data; aborting analysis..." );
-      throw new IllegalStateException( "No IDLE state found!" );
-    }
+      if ( sampleIdx == sampleCount )
+      {
+        // no idle state could be found
+        LOG.log( Level.WARNING, "No IDLE state found in data; aborting analysis..." );
+        throw new IllegalStateException( "No IDLE state found!" );
+      }
 
-    final OneWireDataSet decodedData = new OneWireDataSet( sampleIdx, sampleCount, data );
+      final OneWireDataSet decodedData = new OneWireDataSet( sampleIdx, sampleCount, data );
 
-    // Update the channel label and clear any existing annotations on the
-    // channel...
-    prepareResult( OW_1_WIRE );
-    // Decode the actual data...
-    decodeData( data, decodedData );
+      // Update the channel label and clear any existing annotations on the
+      // channel...
+      prepareResult( OW_1_WIRE );
+      // Decode the actual data...
+      decodeData( data, decodedData );
 
-    return decodedData;
+      return decodedData;
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
+    }
   }
 
   /**
@@ -157,12 +164,10 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
    */
   private void decodeData( final AcquisitionResult aData, final OneWireDataSet aDataSet )
   {
-    final long[] timestamps = aData.getTimestamps();
-
     this.progressListener.setProgress( 0 );
 
-    final long startOfDecode = timestamps[aDataSet.getStartOfDecode()];
-    final long endOfDecode = timestamps[aDataSet.getEndOfDecode() - 1];
+    final long startOfDecode = aData.getTimestamp( aDataSet.getStartOfDecode() );
+    final long endOfDecode = aData.getTimestamp( aDataSet.getEndOfDecode() - 1 );
 
     // The timing of the 1-wire bus is done in uS, so determine what scale we've
     // to use in order to obtain those kind of time values...
@@ -265,61 +270,39 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   }
 
   /**
-   * Find first falling edge this is the start of the start bit. If the signal
-   * is inverted, find the first rising edge.
+   * Finds the first edge of the given type on the 1-wire line, after the given
+   * start timestamp and before the given end timestamp.
+   * <p>
+   * Instead of examining each individual sample time, the edges of the 1-wire
+   * line are looked up in the edge index of the acquired data, making the
+   * search independent of the sample rate.
+   * </p>
    * 
    * @param aStartOfDecode
    *          the timestamp to start searching;
    * @param aEndOfDecode
    *          the timestamp to end the search;
-   * @param aMask
-   *          the bit-value mask to apply for finding the start bit.
-   * @return the time at which the start bit was found, -1 if it is not found.
+   * @param aEdge
+   *          the type of edge to search for.
+   * @return the time at which the edge was found, -1 if it is not found.
    */
-  private long findEdge( final AcquisitionResult aData, final long aStartOfDecode, final long aEndOfDecode,
+  long findEdge( final AcquisitionResult aData, final long aStartOfDecode, final long aEndOfDecode,
       final Edge aEdge )
   {
-    long result = -1;
+    final EdgeIndex edgeIndex = aData.getEdgeIndex();
+    final int expectedLevel = aEdge.isRising() ? 1 : 0;
 
-    int oldBitValue = getDataValue( aData, aStartOfDecode ) & this.owLineMask;
-    for ( long timeCursor = aStartOfDecode + 1; ( result < 0 ) && ( timeCursor < aEndOfDecode ); timeCursor++ )
+    long edge = aStartOfDecode;
+    while ( ( ( edge = edgeIndex.findEdgeAfter( this.owLineIndex, edge ) ) >= 0L ) && ( edge < aEndOfDecode ) )
     {
-      final int bitValue = getDataValue( aData, timeCursor ) & this.owLineMask;
-
-      final Edge edge = Edge.toEdge( oldBitValue, bitValue );
-      if ( aEdge == edge )
+      // Edges alternate, so this loop runs at most twice...
+      if ( edgeIndex.getLevel( this.owLineIndex, edge ) == expectedLevel )
       {
-        result = timeCursor;
+        return edge;
       }
-
-      oldBitValue = bitValue;
     }
 
-    return result;
-  }
-
-  /**
-   * Returns the data value for the given time stamp.
-   * 
-   * @param aTimeValue
-   *          the time stamp to return the data value for.
-   * @return the data value of the sample index right before the given time
-   *         value.
-   */
-  private int getDataValue( final AcquisitionResult aData, final long aTimeValue )
-  {
-    final int[] values = aData.getValues();
-    final long[] timestamps = aData.getTimestamps();
-
-    int i;
-    for ( i = 1; i < timestamps.length; i++ )
-    {
-      if ( aTimeValue < timestamps[i] )
-      {
-        break;
-      }
-    }
-    return values[i - 1];
+    return -1L;
   }
 
   /**
@@ -364,7 +347,7 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   {
     final AcquisitionResult data = this.context.getData();
     final int startSampleIdx = Math.max( data.getSampleIndex( aStartTimestamp ), 0 );
-    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getTimestamps().length - 1 );
+    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, ( int )data.getSampleCount() - 1 );
 
     aDataSet.reportData( this.owLineIndex, startSampleIdx, endSampleIdx, aByteValue );
 
@@ -385,7 +368,7 @@ public class OneWireAnalyserTask implements ToolTask<OneWireDataSet>
   {
     final AcquisitionResult data = this.context.getData();
     final int startSampleIdx = Math.max( data.getSampleIndex( aStartTimestamp ), 0 );
-    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, data.getTimestamps().length - 1 );
+    final int endSampleIdx = Math.min( data.getSampleIndex( aEndTimestamp ) - 1, ( int )data.getSampleCount() - 1 );
 
     aDataSet.reportReset( this.owLineIndex, startSampleIdx, endSampleIdx, aSlaveIsPresent );
 
@@ -0,0 +1,118 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.onewire;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
+import nl.lxtreme.ols.api.tools.*;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link OneWireAnalyserTask#findEdge(AcquisitionResult, long, long, Edge)}.
+ */
+public class OneWireAnalyserTaskTest
+{
+  // VARIABLES
+
+  private AcquisitionResult data;
+  private OneWireAnalyserTask task;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    // Channel 0 falls at 10, rises at 20 and falls again at 30; channel 1 only
+    // rises at 15...
+    final int[] values = { 0x01, 0x00, 0x02, 0x03, 0x02 };
+    final long[] timestamps = { 0L, 10L, 15L, 20L, 30L };
+    this.data = new CapturedData( values, timestamps, -1L, 1000000, 2, 0x03, 50L );
+
+    this.task = new OneWireAnalyserTask( mock( ToolContext.class ), mock( ToolProgressListener.class ),
+        mock( AnnotationListener.class ) );
+    this.task.setOneWireLineIndex( 0 );
+  }
+
+  /**
+   * Tests that an edge exactly at the start timestamp is not found, as the
+   * search starts <em>after</em> it.
+   */
+  @Test
+  public void testFindEdgeAtStartIsSkipped()
+  {
+    assertEquals( 10L, this.task.findEdge( this.data, 9L, 50L, Edge.FALLING ) );
+    assertEquals( 30L, this.task.findEdge( this.data, 10L, 50L, Edge.FALLING ) );
+    assertEquals( 20L, this.task.findEdge( this.data, 10L, 50L, Edge.RISING ) );
+  }
+
+  /**
+   * Tests that edges at or beyond the end timestamp are not found.
+   */
+  @Test
+  public void testFindEdgeBeforeEnd()
+  {
+    assertEquals( -1L, this.task.findEdge( this.data, 0L, 10L, Edge.FALLING ) );
+    assertEquals( 10L, this.task.findEdge( this.data, 0L, 11L, Edge.FALLING ) );
+  }
+
+  /**
+   * Tests that only edges of the requested type are found, skipping edges of
+   * the opposite type.
+   */
+  @Test
+  public void testFindEdgeChecksLevel()
+  {
+    assertEquals( 20L, this.task.findEdge( this.data, 0L, 50L, Edge.RISING ) );
+    assertEquals( 30L, this.task.findEdge( this.data, 15L, 50L, Edge.FALLING ) );
+  }
+
+  /**
+   * Tests that only the edges of the 1-wire line are considered.
+   */
+  @Test
+  public void testFindEdgeOnOtherLine()
+  {
+    this.task.setOneWireLineIndex( 1 );
+
+    assertEquals( 15L, this.task.findEdge( this.data, 0L, 50L, Edge.RISING ) );
+    assertEquals( -1L, this.task.findEdge( this.data, 0L, 50L, Edge.FALLING ) );
+  }
+
+  /**
+   * Tests that no edge is found when there is no further edge.
+   */
+  @Test
+  public void testFindEdgeWithoutFurtherEdge()
+  {
+    assertEquals( -1L, this.task.findEdge( this.data, 30L, 50L, Edge.RISING ) );
+    assertEquals( -1L, this.task.findEdge( this.data, 30L, 50L, Edge.FALLING ) );
+  }
+}
@@ -57,6 +57,86 @@ import org.osgi.framework.*;
 public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataSet> implements
     ExportAware<Asm45DataSet>
 {
+  // INNER TYPES
+
+  /**
+   * Provides the table model for the decoded Asm45 data.
+   */
+  static final class Asm45TableModel extends DataSetTableModel<Asm45DataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color TRIGGER_COLOR = new Color( 0xffa0ff );
+    private static final Color INSTRUCTION_COLOR = new Color( 0xffffff );
+    private static final Color BUS_GRANT_COLOR = new Color( 0x64ff64 );
+    private static final Color DATA_COLOR = new Color( 0xe0e0ff );
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link Asm45TableModel} instance.
+     */
+    public Asm45TableModel()
+    {
+      super( "Index", "Clocks", "Block", "Address", "Value", "Bus Grant", "Type", "Event" );
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final Asm45DataSet aDataSet, final int aDataIdx )
+    {
+      final Asm45Data data = aDataSet.getData().get( aDataIdx );
+      if ( aDataIdx == aDataSet.getTriggerEvent() )
+      {
+        return TRIGGER_COLOR;
+      }
+      else if ( Asm45Data.TYPE_INSTRUCTION.equals( data.getType() ) )
+      {
+        return INSTRUCTION_COLOR;
+      }
+      // data transfer (w/ or w/o bus grant)
+      return data.getBusGrant() ? BUS_GRANT_COLOR : DATA_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final Asm45DataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final Asm45Data data = aDataSet.getData().get( aDataIdx );
+      switch ( aColumnIdx )
+      {
+        case 0:
+          return Integer.valueOf( aDataIdx - aDataSet.getTriggerEvent() );
+        case 1:
+          return Integer.valueOf( data.getClocks() );
+        case 2:
+          return StringUtils.integerToHexString( data.getBlock(), 2 );
+        case 3:
+          return StringUtils.integerToHexString( data.getAddress(), 4 );
+        case 4:
+          return StringUtils.integerToHexString( data.getValue(), 4 );
+        case 5:
+          return data.getBusGrant() ? "X" : "-";
+        case 6:
+          return data.getType();
+        case 7:
+          // The events use HTML entities for their arrows...
+          final String event = data.getEvent();
+          return ( event == null ) ? null : event.replace( "&rarr;", "\u2192" ).replace( "&larr;", "\u2190" );
+        default:
+          return null;
+      }
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -86,7 +166,8 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   private JCheckBox showInst;
   private JCheckBox showData;
   private JCheckBox showBusGrants;
-  private JEditorPane outText;
+  private Asm45TableModel tableModel;
+  private JLabel statistics;
 
   private RestorableAction runAnalysisAction;
   private Action exportAction;
@@ -155,9 +236,8 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   @Override
   public void reset()
   {
-    final String emptyHtmlPage = getEmptyHtmlPage();
-    this.outText.setText( emptyHtmlPage );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -189,32 +269,10 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   @Override
   protected void onToolEnded( final Asm45DataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-      }
-
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.statistics.setText( getStatistics( aAnalysisResult ) );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // This should not happen for the no-file exports!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -372,16 +430,19 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   }
 
   /**
-   * @return
+   * Creates the preview pane, showing the statistics and decoded data.
+   * 
+   * @return a preview pane, never <code>null</code>.
    */
   private JPanel createPreviewPane()
   {
-    final JPanel output = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel output = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new Asm45TableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    output.add( new JScrollPane( this.outText ) );
+    output.add( this.statistics, BorderLayout.NORTH );
+    output.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return output;
   }
@@ -463,59 +524,20 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   }
 
   /**
-   * Returns an "empty" HTML page.
+   * Returns the statistics of the given analysis result.
    * 
-   * @return an empty HTML page string, never <code>null</code>.
+   * @param aAnalysisResult
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
    */
-  private String getEmptyHtmlPage()
+  private String getStatistics( final Asm45DataSet aAnalysisResult )
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    if ( aAnalysisResult == null )
     {
-      @Override
-      @SuppressWarnings( "boxing" )
-      public Object resolve( final String aMacro, final Element aParent )
-      {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        else if ( "smc-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineSMC.getSelectedIndex();
-        }
-        else if ( "stm-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineSTM.getSelectedIndex();
-        }
-        else if ( "ebg-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineEBG.getSelectedIndex();
-        }
-        else if ( "byte-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineBYTE.getSelectedIndex();
-        }
-        else if ( "bl-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineBL.getSelectedIndex();
-        }
-        else if ( "wrt-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineWRT.getSelectedIndex();
-        }
-        else if ( "sync-bus-config".equals( aMacro ) )
-        {
-          return Asm45ProtocolAnalysisDialog.this.lineSYNC.getSelectedIndex();
-        }
-        else if ( "decoded-words".equals( aMacro ) )
-        {
-          return "-";
-        }
-        return null;
-      }
-    } );
+      return "Decoded words: -";
+    }
+    return "Decoded words: " + aAnalysisResult.getDecodedWordCount();
   }
 
   /**
@@ -613,17 +635,16 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param aEmpty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aAnalysisResult
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  // table data:
-  //
-  // Index, Clocks, Block, Address, Value, Type, Event
-  //
-  private String toHtmlPage( final File aFile, final Asm45DataSet aAnalysisResult ) throws IOException
+  private void toHtmlPage( final File aFile, final Asm45DataSet aAnalysisResult ) throws IOException
   {
     final MacroResolver macroResolver = new MacroResolver()
     {
@@ -670,68 +691,24 @@ public final class Asm45ProtocolAnalysisDialog extends BaseToolDialog<Asm45DataS
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<Asm45Data> dataSet = aAnalysisResult.getData();
-          Element tr;
-
-          for ( int i = 0; i < dataSet.size(); i++ )
-          {
-            final Asm45Data data = dataSet.get( i );
-            int index = i - aAnalysisResult.getTriggerEvent();
-
-            String bgColor;
-
-            if ( index == 0 )
-            {
-              // trigger event
-              bgColor = "#ffa0ff";
-            }
-            else if ( data.getType().equals( Asm45Data.TYPE_INSTRUCTION ) )
-            {
-              // machine instruction
-              bgColor = "#ffffff";
-            }
-            else
-            {
-              // data transfer (w/ or w/o bus grant)
-              if ( data.getBusGrant() )
-              {
-                bgColor = "#64ff64";
-              }
-              else
-              {
-                bgColor = "#e0e0ff";
-              }
-            }
-
-            tr = aParent.addChild( TR )
-                .addAttribute( "style", "background-color: " + bgColor + "; text-align: center;" );
-            tr.addChild( TD ).addContent( String.valueOf( index ) );
-            tr.addChild( TD ).addContent( String.valueOf( data.getClocks() ) );
-            tr.addChild( TD ).addContent( StringUtils.integerToHexString( data.getBlock(), 2 ) );
-            tr.addChild( TD ).addContent( StringUtils.integerToHexString( data.getAddress(), 4 ) );
-            tr.addChild( TD ).addContent( StringUtils.integerToHexString( data.getValue(), 4 ) );
-            tr.addChild( TD ).addContent( data.getBusGrant() ? "X" : "-" );
-            tr.addChild( TD ).addContent( data.getType() );
-            tr.addChild( TD ).addAttribute( "style", "text-align: left;" ).addContent( data.getEvent() );
-          }
+          // Rows are written to file one by one...
+          final Asm45TableModel model = new Asm45TableModel();
+          model.setDataSet( aAnalysisResult );
+          return model.toHtmlRows();
         }
 
         return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
@@ -0,0 +1,110 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.base;
+
+
+import java.awt.*;
+
+import javax.swing.*;
+import javax.swing.table.*;
+
+
+/**
+ * Provides a table that shows the results of a protocol analyser.
+ * <p>
+ * As a table only renders its visible cells, the results are formatted on
+ * demand, allowing data sets with millions of decoded entries to be shown
+ * without any delay.
+ * </p>
+ */
+public class DataSetTable extends JTable
+{
+  // CONSTANTS
+
+  private static final long serialVersionUID = 1L;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link DataSetTable} instance.
+   *
+   * @param aModel
+   *          the table model to show, cannot be <code>null</code>.
+   */
+  public DataSetTable( final DataSetTableModel<?> aModel )
+  {
+    super( aModel );
+
+    setFillsViewportHeight( true );
+    setRowSelectionAllowed( true );
+    setColumnSelectionAllowed( false );
+    getTableHeader().setReorderingAllowed( false );
+  }
+
+  // METHODS
+
+  /**
+   * Creates a scroll pane containing a new table for the given model.
+   *
+   * @param aModel
+   *          the table model to show, cannot be <code>null</code>.
+   * @return a new scroll pane, never <code>null</code>.
+   */
+  public static JScrollPane createScrollPane( final DataSetTableModel<?> aModel )
+  {
+    return new JScrollPane( new DataSetTable( aModel ) );
+  }
+
+  /**
+   * Returns the data set table model shown in this table.
+   *
+   * @return the data set table model, or <code>null</code> in case this table
+   *         shows another kind of table model.
+   */
+  public DataSetTableModel<?> getDataSetModel()
+  {
+    final TableModel model = getModel();
+    if ( model instanceof DataSetTableModel )
+    {
+      return ( DataSetTableModel<?> )model;
+    }
+    return null;
+  }
+
+  /**
+   * Applies the row colors of the table model to the rendered cells.
+   *
+   * @see javax.swing.JTable#prepareRenderer(javax.swing.table.TableCellRenderer,
+   *      int, int)
+   */
+  @Override
+  public Component prepareRenderer( final TableCellRenderer aRenderer, final int aRow, final int aColumn )
+  {
+    final Component result = super.prepareRenderer( aRenderer, aRow, aColumn );
+    final DataSetTableModel<?> model = getDataSetModel();
+    if ( ( model != null ) && !isCellSelected( aRow, aColumn ) )
+    {
+      final Color color = model.getRowColor( convertRowIndexToModel( aRow ) );
+      result.setBackground( ( color != null ) ? color : getBackground() );
+    }
+    return result;
+  }
+}
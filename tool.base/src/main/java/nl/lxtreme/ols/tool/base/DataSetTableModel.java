@@ -0,0 +1,367 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.base;
+
+
+import java.awt.*;
+import java.util.*;
+
+import javax.swing.table.*;
+
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.ExportUtils.HtmlExporter;
+import nl.lxtreme.ols.util.ExportUtils.HtmlExporter.Element;
+import nl.lxtreme.ols.util.export.*;
+
+
+/**
+ * Provides a table model for the results of a protocol analyser, which reads
+ * its rows on demand from the analysed data set.
+ * <p>
+ * Nothing is formatted up front: a row is only formatted when it is either
+ * shown in a {@link DataSetTable}, or written while exporting to HTML. By
+ * default, each data entry is shown as a single row. Subclasses can combine
+ * subsequent data entries into a single row, for example, data that is sent
+ * and received at the same time, by overriding
+ * {@link #isContinuation(BaseDataSet, int)}.
+ * </p>
+ *
+ * @param <DATASET>
+ *          the type of the data set shown in this model.
+ */
+public abstract class DataSetTableModel<DATASET extends BaseDataSet<?>> extends AbstractTableModel
+{
+  // CONSTANTS
+
+  private static final long serialVersionUID = 1L;
+
+  // VARIABLES
+
+  private final String[] columnNames;
+
+  private DATASET dataSet;
+  /** the index of the first data entry of each row, or null if each entry is a row by itself. */
+  private int[] rowStarts;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link DataSetTableModel} instance.
+   *
+   * @param aColumnNames
+   *          the names of the columns of this model, cannot be
+   *          <code>null</code>.
+   */
+  protected DataSetTableModel( final String... aColumnNames )
+  {
+    this.columnNames = aColumnNames;
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final int getColumnCount()
+  {
+    return this.columnNames.length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final String getColumnName( final int aColumnIdx )
+  {
+    return this.columnNames[aColumnIdx];
+  }
+
+  /**
+   * Returns the data set shown in this model.
+   *
+   * @return the current data set, can be <code>null</code>.
+   */
+  public final DATASET getDataSet()
+  {
+    return this.dataSet;
+  }
+
+  /**
+   * Returns the background color for the given row.
+   *
+   * @param aRowIdx
+   *          the index of the row to get the color for, &gt;= 0.
+   * @return a background color, or <code>null</code> to use the default
+   *         background color.
+   */
+  public final Color getRowColor( final int aRowIdx )
+  {
+    if ( this.dataSet == null )
+    {
+      return null;
+    }
+    return getRowColor( this.dataSet, getDataIndex( aRowIdx ) );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final int getRowCount()
+  {
+    if ( this.dataSet == null )
+    {
+      return 0;
+    }
+    if ( this.rowStarts != null )
+    {
+      return this.rowStarts.length;
+    }
+    return this.dataSet.getData().size();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final Object getValueAt( final int aRowIdx, final int aColumnIdx )
+  {
+    if ( this.dataSet == null )
+    {
+      return null;
+    }
+    return getValueAt( this.dataSet, getDataIndex( aRowIdx ), aColumnIdx );
+  }
+
+  /**
+   * Sets the data set to show in this model.
+   *
+   * @param aDataSet
+   *          the data set to show, can be <code>null</code> to show an empty
+   *          table.
+   */
+  public final void setDataSet( final DATASET aDataSet )
+  {
+    this.dataSet = aDataSet;
+    this.rowStarts = ( aDataSet == null ) ? null : createRowStarts( aDataSet );
+
+    fireTableDataChanged();
+  }
+
+  /**
+   * Returns all rows of this model as HTML table rows, which are created one
+   * by one while iterating over them. This allows exports to write each row
+   * directly to file, without having to create all rows in memory first.
+   *
+   * @return the HTML rows of this model, never <code>null</code>.
+   */
+  public final Iterable<Element> toHtmlRows()
+  {
+    return new Iterable<Element>()
+    {
+      @Override
+      public Iterator<Element> iterator()
+      {
+        return new Iterator<Element>()
+        {
+          private final int rowCount = getRowCount();
+          private int rowIdx = 0;
+
+          @Override
+          public boolean hasNext()
+          {
+            return this.rowIdx < this.rowCount;
+          }
+
+          @Override
+          public Element next()
+          {
+            if ( !hasNext() )
+            {
+              throw new NoSuchElementException();
+            }
+            return toHtmlRow( this.rowIdx++ );
+          }
+
+          @Override
+          public void remove()
+          {
+            throw new UnsupportedOperationException();
+          }
+        };
+      }
+    };
+  }
+
+  /**
+   * Returns the background color for the row starting at the given data entry.
+   *
+   * @param aDataSet
+   *          the data set to use, never <code>null</code>;
+   * @param aDataIdx
+   *          the index of the (first) data entry of the row.
+   * @return a background color, or <code>null</code> to use the default
+   *         background color.
+   */
+  protected Color getRowColor( final DATASET aDataSet, final int aDataIdx )
+  {
+    return null;
+  }
+
+  /**
+   * Returns the value of a given column for the row starting at the given data
+   * entry.
+   *
+   * @param aDataSet
+   *          the data set to use, never <code>null</code>;
+   * @param aDataIdx
+   *          the index of the (first) data entry of the row;
+   * @param aColumnIdx
+   *          the index of the column to return the value for.
+   * @return the cell value, can be <code>null</code>.
+   */
+  protected abstract Object getValueAt( final DATASET aDataSet, final int aDataIdx, final int aColumnIdx );
+
+  /**
+   * Returns whether the given data entry is shown in the same row as its
+   * preceding data entry.
+   *
+   * @param aDataSet
+   *          the data set to use, never <code>null</code>;
+   * @param aDataIdx
+   *          the index of the data entry to test, &gt; 0.
+   * @return <code>true</code> if the data entry is combined with its
+   *         predecessor, <code>false</code> (the default) if it is shown in a
+   *         row by itself.
+   */
+  protected boolean isContinuation( final DATASET aDataSet, final int aDataIdx )
+  {
+    return false;
+  }
+
+  /**
+   * Determines the first data entry of each row, if rows are combined.
+   */
+  private int[] createRowStarts( final DATASET aDataSet )
+  {
+    final int size = aDataSet.getData().size();
+
+    int rowCount = Math.min( 1, size );
+    for ( int i = 1; i < size; i++ )
+    {
+      if ( !isContinuation( aDataSet, i ) )
+      {
+        rowCount++;
+      }
+    }
+    if ( rowCount == size )
+    {
+      // Each data entry is a row by itself...
+      return null;
+    }
+
+    final int[] result = new int[rowCount];
+    for ( int i = 1, row = 1; i < size; i++ )
+    {
+      if ( !isContinuation( aDataSet, i ) )
+      {
+        result[row++] = i;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the index of the first data entry of the given row.
+   */
+  private int getDataIndex( final int aRowIdx )
+  {
+    return ( this.rowStarts != null ) ? this.rowStarts[aRowIdx] : aRowIdx;
+  }
+
+  /**
+   * Returns the HTML color representation of a given color.
+   *
+   * @param aColor
+   *          the color to convert, cannot be <code>null</code>.
+   * @return a HTML color, such as "#c0ffc0", never <code>null</code>.
+   */
+  private static String toHtmlColor( final Color aColor )
+  {
+    return String.format( "#%06x", Integer.valueOf( aColor.getRGB() & 0xFFFFFF ) );
+  }
+
+  /**
+   * Creates a HTML table row for the given row.
+   */
+  private Element toHtmlRow( final int aRowIdx )
+  {
+    final Element tr = new TagElement( "tr" );
+
+    final Color color = getRowColor( aRowIdx );
+    if ( color != null )
+    {
+      tr.addAttribute( "style", "background-color: " + toHtmlColor( color ) + ";" );
+    }
+
+    for ( int col = 0; col < this.columnNames.length; col++ )
+    {
+      final Object value = getValueAt( aRowIdx, col );
+      final Element td = tr.addChild( HtmlExporter.TD );
+      if ( value != null )
+      {
+        td.addContent( toHtmlText( String.valueOf( value ) ) );
+      }
+    }
+
+    return tr;
+  }
+
+  /**
+   * Escapes all characters that have a special meaning in HTML.
+   */
+  private static String toHtmlText( final String aText )
+  {
+    final StringBuilder sb = new StringBuilder( aText.length() );
+    for ( int i = 0; i < aText.length(); i++ )
+    {
+      final char c = aText.charAt( i );
+      if ( c == '<' )
+      {
+        sb.append( "&lt;" );
+      }
+      else if ( c == '>' )
+      {
+        sb.append( "&gt;" );
+      }
+      else if ( c == '&' )
+      {
+        sb.append( "&amp;" );
+      }
+      else
+      {
+        sb.append( c );
+      }
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ * Copyright (C) 2006-2010 Michael Poppitz, www.sump.org
+ * Copyright (C) 2010-2012 J.W. Janssen, www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.base.annotation;
+
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.annotation.*;
+
+
+/**
+ * Provides an annotation listener that collects all annotations, and delivers
+ * them in a single batch to another annotation listener upon {@link #flush()}.
+ * <p>
+ * Tool tasks typically create a large number of annotations, for example, one
+ * for each decoded byte. Delivering them one by one causes each of them to be
+ * added and repainted individually. Instead, tool tasks should wrap their
+ * annotation listener with this class, and flush it once they are done.
+ * </p>
+ * <p>
+ * Requests to clear annotations are forwarded directly, after all pending
+ * annotations are flushed, in order to retain the order in which annotations
+ * are added and cleared. This class is <b>not</b> thread-safe.
+ * </p>
+ */
+public final class BufferedAnnotationListener implements AnnotationListener
+{
+  // VARIABLES
+
+  private final AnnotationListener listener;
+  private final List<Annotation<?>> pending;
+
+  // CONSTRUCTORS
+
+  /**
+   * Creates a new {@link BufferedAnnotationListener} instance.
+   *
+   * @param aListener
+   *          the annotation listener to deliver the annotations to, cannot be
+   *          <code>null</code>.
+   */
+  public BufferedAnnotationListener( final AnnotationListener aListener )
+  {
+    if ( aListener == null )
+    {
+      throw new IllegalArgumentException( "Listener cannot be null!" );
+    }
+    this.listener = aListener;
+    this.pending = new ArrayList<Annotation<?>>();
+  }
+
+  // METHODS
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clearAnnotations()
+  {
+    flush();
+    this.listener.clearAnnotations();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void clearAnnotations( final int aChannelIdx )
+  {
+    flush();
+    this.listener.clearAnnotations( aChannelIdx );
+  }
+
+  /**
+   * Delivers all pending annotations in a single batch.
+   */
+  public void flush()
+  {
+    if ( this.pending.isEmpty() )
+    {
+      return;
+    }
+
+    final List<Annotation<?>> annotations = new ArrayList<Annotation<?>>( this.pending );
+    this.pending.clear();
+
+    this.listener.onAnnotations( annotations );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onAnnotation( final Annotation<?> aAnnotation )
+  {
+    this.pending.add( aAnnotation );
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onAnnotations( final Collection<? extends Annotation<?>> aAnnotations )
+  {
+    this.pending.addAll( aAnnotations );
+  }
+}
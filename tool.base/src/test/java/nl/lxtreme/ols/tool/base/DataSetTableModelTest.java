@@ -0,0 +1,240 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.base;
+
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
+import nl.lxtreme.ols.util.ExportUtils.HtmlExporter.Element;
+
+import org.junit.*;
+
+
+/**
+ * Test cases for {@link DataSetTableModel}.
+ */
+public class DataSetTableModelTest
+{
+  // INNER TYPES
+
+  /**
+   * Provides a simple data entry, that is either sent or received.
+   */
+  static final class TestData extends BaseData<TestData>
+  {
+    final boolean received;
+    final String text;
+
+    TestData( final int aIdx, final boolean aReceived, final String aText )
+    {
+      super( aIdx, 0, aIdx, aIdx + 1 );
+      this.received = aReceived;
+      this.text = aText;
+    }
+  }
+
+  /**
+   * Provides a simple data set.
+   */
+  static final class TestDataSet extends BaseDataSet<TestData>
+  {
+    TestDataSet( final AcquisitionResult aData )
+    {
+      super( 0, 100, aData );
+    }
+
+    TestDataSet add( final boolean aReceived, final String aText )
+    {
+      addData( new TestData( getData().size(), aReceived, aText ) );
+      return this;
+    }
+  }
+
+  /**
+   * Provides a table model that shows sent and received data in separate
+   * columns, combining a received entry with its preceding sent entry.
+   */
+  static final class TestTableModel extends DataSetTableModel<TestDataSet>
+  {
+    private static final long serialVersionUID = 1L;
+
+    TestTableModel()
+    {
+      super( "Index", "Sent", "Received" );
+    }
+
+    @Override
+    protected Color getRowColor( final TestDataSet aDataSet, final int aDataIdx )
+    {
+      return ( aDataIdx == 0 ) ? Color.RED : null;
+    }
+
+    @Override
+    protected Object getValueAt( final TestDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final List<TestData> data = aDataSet.getData();
+      if ( aColumnIdx == 0 )
+      {
+        return Integer.valueOf( aDataIdx );
+      }
+
+      final TestData first = data.get( aDataIdx );
+      if ( aColumnIdx == 1 )
+      {
+        return first.received ? null : first.text;
+      }
+      if ( first.received )
+      {
+        return first.text;
+      }
+      final int nextIdx = aDataIdx + 1;
+      if ( ( nextIdx < data.size() ) && isContinuation( aDataSet, nextIdx ) )
+      {
+        return data.get( nextIdx ).text;
+      }
+      return null;
+    }
+
+    @Override
+    protected boolean isContinuation( final TestDataSet aDataSet, final int aDataIdx )
+    {
+      final List<TestData> data = aDataSet.getData();
+      return data.get( aDataIdx ).received && !data.get( aDataIdx - 1 ).received;
+    }
+  }
+
+  // VARIABLES
+
+  private TestDataSet dataSet;
+  private TestTableModel model;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.dataSet = new TestDataSet( mock( AcquisitionResult.class ) );
+    this.model = new TestTableModel();
+  }
+
+  /**
+   * Tests that continuation entries are combined with their preceding entry
+   * into a single row.
+   */
+  @Test
+  public void testContinuationRows()
+  {
+    this.dataSet.add( false, "a" ).add( true, "b" ).add( true, "c" ).add( false, "d" ).add( false, "e" )
+        .add( true, "f" );
+    this.model.setDataSet( this.dataSet );
+
+    assertEquals( 4, this.model.getRowCount() );
+    assertRow( 0, 0, "a", "b" );
+    assertRow( 1, 2, null, "c" );
+    assertRow( 2, 3, "d", null );
+    assertRow( 3, 4, "e", "f" );
+  }
+
+  /**
+   * Tests that a model without data set is empty.
+   */
+  @Test
+  public void testEmptyModel()
+  {
+    assertEquals( 3, this.model.getColumnCount() );
+    assertEquals( "Sent", this.model.getColumnName( 1 ) );
+    assertEquals( 0, this.model.getRowCount() );
+    assertNull( this.model.getValueAt( 0, 0 ) );
+    assertNull( this.model.getRowColor( 0 ) );
+    assertFalse( this.model.toHtmlRows().iterator().hasNext() );
+
+    this.model.setDataSet( this.dataSet );
+    assertEquals( 0, this.model.getRowCount() );
+  }
+
+  /**
+   * Tests that each entry is a row by itself without continuations.
+   */
+  @Test
+  public void testRowPerEntry()
+  {
+    this.dataSet.add( false, "a" ).add( false, "b" ).add( true, "c" ).add( true, "d" );
+    this.model.setDataSet( this.dataSet );
+
+    // Only "c" is a continuation of "b"...
+    assertEquals( 3, this.model.getRowCount() );
+    assertRow( 0, 0, "a", null );
+    assertRow( 1, 1, "b", "c" );
+    assertRow( 2, 3, null, "d" );
+
+    this.model.setDataSet( null );
+    assertEquals( 0, this.model.getRowCount() );
+  }
+
+  /**
+   * Tests that rows are exported as HTML table rows, with their colors and
+   * escaped contents.
+   */
+  @Test
+  public void testToHtmlRows()
+  {
+    this.dataSet.add( false, "<a>" ).add( true, "b&c" ).add( false, "d" );
+    this.model.setDataSet( this.dataSet );
+
+    final Iterator<Element> rows = this.model.toHtmlRows().iterator();
+    assertTrue( rows.hasNext() );
+    assertEquals( "<tr style='background-color: #ff0000;'><td>0</td><td>&lt;a&gt;</td><td>b&amp;c</td></tr>", rows
+        .next().toString() );
+    assertTrue( rows.hasNext() );
+    assertEquals( "<tr><td>2</td><td>d</td><td></td></tr>", rows.next().toString() );
+    assertFalse( rows.hasNext() );
+
+    try
+    {
+      rows.next();
+      fail( "NoSuchElementException expected!" );
+    }
+    catch ( NoSuchElementException exception )
+    {
+      // Ok; expected...
+    }
+  }
+
+  /**
+   * Asserts that the given row shows the given data entry.
+   */
+  private void assertRow( final int aRowIdx, final int aDataIdx, final String aSent, final String aReceived )
+  {
+    assertEquals( Integer.valueOf( aDataIdx ), this.model.getValueAt( aRowIdx, 0 ) );
+    assertEquals( aSent, this.model.getValueAt( aRowIdx, 1 ) );
+    assertEquals( aReceived, this.model.getValueAt( aRowIdx, 2 ) );
+  }
+}
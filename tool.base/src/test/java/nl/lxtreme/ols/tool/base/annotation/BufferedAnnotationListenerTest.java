@@ -0,0 +1,132 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.base.annotation;
+
+
+import static org.mockito.Mockito.*;
+
+import java.util.*;
+
+import nl.lxtreme.ols.api.data.annotation.*;
+
+import org.junit.*;
+import org.mockito.*;
+
+
+/**
+ * Test cases for {@link BufferedAnnotationListener}.
+ */
+public class BufferedAnnotationListenerTest
+{
+  // VARIABLES
+
+  private AnnotationListener target;
+  private BufferedAnnotationListener listener;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp()
+  {
+    this.target = mock( AnnotationListener.class );
+    this.listener = new BufferedAnnotationListener( this.target );
+  }
+
+  /**
+   * Tests that pending annotations are delivered before a request to clear all
+   * annotations is forwarded.
+   */
+  @Test
+  public void testClearAllAnnotationsFlushesFirst()
+  {
+    final Annotation<?> first = new ChannelLabelAnnotation( 0, "first" );
+    final Annotation<?> second = new ChannelLabelAnnotation( 0, "second" );
+
+    this.listener.onAnnotation( first );
+    this.listener.clearAnnotations();
+    this.listener.onAnnotation( second );
+    this.listener.flush();
+
+    final InOrder inOrder = inOrder( this.target );
+    inOrder.verify( this.target ).onAnnotations( Arrays.asList( first ) );
+    inOrder.verify( this.target ).clearAnnotations();
+    inOrder.verify( this.target ).onAnnotations( Arrays.asList( second ) );
+    verifyNoMoreInteractions( this.target );
+  }
+
+  /**
+   * Tests that pending annotations are delivered before a request to clear the
+   * annotations of a single channel is forwarded.
+   */
+  @Test
+  public void testClearChannelAnnotationsFlushesFirst()
+  {
+    final Annotation<?> first = new SampleDataAnnotation( 1, 10L, "first" );
+
+    this.listener.onAnnotation( first );
+    this.listener.clearAnnotations( 1 );
+
+    final InOrder inOrder = inOrder( this.target );
+    inOrder.verify( this.target ).onAnnotations( Arrays.asList( first ) );
+    inOrder.verify( this.target ).clearAnnotations( 1 );
+    verifyNoMoreInteractions( this.target );
+  }
+
+  /**
+   * Tests that a request to clear annotations without pending annotations is
+   * forwarded as-is.
+   */
+  @Test
+  public void testClearWithoutPendingAnnotations()
+  {
+    this.listener.clearAnnotations( 2 );
+
+    verify( this.target ).clearAnnotations( 2 );
+    verifyNoMoreInteractions( this.target );
+  }
+
+  /**
+   * Tests that all annotations are delivered in a single batch, in the order
+   * they were added, and only upon flushing.
+   */
+  @Test
+  public void testFlushDeliversSingleBatch()
+  {
+    final Annotation<?> first = new ChannelLabelAnnotation( 0, "label" );
+    final Annotation<?> second = new SampleDataAnnotation( 0, 10L, "second" );
+    final Annotation<?> third = new SampleDataAnnotation( 1, 20L, "third" );
+
+    this.listener.onAnnotation( first );
+    this.listener.onAnnotations( Arrays.asList( second, third ) );
+
+    verifyZeroInteractions( this.target );
+
+    this.listener.flush();
+    // Nothing pending; should not deliver anything...
+    this.listener.flush();
+
+    verify( this.target ).onAnnotations( Arrays.asList( first, second, third ) );
+    verifyNoMoreInteractions( this.target );
+  }
+}
@@ -54,6 +54,129 @@ import org.osgi.framework.*;
  */
 public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> implements ExportAware<DMX512DataSet>
 {
+  // INNER TYPES
+
+  /**
+   * Provides the table model for the decoded DMX512 data.
+   */
+  static final class DMX512TableModel extends DataSetTableModel<DMX512DataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color FRAME_ERROR_COLOR = new Color( 0xff6600 );
+    private static final Color PARITY_ERROR_COLOR = new Color( 0xff9900 );
+    private static final Color START_ERROR_COLOR = new Color( 0xffcc00 );
+    private static final Color EVEN_SYMBOL_COLOR = new Color( 0xffffff );
+    private static final Color ODD_SYMBOL_COLOR = new Color( 0xeeeeee );
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link DMX512TableModel} instance.
+     */
+    public DMX512TableModel()
+    {
+      super( "Index", "Time", "Hex", "Bin", "Dec", "ASCII" );
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final DMX512DataSet aDataSet, final int aDataIdx )
+    {
+      final String eventName = aDataSet.getData().get( aDataIdx ).getEventName();
+      if ( "FRAME".equals( eventName ) )
+      {
+        return FRAME_ERROR_COLOR;
+      }
+      else if ( "PARITY".equals( eventName ) )
+      {
+        return PARITY_ERROR_COLOR;
+      }
+      else if ( "START".equals( eventName ) )
+      {
+        return START_ERROR_COLOR;
+      }
+      // symbol
+      return ( ( aDataIdx % 2 ) == 0 ) ? EVEN_SYMBOL_COLOR : ODD_SYMBOL_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final DMX512DataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final DMX512Data ds = aDataSet.getData().get( aDataIdx );
+      if ( aColumnIdx == 0 )
+      {
+        return Integer.valueOf( aDataIdx );
+      }
+      else if ( aColumnIdx == 1 )
+      {
+        return Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) );
+      }
+
+      final String eventName = ds.getEventName();
+      if ( eventName != null )
+      {
+        // error event...
+        if ( aColumnIdx != 2 )
+        {
+          return null;
+        }
+        else if ( "FRAME".equals( eventName ) )
+        {
+          return "Frame error";
+        }
+        else if ( "PARITY".equals( eventName ) )
+        {
+          return "Parity error";
+        }
+        else if ( "START".equals( eventName ) )
+        {
+          return "Start error";
+        }
+        return eventName;
+      }
+
+      // normal symbol...
+      final int data = ds.getData();
+      switch ( aColumnIdx )
+      {
+        case 2:
+          return "0x" + StringUtils.integerToHexString( data, 2 );
+        case 3:
+          return "0b" + StringUtils.integerToBinString( data, 8 );
+        case 4:
+          return String.valueOf( data );
+        case 5:
+          return isPrintableCharacter( data ) ? String.valueOf( ( char )data ) : "";
+        default:
+          return null;
+      }
+    }
+
+    /**
+     * Returns whether the given value can be represented as an
+     * ASCII-character.
+     * 
+     * @param aValue
+     *          the value to test.
+     * @return <code>true</code> if the given character can be represented as
+     *         printable ASCII-character, <code>false</code> otherwise.
+     */
+    private static boolean isPrintableCharacter( final int aValue )
+    {
+      return ( aValue >= 32 ) && ( aValue < 255 );
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -63,7 +186,8 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
   // VARIABLES
 
   private JComboBox dataLine;
-  private JEditorPane outText;
+  private DMX512TableModel tableModel;
+  private JLabel statistics;
 
   private RestorableAction runAnalysisAction;
   private Action closeAction;
@@ -127,8 +251,8 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
   @Override
   public void reset()
   {
-    this.outText.setText( getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -152,32 +276,10 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
   @Override
   protected void onToolEnded( final DMX512DataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-      }
-
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.statistics.setText( getStatistics( aAnalysisResult ) );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // Should not happen in this situation!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -290,12 +392,13 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
    */
   private JPanel createPreviewPane()
   {
-    final JPanel panTable = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel panTable = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new DMX512TableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    panTable.add( new JScrollPane( this.outText ) );
+    panTable.add( this.statistics, BorderLayout.NORTH );
+    panTable.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return panTable;
   }
@@ -321,37 +424,22 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
   }
 
   /**
-   * generate a HTML page
+   * Returns the statistics of the given analysis result.
    * 
-   * @param empty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aDataSet
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
    */
-  private String getEmptyHtmlPage()
+  private String getStatistics( final DMX512DataSet aDataSet )
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    if ( aDataSet == null )
     {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
-      {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        else if ( "decoded-bytes".equals( aMacro ) || "detected-bus-errors".equals( aMacro )
-            || "baudrate".equals( aMacro ) )
-        {
-          return "-";
-        }
-        else if ( "decoded-data".equals( aMacro ) )
-        {
-          return null;
-        }
-        return null;
-      }
-    } );
+      return "Decoded bytes: -, detected bus errors: -";
+    }
+    return String.format( "Decoded bytes: %d, slot count: %d, detected bus errors: %d",
+        Integer.valueOf( aDataSet.getDecodedSymbols() ), Integer.valueOf( aDataSet.getSlotCount() ),
+        Integer.valueOf( aDataSet.getDetectedErrors() ) );
   }
 
   /**
@@ -449,17 +537,17 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param empty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aDataSet
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final DMX512DataSet aDataSet ) throws IOException
+  private void toHtmlPage( final File aFile, final DMX512DataSet aDataSet ) throws IOException
   {
-    final int bitCount = 8;
-    final int bitAdder = 0;
-
     final MacroResolver macroResolver = new MacroResolver()
     {
       @Override
@@ -484,96 +572,24 @@ public final class DMX512AnalyzerDialog extends BaseToolDialog<DMX512DataSet> im
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<DMX512Data> decodedData = aDataSet.getData();
-          Element tr;
-
-          for ( int i = 0; i < decodedData.size(); i++ )
-          {
-            final DMX512Data ds = decodedData.get( i );
-
-            String eventName = ds.getEventName();
-            String bgColor;
-            if ( "FRAME".equals( eventName ) )
-            {
-              eventName = "Frame error";
-              bgColor = "#ff6600";
-            }
-            else if ( "PARITY".equals( eventName ) )
-            {
-              eventName = "Parity error";
-              bgColor = "#ff9900";
-            }
-            else if ( "START".equals( eventName ) )
-            {
-              eventName = "Start error";
-              bgColor = "#ffcc00";
-            }
-            else
-            {
-              // symbol
-              bgColor = ( i % 2 ) == 0 ? "#ffffff" : "#eeeeee";
-            }
-
-            tr = aParent.addChild( TR ).addAttribute( "style", "background-color: " + bgColor + ";" );
-            tr.addChild( TD ).addContent( String.valueOf( i ) );
-            tr.addChild( TD ).addContent( Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) ) );
-            if ( eventName == null )
-            {
-              // normal symbol...
-              int data = ds.getData();
-
-              String dataHex = "0x" + StringUtils.integerToHexString( data, ( bitCount / 4 ) + bitAdder );
-              String dataBin = "0b" + StringUtils.integerToBinString( data, bitCount );
-              String dataDec = String.valueOf( data );
-              String dataASCII = "";
-              if ( isPrintableCharacter( data ) )
-              {
-                dataASCII = String.valueOf( ( char )data );
-              }
-
-              tr.addChild( TD ).addContent( dataHex );
-              tr.addChild( TD ).addContent( dataBin );
-              tr.addChild( TD ).addContent( dataDec );
-              tr.addChild( TD ).addContent( dataASCII );
-            }
-            else
-            {
-              // error event...
-              tr.addChild( TD ).addAttribute( "colspan", "4" ).addContent( eventName );
-            }
-          }
+          // Rows are written to file one by one...
+          final DMX512TableModel model = new DMX512TableModel();
+          model.setDataSet( aDataSet );
+          return model.toHtmlRows();
         }
-        return null;
-      }
 
-      /**
-       * Returns whether the given value can be represented as an
-       * ASCII-character.
-       * 
-       * @param aValue
-       *          the value to test.
-       * @return <code>true</code> if the given character can be represented as
-       *         printable ASCII-character, <code>false</code> otherwise.
-       */
-      private boolean isPrintableCharacter( final int aValue )
-      {
-        final boolean withinRange = ( aValue >= 32 ) && ( aValue < 255 );
-        return withinRange;
+        return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
@@ -22,6 +22,7 @@ package nl.lxtreme.ols.tool.dmx512;
 
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.tool.base.annotation.*;
@@ -54,7 +55,7 @@ public class DMX512AnalyzerTask implements ToolTask<DMX512DataSet>
 
   private final ToolContext context;
   private final ToolProgressListener progressListener;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
 
   private int dataLine;
 
@@ -68,7 +69,7 @@ public class DMX512AnalyzerTask implements ToolTask<DMX512DataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
 
     this.dataLine = -1;
   }
@@ -81,111 +82,123 @@ public class DMX512AnalyzerTask implements ToolTask<DMX512DataSet>
   @Override
   public DMX512DataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
-
-    int startOfDecode = this.context.getStartSampleIndex();
-    final int endOfDecode = this.context.getEndSampleIndex();
-
-    // find first state change on the selected lines
-    final int mask = ( 1 << this.dataLine );
-
-    final int value = values[startOfDecode] & mask;
-    for ( int i = startOfDecode + 1; i < endOfDecode; i++ )
-    {
-      if ( value != ( values[i] & mask ) )
-      {
-        startOfDecode = i;
-        break;
-      }
-    }
-
-    startOfDecode = Math.max( 0, startOfDecode - 10 );
-
-    // Make sure we've got a valid range to decode..
-    if ( startOfDecode >= endOfDecode )
+    try
     {
-      throw new IllegalStateException( "No valid data range found for DMX512 analysis!" );
-    }
+      final AcquisitionResult data = this.context.getData();
 
-    final DMX512DataSet dataSet = new DMX512DataSet( startOfDecode, endOfDecode, data );
+      int startOfDecode = this.context.getStartSampleIndex();
+      final int endOfDecode = this.context.getEndSampleIndex();
 
-    this.annotationListener.clearAnnotations( this.dataLine );
-    this.annotationListener.onAnnotation( new ChannelLabelAnnotation( this.dataLine, DMX512_DATA_LABEL ) );
+      // find first state change on the selected lines
+      final int mask = ( 1 << this.dataLine );
 
-    final SerialConfiguration config = new SerialConfiguration( BAUDRATE, DATABITS, STOPBITS, PARITY,
-        BitEncoding.HIGH_IS_MARK, BitOrder.MSB_FIRST, BitLevel.HIGH);
+      final SampleCursor cursor = new SampleCursor( data );
+      cursor.moveTo( startOfDecode );
 
-    final DMX512SerialDataDecoder decoder = new DMX512SerialDataDecoder( config, this.context );
-    decoder.setProgressListener( this.progressListener );
-    decoder.setCallback( new SerialDecoderCallback()
-    {
-      /**
-       * {@inheritDoc}
-       */
-      @Override
-      public void onError( final int aChannelIdx, final ErrorType aType, final long aTime )
+      final int value = cursor.getValue() & mask;
+      while ( cursor.next() && ( cursor.getIndex() < endOfDecode ) )
       {
-        dataSet.reportError( aChannelIdx, aType, data.getSampleIndex( aTime ) );
+        if ( value != ( cursor.getValue() & mask ) )
+        {
+          startOfDecode = ( int )cursor.getIndex();
+          break;
+        }
       }
 
-      @Override
-      public void onEvent( final int aChannelIdx, final String aEvent, final long aStartTime, final long aEndTime )
-      {
-        dataSet.reportEvent( aChannelIdx, aEvent, data.getSampleIndex( aStartTime ), data.getSampleIndex( aEndTime ) );
+      startOfDecode = Math.max( 0, startOfDecode - 10 );
 
-        addEventAnnotation( aChannelIdx, aEvent, aStartTime, aEndTime );
-      }
-
-      /**
-       * {@inheritDoc}
-       */
-      @Override
-      public void onSymbol( final int aChannelIdx, final int aSymbol, final long aStartTime, final long aEndTime )
+      // Make sure we've got a valid range to decode..
+      if ( startOfDecode >= endOfDecode )
       {
-        dataSet.reportData( aChannelIdx, data.getSampleIndex( aStartTime ), data.getSampleIndex( aEndTime ), aSymbol );
-
-        addSymbolAnnotation( aChannelIdx, aSymbol, aStartTime, aEndTime );
+        throw new IllegalStateException( "No valid data range found for DMX512 analysis!" );
       }
 
-      /**
-       * Emits a new symbol annotation to the interested listener(s).
-       * 
-       * @param aSymbol
-       *          the symbol itself;
-       * @param aStartSampleIdx
-       *          the start sample index of the symbol;
-       * @param aEndSampleIdx
-       *          the end sample index of the symbol.
-       */
-      private void addEventAnnotation( final int aChannelIdx, final String aEvent, final long aStartTimestamp,
-          final long aEndTimestamp )
-      {
-        DMX512AnalyzerTask.this.annotationListener.onAnnotation( new SampleDataAnnotation( aChannelIdx,
-            aStartTimestamp, aEndTimestamp, aEvent ) );
-      }
+      final DMX512DataSet dataSet = new DMX512DataSet( startOfDecode, endOfDecode, data );
 
-      /**
-       * Emits a new symbol annotation to the interested listener(s).
-       * 
-       * @param aSymbol
-       *          the symbol itself;
-       * @param aStartSampleIdx
-       *          the start sample index of the symbol;
-       * @param aEndSampleIdx
-       *          the end sample index of the symbol.
-       */
-      private void addSymbolAnnotation( final int aChannelIdx, final int aSymbol, final long aStartTimestamp,
-          final long aEndTimestamp )
-      {
-        DMX512AnalyzerTask.this.annotationListener.onAnnotation( new SampleDataAnnotation( aChannelIdx,
-            aStartTimestamp, aEndTimestamp, String.format( "0x%1$X (%1$c)", Integer.valueOf( aSymbol ) ) ) );
-      }
-    } );
+      this.annotationListener.clearAnnotations( this.dataLine );
+      this.annotationListener.onAnnotation( new ChannelLabelAnnotation( this.dataLine, DMX512_DATA_LABEL ) );
 
-    decoder.decodeDataLine( this.dataLine );
+      final SerialConfiguration config = new SerialConfiguration( BAUDRATE, DATABITS, STOPBITS, PARITY,
+          BitEncoding.HIGH_IS_MARK, BitOrder.MSB_FIRST, BitLevel.HIGH);
 
-    return dataSet;
+      final DMX512SerialDataDecoder decoder = new DMX512SerialDataDecoder( config, this.context );
+      decoder.setProgressListener( this.progressListener );
+      decoder.setCallback( new SerialDecoderCallback()
+      {
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onError( final int aChannelIdx, final ErrorType aType, final long aTime )
+        {
+          dataSet.reportError( aChannelIdx, aType, data.getSampleIndex( aTime ) );
+        }
+
+        @Override
+        public void onEvent( final int aChannelIdx, final String aEvent, final long aStartTime, final long aEndTime )
+        {
+          dataSet.reportEvent( aChannelIdx, aEvent, data.getSampleIndex( aStartTime ),
+              data.getSampleIndex( aEndTime ) );
+
+          addEventAnnotation( aChannelIdx, aEvent, aStartTime, aEndTime );
+        }
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void onSymbol( final int aChannelIdx, final int aSymbol, final long aStartTime, final long aEndTime )
+        {
+          dataSet.reportData( aChannelIdx, data.getSampleIndex( aStartTime ), data.getSampleIndex( aEndTime ),
+              aSymbol );
+
+          addSymbolAnnotation( aChannelIdx, aSymbol, aStartTime, aEndTime );
+        }
+
+        /**
+         * Emits a new symbol annotation to the interested listener(s).
+         * 
+         * @param aSymbol
+         *          the symbol itself;
+         * @param aStartSampleIdx
+         *          the start sample index of the symbol;
+         * @param aEndSampleIdx
+         *          the end sample index of the symbol.
+         */
+        private void addEventAnnotation( final int aChannelIdx, final String aEvent, final long aStartTimestamp,
+            final long aEndTimestamp )
+        {
+          DMX512AnalyzerTask.this.annotationListener.onAnnotation( new SampleDataAnnotation( aChannelIdx,
+              aStartTimestamp, aEndTimestamp, aEvent ) );
+        }
+
+        /**
+         * Emits a new symbol annotation to the interested listener(s).
+         * 
+         * @param aSymbol
+         *          the symbol itself;
+         * @param aStartSampleIdx
+         *          the start sample index of the symbol;
+         * @param aEndSampleIdx
+         *          the end sample index of the symbol.
+         */
+        private void addSymbolAnnotation( final int aChannelIdx, final int aSymbol, final long aStartTimestamp,
+            final long aEndTimestamp )
+        {
+          DMX512AnalyzerTask.this.annotationListener.onAnnotation( new SampleDataAnnotation( aChannelIdx,
+              aStartTimestamp, aEndTimestamp, String.format( "0x%1$X (%1$c)", Integer.valueOf( aSymbol ) ) ) );
+        }
+      } );
+
+      decoder.decodeDataLine( this.dataLine );
+
+      return dataSet;
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
+    }
   }
 
   /**
@@ -27,6 +27,7 @@ import java.beans.*;
 import java.util.logging.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.tool.base.annotation.*;
@@ -56,7 +57,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
 
   private final ToolContext context;
   private final ToolProgressListener progressListener;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
   private final PropertyChangeSupport pcs;
 
   private boolean detectSDA_SCL;
@@ -84,7 +85,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
 
     this.pcs = new PropertyChangeSupport( this );
 
@@ -115,236 +116,250 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
   @Override
   public I2CDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
+    try
+    {
+      final AcquisitionResult data = this.context.getData();
 
-    final int[] values = data.getValues();
-    final long[] timestamps = data.getTimestamps();
+      // process the captured data and write to output
+      int oldSCL, oldSDA, bitCount;
+      int byteValue;
 
-    // process the captured data and write to output
-    int oldSCL, oldSDA, bitCount;
-    int byteValue;
+      if ( LOG.isLoggable( Level.FINE ) )
+      {
+        LOG.log( Level.FINE, "Line A mask = 0x{0}", Integer.toHexString( this.lineAmask ) );
+        LOG.log( Level.FINE, "Line B mask = 0x{0}", Integer.toHexString( this.lineBmask ) );
+      }
 
-    if ( LOG.isLoggable( Level.FINE ) )
-    {
-      LOG.log( Level.FINE, "Line A mask = 0x{0}", Integer.toHexString( this.lineAmask ) );
-      LOG.log( Level.FINE, "Line B mask = 0x{0}", Integer.toHexString( this.lineBmask ) );
-    }
+      int startOfDecode = this.context.getStartSampleIndex();
+      int endOfDecode = this.context.getEndSampleIndex();
 
-    int startOfDecode = this.context.getStartSampleIndex();
-    int endOfDecode = this.context.getEndSampleIndex();
+      if ( this.detectSDA_SCL )
+      {
+        startOfDecode = autodetectDataAndClock( data, startOfDecode, endOfDecode );
+      }
+      else
+      {
+        //
+        this.sclIdx = this.lineAidx;
+        this.sdaIdx = this.lineBidx;
+      }
 
-    if ( this.detectSDA_SCL )
-    {
-      startOfDecode = autodetectDataAndClock( data, startOfDecode, endOfDecode );
-    }
-    else
-    {
-      //
-      this.sclIdx = this.lineAidx;
-      this.sdaIdx = this.lineBidx;
-    }
+      final int sdaMask = ( 1 << this.sdaIdx );
+      final int sclMask = ( 1 << this.sclIdx );
 
-    final int sdaMask = ( 1 << this.sdaIdx );
-    final int sclMask = ( 1 << this.sclIdx );
+      final I2CDataSet i2cDataSet = new I2CDataSet( startOfDecode, endOfDecode, data );
 
-    final I2CDataSet i2cDataSet = new I2CDataSet( startOfDecode, endOfDecode, data );
+      // Prepare everything for the decoding results...
+      prepareResults();
 
-    // Prepare everything for the decoding results...
-    prepareResults();
+      /*
+       * Now decode the bytes, SDA may only change when SCL is low. Otherwise it
+       * may be a repeated start condition or stop condition. If the start/stop
+       * condition is not at a byte boundary a bus error is detected. So we have
+       * to scan for SCL rises and for SDA changes during SCL is high. Each byte
+       * is followed by a 9th bit (ACK/NACK).
+       */
+      int idx = i2cDataSet.getStartOfDecode();
+      int prevIdx = -1;
+      long prevTimestamp = -1L;
 
-    /*
-     * Now decode the bytes, SDA may only change when SCL is low. Otherwise it
-     * may be a repeated start condition or stop condition. If the start/stop
-     * condition is not at a byte boundary a bus error is detected. So we have
-     * to scan for SCL rises and for SDA changes during SCL is high. Each byte
-     * is followed by a 9th bit (ACK/NACK).
-     */
-    int idx = i2cDataSet.getStartOfDecode();
-    int prevIdx = -1;
+      // The samples are visited in order, so read them in chunks...
+      final SampleCursor cursor = new SampleCursor( data );
+      cursor.moveTo( idx );
 
-    oldSCL = values[idx] & sclMask;
-    oldSDA = values[idx] & sdaMask;
+      oldSCL = cursor.getValue() & sclMask;
+      oldSDA = cursor.getValue() & sdaMask;
 
-    bitCount = I2C_BITCOUNT;
-    byteValue = 0;
+      bitCount = I2C_BITCOUNT;
+      byteValue = 0;
 
-    boolean startCondFound = false;
-    boolean tenBitAddress = false;
-    int slaveAddress = 0x00;
-    int direction = -1;
+      boolean startCondFound = false;
+      boolean tenBitAddress = false;
+      int slaveAddress = 0x00;
+      int direction = -1;
 
-    if ( this.detectSDA_SCL )
-    {
-      // We've just found our start condition, start the report with that...
-      reportStartCondition( i2cDataSet, startOfDecode );
+      if ( this.detectSDA_SCL )
+      {
+        // We've just found our start condition, start the report with that...
+        reportStartCondition( i2cDataSet, startOfDecode );
 
-      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[startOfDecode],
-          I2CDataSet.I2C_START ) );
+        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, data.getTimestamp( startOfDecode ),
+            I2CDataSet.I2C_START ) );
 
-      startCondFound = true;
-    }
+        startCondFound = true;
+      }
 
-    for ( ; idx < i2cDataSet.getEndOfDecode(); idx++ )
-    {
-      final int dataValue = values[idx];
+      for ( ; idx < i2cDataSet.getEndOfDecode(); idx++ )
+      {
+        cursor.moveTo( idx );
 
-      final int sda = ( dataValue & sdaMask );
-      final int scl = ( dataValue & sclMask );
+        final int dataValue = cursor.getValue();
+        final long timestamp = cursor.getTimestamp();
 
-      // detect SCL fall/rise
-      if ( oldSCL > scl )
-      {
-        // SCL falls
-        if ( ( prevIdx < 0 ) || ( bitCount == I2C_BITCOUNT ) )
-        {
-          prevIdx = idx;
-        }
+        final int sda = ( dataValue & sdaMask );
+        final int scl = ( dataValue & sclMask );
 
-        if ( bitCount == 0 )
+        // detect SCL fall/rise
+        if ( oldSCL > scl )
         {
-          // store decoded byte
-          reportData( i2cDataSet, prevIdx, idx, byteValue );
+          // SCL falls
+          if ( ( prevIdx < 0 ) || ( bitCount == I2C_BITCOUNT ) )
+          {
+            prevIdx = idx;
+            prevTimestamp = timestamp;
+          }
 
-          final String annotation;
-          if ( startCondFound )
+          if ( bitCount == 0 )
           {
-            // This is the (7- or 10-bit) address part...
-            direction = ( byteValue & 0x01 );
+            // store decoded byte
+            reportData( i2cDataSet, prevIdx, idx, byteValue );
 
-            if ( ( byteValue & 0xf8 ) == 0xf0 )
+            final String annotation;
+            if ( startCondFound )
             {
-              // 10-bit address part...
-              slaveAddress = ( byteValue & 0x06 ) << 6;
-              tenBitAddress = true;
+              // This is the (7- or 10-bit) address part...
+              direction = ( byteValue & 0x01 );
 
-              annotation = String.format( "Setup %s 10-bit slave", ( direction == 1 ) ? "read from" : "write to" );
-            }
-            else
-            {
-              if ( tenBitAddress )
+              if ( ( byteValue & 0xf8 ) == 0xf0 )
               {
-                // 10-bit address needs the first few bits of the previous slave
-                // address, so OR-ing is needed here...
-                slaveAddress |= ( byteValue & 0xFF );
+                // 10-bit address part...
+                slaveAddress = ( byteValue & 0x06 ) << 6;
+                tenBitAddress = true;
+
+                annotation = String.format( "Setup %s 10-bit slave", ( direction == 1 ) ? "read from" : "write to" );
               }
               else
               {
-                // 7-bit address, directly available. See issue #51
-                slaveAddress = ( ( byteValue >> 1 ) & 0xFF );
+                if ( tenBitAddress )
+                {
+                  // 10-bit address needs the first few bits of the previous slave
+                  // address, so OR-ing is needed here...
+                  slaveAddress |= ( byteValue & 0xFF );
+                }
+                else
+                {
+                  // 7-bit address, directly available. See issue #51
+                  slaveAddress = ( ( byteValue >> 1 ) & 0xFF );
+                }
+                startCondFound = false;
+
+                annotation = String.format( tenBitAddress ? "Setup %s slave: 0x%X " : "Setup %s slave: 0x%X [0x%X]",
+                    ( direction == 1 ) ? "read from" : "write to", Integer.valueOf( slaveAddress ),
+                    Integer.valueOf( byteValue ) );
+
+                tenBitAddress = false;
               }
-              startCondFound = false;
-
-              annotation = String.format( tenBitAddress ? "Setup %s slave: 0x%X " : "Setup %s slave: 0x%X [0x%X]",
-                  ( direction == 1 ) ? "read from" : "write to", Integer.valueOf( slaveAddress ),
-                  Integer.valueOf( byteValue ) );
-
-              tenBitAddress = false;
             }
-          }
-          else
-          {
-            annotation = String.format( "%s data: 0x%X (%c)", ( direction == 1 ) ? "Read" : "Write",
-                Integer.valueOf( byteValue ), Integer.valueOf( byteValue ) );
-          }
+            else
+            {
+              annotation = String.format( "%s data: 0x%X (%c)", ( direction == 1 ) ? "Read" : "Write",
+                  Integer.valueOf( byteValue ), Integer.valueOf( byteValue ) );
+            }
 
-          this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[prevIdx],
-              timestamps[idx], annotation ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, prevTimestamp,
+                timestamp, annotation ) );
 
-          byteValue = 0;
-        }
-      }
-      else if ( scl > oldSCL )
-      {
-        // SCL rises
-        if ( sda != oldSDA )
-        {
-          reportBusError( i2cDataSet, idx );
+            byteValue = 0;
+          }
         }
-        else
+        else if ( scl > oldSCL )
         {
-          // read SDA
-          if ( bitCount != 0 )
+          // SCL rises
+          if ( sda != oldSDA )
           {
-            bitCount--;
-            if ( sda != 0 )
-            {
-              byteValue |= ( 1 << bitCount );
-            }
+            reportBusError( i2cDataSet, idx );
           }
           else
           {
-            // read the confirmation of the slave...
-            if ( sda != 0 )
+            // read SDA
+            if ( bitCount != 0 )
             {
-              // NACK
-              reportNACK( i2cDataSet, idx );
-
-              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
-                  I2CDataSet.I2C_NACK ) );
+              bitCount--;
+              if ( sda != 0 )
+              {
+                byteValue |= ( 1 << bitCount );
+              }
             }
             else
             {
-              // ACK
-              reportACK( i2cDataSet, idx );
+              // read the confirmation of the slave...
+              if ( sda != 0 )
+              {
+                // NACK
+                reportNACK( i2cDataSet, idx );
 
-              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
-                  I2CDataSet.I2C_ACK ) );
-            }
+                this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamp,
+                    I2CDataSet.I2C_NACK ) );
+              }
+              else
+              {
+                // ACK
+                reportACK( i2cDataSet, idx );
 
-            // next byte
-            bitCount = I2C_BITCOUNT;
-            byteValue = 0;
+                this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamp,
+                    I2CDataSet.I2C_ACK ) );
+              }
+
+              // next byte
+              bitCount = I2C_BITCOUNT;
+              byteValue = 0;
+            }
           }
         }
-      }
 
-      // detect SDA change when SCL high
-      if ( ( scl == sclMask ) && ( sda != oldSDA ) )
-      {
-        // SDA changes here
-        if ( ( bitCount > 0 ) && ( bitCount < ( I2C_BITCOUNT - 1 ) ) )
-        {
-          // bus error, no complete byte detected
-          reportBusError( i2cDataSet, idx );
-        }
-        else
+        // detect SDA change when SCL high
+        if ( ( scl == sclMask ) && ( sda != oldSDA ) )
         {
-          if ( sda > oldSDA )
+          // SDA changes here
+          if ( ( bitCount > 0 ) && ( bitCount < ( I2C_BITCOUNT - 1 ) ) )
           {
-            // SDA rises, this is a stop condition
-            reportStopCondition( i2cDataSet, idx );
-
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
-                I2CDataSet.I2C_STOP ) );
-
-            slaveAddress = 0x00;
-            direction = -1;
+            // bus error, no complete byte detected
+            reportBusError( i2cDataSet, idx );
           }
           else
           {
-            // SDA falls, this is a start condition
-            reportStartCondition( i2cDataSet, idx );
+            if ( sda > oldSDA )
+            {
+              // SDA rises, this is a stop condition
+              reportStopCondition( i2cDataSet, idx );
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamps[idx],
-                I2CDataSet.I2C_START ) );
+              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamp,
+                  I2CDataSet.I2C_STOP ) );
 
-            startCondFound = true;
-          }
+              slaveAddress = 0x00;
+              direction = -1;
+            }
+            else
+            {
+              // SDA falls, this is a start condition
+              reportStartCondition( i2cDataSet, idx );
+
+              this.annotationListener.onAnnotation( new SampleDataAnnotation( this.sdaIdx, timestamp,
+                  I2CDataSet.I2C_START ) );
 
-          // new byte
-          bitCount = I2C_BITCOUNT;
-          byteValue = 0;
+              startCondFound = true;
+            }
+
+            // new byte
+            bitCount = I2C_BITCOUNT;
+            byteValue = 0;
+          }
         }
-      }
 
-      oldSCL = scl;
-      oldSDA = sda;
+        oldSCL = scl;
+        oldSDA = sda;
 
-      this.progressListener
-          .setProgress( getPercentage( idx, i2cDataSet.getStartOfDecode(), i2cDataSet.getEndOfDecode() ) );
-    }
+        this.progressListener
+            .setProgress( getPercentage( idx, i2cDataSet.getStartOfDecode(), i2cDataSet.getEndOfDecode() ) );
+      }
 
-    return i2cDataSet;
+      return i2cDataSet;
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
+    }
   }
 
   /**
@@ -448,7 +463,7 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
   {
     final int dataMask = this.lineAmask | this.lineBmask;
 
-    final int[] values = aData.getValues();
+    final SampleCursor cursor = new SampleCursor( aData );
 
     int sampleIdx;
     /*
@@ -457,7 +472,9 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
      */
     for ( sampleIdx = aStartOfDecode; sampleIdx < aEndOfDecode; sampleIdx++ )
     {
-      final int dataValue = values[sampleIdx];
+      cursor.moveTo( sampleIdx );
+
+      final int dataValue = cursor.getValue();
 
       if ( ( dataValue & dataMask ) == dataMask )
       {
@@ -478,7 +495,9 @@ public class I2CAnalyserTask implements ToolTask<I2CDataSet>
     // a is now the start of idle, now find the first start condition
     for ( ; sampleIdx < aEndOfDecode; sampleIdx++ )
     {
-      final int sample = values[sampleIdx];
+      cursor.moveTo( sampleIdx );
+
+      final int sample = cursor.getValue();
       final int dataValue = sample & dataMask;
 
       if ( ( dataValue != dataMask ) && ( dataValue != 0 ) )
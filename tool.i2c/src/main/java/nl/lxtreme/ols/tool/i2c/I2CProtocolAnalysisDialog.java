@@ -60,6 +60,89 @@ import org.osgi.framework.*;
 public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet> implements ExportAware<I2CDataSet>,
     PropertyChangeListener
 {
+  // INNER TYPES
+
+  /**
+   * Provides the table model for the decoded I2C data.
+   */
+  static final class I2CTableModel extends DataSetTableModel<I2CDataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color START_STOP_COLOR = new Color( 0xe0e0e0 );
+    private static final Color ACK_COLOR = new Color( 0xc0ffc0 );
+    private static final Color NACK_COLOR = new Color( 0xffc0c0 );
+    private static final Color UNKNOWN_EVENT_COLOR = new Color( 0xff8000 );
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link I2CTableModel} instance.
+     */
+    public I2CTableModel()
+    {
+      super( "Index", "Time", "Hex", "Bin", "Dec", "ASCII" );
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final I2CDataSet aDataSet, final int aDataIdx )
+    {
+      final I2CData data = aDataSet.getData().get( aDataIdx );
+      if ( !data.isEvent() )
+      {
+        return null;
+      }
+
+      final String event = data.getEventName();
+      if ( I2CDataSet.I2C_START.equals( event ) || I2CDataSet.I2C_STOP.equals( event ) )
+      {
+        return START_STOP_COLOR;
+      }
+      else if ( I2CDataSet.I2C_ACK.equals( event ) )
+      {
+        return ACK_COLOR;
+      }
+      else if ( I2CDataSet.I2C_NACK.equals( event ) )
+      {
+        return NACK_COLOR;
+      }
+      return UNKNOWN_EVENT_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final I2CDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final I2CData data = aDataSet.getData().get( aDataIdx );
+      switch ( aColumnIdx )
+      {
+        case 0:
+          return Integer.valueOf( aDataIdx );
+        case 1:
+          return Unit.Time.format( aDataSet.getTime( data.getStartSampleIndex() ) );
+        case 2:
+          return data.isEvent() ? data.getEventName() : "0x" + StringUtils.integerToHexString( data.getValue(), 2 );
+        case 3:
+          return data.isEvent() ? null : "0b" + StringUtils.integerToBinString( data.getValue(), 8 );
+        case 4:
+          return data.isEvent() ? null : String.valueOf( data.getValue() );
+        case 5:
+          return data.isEvent() ? null : String.valueOf( ( char )data.getValue() );
+        default:
+          return null;
+      }
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -72,7 +155,8 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   private JComboBox lineA;
   private JLabel lineBLabel;
   private JComboBox lineB;
-  private JEditorPane outText;
+  private I2CTableModel tableModel;
+  private JLabel statistics;
   private JLabel busSetSCL;
   private JLabel busSetSDA;
   private JCheckBox detectSDA_SCL;
@@ -184,9 +268,8 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   @Override
   public void reset()
   {
-    final String emptyHtmlPage = getEmptyHtmlPage();
-    this.outText.setText( emptyHtmlPage );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -253,34 +336,12 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   @Override
   protected void onToolEnded( final I2CDataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-        this.exportAction.setEnabled( !aAnalysisResult.isEmpty() );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-        this.exportAction.setEnabled( false );
-      }
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.statistics.setText( getStatistics( aAnalysisResult ) );
 
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.exportAction.setEnabled( ( aAnalysisResult != null ) && !aAnalysisResult.isEmpty() );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // This should not happen for the no-file exports!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -381,16 +442,19 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   }
 
   /**
-   * @return
+   * Creates the preview pane, showing the statistics and decoded data.
+   * 
+   * @return a preview pane, never <code>null</code>.
    */
   private JPanel createPreviewPane()
   {
-    final JPanel output = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel output = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new I2CTableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    output.add( new JScrollPane( this.outText ) );
+    output.add( this.statistics, BorderLayout.NORTH );
+    output.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return output;
   }
@@ -468,34 +532,21 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   }
 
   /**
-   * Returns an "empty" HTML page.
+   * Returns the statistics of the given analysis result.
    * 
-   * @return an empty HTML page string, never <code>null</code>.
+   * @param aAnalysisResult
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
    */
-  private String getEmptyHtmlPage()
+  private String getStatistics( final I2CDataSet aAnalysisResult )
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    if ( aAnalysisResult == null )
     {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
-      {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        else if ( "sda-bus-config".equals( aMacro ) || "scl-bus-config".equals( aMacro ) )
-        {
-          return "&lt;auto detect&gt;";
-        }
-        else if ( "decoded-bytes".equals( aMacro ) || "detected-bus-errors".equals( aMacro ) )
-        {
-          return "-";
-        }
-        return null;
-      }
-    } );
+      return "Decoded bytes: -, detected bus errors: -";
+    }
+    return String.format( "Decoded bytes: %d, detected bus errors: %d",
+        Integer.valueOf( aAnalysisResult.getDecodedByteCount() ), Integer.valueOf( aAnalysisResult.getBusErrorCount() ) );
   }
 
   /**
@@ -596,13 +647,16 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param aEmpty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aAnalysisResult
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final I2CDataSet aAnalysisResult ) throws IOException
+  private void toHtmlPage( final File aFile, final I2CDataSet aAnalysisResult ) throws IOException
   {
     final MacroResolver macroResolver = new MacroResolver()
     {
@@ -632,76 +686,24 @@ public final class I2CProtocolAnalysisDialog extends BaseToolDialog<I2CDataSet>
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<I2CData> dataSet = aAnalysisResult.getData();
-          Element tr;
-
-          for ( int i = 0; i < dataSet.size(); i++ )
-          {
-            final I2CData data = dataSet.get( i );
-
-            if ( data.isEvent() )
-            {
-              // this is an event
-              final String event = data.getEventName();
-
-              String bgColor;
-              if ( I2CDataSet.I2C_START.equals( event ) || I2CDataSet.I2C_STOP.equals( event ) )
-              {
-                bgColor = "#e0e0e0";
-              }
-              else if ( I2CDataSet.I2C_ACK.equals( event ) )
-              {
-                bgColor = "#c0ffc0";
-              }
-              else if ( I2CDataSet.I2C_NACK.equals( event ) )
-              {
-                bgColor = "#ffc0c0";
-              }
-              else
-              {
-                // unknown event
-                bgColor = "#ff8000";
-              }
-
-              tr = aParent.addChild( TR ).addAttribute( "style", "background-color: " + bgColor + ";" );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( event );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-            }
-            else
-            {
-              final int value = data.getValue();
-
-              tr = aParent.addChild( TR );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( "0x" + StringUtils.integerToHexString( value, 2 ) );
-              tr.addChild( TD ).addContent( "0b" + StringUtils.integerToBinString( value, 8 ) );
-              tr.addChild( TD ).addContent( String.valueOf( value ) );
-              tr.addChild( TD ).addContent( String.valueOf( ( char )value ) );
-            }
-          }
+          // Rows are written to file one by one...
+          final I2CTableModel model = new I2CTableModel();
+          model.setDataSet( aAnalysisResult );
+          return model.toHtmlRows();
         }
 
         return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
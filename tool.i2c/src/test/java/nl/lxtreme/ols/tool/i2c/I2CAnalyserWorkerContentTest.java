@@ -27,6 +27,7 @@ import java.net.*;
 import java.util.*;
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.annotation.Annotation;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.test.*;
@@ -112,6 +113,11 @@ public class I2CAnalyserWorkerContentTest
     I2CDataSet result = worker.call();
     assertNotNull( result );
 
+    // Annotations should only be delivered in batches...
+    Mockito.verify( annotationListener, Mockito.never() ).onAnnotation( Mockito.<Annotation<?>> any() );
+    Mockito.verify( annotationListener, Mockito.atLeastOnce() ).onAnnotations(
+        Mockito.<Collection<? extends Annotation<?>>> any() );
+
     return result;
   }
 }
@@ -43,10 +43,12 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import nl.lxtreme.ols.api.acquisition.AcquisitionResult;
+import nl.lxtreme.ols.api.data.SampleCursor;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.ToolContext;
 import nl.lxtreme.ols.api.tools.ToolProgressListener;
 import nl.lxtreme.ols.api.tools.ToolTask;
+import nl.lxtreme.ols.tool.base.annotation.BufferedAnnotationListener;
 import nl.lxtreme.ols.tool.base.annotation.ChannelLabelAnnotation;
 import nl.lxtreme.ols.tool.base.annotation.SampleDataAnnotation;
 
@@ -68,7 +70,7 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
   // VARIABLES
 
   private final ToolContext context;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
   private final ToolProgressListener progressListener;
 
   private int tmsIdx;
@@ -90,7 +92,7 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
 
     this.tdoIdx = -1;
     this.tdiIdx = -1;
@@ -107,29 +109,37 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
   @Override
   public JTAGDataSet call() throws Exception
   {
-    if ( LOG.isLoggable( Level.FINE ) )
+    try
     {
-      LOG.fine( "tmsmask = 0x" + Integer.toHexString( 1 << this.tmsIdx ) );
-      LOG.fine( "tckmask = 0x" + Integer.toHexString( 1 << this.tckIdx ) );
-      LOG.fine( "tdomask = 0x" + Integer.toHexString( 1 << this.tdoIdx ) );
-      LOG.fine( "tdimask = 0x" + Integer.toHexString( 1 << this.tdiIdx ) );
-    }
+      if ( LOG.isLoggable( Level.FINE ) )
+      {
+        LOG.fine( "tmsmask = 0x" + Integer.toHexString( 1 << this.tmsIdx ) );
+        LOG.fine( "tckmask = 0x" + Integer.toHexString( 1 << this.tckIdx ) );
+        LOG.fine( "tdomask = 0x" + Integer.toHexString( 1 << this.tdoIdx ) );
+        LOG.fine( "tdimask = 0x" + Integer.toHexString( 1 << this.tdiIdx ) );
+      }
 
-    final int startOfDecode = this.context.getStartSampleIndex();
-    final int endOfDecode = this.context.getEndSampleIndex();
+      final int startOfDecode = this.context.getStartSampleIndex();
+      final int endOfDecode = this.context.getEndSampleIndex();
 
-    // Initialize the channel labels + clear any existing annotations...
-    prepareResults();
+      // Initialize the channel labels + clear any existing annotations...
+      prepareResults();
 
-    final JTAGDataSet decodedData = new JTAGDataSet( startOfDecode, endOfDecode, this.context.getData() );
+      final JTAGDataSet decodedData = new JTAGDataSet( startOfDecode, endOfDecode, this.context.getData() );
 
-    // Perform the actual decoding of the data line(s)...
-    clockDataOnEdge( decodedData, startOfDecode );
+      // Perform the actual decoding of the data line(s)...
+      clockDataOnEdge( decodedData, startOfDecode );
     
-    // Sort the data on the starting timestamp...
-    decodedData.sort();
+      // Sort the data on the starting timestamp...
+      decodedData.sort();
 
-    return decodedData;
+      return decodedData;
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
+    }
   }
 
   /**
@@ -189,9 +199,6 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
   {
     final AcquisitionResult data = this.context.getData();
 
-    final int[] values = data.getValues();
-    final long[] timestamps = data.getTimestamps();
-
     final int startOfDecode = Math.max( aSlaveSelectedIdx, aDataSet.getStartOfDecode() );
     final int endOfDecode = aDataSet.getEndOfDecode();
 
@@ -200,8 +207,12 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
     final int tckMask = ( 1 << this.tckIdx );
     final int tmsMask = ( 1 << this.tmsIdx );
 
+    // The samples are visited in order, so read them in chunks...
+    final SampleCursor cursor = new SampleCursor( data );
+    cursor.moveTo( startOfDecode );
+
     // scanning for falling/rising clk edges
-    int oldTckValue = ( values[startOfDecode] & tckMask );
+    int oldTckValue = ( cursor.getValue() & tckMask );
 
     String state;
     int startTdiDataIdx = 0;
@@ -219,7 +230,9 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
     final double length = endOfDecode - startOfDecode;
     for ( int idx = startOfDecode + 1; idx < endOfDecode; idx++ )
     {
-      final int dataSample = values[idx];
+      cursor.moveTo( idx );
+
+      final int dataSample = cursor.getValue();
       final int tckValue = ( dataSample & tckMask );
       final int tmsValue = ( dataSample & tmsMask );
       final int tdiValue = ( dataSample & tdiMask );
@@ -355,10 +368,10 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
           { // state 8: Update DR
             state = this.currentState.getDisplayText();
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, data.getTimestamp( startTdiDataIdx ),
+                data.getTimestamp( endTdiDataIdx ), String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, data.getTimestamp( startTdiDataIdx ),
+                data.getTimestamp( endTdiDataIdx ), String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
 
             aDataSet.reportJTAGTdiData( tdiIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdiData );
             aDataSet.reportJTAGTdoData( tdoIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdoData );
@@ -476,11 +489,11 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
           { // state 15: Update IR
             state = this.currentState.getDisplayText();
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdiIdx, data.getTimestamp( startTdiDataIdx ),
+                data.getTimestamp( endTdiDataIdx ), String.format( "0x%x", new BigInteger( tdiData, 2 ) ) ) );
 
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, timestamps[startTdiDataIdx],
-                timestamps[endTdiDataIdx], String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tdoIdx, data.getTimestamp( startTdiDataIdx ),
+                data.getTimestamp( endTdiDataIdx ), String.format( "0x%x", new BigInteger( tdoData, 2 ) ) ) );
 
             aDataSet.reportJTAGTdiData( tdiIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdiData );
             aDataSet.reportJTAGTdoData( tdoIdx, startTdiDataIdx, endTdiDataIdx, currentState, tdoData );
@@ -501,8 +514,8 @@ public class JTAGAnalyserTask implements ToolTask<JTAGDataSet>
 
           if ( this.oldState != this.currentState )
           {
-            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tmsIdx, timestamps[this.startIdx],
-                timestamps[idx], state ) );
+            this.annotationListener.onAnnotation( new SampleDataAnnotation( this.tmsIdx, data.getTimestamp( this.startIdx ),
+                cursor.getTimestamp(), state ) );
 
             aDataSet.reportJTAGState( this.tmsIdx, this.startIdx, idx, this.oldState );
 
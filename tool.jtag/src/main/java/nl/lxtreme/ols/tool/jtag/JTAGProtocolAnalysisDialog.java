@@ -26,16 +26,16 @@ import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.H1;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.HR;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.TABLE;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.TBODY;
-import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.TD;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.TH;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.THEAD;
 import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.TR;
 import static nl.lxtreme.ols.util.swing.SwingComponentUtils.createRightAlignedLabel;
 
+import java.awt.BorderLayout;
+import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
-import java.awt.GridLayout;
 import java.awt.Insets;
 import java.awt.Window;
 import java.io.File;
@@ -51,9 +51,7 @@ import javax.swing.Action;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JComponent;
-import javax.swing.JEditorPane;
 import javax.swing.JPanel;
-import javax.swing.JScrollPane;
 import javax.swing.SpringLayout;
 
 import nl.lxtreme.ols.api.UserSettings;
@@ -61,6 +59,8 @@ import nl.lxtreme.ols.api.tools.ToolContext;
 import nl.lxtreme.ols.api.tools.ToolTask;
 import nl.lxtreme.ols.api.util.Unit;
 import nl.lxtreme.ols.tool.base.BaseToolDialog;
+import nl.lxtreme.ols.tool.base.DataSetTable;
+import nl.lxtreme.ols.tool.base.DataSetTableModel;
 import nl.lxtreme.ols.tool.base.ExportAware;
 import nl.lxtreme.ols.tool.base.ToolUtils;
 import nl.lxtreme.ols.tool.base.ToolUtils.RestorableAction;
@@ -84,6 +84,122 @@ import org.osgi.framework.BundleContext;
  */
 public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet> implements ExportAware<JTAGDataSet>
 {
+  // INNER TYPES
+
+  /**
+   * Provides the table model for the decoded JTAG data.
+   */
+  static final class JTAGTableModel extends DataSetTableModel<JTAGDataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color EVENT_COLOR = new Color( 0xfefeff );
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link JTAGTableModel} instance.
+     */
+    public JTAGTableModel()
+    {
+      super( "Index", "Time", "State", "TDI Hex", "TDI Bin", "TDO Hex", "TDO Bin" );
+    }
+
+    // METHODS
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final JTAGDataSet aDataSet, final int aDataIdx )
+    {
+      return aDataSet.getData().get( aDataIdx ).isEvent() ? EVENT_COLOR : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final JTAGDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final JTAGData data = aDataSet.getData().get( aDataIdx );
+      if ( aColumnIdx == 0 )
+      {
+        return Integer.valueOf( aDataIdx );
+      }
+      else if ( aColumnIdx == 1 )
+      {
+        return Unit.Time.format( aDataSet.getTime( data.getStartSampleIndex() ) );
+      }
+      else if ( aColumnIdx == 2 )
+      {
+        return data.isEvent() ? String.valueOf( data.getDataValue() ) : data.getEventName();
+      }
+      else if ( data.isEvent() )
+      {
+        return null;
+      }
+
+      final BigInteger value = getShiftedData( aDataSet, aDataIdx, aColumnIdx >= 5 );
+      if ( value == null )
+      {
+        return null;
+      }
+      else if ( ( aColumnIdx % 2 ) != 0 )
+      {
+        return "0x" + value.toString( 16 );
+      }
+      return "0b" + value.toString( 2 );
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean isContinuation( final JTAGDataSet aDataSet, final int aDataIdx )
+    {
+      final List<JTAGData> decodedData = aDataSet.getData();
+
+      int runStart = aDataIdx;
+      while ( ( runStart > 0 ) && isSameShift( decodedData.get( runStart - 1 ), decodedData.get( runStart ) ) )
+      {
+        runStart--;
+      }
+      // Only the second entry of each pair is a continuation...
+      return ( ( aDataIdx - runStart ) % 2 ) != 0;
+    }
+
+    /**
+     * Returns the TDI or TDO data of the row starting at the given data entry,
+     * coalescing equal timestamps.
+     */
+    private BigInteger getShiftedData( final JTAGDataSet aDataSet, final int aDataIdx, final boolean aTdo )
+    {
+      final List<JTAGData> decodedData = aDataSet.getData();
+      final JTAGData data = decodedData.get( aDataIdx );
+
+      if ( ( ( aDataIdx + 1 ) < decodedData.size() ) && isContinuation( aDataSet, aDataIdx + 1 ) )
+      {
+        final JTAGData next = decodedData.get( aDataIdx + 1 );
+        final boolean useNext = aTdo ? next.isTdoData() : next.isTdiData();
+        return ( BigInteger )( useNext ? next.getDataValue() : data.getDataValue() );
+      }
+
+      final boolean useData = aTdo ? data.isTdoData() : data.isTdiData();
+      return useData ? ( BigInteger )data.getDataValue() : null;
+    }
+
+    /**
+     * Returns whether the two given data entries are shifted at the same time.
+     */
+    private static boolean isSameShift( final JTAGData aFirst, final JTAGData aSecond )
+    {
+      return !aFirst.isEvent() && !aSecond.isEvent() && ( aFirst.getStartSampleIndex() == aSecond.getStartSampleIndex() );
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -96,7 +212,7 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
   private JComboBox tdo;
   private JComboBox tdi;
   private JComboBox tms;
-  private JEditorPane outText;
+  private JTAGTableModel tableModel;
 
   private RestorableAction runAnalysisAction;
   private Action exportAction;
@@ -161,8 +277,7 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
   @Override
   public void reset()
   {
-    this.outText.setText( getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
 
     this.runAnalysisAction.restore();
 
@@ -188,34 +303,10 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
   @Override
   protected void onToolEnded( final JTAGDataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-        this.exportAction.setEnabled( !aAnalysisResult.isEmpty() );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-        this.exportAction.setEnabled( false );
-      }
-
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.exportAction.setEnabled( ( aAnalysisResult != null ) && !aAnalysisResult.isEmpty() );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // Should not happen in this situation!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -324,12 +415,11 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
    */
   private JPanel createPreviewPane()
   {
-    final JPanel panTable = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel panTable = new JPanel( new BorderLayout() );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new JTAGTableModel();
 
-    panTable.add( new JScrollPane( this.outText ) );
+    panTable.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return panTable;
   }
@@ -366,29 +456,6 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
     return settings;
   }
 
-  /**
-   * Generates an empty HTML page.
-   * 
-   * @return String with HTML data.
-   */
-  private String getEmptyHtmlPage()
-  {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
-    {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
-      {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        return null;
-      }
-    } );
-  }
-
   /**
    * Initializes this dialog.
    */
@@ -510,14 +577,16 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param aDataSet
-   *          the data set to create the HTML page for, cannot be
-   *          <code>null</code>.
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aAnalysisResult
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final JTAGDataSet aAnalysisResult ) throws IOException
+  private void toHtmlPage( final File aFile, final JTAGDataSet aAnalysisResult ) throws IOException
   {
     LOG.log( Level.INFO, "toHtmlPage" );
 
@@ -535,95 +604,26 @@ public final class JTAGProtocolAnalysisDialog extends BaseToolDialog<JTAGDataSet
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
+          // Rows are written to file one by one...
           LOG.log( Level.INFO, "toHtmlPage decoded-data" );
 
-          final List<JTAGData> dataSet = aAnalysisResult.getData();
-          Element tr;
-
-          for ( int i = 0; i < dataSet.size(); i++ )
-          {
-            final JTAGData data = dataSet.get( i );
-
-            if ( data.isEvent() )
-            {
-              tr = aParent.addChild( TR ).addAttribute( "style", "background-color: #fefeff;" );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( String.valueOf( data.getDataValue() ) );
-              tr.addChild( TD ).addAttribute( "colspan", "4" );
-            }
-            else
-            {
-              tr = aParent.addChild( TR );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aAnalysisResult.getTime( data.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( data.getEventName() );
-
-              BigInteger tdiData = null;
-              BigInteger tdoData = null;
-
-              // Try to coalesce equal timestamps...
-              if ( ( i + 1 ) < dataSet.size() )
-              {
-                final JTAGData next = dataSet.get( i + 1 );
-                if ( next.getStartSampleIndex() == data.getStartSampleIndex() )
-                {
-                  tdiData = ( BigInteger )( next.isTdiData() ? next.getDataValue() : data.getDataValue() );
-                  tdoData = ( BigInteger )( next.isTdoData() ? next.getDataValue() : data.getDataValue() );
-                  // Make sure to skip this entry in the next iteration...
-                  i++;
-                }
-              }
-              
-              if ( ( tdiData == null ) && data.isTdiData() )
-              {
-                tdiData = ( BigInteger )data.getDataValue();
-                tdoData = null;
-              }
-              else if ( ( tdoData == null ) && data.isTdoData() )
-              {
-                tdiData = null;
-                tdoData = ( BigInteger )data.getDataValue();
-              }
-
-              if ( tdiData != null )
-              {
-                tr.addChild( TD ).addContent( "0x" + tdiData.toString( 16 ) );
-                tr.addChild( TD ).addContent( "0b" + tdiData.toString( 2 ) );
-              }
-              else
-              {
-                tr.addChild( TD ).addAttribute( "colspan", "2" );
-              }
-              if ( tdoData != null )
-              {
-                tr.addChild( TD ).addContent( "0x" + tdoData.toString( 16 ) );
-                tr.addChild( TD ).addContent( "0b" + tdoData.toString( 2 ) );
-              }
-              else
-              {
-                tr.addChild( TD ).addAttribute( "colspan", "2" );
-              }
-            }
-          }
+          final JTAGTableModel model = new JTAGTableModel();
+          model.setDataSet( aAnalysisResult );
+          return model.toHtmlRows();
         }
 
         return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
@@ -26,6 +26,7 @@ import java.util.*;
 import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
 import nl.lxtreme.ols.api.tools.*;
+import nl.lxtreme.ols.tool.base.annotation.*;
 import nl.lxtreme.ols.tool.linedecoder.*;
 
 
@@ -79,7 +80,17 @@ public class LineDecoderTask implements ToolTask<AcquisitionResult>
     final LineDecoderToolContextImpl decoderContext = new LineDecoderToolContextImpl( this.context, this.lines,
         this.inverted, this.recoverClock, this.clockSpeed );
 
-    return this.decoder.decode( decoderContext, this.annotationListener, this.progressListener );
+    final BufferedAnnotationListener annotationListener = new BufferedAnnotationListener( this.annotationListener );
+
+    try
+    {
+      return this.decoder.decode( decoderContext, annotationListener, this.progressListener );
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      annotationListener.flush();
+    }
   }
 
   /**
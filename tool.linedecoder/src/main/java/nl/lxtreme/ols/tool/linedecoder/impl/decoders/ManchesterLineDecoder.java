@@ -67,8 +67,10 @@ public class ManchesterLineDecoder implements LineDecoder
   {
     final AcquisitionResult inputData = aContext.getData();
 
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
+    // One cursor walks the samples in order, the other one looks up the data
+    // values at the (recovered) clock edges...
+    final SampleCursor scanner = new SampleCursor( inputData );
+    final SampleCursor cursor = new SampleCursor( inputData );
 
     final int dataIdx = aContext.getLineChannels()[0];
     final int clockIdx = dataIdx >= 1 ? dataIdx - 1 : dataIdx + 1; // XXX
@@ -81,7 +83,8 @@ public class ManchesterLineDecoder implements LineDecoder
 
     int startIdx = aContext.getStartSampleIndex();
     int endIdx = aContext.getEndSampleIndex();
-    int lastValue = values[startIdx] & dataMask;
+    scanner.moveTo( startIdx );
+    int lastValue = scanner.getValue() & dataMask;
 
     long symbolStartTime = -1L;
     long lastTimestamp = -1L;
@@ -96,7 +99,9 @@ public class ManchesterLineDecoder implements LineDecoder
 
     for ( int i = startIdx; i < endIdx; i++ )
     {
-      int value = values[i] & dataMask;
+      scanner.moveTo( i );
+
+      int value = scanner.getValue() & dataMask;
 
       long clockEdge = -1L;
 
@@ -108,7 +113,7 @@ public class ManchesterLineDecoder implements LineDecoder
           // First rising or falling edge; take its timestamp and do not do
           // anything yet, we need another edge to fully start the decoding
           // process...
-          lastTimestamp = timestamps[i];
+          lastTimestamp = scanner.getTimestamp();
           symbolStartTime = lastTimestamp;
           firstSignalEdge = lastTimestamp;
         }
@@ -116,7 +121,7 @@ public class ManchesterLineDecoder implements LineDecoder
         {
           // Either a falling or rising edge; take the time between the former
           // edge and this edge.
-          long diff = timestamps[i] - lastTimestamp;
+          long diff = scanner.getTimestamp() - lastTimestamp;
 
           if ( halfCycle < 0L )
           {
@@ -139,7 +144,7 @@ public class ManchesterLineDecoder implements LineDecoder
               // Only the even edges are considered a clock edge...
               if ( ( edgeCounter % 2 ) == 0 )
               {
-                clockEdge = timestamps[i];
+                clockEdge = scanner.getTimestamp();
               }
               edgeCounter++;
             }
@@ -150,19 +155,19 @@ public class ManchesterLineDecoder implements LineDecoder
 
               // The clock edge should have appeared halfCycle before the
               // current timestamp...
-              clockEdge = timestamps[i] - halfCycle;
+              clockEdge = scanner.getTimestamp() - halfCycle;
               // We've missed a clock edge, so increase the counter by 2...
               edgeCounter += 2;
             }
           }
 
-          lastTimestamp = timestamps[i];
+          lastTimestamp = scanner.getTimestamp();
         }
       }
 
       if ( clockEdge >= 0L )
       {
-        int sampleValue = getDataValue( aContext, clockEdge );
+        int sampleValue = getDataValue( cursor, clockEdge );
 
         symbol <<= 1;
         bitCount++;
@@ -190,7 +195,7 @@ public class ManchesterLineDecoder implements LineDecoder
       lastTimestamp += halfCycle;
       // Since there's no more signal transitions; we simply determine the last
       // bit value and use that for the missing bits...
-      int sampleValue = getDataValue( aContext, lastTimestamp );
+      int sampleValue = getDataValue( cursor, lastTimestamp );
       while ( bitCount++ < symbolSize )
       {
         // To determine where the symbol ends...
@@ -211,16 +216,20 @@ public class ManchesterLineDecoder implements LineDecoder
     String format = Unit.Frequency.format( inputData.getSampleRate() / ( 2.0 * halfCycle ) );
     System.out.println( "Clock signal = " + format );
 
+    // Only the decoded window is recreated; all other samples are taken as-is
+    // from the input data...
     SortedMap<Long, Integer> newSamples = new TreeMap<Long, Integer>();
-    for ( int i = 0; i < values.length; i++ )
+    for ( int i = startIdx; i < endIdx; i++ )
     {
-      newSamples.put( timestamps[i], values[i] );
+      scanner.moveTo( i );
+
+      newSamples.put( scanner.getTimestamp(), scanner.getValue() );
     }
 
     boolean clockLow = false;
     for ( long time = firstSignalEdge + halfCycle; time < lastTimestamp; time += halfCycle )
     {
-      int sampleValue = getDataValue( aContext, time );
+      int sampleValue = getDataValue( cursor, time );
       if ( clockLow )
       {
         sampleValue &= ~clockMask;
@@ -254,25 +263,17 @@ public class ManchesterLineDecoder implements LineDecoder
       newSamples.put( time, sampleValue );
     }
 
-    List<Integer> newValues = new ArrayList<Integer>();
-    List<Long> newTimestamps = new ArrayList<Long>();
+    final CapturedDataBuilder builder = new CapturedDataBuilder( newSamples.size() );
 
     for ( Map.Entry<Long, Integer> entry : newSamples.entrySet() )
     {
-      newValues.add( entry.getValue() );
-      newTimestamps.add( entry.getKey() );
-    }
-
-    for ( int i = endIdx; i < values.length; i++ )
-    {
-      newValues.add( values[i] );
-      newTimestamps.add( timestamps[i] );
+      builder.addSample( entry.getValue().intValue(), entry.getKey().longValue() );
     }
 
-    long absoluteLength = newTimestamps.get( newTimestamps.size() - 1 );
+    final AcquisitionResult window = builder.setSampleRate( inputData.getSampleRate() )
+        .setChannels( inputData.getChannels() ).setEnabledChannels( inputData.getEnabledChannels() ).build();
 
-    return new CapturedData( newValues, newTimestamps, firstSignalEdge, inputData.getSampleRate(),
-        inputData.getChannels(), inputData.getEnabledChannels(), absoluteLength );
+    return new AcquisitionResultOverlay( inputData, window, firstSignalEdge );
   }
 
   /**
@@ -296,24 +297,16 @@ public class ManchesterLineDecoder implements LineDecoder
   /**
    * Returns the data value for the given time stamp.
    * 
+   * @param aCursor
+   *          the sample cursor to use;
    * @param aTimeValue
    *          the time stamp to return the data value for.
    * @return the data value of the sample index right before the given time
    *         value.
    */
-  protected final int getDataValue( final LineDecoderToolContext aContext, final long aTimeValue )
+  protected final int getDataValue( final SampleCursor aCursor, final long aTimeValue )
   {
-    final AcquisitionResult inputData = aContext.getData();
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
-
-    int k = Arrays.binarySearch( timestamps, aTimeValue );
-    if ( k < 0 )
-    {
-      k = -( k + 1 );
-    }
-
-    return ( ( k == 0 ) ? values[0] : values[k - 1] );
+    return aCursor.valueAt( aTimeValue - 1L );
   }
 
   /**
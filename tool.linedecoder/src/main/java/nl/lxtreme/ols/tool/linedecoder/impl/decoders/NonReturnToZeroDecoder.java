@@ -22,6 +22,7 @@ package nl.lxtreme.ols.tool.linedecoder.impl.decoders;
 
 
 import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.data.annotation.*;
 import nl.lxtreme.ols.api.tools.*;
 import nl.lxtreme.ols.tool.base.annotation.*;
@@ -63,8 +64,7 @@ public class NonReturnToZeroDecoder implements LineDecoder
   {
     final AcquisitionResult inputData = aContext.getData();
 
-    final int[] values = inputData.getValues();
-    final long[] timestamps = inputData.getTimestamps();
+    final SampleCursor cursor = new SampleCursor( inputData );
 
     final int dataIdx = aContext.getLineChannels()[0];
     final int clockIdx = aContext.getLineChannels()[1];
@@ -77,23 +77,25 @@ public class NonReturnToZeroDecoder implements LineDecoder
     int startIdx = aContext.getStartSampleIndex();
     int endIdx = aContext.getEndSampleIndex();
 
-    int symbolStartIdx = -1;
+    long symbolStartTime = -1L;
     int symbolSize = 8;
     int bitCount = 0;
     int symbol = 0;
 
     for ( int i = startIdx; i < endIdx; i++ )
     {
-      int clockValue = values[i] & clockMask;
+      cursor.moveTo( i );
+
+      int clockValue = cursor.getValue() & clockMask;
 
       if ( clockValue != 0 )
       {
-        if ( symbolStartIdx < 0 )
+        if ( symbolStartTime < 0L )
         {
-          symbolStartIdx = i;
+          symbolStartTime = cursor.getTimestamp();
         }
 
-        int dataValue = values[i] & dataMask;
+        int dataValue = cursor.getValue() & dataMask;
 
         symbol <<= 1;
         if ( dataValue != 0 )
@@ -104,12 +106,12 @@ public class NonReturnToZeroDecoder implements LineDecoder
 
         if ( bitCount == symbolSize )
         {
-          aAnnotationListener.onAnnotation( createAnnotation( dataIdx, timestamps[symbolStartIdx], timestamps[i],
+          aAnnotationListener.onAnnotation( createAnnotation( dataIdx, symbolStartTime, cursor.getTimestamp(),
               symbol ) );
 
           symbol = 0;
           bitCount = 0;
-          symbolStartIdx = -1;
+          symbolStartTime = -1L;
         }
       }
     }
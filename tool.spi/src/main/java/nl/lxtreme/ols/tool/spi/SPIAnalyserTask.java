@@ -51,7 +51,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
 
   private final ToolContext context;
   private final ToolProgressListener progressListener;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
   private final PropertyChangeSupport pcs;
 
   private int csIdx;
@@ -81,7 +81,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
 
     this.pcs = new PropertyChangeSupport( this );
 
@@ -115,48 +115,56 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   @Override
   public SPIDataSet call() throws Exception
   {
-    if ( LOG.isLoggable( Level.FINE ) )
+    try
     {
-      LOG.fine( "csmask   = 0x" + Integer.toHexString( 1 << this.csIdx ) );
-      LOG.fine( "sckmask  = 0x" + Integer.toHexString( 1 << this.sckIdx ) );
-      LOG.fine( "misomask = 0x" + Integer.toHexString( 1 << this.misoIdx ) );
-      LOG.fine( "mosimask = 0x" + Integer.toHexString( 1 << this.mosiIdx ) );
-    }
+      if ( LOG.isLoggable( Level.FINE ) )
+      {
+        LOG.fine( "csmask   = 0x" + Integer.toHexString( 1 << this.csIdx ) );
+        LOG.fine( "sckmask  = 0x" + Integer.toHexString( 1 << this.sckIdx ) );
+        LOG.fine( "misomask = 0x" + Integer.toHexString( 1 << this.misoIdx ) );
+        LOG.fine( "mosimask = 0x" + Integer.toHexString( 1 << this.mosiIdx ) );
+      }
 
-    final int startOfDecode = this.context.getStartSampleIndex();
-    final int endOfDecode = this.context.getEndSampleIndex();
-    final int slaveSelected = slaveSelected( startOfDecode, endOfDecode );
+      final int startOfDecode = this.context.getStartSampleIndex();
+      final int endOfDecode = this.context.getEndSampleIndex();
+      final int slaveSelected = slaveSelected( startOfDecode, endOfDecode );
 
-    if ( ( this.honourCS && ( slaveSelected < 0 ) ) || ( startOfDecode >= endOfDecode ) )
-    {
-      // no CS edge found, look for trigger
-      LOG.log( Level.WARNING, "No CS start-condition found! Analysis aborted..." );
-      throw new IllegalStateException( "No CS start-condition found!" );
-    }
+      if ( ( this.honourCS && ( slaveSelected < 0 ) ) || ( startOfDecode >= endOfDecode ) )
+      {
+        // no CS edge found, look for trigger
+        LOG.log( Level.WARNING, "No CS start-condition found! Analysis aborted..." );
+        throw new IllegalStateException( "No CS start-condition found!" );
+      }
 
-    // Initialize the channel labels + clear any existing annotations...
-    prepareResults();
+      // Initialize the channel labels + clear any existing annotations...
+      prepareResults();
 
-    if ( ( this.spiMode == null ) || ( this.spiMode == SPIMode.AUTODETECT ) )
-    {
-      LOG.log( Level.INFO, "Detecting which SPI mode is most probably used..." );
-      this.spiMode = detectSPIMode( startOfDecode, endOfDecode );
-    }
+      if ( ( this.spiMode == null ) || ( this.spiMode == SPIMode.AUTODETECT ) )
+      {
+        LOG.log( Level.INFO, "Detecting which SPI mode is most probably used..." );
+        this.spiMode = detectSPIMode( startOfDecode, endOfDecode );
+      }
 
-    // Notify any listeners of the detected mode...
-    this.pcs.firePropertyChange( PROPERTY_AUTO_DETECT_MODE, null, this.spiMode );
+      // Notify any listeners of the detected mode...
+      this.pcs.firePropertyChange( PROPERTY_AUTO_DETECT_MODE, null, this.spiMode );
 
-    final SPIDataSet decodedData = new SPIDataSet( startOfDecode, endOfDecode, this.context.getData() );
-    if ( slaveSelected >= 0 )
-    {
-      // now the trigger is in b, add trigger event to table
-      reportCsLow( decodedData, slaveSelected );
-    }
+      final SPIDataSet decodedData = new SPIDataSet( startOfDecode, endOfDecode, this.context.getData() );
+      if ( slaveSelected >= 0 )
+      {
+        // now the trigger is in b, add trigger event to table
+        reportCsLow( decodedData, slaveSelected );
+      }
 
-    // Perform the actual decoding of the data line(s)...
-    clockDataOnEdge( decodedData, this.spiMode, slaveSelected );
+      // Perform the actual decoding of the data line(s)...
+      clockDataOnEdge( decodedData, this.spiMode, slaveSelected );
 
-    return decodedData;
+      return decodedData;
+    }
+    finally
+    {
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
+    }
   }
 
   /**
@@ -330,7 +338,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   {
     final AcquisitionResult data = this.context.getData();
 
-    final int[] values = data.getValues();
+    final SampleCursor cursor = new SampleCursor( data );
 
     final int startOfDecode = Math.max( aSlaveSelectedIdx, aDataSet.getStartOfDecode() );
     final int endOfDecode = aDataSet.getEndOfDecode();
@@ -342,9 +350,11 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
     final int sckMask = ( 1 << this.sckIdx );
     final int csMask = ( 1 << this.csIdx );
 
+    cursor.moveTo( startOfDecode );
+
     // scanning for falling/rising clk edges
-    int oldSckValue = ( values[startOfDecode] & sckMask );
-    int oldCsValue = ( values[startOfDecode] & csMask );
+    int oldSckValue = ( cursor.getValue() & sckMask );
+    int oldCsValue = ( cursor.getValue() & csMask );
 
     boolean slaveSelected = true;
     int dataStartIdx = startOfDecode;
@@ -359,7 +369,9 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
 
     for ( int idx = startOfDecode + 1; idx < endOfDecode; idx++ )
     {
-      final int dataSample = values[idx];
+      cursor.moveTo( idx );
+
+      final int dataSample = cursor.getValue();
       /* CLK edge detection */
       final int sckValue = ( dataSample & sckMask );
       /* CS edge detection */
@@ -526,14 +538,16 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
     final AcquisitionResult data = this.context.getData();
     final Frequency<Integer> valueStats = new Frequency<Integer>();
 
-    final int[] values = data.getValues();
+    final SampleCursor cursor = new SampleCursor( data );
     final int sckMask = 1 << this.sckIdx;
 
     // Determine the value of the clock line of each sample; the value that
     // occurs the most is probably the default polarity...
     for ( int i = aStartIndex; i < aEndIndex; i++ )
     {
-      final int newValue = ( values[i] & sckMask ) >> this.sckIdx;
+      cursor.moveTo( i );
+
+      final int newValue = ( cursor.getValue() & sckMask ) >> this.sckIdx;
       valueStats.addValue( Integer.valueOf( newValue ) );
     }
 
@@ -646,7 +660,10 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   private void reportData( final SPIDataSet aDecodedData, final int aStartIdx, final int aEndIdx, final int aMosiValue,
       final int aMisoValue )
   {
-    long[] timestamps = this.context.getData().getTimestamps();
+    // Only look up the two timestamps needed, instead of copying all of them...
+    final AcquisitionResult data = this.context.getData();
+    final long startTime = data.getTimestamp( aStartIdx );
+    final long endTime = data.getTimestamp( aEndIdx );
 
     if ( SPIFIMode.STANDARD.equals( this.protocol ) )
     {
@@ -661,8 +678,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
           formatSpec = formatSpec.concat( " (%1$c)" );
         }
 
-        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, timestamps[aStartIdx],
-            timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
+        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, startTime, endTime,
+            String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
 
         aDecodedData.reportMosiData( this.mosiIdx, aStartIdx, aEndIdx, mosivalue );
       }
@@ -678,8 +695,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
           formatSpec = formatSpec.concat( " (%1$c)" );
         }
 
-        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.misoIdx, timestamps[aStartIdx],
-            timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( misovalue ) ) ) );
+        this.annotationListener.onAnnotation( new SampleDataAnnotation( this.misoIdx, startTime, endTime,
+            String.format( formatSpec, Integer.valueOf( misovalue ) ) ) );
 
         aDecodedData.reportMisoData( this.misoIdx, aStartIdx, aEndIdx, misovalue );
       }
@@ -695,8 +712,8 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
         formatSpec = formatSpec.concat( " (%1$c)" );
       }
 
-      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, timestamps[aStartIdx],
-          timestamps[aEndIdx], String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
+      this.annotationListener.onAnnotation( new SampleDataAnnotation( this.mosiIdx, startTime, endTime,
+          String.format( formatSpec, Integer.valueOf( mosivalue ) ) ) );
 
       aDecodedData.reportMosiData( this.mosiIdx, aStartIdx, aEndIdx, mosivalue );
     }
@@ -710,7 +727,7 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
   private int searchSlaveSelected( final int aStartIndex, final int aEndIndex )
   {
     final AcquisitionResult data = this.context.getData();
-    final int[] values = data.getValues();
+    final SampleCursor cursor = new SampleCursor( data );
 
     final int csMask = 1 << this.csIdx;
 
@@ -719,10 +736,14 @@ public class SPIAnalyserTask implements ToolTask<SPIDataSet>
      * found, the position of the trigger is used for start of analysis. If no
      * trigger and no edge is found the analysis fails.
      */
-    int oldCsValue = values[aStartIndex] & csMask;
+    cursor.moveTo( aStartIndex );
+
+    int oldCsValue = cursor.getValue() & csMask;
     for ( int i = aStartIndex + 1; i < aEndIndex; i++ )
     {
-      final int csValue = values[i] & csMask;
+      cursor.moveTo( i );
+
+      final int csValue = cursor.getValue() & csMask;
       Edge edge = Edge.toEdge( oldCsValue, csValue );
       
       if ( this.invertCS && edge.isRising() || !this.invertCS && edge.isFalling() )
@@ -180,6 +180,162 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
     }
   }
 
+  /**
+   * Provides the table model for the decoded SPI data.
+   */
+  static final class SPITableModel extends DataSetTableModel<SPIDataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color CS_LOW_COLOR = new Color( 0xc0ffc0 );
+    private static final Color CS_HIGH_COLOR = new Color( 0xe0e0e0 );
+    private static final Color UNKNOWN_EVENT_COLOR = new Color( 0xff8000 );
+
+    // VARIABLES
+
+    private int bitCount = 8;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link SPITableModel} instance.
+     */
+    public SPITableModel()
+    {
+      super( "Index", "Time", "MOSI Hex", "MOSI Bin", "MOSI Dec", "MOSI ASCII", "MISO Hex", "MISO Bin", "MISO Dec",
+          "MISO ASCII" );
+    }
+
+    // METHODS
+
+    /**
+     * Sets the number of data bits of the shown data set.
+     * 
+     * @param aBitCount
+     *          the number of data bits, &gt; 0.
+     */
+    public void setBitCount( final int aBitCount )
+    {
+      this.bitCount = aBitCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final SPIDataSet aDataSet, final int aDataIdx )
+    {
+      final SPIData ds = aDataSet.getData().get( aDataIdx );
+      if ( !ds.isEvent() )
+      {
+        return null;
+      }
+      else if ( SPIDataSet.SPI_CS_LOW.equals( ds.getEventName() ) )
+      {
+        return CS_LOW_COLOR;
+      }
+      else if ( SPIDataSet.SPI_CS_HIGH.equals( ds.getEventName() ) )
+      {
+        return CS_HIGH_COLOR;
+      }
+      return UNKNOWN_EVENT_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final SPIDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final List<SPIData> decodedData = aDataSet.getData();
+      final SPIData ds = decodedData.get( aDataIdx );
+      if ( aColumnIdx == 0 )
+      {
+        return Integer.valueOf( aDataIdx );
+      }
+      else if ( aColumnIdx == 1 )
+      {
+        return Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) );
+      }
+
+      if ( ds.isEvent() )
+      {
+        if ( ( ( aColumnIdx - 2 ) % 4 ) != 0 )
+        {
+          return null;
+        }
+        final String event = ds.getEventName();
+        if ( SPIDataSet.SPI_CS_LOW.equals( event ) || SPIDataSet.SPI_CS_HIGH.equals( event ) )
+        {
+          return event;
+        }
+        return "UNKNOWN";
+      }
+      else if ( !ds.isData() )
+      {
+        return null;
+      }
+
+      // MOSI columns first, MISO columns next...
+      final boolean mosiColumn = ( aColumnIdx < 6 );
+
+      int value = 0;
+      if ( mosiColumn ? ds.isMosiData() : ds.isMisoData() )
+      {
+        value = ds.getDataValue();
+      }
+      if ( ( ( aDataIdx + 1 ) < decodedData.size() ) && isContinuation( aDataSet, aDataIdx + 1 ) )
+      {
+        final SPIData nextDS = decodedData.get( aDataIdx + 1 );
+        if ( mosiColumn ? nextDS.isMosiData() : nextDS.isMisoData() )
+        {
+          value = nextDS.getDataValue();
+        }
+      }
+
+      final int bitAdder = ( ( this.bitCount % 4 ) != 0 ) ? 1 : 0;
+      switch ( ( aColumnIdx - 2 ) % 4 )
+      {
+        case 0:
+          return "0x" + StringUtils.integerToHexString( value, ( this.bitCount / 4 ) + bitAdder );
+        case 1:
+          return "0b" + StringUtils.integerToBinString( value, this.bitCount );
+        case 2:
+          return String.valueOf( value );
+        default:
+          return Character.isLetterOrDigit( value ) ? Character.toString( ( char )value ) : null;
+      }
+    }
+
+    /**
+     * Coalesces pairs of data entries with equal timestamps, for example, the
+     * MOSI and MISO values of a single transfer.
+     */
+    @Override
+    protected boolean isContinuation( final SPIDataSet aDataSet, final int aDataIdx )
+    {
+      final List<SPIData> decodedData = aDataSet.getData();
+
+      int runStart = aDataIdx;
+      while ( ( runStart > 0 ) && isSameTransfer( decodedData.get( runStart - 1 ), decodedData.get( runStart ) ) )
+      {
+        runStart--;
+      }
+      // Only the second entry of each pair is a continuation...
+      return ( ( aDataIdx - runStart ) % 2 ) != 0;
+    }
+
+    /**
+     * Returns whether the two given data entries belong to the same transfer.
+     */
+    private static boolean isSameTransfer( final SPIData aFirst, final SPIData aSecond )
+    {
+      return aFirst.isData() && aSecond.isData() && ( aFirst.getStartSampleIndex() == aSecond.getStartSampleIndex() );
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -203,7 +359,8 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   private JComboBox bits;
   private JComboBox order;
   private JComboBox spifiMode;
-  private JEditorPane outText;
+  private SPITableModel tableModel;
+  private JLabel statistics;
   private JCheckBox reportCS;
   private JCheckBox honourCS;
   private JCheckBox invertCS;
@@ -312,8 +469,8 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   @Override
   public void reset()
   {
-    this.outText.setText( getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -387,34 +544,13 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   @Override
   protected void onToolEnded( final SPIDataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-        this.exportAction.setEnabled( !aAnalysisResult.isEmpty() );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-        this.exportAction.setEnabled( false );
-      }
+    this.tableModel.setBitCount( getBitCount() );
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.statistics.setText( getStatistics( aAnalysisResult ) );
 
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
+    this.exportAction.setEnabled( ( aAnalysisResult != null ) && !aAnalysisResult.isEmpty() );
 
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // Should not happen in this situation!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -609,16 +745,19 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   }
 
   /**
-   * @return
+   * Creates the preview pane, showing the detected SPI mode and decoded data.
+   * 
+   * @return a preview pane, never <code>null</code>.
    */
   private JPanel createPreviewPane()
   {
-    final JPanel panTable = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel panTable = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new SPITableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    panTable.add( new JScrollPane( this.outText ) );
+    panTable.add( this.statistics, BorderLayout.NORTH );
+    panTable.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return panTable;
   }
@@ -731,26 +870,56 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   }
 
   /**
-   * Generates an empty HTML page.
+   * Returns the currently selected number of data bits.
    * 
-   * @return String with HTML data.
+   * @return a number of data bits, &gt; 0.
    */
-  private String getEmptyHtmlPage()
+  private int getBitCount()
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    return Integer.parseInt( ( String )this.bits.getSelectedItem() );
+  }
+
+  /**
+   * Returns a description of the detected SPI mode.
+   * 
+   * @return a SPI mode description, never <code>null</code>.
+   */
+  private String getDetectedSPIModeDescription()
+  {
+    if ( this.detectedSPIMode != null )
     {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
+      switch ( this.detectedSPIMode )
       {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        return null;
+        case MODE_0:
+          return "Mode 0 (CPOL = 0, CPHA = 0)";
+        case MODE_1:
+          return "Mode 1 (CPOL = 0, CPHA = 1)";
+        case MODE_2:
+          return "Mode 2 (CPOL = 1, CPHA = 0)";
+        case MODE_3:
+          return "Mode 3 (CPOL = 1, CPHA = 1)";
+        default:
+          break;
       }
-    } );
+    }
+    return "<unknown>";
+  }
+
+  /**
+   * Returns the statistics of the given analysis result.
+   * 
+   * @param aDataSet
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
+   */
+  private String getStatistics( final SPIDataSet aDataSet )
+  {
+    if ( aDataSet == null )
+    {
+      return "SPI mode: -";
+    }
+    return "SPI mode: " + getDetectedSPIModeDescription();
   }
 
   /**
@@ -847,18 +1016,17 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
    * @param aDataSet
-   *          the data set to create the HTML page for, cannot be
-   *          <code>null</code>.
-   * @return String with HTML data
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final SPIDataSet aDataSet ) throws IOException
+  private void toHtmlPage( final File aFile, final SPIDataSet aDataSet ) throws IOException
   {
-    final int bitCount = Integer.parseInt( ( String )this.bits.getSelectedItem() );
-    final int bitAdder = ( ( bitCount % 4 ) != 0 ) ? 1 : 0;
-
     final MacroResolver macroResolver = new MacroResolver()
     {
       @Override
@@ -871,146 +1039,29 @@ public final class SPIProtocolAnalysisDialog extends BaseToolDialog<SPIDataSet>
         }
         else if ( "detected-spi-mode".equals( aMacro ) )
         {
-          String result = "<unknown>";
-          switch ( SPIProtocolAnalysisDialog.this.detectedSPIMode )
-          {
-            case MODE_0:
-              result = "Mode 0 (CPOL = 0, CPHA = 0)";
-              break;
-            case MODE_1:
-              result = "Mode 1 (CPOL = 0, CPHA = 1)";
-              break;
-            case MODE_2:
-              result = "Mode 2 (CPOL = 1, CPHA = 0)";
-              break;
-            case MODE_3:
-              result = "Mode 3 (CPOL = 1, CPHA = 1)";
-              break;
-            default:
-              break;
-          }
-          return result;
+          return getDetectedSPIModeDescription();
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<SPIData> decodedData = aDataSet.getData();
-          Element tr;
-
-          for ( int i = 0; i < decodedData.size(); i++ )
-          {
-            final SPIData ds = decodedData.get( i );
-
-            if ( ds.isEvent() )
-            {
-              String event;
-              String bgColor;
-
-              // this is an event
-              if ( SPIDataSet.SPI_CS_LOW.equals( ds.getEventName() ) )
-              {
-                // start condition
-                event = ds.getEventName();
-                bgColor = "#c0ffc0";
-              }
-              else if ( SPIDataSet.SPI_CS_HIGH.equals( ds.getEventName() ) )
-              {
-                // stop condition
-                event = ds.getEventName();
-                bgColor = "#e0e0e0";
-              }
-              else
-              {
-                // unknown event
-                event = "UNKNOWN";
-                bgColor = "#ff8000";
-              }
-
-              tr = aParent.addChild( TR ).addAttribute( "style", "background-color: " + bgColor + ";" );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( event );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD ).addContent( event );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-            }
-            else if ( ds.isData() )
-            {
-              final int sampleIdx = ds.getStartSampleIndex();
-
-              tr = aParent.addChild( TR );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aDataSet.getTime( sampleIdx ) ) );
-
-              int mosiValue = ds.isMosiData() ? ds.getDataValue() : 0;
-              int misoValue = ds.isMisoData() ? ds.getDataValue() : 0;
-
-              // Try to coalesce equal timestamps...
-              if ( ( i + 1 ) < decodedData.size() )
-              {
-                final SPIData nextDS = decodedData.get( i + 1 );
-                if ( nextDS.getStartSampleIndex() == sampleIdx )
-                {
-                  mosiValue = nextDS.isMosiData() ? nextDS.getDataValue() : mosiValue;
-                  misoValue = nextDS.isMisoData() ? nextDS.getDataValue() : misoValue;
-                  // Make sure to skip this DS in the next iteration...
-                  i++;
-                }
-              }
-
-              // MOSI value first, MISO value next...
-              addDataValues( tr, i, sampleIdx, mosiValue );
-              addDataValues( tr, i, sampleIdx, misoValue );
-            }
-          }
+          // Rows are written to file one by one...
+          final SPITableModel model = new SPITableModel();
+          model.setBitCount( getBitCount() );
+          model.setDataSet( aDataSet );
+          return model.toHtmlRows();
         }
 
         return null;
       }
-
-      /**
-       * @param aTableRow
-       * @param aIdx
-       * @param aSampleIdx
-       * @param aValue
-       */
-      private void addDataValues( final Element aTableRow, final int aIdx, final int aSampleIdx, final int aValue )
-      {
-        final String mosiDataHex = StringUtils.integerToHexString( aValue, ( bitCount / 4 ) + bitAdder );
-        final String mosiDataBin = StringUtils.integerToBinString( aValue, bitCount );
-        final String mosiDataDec = String.valueOf( aValue );
-        final String mosiDataASCII;
-        if ( Character.isLetterOrDigit( aValue ) )
-        {
-          mosiDataASCII = Character.toString( ( char )aValue );
-        }
-        else
-        {
-          mosiDataASCII = "";
-        }
-
-        aTableRow.addChild( TD ).addContent( "0x", mosiDataHex );
-        aTableRow.addChild( TD ).addContent( "0b", mosiDataBin );
-        aTableRow.addChild( TD ).addContent( mosiDataDec );
-        aTableRow.addChild( TD ).addContent( mosiDataASCII );
-      }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
@@ -69,18 +69,18 @@ public class StateAnalysisTask implements ToolTask<AcquisitionResult>
     final AcquisitionResult data = this.context.getData();
 
     // obtain data from captured data
-    final int[] values = data.getValues();
     final long triggerPosition = data.getTriggerPosition();
 
     final int maskValue = 1 << this.number;
 
     int size = 0;
-    int last = ( values[0] & maskValue ) >> this.number;
+    SampleCursor cursor = new SampleCursor( data );
+    int last = ( cursor.getValue() & maskValue ) >> this.number;
 
     // calculate new sample array size
-    for ( final int value : values )
+    while ( cursor.next() )
     {
-      final int current = ( value & maskValue ) >> this.number;
+      final int current = ( cursor.getValue() & maskValue ) >> this.number;
       if ( ( last == this.level ) && ( current != this.level ) )
       {
         size++;
@@ -95,23 +95,27 @@ public class StateAnalysisTask implements ToolTask<AcquisitionResult>
     }
 
     // convert captured data
-    last = values[0] & maskValue;
+    cursor = new SampleCursor( data );
+    int lastValue = cursor.getValue();
+    last = ( lastValue & maskValue ) >> this.number;
     int pos = 0;
-    int newTrigger = -1;
+    int newTrigger = ( triggerPosition == 0L ) ? 0 : -1;
 
     final int[] newValues = new int[size];
-    for ( int i = 0; i < values.length; i++ )
+    while ( cursor.next() )
     {
-      final int current = ( values[i] & maskValue ) >> this.number;
+      final int value = cursor.getValue();
+      final int current = ( value & maskValue ) >> this.number;
       if ( ( last == this.level ) && ( current != this.level ) )
       {
-        newValues[pos++] = values[i - 1];
+        newValues[pos++] = lastValue;
       }
-      if ( triggerPosition == i )
+      if ( triggerPosition == cursor.getIndex() )
       {
         newTrigger = pos;
       }
       last = current;
+      lastValue = value;
     }
 
     final CapturedData newCapturedData = new CapturedData( newValues, newTrigger, Ols.NOT_AVAILABLE,
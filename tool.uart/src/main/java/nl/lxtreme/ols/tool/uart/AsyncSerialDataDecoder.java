@@ -23,8 +23,6 @@ package nl.lxtreme.ols.tool.uart;
 
 import static nl.lxtreme.ols.util.NumberUtils.*;
 
-import java.util.*;
-
 import nl.lxtreme.ols.api.acquisition.*;
 import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.api.tools.*;
@@ -516,6 +514,8 @@ public class AsyncSerialDataDecoder
   protected final AcquisitionResult dataSet;
   protected final ToolContext context;
 
+  private final SampleCursor cursor;
+
   private SerialDecoderCallback callback;
   private ToolProgressListener progressListener;
 
@@ -534,31 +534,11 @@ public class AsyncSerialDataDecoder
     this.configuration = aConfiguration;
     this.context = aContext;
     this.dataSet = aContext.getData();
+    this.cursor = new SampleCursor( this.dataSet );
   }
 
   // METHODS
 
-  /**
-   * Finds the sample index of the given timestamp value.
-   * <p>
-   * Note the sample index returned is <em>not per se</em> equal to
-   * <code>timestamps[result]</code>!
-   * </p>
-   * 
-   * @param aTimeValue
-   *          the time value to search the corresponding index for, >= 0.
-   * @return a sample index, >= 0.
-   */
-  protected static final int findSampleIndex( final long[] aTimestamps, final long aTimeValue )
-  {
-    int k = Arrays.binarySearch( aTimestamps, aTimeValue );
-    if ( k < 0 )
-    {
-      k = -( k + 1 );
-    }
-    return k;
-  }
-
   /**
    * Decodes a serial data line.
    * 
@@ -575,10 +555,8 @@ public class AsyncSerialDataDecoder
     final StopBits stopBits = this.configuration.getStopBits();
     final Parity parity = this.configuration.getParity();
 
-    final long[] timestamps = this.dataSet.getTimestamps();
-
-    final long startOfDecode = timestamps[this.context.getStartSampleIndex()];
-    final long endOfDecode = timestamps[this.context.getEndSampleIndex()];
+    final long startOfDecode = this.dataSet.getTimestamp( this.context.getStartSampleIndex() );
+    final long endOfDecode = this.dataSet.getTimestamp( this.context.getEndSampleIndex() );
     final BitLevel idleLevel = this.configuration.getIdleLevel();
 
     DataBitExtractor extractor = new DataBitExtractor( aChannelIndex );
@@ -712,28 +690,29 @@ public class AsyncSerialDataDecoder
       final long aEndOfDecode )
   {
     final int mask = ( 1 << aChannelIndex );
-    long result = -1;
 
-    int oldBitValue = getDataValue( aStartOfDecode, mask );
-    for ( long timeCursor = aStartOfDecode + 1; ( result < 0 ) && ( timeCursor < aEndOfDecode ); timeCursor++ )
+    // As the data value at a given time is the value *before* that time (see
+    // getDataValue), an edge is reported one time unit after the sample
+    // causing it. Hence, only visit the samples from the start time on...
+    this.cursor.seekTo( aStartOfDecode - 1L );
+
+    int oldBitValue = this.cursor.getValue() & mask;
+    long time;
+    while ( ( ( time = this.cursor.nextEdge( mask ) ) >= 0L ) && ( ( time + 1L ) < aEndOfDecode ) )
     {
-      final int bitValue = getDataValue( timeCursor, mask );
+      final int bitValue = this.cursor.getValue() & mask;
 
       Edge edge = Edge.toEdge( oldBitValue, bitValue );
-      if ( aSampleEdge.isNone() && !edge.isNone() )
+      if ( aSampleEdge.isNone() || ( aSampleEdge == edge ) )
       {
-        /* No edge given, so any edge will do */
-        result = timeCursor;
-      }
-      else if ( !aSampleEdge.isNone() && ( aSampleEdge == edge ) )
-      {
-        result = timeCursor;
+        // Either no edge is given, so any edge will do, or the requested one...
+        return time + 1L;
       }
 
       oldBitValue = bitValue;
     }
 
-    return result;
+    return -1L;
   }
 
   /**
@@ -776,13 +755,7 @@ public class AsyncSerialDataDecoder
    */
   protected final int getDataValue( final long aTimeValue, final int aMask )
   {
-    final int[] values = this.dataSet.getValues();
-    final long[] timestamps = this.dataSet.getTimestamps();
-    int k = findSampleIndex( timestamps, aTimeValue );
-
-    int value = ( ( k == 0 ) ? values[0] : values[k - 1] );
-
-    return value & aMask;
+    return this.cursor.valueAt( aTimeValue - 1L ) & aMask;
   }
 
   /**
@@ -21,6 +21,7 @@
 package nl.lxtreme.ols.tool.uart;
 
 
+import nl.lxtreme.ols.api.data.*;
 import nl.lxtreme.ols.util.analysis.*;
 
 
@@ -62,34 +63,26 @@ public final class BaudRateAnalyzer
    * 
    * @param aSampleRate
    *          the sample rate at which the incoming data was sampled;
-   * @param aValues
-   *          the values to determine the baudrate for;
-   * @param aTimestamps
-   *          the timestamps to use when determining the bit lengths;
+   * @param aCursor
+   *          the cursor to walk through the samples to determine the baudrate
+   *          for, starting at its current position;
    * @param aMask
    *          the value mask to isolate the data.
    */
-  public BaudRateAnalyzer( final int aSampleRate, final int[] aValues, final long[] aTimestamps, final int aMask )
+  public BaudRateAnalyzer( final int aSampleRate, final SampleCursor aCursor, final int aMask )
   {
     this.sampleRate = aSampleRate;
     this.statData = new Frequency<Integer>();
 
     long lastTransition = 0;
-    int lastBitValue = aValues[0] & aMask;
+    long transition;
 
-    for ( int i = 0; i < aValues.length; i++ )
+    while ( ( transition = aCursor.nextEdge( aMask ) ) >= 0L )
     {
-      final int bitValue = aValues[i] & aMask;
+      final int bitLength = ( int )( transition - lastTransition );
+      this.statData.addValue( Integer.valueOf( bitLength ) );
 
-      if ( lastBitValue != bitValue )
-      {
-        final int bitLength = ( int )( aTimestamps[i] - lastTransition );
-        this.statData.addValue( Integer.valueOf( bitLength ) );
-
-        lastTransition = aTimestamps[i];
-      }
-
-      lastBitValue = aValues[i] & aMask;
+      lastTransition = transition;
     }
   }
 
@@ -60,7 +60,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
 
   private final ToolContext context;
   private final ToolProgressListener progressListener;
-  private final AnnotationListener annotationListener;
+  private final BufferedAnnotationListener annotationListener;
 
   private int rxdIndex;
   private int txdIndex;
@@ -89,7 +89,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
   {
     this.context = aContext;
     this.progressListener = aProgressListener;
-    this.annotationListener = aAnnotationListener;
+    this.annotationListener = new BufferedAnnotationListener( aAnnotationListener );
 
     this.rxdIndex = -1;
     this.txdIndex = -1;
@@ -110,85 +110,97 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
   @Override
   public UARTDataSet call() throws Exception
   {
-    final AcquisitionResult data = this.context.getData();
+    try
+    {
+      final AcquisitionResult data = this.context.getData();
 
-    /*
-     * Start decode from trigger or if no trigger is available from the first
-     * falling edge. The decoder works with two independant decoder runs. First
-     * for RxD and then for TxD, after this CTS, RTS, etc. is detected if
-     * enabled. After decoding all the decoded data are unsortet before the data
-     * is displayed it must be sortet by time.
-     */
+      /*
+       * Start decode from trigger or if no trigger is available from the first
+       * falling edge. The decoder works with two independant decoder runs. First
+       * for RxD and then for TxD, after this CTS, RTS, etc. is detected if
+       * enabled. After decoding all the decoded data are unsortet before the data
+       * is displayed it must be sortet by time.
+       */
 
-    final int[] values = data.getValues();
+      final SampleCursor cursor = new SampleCursor( data );
 
-    int startOfDecode = this.context.getStartSampleIndex();
-    final int endOfDecode = this.context.getEndSampleIndex();
+      int startOfDecode = this.context.getStartSampleIndex();
+      final int endOfDecode = this.context.getEndSampleIndex();
 
-    // find first state change on the selected lines
-    final int mask = getBitMask();
+      // find first state change on the selected lines
+      final int mask = getBitMask();
 
-    final int value = values[startOfDecode] & mask;
-    for ( int i = startOfDecode + 1; i < endOfDecode; i++ )
-    {
-      if ( value != ( values[i] & mask ) )
+      cursor.moveTo( startOfDecode );
+
+      final int value = cursor.getValue() & mask;
+      for ( int i = startOfDecode + 1; i < endOfDecode; i++ )
       {
-        startOfDecode = i;
-        break;
+        cursor.moveTo( i );
+
+        if ( value != ( cursor.getValue() & mask ) )
+        {
+          startOfDecode = i;
+          break;
+        }
       }
-    }
 
-    startOfDecode = Math.max( 0, startOfDecode - 10 );
+      startOfDecode = Math.max( 0, startOfDecode - 10 );
 
-    // Make sure we've got a valid range to decode..
-    if ( startOfDecode >= endOfDecode )
-    {
-      LOG.log( Level.WARNING, "No valid data range found for UART analysis! Analysis aborted..." );
-      throw new IllegalStateException( "No valid data range found for UART analysis!" );
-    }
+      // Make sure we've got a valid range to decode..
+      if ( startOfDecode >= endOfDecode )
+      {
+        LOG.log( Level.WARNING, "No valid data range found for UART analysis! Analysis aborted..." );
+        throw new IllegalStateException( "No valid data range found for UART analysis!" );
+      }
 
-    final UARTDataSet decodedData = new UARTDataSet( startOfDecode, endOfDecode, data );
+      final UARTDataSet decodedData = new UARTDataSet( startOfDecode, endOfDecode, data );
 
-    // decode RxD/TxD data lines...
-    if ( this.rxdIndex >= 0 )
-    {
-      prepareAndDecodeData( decodedData, this.rxdIndex, UARTData.UART_TYPE_RXDATA, UARTDataSet.UART_RXD );
-    }
-    if ( this.txdIndex >= 0 )
-    {
-      prepareAndDecodeData( decodedData, this.txdIndex, UARTData.UART_TYPE_TXDATA, UARTDataSet.UART_TXD );
-    }
+      // decode RxD/TxD data lines...
+      if ( this.rxdIndex >= 0 )
+      {
+        prepareAndDecodeData( decodedData, this.rxdIndex, UARTData.UART_TYPE_RXDATA, UARTDataSet.UART_RXD );
+      }
+      if ( this.txdIndex >= 0 )
+      {
+        prepareAndDecodeData( decodedData, this.txdIndex, UARTData.UART_TYPE_TXDATA, UARTDataSet.UART_TXD );
+      }
 
-    // decode control lines...
-    if ( this.ctsIndex >= 0 )
-    {
-      prepareAndDecodeControl( decodedData, this.ctsIndex, UARTDataSet.UART_CTS );
-    }
-    if ( this.rtsIndex >= 0 )
-    {
-      prepareAndDecodeControl( decodedData, this.rtsIndex, UARTDataSet.UART_RTS );
-    }
-    if ( this.dcdIndex >= 0 )
-    {
-      prepareAndDecodeControl( decodedData, this.dcdIndex, UARTDataSet.UART_DCD );
-    }
-    if ( this.riIndex >= 0 )
-    {
-      prepareAndDecodeControl( decodedData, this.riIndex, UARTDataSet.UART_RI );
-    }
-    if ( this.dsrIndex >= 0 )
-    {
-      prepareAndDecodeControl( decodedData, this.dsrIndex, UARTDataSet.UART_DSR );
+      // decode control lines...
+      if ( this.ctsIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.ctsIndex, UARTDataSet.UART_CTS );
+      }
+      if ( this.rtsIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.rtsIndex, UARTDataSet.UART_RTS );
+      }
+      if ( this.dcdIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.dcdIndex, UARTDataSet.UART_DCD );
+      }
+      if ( this.riIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.riIndex, UARTDataSet.UART_RI );
+      }
+      if ( this.dsrIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.dsrIndex, UARTDataSet.UART_DSR );
+      }
+      if ( this.dtrIndex >= 0 )
+      {
+        prepareAndDecodeControl( decodedData, this.dtrIndex, UARTDataSet.UART_DTR );
+      }
+
+      // sort the results by time
+      decodedData.sort();
+
+      return decodedData;
     }
-    if ( this.dtrIndex >= 0 )
+    finally
     {
-      prepareAndDecodeControl( decodedData, this.dtrIndex, UARTDataSet.UART_DTR );
+      // Deliver all annotations in a single batch, also in case of failures...
+      this.annotationListener.flush();
     }
-
-    // sort the results by time
-    decodedData.sort();
-
-    return decodedData;
   }
 
   /**
@@ -365,13 +377,17 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
     final int startSampleIdx = aDataSet.getStartOfDecode();
     final int endSampleIdx = aDataSet.getEndOfDecode();
 
-    final int[] values = data.getValues();
+    final SampleCursor cursor = new SampleCursor( data );
     this.progressListener.setProgress( 0 );
 
-    int oldValue = values[startSampleIdx] & mask;
+    cursor.moveTo( startSampleIdx );
+
+    int oldValue = cursor.getValue() & mask;
     for ( int i = startSampleIdx + 1; i < endSampleIdx; i++ )
     {
-      final int value = values[i] & mask;
+      cursor.moveTo( i );
+
+      final int value = cursor.getValue() & mask;
 
       final Edge edge = Edge.toEdge( oldValue, value );
       if ( edge.isRising() )
@@ -407,7 +423,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
     {
       // Auto detect the baud rate...
       final int mask = ( 1 << aChannelIndex );
-      final BaudRateAnalyzer baudRateAnalyzer = new BaudRateAnalyzer( data.getSampleRate(), data.getValues(), data.getTimestamps(), mask );
+      final BaudRateAnalyzer baudRateAnalyzer = new BaudRateAnalyzer( data.getSampleRate(), new SampleCursor( data ), mask );
       baudRate = baudRateAnalyzer.getBaudRateExact();
       // Set nominal (normalized) baud rate
       aDataSet.setBaudRate( baudRateAnalyzer.getBaudRate() );
@@ -454,7 +470,7 @@ public class UARTAnalyserTask implements ToolTask<UARTDataSet>
         public void onSymbol( final int aChannelIdx, final int aSymbol, final long aStartTime, final long aEndTime )
         {
           final int startSampleIdx = Math.max( data.getSampleIndex( aStartTime ), 0 );
-          final int endSampleIdx = Math.min( data.getSampleIndex( aEndTime ), data.getTimestamps().length - 1 );
+          final int endSampleIdx = Math.min( data.getSampleIndex( aEndTime ), ( int )data.getSampleCount() - 1 );
 
           aDataSet.reportData( aChannelIndex, startSampleIdx, endSampleIdx, aSymbol, aEventType );
 
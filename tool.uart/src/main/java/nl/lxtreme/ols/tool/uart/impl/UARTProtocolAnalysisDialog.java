@@ -227,6 +227,138 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   }
 
 
+  /**
+   * Provides the table model for the decoded UART data.
+   */
+  static final class UARTTableModel extends DataSetTableModel<UARTDataSet>
+  {
+    // CONSTANTS
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Color EVENT_COLOR = new Color( 0xe0e0e0 );
+    private static final Color LINE_EVENT_COLOR = new Color( 0xc0ffc0 );
+    private static final Color ERROR_COLOR = new Color( 0xff8000 );
+
+    // VARIABLES
+
+    private int bitCount = 8;
+
+    // CONSTRUCTORS
+
+    /**
+     * Creates a new {@link UARTTableModel} instance.
+     */
+    public UARTTableModel()
+    {
+      super( "Index", "Time", "RxD Hex", "RxD Bin", "RxD Dec", "RxD ASCII", "TxD Hex", "TxD Bin", "TxD Dec",
+          "TxD ASCII" );
+    }
+
+    // METHODS
+
+    /**
+     * Sets the number of data bits of the shown data set.
+     * 
+     * @param aBitCount
+     *          the number of data bits, &gt; 0.
+     */
+    public void setBitCount( final int aBitCount )
+    {
+      this.bitCount = aBitCount;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Color getRowColor( final UARTDataSet aDataSet, final int aDataIdx )
+    {
+      final UARTData ds = aDataSet.getData().get( aDataIdx );
+      if ( !ds.isEvent() )
+      {
+        return null;
+      }
+
+      final int type = ds.getType();
+      if ( ( ( type == UARTData.UART_TYPE_RXEVENT ) || ( type == UARTData.UART_TYPE_TXEVENT ) )
+          && !ds.getEventName().endsWith( "_ERR" ) )
+      {
+        return LINE_EVENT_COLOR;
+      }
+      else if ( ( type == UARTData.UART_TYPE_EVENT ) && !ds.getEventName().endsWith( "_ERR" ) )
+      {
+        return EVENT_COLOR;
+      }
+      return ERROR_COLOR;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Object getValueAt( final UARTDataSet aDataSet, final int aDataIdx, final int aColumnIdx )
+    {
+      final UARTData ds = aDataSet.getData().get( aDataIdx );
+      if ( aColumnIdx == 0 )
+      {
+        return Integer.valueOf( aDataIdx );
+      }
+      else if ( aColumnIdx == 1 )
+      {
+        return Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) );
+      }
+
+      // RxD columns first, TxD columns next...
+      final boolean rxdColumn = ( aColumnIdx < 6 );
+      final int type = ds.getType();
+
+      if ( ds.isEvent() )
+      {
+        final boolean shown = ( type == UARTData.UART_TYPE_EVENT )
+            || ( rxdColumn ? ( type == UARTData.UART_TYPE_RXEVENT ) : ( type == UARTData.UART_TYPE_TXEVENT ) );
+        if ( shown && ( ( ( aColumnIdx - 2 ) % 4 ) == 0 ) )
+        {
+          return ds.getEventName();
+        }
+        return null;
+      }
+
+      if ( rxdColumn != ( type == UARTData.UART_TYPE_RXDATA ) )
+      {
+        return null;
+      }
+
+      final int value = ds.getData();
+      final int bitAdder = ( ( this.bitCount % 4 ) != 0 ) ? 1 : 0;
+      switch ( ( aColumnIdx - 2 ) % 4 )
+      {
+        case 0:
+          return "0x" + StringUtils.integerToHexString( value, ( this.bitCount / 4 ) + bitAdder );
+        case 1:
+          return "0b" + StringUtils.integerToBinString( value, this.bitCount );
+        case 2:
+          return String.valueOf( value );
+        default:
+          return isPrintableCharacter( value ) ? String.valueOf( ( char )value ) : null;
+      }
+    }
+
+    /**
+     * Returns whether the given value can be represented as an
+     * ASCII-character.
+     * 
+     * @param aValue
+     *          the value to test.
+     * @return <code>true</code> if the given character can be represented as
+     *         printable ASCII-character, <code>false</code> otherwise.
+     */
+    private static boolean isPrintableCharacter( final int aValue )
+    {
+      return ( aValue >= 32 ) && ( aValue < 255 );
+    }
+  }
+
   // CONSTANTS
 
   private static final long serialVersionUID = 1L;
@@ -251,7 +383,8 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   private JComboBox idleLevel;
   private JCheckBox autoDetectBaudRate;
   private JComboBox baudrate;
-  private JEditorPane outText;
+  private UARTTableModel tableModel;
+  private JLabel statistics;
 
   private RestorableAction runAnalysisAction;
   private Action closeAction;
@@ -332,8 +465,8 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   @Override
   public void reset()
   {
-    this.outText.setText( getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel.setDataSet( null );
+    this.statistics.setText( getStatistics( null ) );
 
     this.runAnalysisAction.restore();
 
@@ -372,32 +505,11 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   @Override
   protected void onToolEnded( final UARTDataSet aAnalysisResult )
   {
-    try
-    {
-      final String htmlPage;
-      if ( aAnalysisResult != null )
-      {
-        htmlPage = toHtmlPage( null /* aFile */, aAnalysisResult );
-      }
-      else
-      {
-        htmlPage = getEmptyHtmlPage();
-      }
+    this.tableModel.setBitCount( getBitCount() );
+    this.tableModel.setDataSet( aAnalysisResult );
+    this.statistics.setText( getStatistics( aAnalysisResult ) );
 
-      this.outText.setText( htmlPage );
-      this.outText.setEditable( false );
-
-      this.runAnalysisAction.restore();
-    }
-    catch ( final IOException exception )
-    {
-      // Make sure to handle IO-interrupted exceptions properly!
-      if ( !HostUtils.handleInterruptedException( exception ) )
-      {
-        // Should not happen in this situation!
-        throw new RuntimeException( exception );
-      }
-    }
+    this.runAnalysisAction.restore();
   }
 
   /**
@@ -548,16 +660,19 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   }
 
   /**
-   * @return
+   * Creates the preview pane, showing the statistics and decoded data.
+   * 
+   * @return a preview pane, never <code>null</code>.
    */
   private JPanel createPreviewPane()
   {
-    final JPanel panTable = new JPanel( new GridLayout( 1, 1, 0, 0 ) );
+    final JPanel panTable = new JPanel( new BorderLayout( 0, 4 ) );
 
-    this.outText = new JEditorPane( "text/html", getEmptyHtmlPage() );
-    this.outText.setEditable( false );
+    this.tableModel = new UARTTableModel();
+    this.statistics = new JLabel( getStatistics( null ) );
 
-    panTable.add( new JScrollPane( this.outText ) );
+    panTable.add( this.statistics, BorderLayout.NORTH );
+    panTable.add( DataSetTable.createScrollPane( this.tableModel ), BorderLayout.CENTER );
 
     return panTable;
   }
@@ -679,37 +794,47 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   }
 
   /**
-   * generate a HTML page
+   * Returns the currently selected number of data bits.
+   * 
+   * @return a number of data bits, &gt; 0.
+   */
+  private int getBitCount()
+  {
+    return Integer.parseInt( ( String )this.bits.getSelectedItem() );
+  }
+
+  /**
+   * Returns the statistics of the given analysis result.
    * 
-   * @param empty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aDataSet
+   *          the analysis result to return the statistics for, can be
+   *          <code>null</code>.
+   * @return a statistics text, never <code>null</code>.
    */
-  private String getEmptyHtmlPage()
+  private String getStatistics( final UARTDataSet aDataSet )
   {
-    final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-    return exporter.toString( new MacroResolver()
+    if ( aDataSet == null )
     {
-      @Override
-      public Object resolve( final String aMacro, final Element aParent )
+      return "Decoded bytes: -, detected bus errors: -, baudrate: -";
+    }
+
+    String baudrate;
+    if ( aDataSet.getBaudRate() <= 0 )
+    {
+      baudrate = "calculation failed!";
+    }
+    else
+    {
+      baudrate = String.format( "%d (exact: %d)", Integer.valueOf( aDataSet.getBaudRate() ),
+          Integer.valueOf( aDataSet.getBaudRateExact() ) );
+      if ( !aDataSet.isBitLengthUsable() )
       {
-        if ( "date-now".equals( aMacro ) )
-        {
-          final DateFormat df = DateFormat.getDateInstance( DateFormat.LONG );
-          return df.format( new Date() );
-        }
-        else if ( "decoded-bytes".equals( aMacro ) || "detected-bus-errors".equals( aMacro )
-            || "baudrate".equals( aMacro ) )
-        {
-          return "-";
-        }
-        else if ( "decoded-data".equals( aMacro ) )
-        {
-          return null;
-        }
-        return null;
+        baudrate = baudrate.concat( ", may be wrong!" );
       }
-    } );
+    }
+
+    return String.format( "Decoded bytes: %d, detected bus errors: %d, baudrate: %s",
+        Integer.valueOf( aDataSet.getDecodedSymbols() ), Integer.valueOf( aDataSet.getDetectedErrors() ), baudrate );
   }
 
   /**
@@ -837,17 +962,17 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
   }
 
   /**
-   * generate a HTML page
+   * Stores the given analysis result as HTML page to the given file.
    * 
-   * @param empty
-   *          if this is true an empty output is generated
-   * @return String with HTML data
+   * @param aFile
+   *          the file to write to, cannot be <code>null</code>;
+   * @param aDataSet
+   *          the analysis result to store, cannot be <code>null</code>.
+   * @throws IOException
+   *           in case of I/O problems.
    */
-  private String toHtmlPage( final File aFile, final UARTDataSet aDataSet ) throws IOException
+  private void toHtmlPage( final File aFile, final UARTDataSet aDataSet ) throws IOException
   {
-    final int bitCount = Integer.parseInt( ( String )this.bits.getSelectedItem() );
-    final int bitAdder = ( ( bitCount % 4 ) != 0 ) ? 1 : 0;
-
     final MacroResolver macroResolver = new MacroResolver()
     {
       @Override
@@ -888,134 +1013,25 @@ public final class UARTProtocolAnalysisDialog extends BaseToolDialog<UARTDataSet
         }
         else if ( "decoded-data".equals( aMacro ) )
         {
-          final List<UARTData> decodedData = aDataSet.getData();
-          Element tr;
-
-          for ( int i = 0; i < decodedData.size(); i++ )
-          {
-            final UARTData ds = decodedData.get( i );
-
-            if ( ds.isEvent() )
-            {
-              String rxEventData = "";
-              String txEventData = "";
-
-              String bgColor;
-              if ( UARTData.UART_TYPE_EVENT == ds.getType() )
-              {
-                rxEventData = txEventData = ds.getEventName();
-                bgColor = "#e0e0e0";
-              }
-              else if ( UARTData.UART_TYPE_RXEVENT == ds.getType() )
-              {
-                rxEventData = ds.getEventName();
-                bgColor = "#c0ffc0";
-              }
-              else if ( UARTData.UART_TYPE_TXEVENT == ds.getType() )
-              {
-                txEventData = ds.getEventName();
-                bgColor = "#c0ffc0";
-              }
-              else
-              {
-                // unknown event
-                bgColor = "#ff8000";
-              }
-
-              if ( txEventData.endsWith( "_ERR" ) || rxEventData.endsWith( "_ERR" ) )
-              {
-                bgColor = "#ff8000";
-              }
-
-              tr = aParent.addChild( TR ).addAttribute( "style", "background-color: " + bgColor + ";" );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( rxEventData );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD ).addContent( txEventData );
-              tr.addChild( TD );
-              tr.addChild( TD );
-              tr.addChild( TD );
-            }
-            else
-            {
-              String rxDataHex = "", rxDataBin = "", rxDataDec = "", rxDataASCII = "";
-              String txDataHex = "", txDataBin = "", txDataDec = "", txDataASCII = "";
-
-              // Normal data...
-              if ( UARTData.UART_TYPE_RXDATA == ds.getType() )
-              {
-                final int rxData = ds.getData();
-
-                rxDataHex = "0x" + StringUtils.integerToHexString( rxData, ( bitCount / 4 ) + bitAdder );
-                rxDataBin = "0b" + StringUtils.integerToBinString( rxData, bitCount );
-                rxDataDec = String.valueOf( rxData );
-                if ( isPrintableCharacter( rxData ) )
-                {
-                  rxDataASCII = String.valueOf( ( char )rxData );
-                }
-              }
-              else
-              /* if ( UARTData.UART_TYPE_TXDATA == ds.getType() ) */
-              {
-                final int txData = ds.getData();
-
-                txDataHex = "0x" + StringUtils.integerToHexString( txData, ( bitCount / 4 ) + bitAdder );
-                txDataBin = "0b" + StringUtils.integerToBinString( txData, bitCount );
-                txDataDec = String.valueOf( txData );
-                if ( isPrintableCharacter( txData ) )
-                {
-                  txDataASCII = String.valueOf( ( char )txData );
-                }
-              }
-
-              tr = aParent.addChild( TR );
-              tr.addChild( TD ).addContent( String.valueOf( i ) );
-              tr.addChild( TD ).addContent( Unit.Time.format( aDataSet.getTime( ds.getStartSampleIndex() ) ) );
-              tr.addChild( TD ).addContent( rxDataHex );
-              tr.addChild( TD ).addContent( rxDataBin );
-              tr.addChild( TD ).addContent( rxDataDec );
-              tr.addChild( TD ).addContent( rxDataASCII );
-              tr.addChild( TD ).addContent( txDataHex );
-              tr.addChild( TD ).addContent( txDataBin );
-              tr.addChild( TD ).addContent( txDataDec );
-              tr.addChild( TD ).addContent( txDataASCII );
-            }
-          }
+          // Rows are written to file one by one...
+          final UARTTableModel model = new UARTTableModel();
+          model.setBitCount( getBitCount() );
+          model.setDataSet( aDataSet );
+          return model.toHtmlRows();
         }
-        return null;
-      }
 
-      /**
-       * Returns whether the given value can be represented as an
-       * ASCII-character.
-       * 
-       * @param aValue
-       *          the value to test.
-       * @return <code>true</code> if the given character can be represented as
-       *         printable ASCII-character, <code>false</code> otherwise.
-       */
-      private boolean isPrintableCharacter( final int aValue )
-      {
-        final boolean withinRange = ( aValue >= 32 ) && ( aValue < 255 );
-        return withinRange;
+        return null;
       }
     };
 
-    if ( aFile == null )
+    final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
+    try
     {
-      final HtmlExporter exporter = createHtmlTemplate( ExportUtils.createHtmlExporter() );
-      return exporter.toString( macroResolver );
+      exporter.write( macroResolver );
     }
-    else
+    finally
     {
-      final HtmlFileExporter exporter = ( HtmlFileExporter )createHtmlTemplate( ExportUtils.createHtmlExporter( aFile ) );
-      exporter.write( macroResolver );
       exporter.close();
     }
-
-    return null;
   }
 }
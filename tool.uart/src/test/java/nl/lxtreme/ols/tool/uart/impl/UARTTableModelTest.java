@@ -0,0 +1,258 @@
+/*
+ * OpenBench LogicSniffer / SUMP project
+ *
+ * This program is free software; you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation; either version 2 of the License, or (at
+ * your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License along
+ * with this program; if not, write to the Free Software Foundation, Inc.,
+ * 51 Franklin St, Fifth Floor, Boston, MA 02110, USA
+ *
+ *
+ * Copyright (C) 2010-2012 - J.W. Janssen, http://www.lxtreme.nl
+ */
+package nl.lxtreme.ols.tool.uart.impl;
+
+
+import static nl.lxtreme.ols.util.ExportUtils.HtmlExporter.*;
+import static org.junit.Assert.*;
+
+import java.net.*;
+import java.util.*;
+
+import nl.lxtreme.ols.api.acquisition.*;
+import nl.lxtreme.ols.api.data.annotation.AnnotationListener;
+import nl.lxtreme.ols.api.tools.*;
+import nl.lxtreme.ols.api.util.*;
+import nl.lxtreme.ols.test.*;
+import nl.lxtreme.ols.test.data.*;
+import nl.lxtreme.ols.tool.uart.AsyncSerialDataDecoder.BitEncoding;
+import nl.lxtreme.ols.tool.uart.AsyncSerialDataDecoder.BitLevel;
+import nl.lxtreme.ols.tool.uart.AsyncSerialDataDecoder.BitOrder;
+import nl.lxtreme.ols.tool.uart.AsyncSerialDataDecoder.Parity;
+import nl.lxtreme.ols.tool.uart.AsyncSerialDataDecoder.StopBits;
+import nl.lxtreme.ols.tool.uart.impl.UARTProtocolAnalysisDialog.UARTTableModel;
+import nl.lxtreme.ols.util.*;
+import nl.lxtreme.ols.util.ExportUtils.HtmlExporter.Element;
+import nl.lxtreme.ols.util.export.*;
+
+import org.junit.*;
+import org.mockito.*;
+
+
+/**
+ * Test cases for {@link UARTTableModel}.
+ */
+public class UARTTableModelTest
+{
+  // VARIABLES
+
+  private UARTDataSet dataSet;
+  private UARTTableModel model;
+
+  // METHODS
+
+  /**
+   * Set up for each test case.
+   */
+  @Before
+  public void setUp() throws Exception
+  {
+    // Contains both RxD and TxD data, as well as errors...
+    URL resource = ResourceUtils.getResource( getClass(), "uart_8bit_3.ols" );
+    AcquisitionResult container = DataTestUtils.getCapturedData( resource );
+    ToolContext toolContext = DataTestUtils.createToolContext( container );
+
+    UARTAnalyserTask worker = new UARTAnalyserTask( toolContext, Mockito.mock( ToolProgressListener.class ),
+        Mockito.mock( AnnotationListener.class ) );
+    worker.setStopBits( StopBits.ONE );
+    worker.setBitCount( 8 );
+    worker.setParity( Parity.NONE );
+    worker.setBaudRate( -1 );
+    worker.setRxdIndex( 1 );
+    worker.setTxdIndex( 0 );
+    worker.setBitOrder( BitOrder.LSB_FIRST );
+    worker.setBitEncoding( BitEncoding.HIGH_IS_MARK );
+    worker.setIdleLevel( BitLevel.HIGH );
+
+    this.dataSet = worker.call();
+
+    this.model = new UARTTableModel();
+  }
+
+  /**
+   * Tests that the exported HTML rows equal the rows as they were created
+   * before the table model was introduced.
+   */
+  @Test
+  public void testHtmlRowsEqualPreviousOutput()
+  {
+    for ( int bitCount : new int[] { 8, 7 } )
+    {
+      this.model.setBitCount( bitCount );
+      this.model.setDataSet( this.dataSet );
+
+      final List<UARTData> decodedData = this.dataSet.getData();
+
+      int i = 0;
+      for ( Element row : this.model.toHtmlRows() )
+      {
+        assertEquals( "Row " + i, createPreviousRow( i, bitCount ).toString(), row.toString() );
+        i++;
+      }
+      assertEquals( decodedData.size(), i );
+    }
+  }
+
+  /**
+   * Tests that each decoded data entry is shown as a single row.
+   */
+  @Test
+  public void testRowPerDataEntry()
+  {
+    this.model.setDataSet( this.dataSet );
+
+    final List<UARTData> decodedData = this.dataSet.getData();
+    assertTrue( decodedData.size() > 0 );
+    assertEquals( decodedData.size(), this.model.getRowCount() );
+    assertEquals( 10, this.model.getColumnCount() );
+
+    boolean rxdSeen = false;
+    boolean txdSeen = false;
+    for ( int i = 0; i < decodedData.size(); i++ )
+    {
+      final UARTData ds = decodedData.get( i );
+      assertEquals( Integer.valueOf( i ), this.model.getValueAt( i, 0 ) );
+
+      if ( ds.getType() == UARTData.UART_TYPE_RXDATA )
+      {
+        rxdSeen = true;
+        assertEquals( String.valueOf( ds.getData() ), this.model.getValueAt( i, 4 ) );
+        assertNull( this.model.getValueAt( i, 8 ) );
+      }
+      else if ( ds.getType() == UARTData.UART_TYPE_TXDATA )
+      {
+        txdSeen = true;
+        assertNull( this.model.getValueAt( i, 4 ) );
+        assertEquals( String.valueOf( ds.getData() ), this.model.getValueAt( i, 8 ) );
+      }
+    }
+    assertTrue( rxdSeen && txdSeen );
+  }
+
+  /**
+   * Creates a HTML row for the given data entry, exactly as it was created by
+   * the UART dialog before.
+   */
+  private Element createPreviousRow( final int aIndex, final int aBitCount )
+  {
+    final int bitAdder = ( ( aBitCount % 4 ) != 0 ) ? 1 : 0;
+
+    final UARTData ds = this.dataSet.getData().get( aIndex );
+    final Element tr;
+
+    if ( ds.isEvent() )
+    {
+      String rxEventData = "";
+      String txEventData = "";
+
+      String bgColor;
+      if ( UARTData.UART_TYPE_EVENT == ds.getType() )
+      {
+        rxEventData = txEventData = ds.getEventName();
+        bgColor = "#e0e0e0";
+      }
+      else if ( UARTData.UART_TYPE_RXEVENT == ds.getType() )
+      {
+        rxEventData = ds.getEventName();
+        bgColor = "#c0ffc0";
+      }
+      else if ( UARTData.UART_TYPE_TXEVENT == ds.getType() )
+      {
+        txEventData = ds.getEventName();
+        bgColor = "#c0ffc0";
+      }
+      else
+      {
+        // unknown event
+        bgColor = "#ff8000";
+      }
+
+      if ( txEventData.endsWith( "_ERR" ) || rxEventData.endsWith( "_ERR" ) )
+      {
+        bgColor = "#ff8000";
+      }
+
+      tr = new TagElement( "tr" ).addAttribute( "style", "background-color: " + bgColor + ";" );
+      tr.addChild( TD ).addContent( String.valueOf( aIndex ) );
+      tr.addChild( TD ).addContent( Unit.Time.format( this.dataSet.getTime( ds.getStartSampleIndex() ) ) );
+      tr.addChild( TD ).addContent( rxEventData );
+      tr.addChild( TD );
+      tr.addChild( TD );
+      tr.addChild( TD );
+      tr.addChild( TD ).addContent( txEventData );
+      tr.addChild( TD );
+      tr.addChild( TD );
+      tr.addChild( TD );
+    }
+    else
+    {
+      String rxDataHex = "", rxDataBin = "", rxDataDec = "", rxDataASCII = "";
+      String txDataHex = "", txDataBin = "", txDataDec = "", txDataASCII = "";
+
+      if ( UARTData.UART_TYPE_RXDATA == ds.getType() )
+      {
+        final int rxData = ds.getData();
+
+        rxDataHex = "0x" + StringUtils.integerToHexString( rxData, ( aBitCount / 4 ) + bitAdder );
+        rxDataBin = "0b" + StringUtils.integerToBinString( rxData, aBitCount );
+        rxDataDec = String.valueOf( rxData );
+        if ( isPrintableCharacter( rxData ) )
+        {
+          rxDataASCII = String.valueOf( ( char )rxData );
+        }
+      }
+      else
+      {
+        final int txData = ds.getData();
+
+        txDataHex = "0x" + StringUtils.integerToHexString( txData, ( aBitCount / 4 ) + bitAdder );
+        txDataBin = "0b" + StringUtils.integerToBinString( txData, aBitCount );
+        txDataDec = String.valueOf( txData );
+        if ( isPrintableCharacter( txData ) )
+        {
+          txDataASCII = String.valueOf( ( char )txData );
+        }
+      }
+
+      tr = new TagElement( "tr" );
+      tr.addChild( TD ).addContent( String.valueOf( aIndex ) );
+      tr.addChild( TD ).addContent( Unit.Time.format( this.dataSet.getTime( ds.getStartSampleIndex() ) ) );
+      tr.addChild( TD ).addContent( rxDataHex );
+      tr.addChild( TD ).addContent( rxDataBin );
+      tr.addChild( TD ).addContent( rxDataDec );
+      tr.addChild( TD ).addContent( rxDataASCII );
+      tr.addChild( TD ).addContent( txDataHex );
+      tr.addChild( TD ).addContent( txDataBin );
+      tr.addChild( TD ).addContent( txDataDec );
+      tr.addChild( TD ).addContent( txDataASCII );
+    }
+
+    return tr;
+  }
+
+  /**
+   * Returns whether the given value was shown as an ASCII-character.
+   */
+  private static boolean isPrintableCharacter( final int aValue )
+  {
+    return ( aValue >= 32 ) && ( aValue < 255 );
+  }
+}
@@ -211,6 +211,19 @@ public final class ExportUtils
        *         <code>null</code>.
        */
       String toString( final MacroResolver aResolver );
+
+      /**
+       * Writes the string representation of this HTML-element to the given
+       * writer.
+       * 
+       * @param aWriter
+       *          the writer to write to, cannot be <code>null</code>;
+       * @param aResolver
+       *          the macro resolver to use for any found macros.
+       * @throws IOException
+       *           in case of I/O problems.
+       */
+      void write( final Writer aWriter, final MacroResolver aResolver ) throws IOException;
     }
 
     /**
@@ -223,6 +236,11 @@ public final class ExportUtils
       /**
        * Resolves the result for a given macro string, found in the given
        * "parent" element.
+       * <p>
+       * In case the result is an {@link Iterable}, all of its items are written
+       * one by one. This allows large results, such as table rows, to be
+       * created lazily while they are written.
+       * </p>
        * 
        * @param aMacro
        *          the macro string to resolve, cannot be <code>null</code>;
@@ -49,7 +49,7 @@ public class HtmlFileExporterImpl extends HtmlExporterImpl implements HtmlFileEx
    */
   public HtmlFileExporterImpl( final File aFile ) throws IOException
   {
-    this( new OutputStreamWriter( new FileOutputStream( aFile ), "UTF8" ) );
+    this( new BufferedWriter( new OutputStreamWriter( new FileOutputStream( aFile ), "UTF8" ) ) );
   }
 
   /**
@@ -88,11 +88,14 @@ public class HtmlFileExporterImpl extends HtmlExporterImpl implements HtmlFileEx
   }
 
   /**
+   * Writes the HTML export directly to file, without creating it in memory
+   * first.
+   * 
    * @see nl.lxtreme.ols.util.ExportUtils.HtmlFileExporter#write(nl.lxtreme.ols.util.ExportUtils.HtmlExporter.MacroResolver)
    */
   @Override
   public void write( final MacroResolver aResolver ) throws IOException
   {
-    this.writer.write( toString( aResolver ) );
+    writeTo( this.writer, aResolver );
   }
 }
@@ -21,6 +21,7 @@
 package nl.lxtreme.ols.util.export;
 
 
+import java.io.*;
 import java.util.*;
 
 import nl.lxtreme.ols.util.ExportUtils.HtmlExporter.Attribute;
@@ -224,21 +225,37 @@ public final class TagElement implements Element
   @Override
   public String toString( final MacroResolver aResolver )
   {
-    final StringBuilder sb = new StringBuilder();
-    sb.append( '<' ).append( this.name );
+    final StringWriter writer = new StringWriter();
+    try
+    {
+      write( writer, aResolver );
+    }
+    catch ( IOException exception )
+    {
+      // Should not happen for in-memory writers...
+      throw new RuntimeException( exception );
+    }
+    return writer.toString();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void write( final Writer aWriter, final MacroResolver aResolver ) throws IOException
+  {
+    aWriter.write( '<' );
+    aWriter.write( this.name );
 
-    if ( !this.attributes.isEmpty() )
+    for ( int i = 0; i < this.attributes.size(); i++ )
     {
-      for ( int i = 0; i < this.attributes.size(); i++ )
-      {
-        final Attribute attribute = this.attributes.get( i );
+      final Attribute attribute = this.attributes.get( i );
 
-        sb.append( ' ' );
-        sb.append( attribute.toString( aResolver ) );
-      }
+      aWriter.write( ' ' );
+      aWriter.write( attribute.toString( aResolver ) );
     }
 
-    sb.append( '>' );
+    aWriter.write( '>' );
 
     if ( this.needsCloseTag )
     {
@@ -246,11 +263,11 @@ public final class TagElement implements Element
       {
         final Element child = this.children.get( i );
 
-        sb.append( child.toString( aResolver ) );
+        child.write( aWriter, aResolver );
       }
-      sb.append( "</" ).append( this.name ).append( '>' );
+      aWriter.write( "</" );
+      aWriter.write( this.name );
+      aWriter.write( '>' );
     }
-
-    return sb.toString();
   }
 }
@@ -21,6 +21,7 @@
 package nl.lxtreme.ols.util.export;
 
 
+import java.io.*;
 import java.util.*;
 import java.util.regex.*;
 
@@ -171,20 +172,61 @@ public final class TextElement implements Element
    */
   @Override
   public String toString( final MacroResolver aResolver )
+  {
+    final StringWriter writer = new StringWriter();
+    try
+    {
+      write( writer, aResolver );
+    }
+    catch ( IOException exception )
+    {
+      // Should not happen for in-memory writers...
+      throw new RuntimeException( exception );
+    }
+    return writer.toString();
+  }
+
+  /**
+   * @see nl.lxtreme.ols.util.ExportUtils.HtmlExporter.Element#write(java.io.Writer,
+   *      nl.lxtreme.ols.util.ExportUtils.HtmlExporter.MacroResolver)
+   */
+  @Override
+  public void write( final Writer aWriter, final MacroResolver aResolver ) throws IOException
   {
     final Matcher matcher = MACRO_PATTERN.matcher( this.value );
-    if ( matcher.matches() )
+    if ( !matcher.matches() )
     {
-      Object result = aResolver.resolve( matcher.group( 1 ), this.parent );
-      if ( result != null )
-      {
-        return String.valueOf( result );
-      }
-      else
+      aWriter.write( this.value );
+      return;
+    }
+
+    final Object result = aResolver.resolve( matcher.group( 1 ), this.parent );
+    if ( result instanceof Iterable<?> )
+    {
+      for ( Object item : ( Iterable<?> )result )
       {
-        return "";
+        writeResult( aWriter, aResolver, item );
       }
     }
-    return this.value;
+    else
+    {
+      writeResult( aWriter, aResolver, result );
+    }
+  }
+
+  /**
+   * Writes a single (resolved) macro result to the given writer.
+   */
+  private void writeResult( final Writer aWriter, final MacroResolver aResolver, final Object aResult )
+      throws IOException
+  {
+    if ( aResult instanceof Element )
+    {
+      ( ( Element )aResult ).write( aWriter, aResolver );
+    }
+    else if ( aResult != null )
+    {
+      aWriter.write( String.valueOf( aResult ) );
+    }
   }
 }
@@ -22,6 +22,9 @@ package nl.lxtreme.ols.util;
 
 
 import static org.junit.Assert.*;
+
+import java.util.*;
+
 import nl.lxtreme.ols.util.ExportUtils.*;
 import nl.lxtreme.ols.util.ExportUtils.HtmlExporter.*;
 import nl.lxtreme.ols.util.export.*;
@@ -176,6 +179,36 @@ public class ExportUtilsTest
         .toString( new UppercaseMacroResolver() ) );
   }
 
+  /**
+   * Tests that macros resolving to multiple elements are written one by one.
+   */
+  @Test
+  public void testResolveIterableMacros()
+  {
+    Element cur = this.exporter.getBody();
+    cur.addChild( HtmlExporter.TABLE ).addContent( "{rows}" );
+
+    final MacroResolver resolver = new MacroResolver()
+    {
+      @Override
+      public Object resolve( final String aMacro, final Element aParent )
+      {
+        final List<Object> result = new ArrayList<Object>();
+        for ( int i = 0; i < 3; i++ )
+        {
+          final Element tr = new TagElement( "tr" );
+          tr.addChild( HtmlExporter.TD ).addContent( String.valueOf( i ) );
+          result.add( tr );
+        }
+        result.add( "end" );
+        return result;
+      }
+    };
+
+    assertEquals( "<html><head><title></title></head><body><table><tr><td>0</td></tr><tr><td>1</td></tr>"
+        + "<tr><td>2</td></tr>end</table></body></html>", this.exporter.toString( resolver ) );
+  }
+
   /**
    * 
    */